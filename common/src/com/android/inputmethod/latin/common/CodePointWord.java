@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.common;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable word held as code points, which is the representation the native dictionary
+ * code works with. The code points are converted once and the hash is computed once, so a word
+ * can be passed to the dictionaries for every keystroke without converting it again.
+ *
+ * The array returned by {@link #getCodePoints()} is shared and must not be modified.
+ */
+public final class CodePointWord {
+    @Nonnull
+    public static final CodePointWord EMPTY = new CodePointWord(new int[0], "");
+
+    // The words around the cursor are looked up again and again while typing, so recently used
+    // words are kept and handed out again by intern().
+    private static final int MAX_INTERNED_WORD_COUNT = 64;
+    private static final LinkedHashMap<String, CodePointWord> sInternedWords =
+            new LinkedHashMap<String, CodePointWord>(MAX_INTERNED_WORD_COUNT, 0.75f,
+                    true /* accessOrder */) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, CodePointWord> eldest) {
+                    return size() > MAX_INTERNED_WORD_COUNT;
+                }
+            };
+
+    @Nonnull
+    private final int[] mCodePoints;
+    private final int mHashCode;
+    // Built lazily, as many words are never needed as a String.
+    @Nullable
+    private String mString;
+
+    private CodePointWord(@Nonnull final int[] codePoints, @Nullable final String string) {
+        mCodePoints = codePoints;
+        mHashCode = Arrays.hashCode(codePoints);
+        mString = string;
+    }
+
+    /**
+     * Creates a word from a char sequence. The char sequence is not retained.
+     */
+    @Nonnull
+    public static CodePointWord fromCharSequence(@Nonnull final CharSequence charSequence) {
+        if (charSequence.length() == 0) {
+            return EMPTY;
+        }
+        return new CodePointWord(StringUtils.toCodePointArray(charSequence),
+                (charSequence instanceof String) ? (String)charSequence : null);
+    }
+
+    /**
+     * Creates a word from code points. The given range is copied.
+     */
+    @Nonnull
+    public static CodePointWord fromCodePoints(@Nonnull final int[] codePoints,
+            final int start, final int end) {
+        if (start >= end) {
+            return EMPTY;
+        }
+        return new CodePointWord(Arrays.copyOfRange(codePoints, start, end), null);
+    }
+
+    /**
+     * Returns a word equal to the given char sequence, reusing a recently interned instance when
+     * there is one.
+     */
+    @Nonnull
+    public static CodePointWord intern(@Nonnull final CharSequence charSequence) {
+        if (charSequence.length() == 0) {
+            return EMPTY;
+        }
+        final String string = charSequence.toString();
+        synchronized (sInternedWords) {
+            final CodePointWord internedWord = sInternedWords.get(string);
+            if (internedWord != null) {
+                return internedWord;
+            }
+            final CodePointWord word =
+                    new CodePointWord(StringUtils.toCodePointArray(string), string);
+            sInternedWords.put(string, word);
+            return word;
+        }
+    }
+
+    /**
+     * Returns the code points of this word. The array is shared and must not be modified.
+     */
+    @Nonnull
+    public int[] getCodePoints() {
+        return mCodePoints;
+    }
+
+    public int length() {
+        return mCodePoints.length;
+    }
+
+    public boolean isEmpty() {
+        return mCodePoints.length == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CodePointWord)) return false;
+        final CodePointWord word = (CodePointWord)o;
+        return mHashCode == word.mHashCode && Arrays.equals(mCodePoints, word.mCodePoints);
+    }
+
+    @Override
+    public String toString() {
+        // Racy but benign: at worst two equal strings are built.
+        String string = mString;
+        if (string == null) {
+            string = new String(mCodePoints, 0, mCodePoints.length);
+            mString = string;
+        }
+        return string;
+    }
+}
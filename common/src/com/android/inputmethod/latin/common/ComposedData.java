@@ -17,9 +17,13 @@
 package com.android.inputmethod.latin.common;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * An immutable class that encapsulates a snapshot of word composition data.
+ *
+ * The input pointers are usually a snapshot taken by {@link InputPointers#getSnapshot()}, which
+ * shares its arrays with the pointers of the composer instead of copying them.
  */
 public class ComposedData {
     @Nonnull
@@ -27,6 +31,10 @@ public class ComposedData {
     public final boolean mIsBatchMode;
     @Nonnull
     public final String mTypedWord;
+    // The lower-cased code points of the typed word without trailing single quotes. Built on
+    // first use; suggestion threads may race to build it, which is harmless.
+    @Nullable
+    private volatile int[] mInputCodePoints;
 
     public ComposedData(@Nonnull final InputPointers inputPointers, final boolean isBatchMode,
             @Nonnull final String typedWord) {
@@ -46,21 +54,35 @@ public class ComposedData {
      */
     public int copyCodePointsExceptTrailingSingleQuotesAndReturnCodePointCount(
             @Nonnull final int[] destination) {
+        final int[] inputCodePoints = getInputCodePoints();
+        if (inputCodePoints.length > destination.length) {
+            return -1;
+        }
+        System.arraycopy(inputCodePoints, 0, destination, 0, inputCodePoints.length);
+        return inputCodePoints.length;
+    }
+
+    // Every dictionary asks for the code points, so they are converted once per snapshot.
+    @Nonnull
+    private int[] getInputCodePoints() {
+        int[] inputCodePoints = mInputCodePoints;
+        if (inputCodePoints != null) {
+            return inputCodePoints;
+        }
         // lastIndex is exclusive
         final int lastIndex = mTypedWord.length()
                 - StringUtils.getTrailingSingleQuotesCount(mTypedWord);
         if (lastIndex <= 0) {
             // The string is empty or contains only single quotes.
-            return 0;
-        }
-
-        // The following function counts the number of code points in the text range which begins
-        // at index 0 and extends to the character at lastIndex.
-        final int codePointSize = Character.codePointCount(mTypedWord, 0, lastIndex);
-        if (codePointSize > destination.length) {
-            return -1;
+            inputCodePoints = new int[0];
+        } else {
+            // The following function counts the number of code points in the text range which
+            // begins at index 0 and extends to the character at lastIndex.
+            inputCodePoints = new int[Character.codePointCount(mTypedWord, 0, lastIndex)];
+            StringUtils.copyCodePointsAndReturnCodePointCount(inputCodePoints, mTypedWord, 0,
+                    lastIndex, true /* downCase */);
         }
-        return StringUtils.copyCodePointsAndReturnCodePointCount(destination, mTypedWord, 0,
-                lastIndex, true /* downCase */);
+        mInputCodePoints = inputCodePoints;
+        return inputCodePoints;
     }
 }
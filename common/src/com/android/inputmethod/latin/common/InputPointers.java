@@ -38,6 +38,14 @@ public final class InputPointers {
         mTimes = new ResizableIntArray(defaultCapacity);
     }
 
+    private InputPointers(@Nonnull final InputPointers ip) {
+        mDefaultCapacity = ip.mDefaultCapacity;
+        mXCoordinates = ip.mXCoordinates.getSnapshot();
+        mYCoordinates = ip.mYCoordinates.getSnapshot();
+        mPointerIds = ip.mPointerIds.getSnapshot();
+        mTimes = ip.mTimes.getSnapshot();
+    }
+
     private void fillWithLastTimeUntil(final int index) {
         final int fromIndex = mTimes.getLength();
         // Fill the gap with the latest time.
@@ -72,6 +80,11 @@ public final class InputPointers {
         mTimes.add(time);
     }
 
+    /**
+     * Makes this share the arrays of the specified {@link InputPointers}. See
+     * {@link ResizableIntArray#set(ResizableIntArray)}.
+     * @param ip the source {@link InputPointers}.
+     */
     public void set(@Nonnull final InputPointers ip) {
         mXCoordinates.set(ip.mXCoordinates);
         mYCoordinates.set(ip.mYCoordinates);
@@ -79,6 +92,16 @@ public final class InputPointers {
         mTimes.set(ip.mTimes);
     }
 
+    /**
+     * Returns the current pointers as an {@link InputPointers} that later changes to this do not
+     * affect, without copying them. See {@link ResizableIntArray#getSnapshot()}.
+     * @return the snapshot of this.
+     */
+    @Nonnull
+    public InputPointers getSnapshot() {
+        return new InputPointers(this);
+    }
+
     public void copy(@Nonnull final InputPointers ip) {
         mXCoordinates.copy(ip.mXCoordinates);
         mYCoordinates.copy(ip.mYCoordinates);
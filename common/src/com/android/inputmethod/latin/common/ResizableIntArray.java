@@ -22,16 +22,30 @@ import java.util.Arrays;
 
 import javax.annotation.Nonnull;
 
-// TODO: This class is not thread-safe.
+// This class is not thread-safe. Sharing the array with set() or getSnapshot() writes to both
+// instances, so when they are used on different threads, every write, set() and getSnapshot()
+// must hold the same lock.
 public final class ResizableIntArray {
     @Nonnull
     private int[] mArray;
     private int mLength;
+    // The number of elements at the start of mArray that another instance may read, because the
+    // array was handed to it by set() or getSnapshot(). They are copied before being written.
+    // Only the instance the array was taken from may write past them in place: the instances it
+    // was handed to have the whole array shared, and copy it before any write.
+    private int mSharedLength;
+    private static final int WHOLE_ARRAY_SHARED = Integer.MAX_VALUE;
 
     public ResizableIntArray(final int capacity) {
         reset(capacity);
     }
 
+    private ResizableIntArray(@Nonnull final int[] array, final int length) {
+        mArray = array;
+        mLength = length;
+        mSharedLength = WHOLE_ARRAY_SHARED;
+    }
+
     public int get(final int index) {
         if (index < mLength) {
             return mArray[index];
@@ -41,6 +55,7 @@ public final class ResizableIntArray {
 
     public void addAt(final int index, final int val) {
         if (index < mLength) {
+            prepareToWrite(index);
             mArray[index] = val;
         } else {
             mLength = index;
@@ -51,6 +66,7 @@ public final class ResizableIntArray {
     public void add(final int val) {
         final int currentLength = mLength;
         ensureCapacity(currentLength + 1);
+        prepareToWrite(currentLength);
         mArray[currentLength] = val;
         mLength = currentLength + 1;
     }
@@ -76,6 +92,15 @@ public final class ResizableIntArray {
         if (newCapacity > 0) {
             // TODO: Implement primitive array pool.
             mArray = Arrays.copyOf(mArray, newCapacity);
+            mSharedLength = 0;
+        }
+    }
+
+    // Copies the shared elements before one of them at or after the index is written.
+    private void prepareToWrite(final int index) {
+        if (index < mSharedLength) {
+            mArray = Arrays.copyOf(mArray, mArray.length);
+            mSharedLength = 0;
         }
     }
 
@@ -85,6 +110,10 @@ public final class ResizableIntArray {
 
     public void setLength(final int newLength) {
         ensureCapacity(newLength);
+        if (newLength > mLength) {
+            // The elements made readable may be written by another instance sharing the array.
+            prepareToWrite(mLength);
+        }
         mLength = newLength;
     }
 
@@ -92,17 +121,45 @@ public final class ResizableIntArray {
         // TODO: Implement primitive array pool.
         mArray = new int[capacity];
         mLength = 0;
+        mSharedLength = 0;
     }
 
+    // The array must not be written to while it is shared, see set() and getSnapshot().
     @Nonnull
     public int[] getPrimitiveArray() {
         return mArray;
     }
 
+    /**
+     * Makes this refer to the array of the specified {@link ResizableIntArray}. The array is
+     * shared until this writes to it, or the source writes to the part of it that this can read.
+     * @param ip the source {@link ResizableIntArray}.
+     */
     public void set(@Nonnull final ResizableIntArray ip) {
         // TODO: Implement primitive array pool.
         mArray = ip.mArray;
         mLength = ip.mLength;
+        mSharedLength = WHOLE_ARRAY_SHARED;
+        ip.markShared();
+    }
+
+    /**
+     * Returns a {@link ResizableIntArray} that holds the current elements of this and is not
+     * affected by later changes to this. The array is not copied: it is shared until the snapshot
+     * writes to it, or this writes to the part of it that the snapshot can read, so taking a
+     * snapshot and appending to this afterwards copies nothing.
+     * @return the snapshot of this.
+     */
+    @Nonnull
+    public ResizableIntArray getSnapshot() {
+        markShared();
+        return new ResizableIntArray(mArray, mLength);
+    }
+
+    private void markShared() {
+        if (mSharedLength < mLength) {
+            mSharedLength = mLength;
+        }
     }
 
     public void copy(@Nonnull final ResizableIntArray ip) {
@@ -110,6 +167,10 @@ public final class ResizableIntArray {
         if (newCapacity > 0) {
             // TODO: Implement primitive array pool.
             mArray = new int[newCapacity];
+            mSharedLength = 0;
+        } else if (mSharedLength > 0) {
+            mArray = new int[mArray.length];
+            mSharedLength = 0;
         }
         System.arraycopy(ip.mArray, 0, mArray, 0, ip.mLength);
         mLength = ip.mLength;
@@ -122,6 +183,7 @@ public final class ResizableIntArray {
         final int currentLength = mLength;
         final int newLength = currentLength + length;
         ensureCapacity(newLength);
+        prepareToWrite(currentLength);
         System.arraycopy(src.mArray, startPos, mArray, currentLength, length);
         mLength = newLength;
     }
@@ -132,6 +194,7 @@ public final class ResizableIntArray {
         }
         final int endPos = startPos + length;
         ensureCapacity(endPos);
+        prepareToWrite(startPos);
         Arrays.fill(mArray, startPos, endPos, value);
         if (mLength < endPos) {
             mLength = endPos;
@@ -144,6 +207,7 @@ public final class ResizableIntArray {
      */
     @UsedForTesting
     public void shift(final int elementCount) {
+        prepareToWrite(0);
         System.arraycopy(mArray, elementCount, mArray, 0, mLength - elementCount);
         mLength -= elementCount;
     }
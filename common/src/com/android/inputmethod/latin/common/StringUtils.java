@@ -20,6 +20,7 @@ import com.android.inputmethod.annotations.UsedForTesting;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Locale;
 
 import javax.annotation.Nonnull;
@@ -180,21 +181,18 @@ public final class StringUtils {
         if (suggestions.size() < 2) {
             return;
         }
-        int i = 1;
-        // Don't cache suggestions.size(), since we may be removing items
-        while (i < suggestions.size()) {
+        // Kept strings are moved down over the removed ones in a single pass.
+        final HashSet<String> seenStrings = new HashSet<>();
+        final int size = suggestions.size();
+        int keptCount = 0;
+        for (int i = 0; i < size; i++) {
             final String cur = suggestions.get(i);
-            // Compare each suggestion with each previous suggestion
-            for (int j = 0; j < i; j++) {
-                final String previous = suggestions.get(j);
-                if (equals(cur, previous)) {
-                    suggestions.remove(i);
-                    i--;
-                    break;
-                }
+            if (seenStrings.add(cur)) {
+                suggestions.set(keptCount, cur);
+                keptCount++;
             }
-            i++;
         }
+        suggestions.subList(keptCount, size).clear();
     }
 
     @Nonnull
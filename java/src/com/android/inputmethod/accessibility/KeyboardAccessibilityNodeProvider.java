@@ -31,6 +31,7 @@ import android.view.inputmethod.EditorInfo;
 import com.android.inputmethod.keyboard.Key;
 import com.android.inputmethod.keyboard.Keyboard;
 import com.android.inputmethod.keyboard.KeyboardView;
+import com.android.inputmethod.keyboard.internal.KeyLookupTable;
 import com.android.inputmethod.latin.common.CoordinateUtils;
 import com.android.inputmethod.latin.settings.Settings;
 import com.android.inputmethod.latin.settings.SettingsValues;
@@ -115,15 +116,9 @@ final class KeyboardAccessibilityNodeProvider<KV extends KeyboardView>
         if (mKeyboard == null) {
             return View.NO_ID;
         }
-        final List<Key> sortedKeys = mKeyboard.getSortedKeys();
-        final int size = sortedKeys.size();
-        for (int index = 0; index < size; index++) {
-            if (sortedKeys.get(index) == key) {
-                // Use an index of the sorted keys list as a virtual view id.
-                return index;
-            }
-        }
-        return View.NO_ID;
+        // Use an index of the sorted keys list as a virtual view id.
+        final int index = mKeyboard.getKeyIndex(key);
+        return (index == KeyLookupTable.NOT_A_KEY_INDEX) ? View.NO_ID : index;
     }
 
     /**
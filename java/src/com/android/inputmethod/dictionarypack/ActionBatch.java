@@ -31,6 +31,7 @@ import com.android.inputmethod.latin.common.LocaleUtils;
 import com.android.inputmethod.latin.utils.ApplicationUtils;
 import com.android.inputmethod.latin.utils.DebugLogUtils;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -86,6 +87,22 @@ public final class ActionBatch {
          * @param context the context to get system services, resources, databases
          */
         void execute(final Context context);
+
+        /**
+         * Returns the id of the client whose database this action works on.
+         */
+        String getClientId();
+    }
+
+    /**
+     * An action that only reads and writes the metadata database of its client.
+     *
+     * Consecutive actions of this kind share a transaction when the batch executes. Actions that
+     * do anything else, like starting or cancelling a download or installing a file, must not
+     * implement this: the batch commits the writes of the actions before them first, and runs
+     * them on their own.
+     */
+    public interface DatabaseOnlyAction extends Action {
     }
 
     /**
@@ -103,6 +120,11 @@ public final class ActionBatch {
             mWordList = wordList;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) { // This should never happen
@@ -172,6 +194,11 @@ public final class ActionBatch {
             mWordListValues = wordListValues;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordListValues) {
@@ -202,7 +229,7 @@ public final class ActionBatch {
     /**
      * An action that enables an existing word list.
      */
-    public static final class EnableAction implements Action {
+    public static final class EnableAction implements DatabaseOnlyAction {
         static final String TAG = "DictionaryProvider:" + EnableAction.class.getSimpleName();
         private final String mClientId;
         // The state to upgrade from. May not be null.
@@ -214,6 +241,11 @@ public final class ActionBatch {
             mWordList = wordList;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) {
@@ -249,6 +281,11 @@ public final class ActionBatch {
             mWordList = wordlist;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) { // This should never happen
@@ -280,7 +317,7 @@ public final class ActionBatch {
     /**
      * An action that makes a word list available.
      */
-    public static final class MakeAvailableAction implements Action {
+    public static final class MakeAvailableAction implements DatabaseOnlyAction {
         static final String TAG = "DictionaryProvider:" + MakeAvailableAction.class.getSimpleName();
         private final String mClientId;
         // The word list to make available. May not be null.
@@ -291,6 +328,11 @@ public final class ActionBatch {
             mWordList = wordlist;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) { // This should never happen
@@ -329,7 +371,7 @@ public final class ActionBatch {
      * It also explicitly sets the filename to the empty string, so that we don't try to open
      * it on our side.
      */
-    public static final class MarkPreInstalledAction implements Action {
+    public static final class MarkPreInstalledAction implements DatabaseOnlyAction {
         static final String TAG = "DictionaryProvider:"
                 + MarkPreInstalledAction.class.getSimpleName();
         private final String mClientId;
@@ -341,6 +383,11 @@ public final class ActionBatch {
             mWordList = wordlist;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) { // This should never happen
@@ -373,7 +420,7 @@ public final class ActionBatch {
     /**
      * An action that updates information about a word list - description, locale etc
      */
-    public static final class UpdateDataAction implements Action {
+    public static final class UpdateDataAction implements DatabaseOnlyAction {
         static final String TAG = "DictionaryProvider:" + UpdateDataAction.class.getSimpleName();
         private final String mClientId;
         final WordListMetadata mWordList;
@@ -383,6 +430,11 @@ public final class ActionBatch {
             mWordList = wordlist;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) { // This should never happen
@@ -423,7 +475,7 @@ public final class ActionBatch {
      * If the word list has not been installed, it's possible to delete its associated metadata.
      * Otherwise, the settings are retained so that the user can still administrate it.
      */
-    public static final class ForgetAction implements Action {
+    public static final class ForgetAction implements DatabaseOnlyAction {
         static final String TAG = "DictionaryProvider:" + ForgetAction.class.getSimpleName();
         private final String mClientId;
         // The word list to remove. May not be null.
@@ -437,6 +489,11 @@ public final class ActionBatch {
             mHasNewerVersion = hasNewerVersion;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) { // This should never happen
@@ -497,7 +554,7 @@ public final class ActionBatch {
      * dictionary. This way, there is no need for the user to make a distinction between
      * dictionaries installed by default and add-on dictionaries.
      */
-    public static final class StartDeleteAction implements Action {
+    public static final class StartDeleteAction implements DatabaseOnlyAction {
         static final String TAG = "DictionaryProvider:" + StartDeleteAction.class.getSimpleName();
         private final String mClientId;
         // The word list to delete. May not be null.
@@ -508,6 +565,11 @@ public final class ActionBatch {
             mWordList = wordlist;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) { // This should never happen
@@ -536,7 +598,7 @@ public final class ActionBatch {
      * This will restore the word list as available if it still is, or remove the entry if
      * it is not any more.
      */
-    public static final class FinishDeleteAction implements Action {
+    public static final class FinishDeleteAction implements DatabaseOnlyAction {
         static final String TAG = "DictionaryProvider:" + FinishDeleteAction.class.getSimpleName();
         private final String mClientId;
         // The word list to delete. May not be null.
@@ -547,6 +609,11 @@ public final class ActionBatch {
             mWordList = wordlist;
         }
 
+        @Override
+        public String getClientId() {
+            return mClientId;
+        }
+
         @Override
         public void execute(final Context context) {
             if (null == mWordList) { // This should never happen
@@ -606,20 +673,74 @@ public final class ActionBatch {
     /**
      * Execute this batch.
      *
+     * Consecutive {@link DatabaseOnlyAction}s run in a single transaction on the database of each
+     * client they work on, so that a metadata update touching many word lists commits, and syncs
+     * to the disk, only once. Any other action runs outside of a transaction of the batch, after
+     * the writes of the actions before it are committed: its side effects are never followed by
+     * a rollback of these writes, and a transaction of its own is not nested in one of the batch.
+     * An action that fails is reported and does not roll back the other actions, as when each
+     * write was committed on its own.
+     *
      * @param context the context for getting resources, databases, system services.
      * @param reporter a Reporter to send errors to.
      */
     public void execute(final Context context, final ProblemReporter reporter) {
         DebugLogUtils.l("Executing a batch of actions");
-        Queue<Action> remainingActions = mActions;
-        while (!remainingActions.isEmpty()) {
-            final Action a = remainingActions.poll();
+        // Starting a download takes the shared id lock and then writes to the database, as does
+        // handling a finished download. Take the lock before the transactions so that the order
+        // is the same.
+        synchronized (UpdateHandler.sSharedIdProtector) {
+            final ArrayList<SQLiteDatabase> transactionDbs = new ArrayList<>();
+            try {
+                Queue<Action> remainingActions = mActions;
+                while (!remainingActions.isEmpty()) {
+                    final Action a = remainingActions.poll();
+                    final boolean isDatabaseOnly = a instanceof DatabaseOnlyAction;
+                    if (isDatabaseOnly) {
+                        final SQLiteDatabase db = MetadataDbHelper.getDb(context, a.getClientId());
+                        if (!transactionDbs.contains(db)) {
+                            db.beginTransactionNonExclusive();
+                            transactionDbs.add(db);
+                        }
+                    } else {
+                        commitTransactions(transactionDbs, reporter);
+                    }
+                    try {
+                        a.execute(context);
+                    } catch (Exception e) {
+                        if (null != reporter)
+                            reporter.report(e);
+                        if (isDatabaseOnly) {
+                            // SQLite may have rolled back the transaction on some errors. Commit
+                            // what is left now, so that the following actions don't run in it.
+                            commitTransactions(transactionDbs, reporter);
+                        }
+                    }
+                }
+            } finally {
+                commitTransactions(transactionDbs, reporter);
+            }
+        }
+    }
+
+    /**
+     * Commit the transactions started by the batch, in the reverse order they were started in.
+     * @param transactionDbs the databases the batch started a transaction on. This is emptied.
+     * @param reporter a Reporter to send errors to.
+     */
+    private static void commitTransactions(final ArrayList<SQLiteDatabase> transactionDbs,
+            final ProblemReporter reporter) {
+        for (int i = transactionDbs.size() - 1; i >= 0; --i) {
+            final SQLiteDatabase db = transactionDbs.get(i);
             try {
-                a.execute(context);
+                db.setTransactionSuccessful();
+                db.endTransaction();
             } catch (Exception e) {
+                // endTransaction() has ended the transaction even when the commit failed.
                 if (null != reporter)
                     reporter.report(e);
             }
         }
+        transactionDbs.clear();
     }
 }
@@ -113,6 +113,13 @@ public final class DictionaryService extends Service {
     private ThreadPoolExecutor mExecutor;
     private static final int WORKER_THREAD_TIMEOUT_SECONDS = 15;
 
+    // The number of commands that are not finished yet, and the start id of the last one. A
+    // finished download is handled by the download pipeline of UpdateHandler after its command
+    // returned, so the commands may finish out of order. The service stops itself when all of
+    // them are finished.
+    private int mRunningCommandCount;
+    private int mLastStartId;
+
     @Override
     public void onCreate() {
         // By default, a thread pool executor does not timeout its core threads, so it will
@@ -176,40 +183,67 @@ public final class DictionaryService extends Service {
             // if necessary, or reuse a thread that has become idle as appropriate.
             // DATE_CHANGED or UPDATE_NOW are examples of commands that can be done on another
             // thread.
+            ++mRunningCommandCount;
+            mLastStartId = startId;
             mExecutor.submit(new Runnable() {
                 @Override
                 public void run() {
-                    dispatchBroadcast(self, intent);
-                    // Since calls to onStartCommand are serialized, the submissions to the executor
-                    // are serialized. That means we are guaranteed to call the stopSelfResult()
-                    // in the same order that we got them, so we don't need to take care of the
-                    // order.
-                    stopSelfResult(startId);
+                    dispatchBroadcast(self, intent, new Runnable() {
+                        @Override
+                        public void run() {
+                            onCommandFinished();
+                        }
+                    });
                 }
             });
         }
         return Service.START_REDELIVER_INTENT;
     }
 
-    static void dispatchBroadcast(final Context context, final Intent intent) {
+    private synchronized void onCommandFinished() {
+        --mRunningCommandCount;
+        if (0 == mRunningCommandCount) {
+            // This does not stop the service if another command was started meanwhile.
+            stopSelfResult(mLastStartId);
+        }
+    }
+
+    /**
+     * Executes a command.
+     *
+     * @param context the context for this command.
+     * @param intent the intent of the command.
+     * @param onFinished called once the command is finished, which may be after this returns.
+     */
+    static void dispatchBroadcast(final Context context, final Intent intent,
+            @Nonnull final Runnable onFinished) {
         final String action = intent.getAction();
-        if (DATE_CHANGED_INTENT_ACTION.equals(action)) {
-            // This happens when the date of the device changes. This normally happens
-            // at midnight local time, but it may happen if the user changes the date
-            // by hand or something similar happens.
-            checkTimeAndMaybeSetupUpdateAlarm(context);
-        } else if (DictionaryPackConstants.UPDATE_NOW_INTENT_ACTION.equals(action)) {
-            // Intent to trigger an update now.
-            UpdateHandler.tryUpdate(context);
-        } else if (DictionaryPackConstants.INIT_AND_UPDATE_NOW_INTENT_ACTION.equals(action)) {
-            // Initialize the client Db.
-            final String mClientId = context.getString(R.string.dictionary_pack_client_id);
-            BinaryDictionaryFileDumper.initializeClientRecordHelper(context, mClientId);
+        // A finished download calls onFinished itself once it is handled.
+        boolean isDownloadFinished = false;
+        try {
+            if (DATE_CHANGED_INTENT_ACTION.equals(action)) {
+                // This happens when the date of the device changes. This normally happens
+                // at midnight local time, but it may happen if the user changes the date
+                // by hand or something similar happens.
+                checkTimeAndMaybeSetupUpdateAlarm(context);
+            } else if (DictionaryPackConstants.UPDATE_NOW_INTENT_ACTION.equals(action)) {
+                // Intent to trigger an update now.
+                UpdateHandler.tryUpdate(context);
+            } else if (DictionaryPackConstants.INIT_AND_UPDATE_NOW_INTENT_ACTION.equals(action)) {
+                // Initialize the client Db.
+                final String mClientId = context.getString(R.string.dictionary_pack_client_id);
+                BinaryDictionaryFileDumper.initializeClientRecordHelper(context, mClientId);
 
-            // Updates the metadata and the download the dictionaries.
-            UpdateHandler.tryUpdate(context);
-        } else {
-            UpdateHandler.downloadFinished(context, intent);
+                // Updates the metadata and the download the dictionaries.
+                UpdateHandler.tryUpdate(context);
+            } else {
+                isDownloadFinished = true;
+                UpdateHandler.downloadFinished(context, intent, onFinished);
+            }
+        } finally {
+            if (!isDownloadFinished) {
+                onFinished.run();
+            }
         }
     }
 
@@ -25,6 +25,8 @@ import android.database.sqlite.SQLiteException;
 import android.os.ParcelFileDescriptor;
 import android.util.Log;
 
+import com.android.inputmethod.annotations.UsedForTesting;
+
 import java.io.FileNotFoundException;
 
 import javax.annotation.Nullable;
@@ -47,7 +49,8 @@ public class DownloadManagerWrapper {
         this((DownloadManager) context.getSystemService(Context.DOWNLOAD_SERVICE));
     }
 
-    private DownloadManagerWrapper(final DownloadManager downloadManager) {
+    @UsedForTesting
+    /* package */ DownloadManagerWrapper(final DownloadManager downloadManager) {
         mDownloadManager = downloadManager;
     }
 
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.dictionarypack;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Runs the handling of finished downloads in two stages.
+ *
+ * The prepare stage reads the downloaded files, that is copies the word lists out of the
+ * DownloadManager and checks their checksums. It runs on a small pool of threads, so that the
+ * word lists of several languages enabled at once are not copied one after the other.
+ * The commit stage writes the results to the metadata database and installs the word lists. It
+ * runs on a single thread, in the order the jobs were submitted, each job after its own prepare
+ * stage.
+ */
+final class DownloadPipeline {
+    private static final String TAG = DownloadPipeline.class.getSimpleName();
+
+    // Copying and checking a word list is mostly I/O, and the DownloadManager only runs a few
+    // downloads at a time anyway.
+    static final int DEFAULT_MAX_PREPARE_THREADS = 3;
+    // As in DictionaryService, the threads time out so that the process can be reclaimed.
+    private static final int WORKER_THREAD_TIMEOUT_SECONDS = 15;
+
+    /**
+     * A finished download to handle.
+     */
+    interface Job {
+        /**
+         * Reads the downloaded files. This runs in parallel with the prepare stage of other jobs,
+         * so it must not write to the metadata database.
+         */
+        void prepare();
+
+        /**
+         * Writes the results to the metadata database. This runs after {@link #prepare()}, even
+         * if it threw, and after the commit stage of the jobs submitted before this one.
+         */
+        void commit();
+    }
+
+    private final ThreadPoolExecutor mPrepareExecutor;
+    private final ThreadPoolExecutor mCommitExecutor;
+
+    DownloadPipeline(final int maxPrepareThreads) {
+        mPrepareExecutor = newExecutor(maxPrepareThreads);
+        mCommitExecutor = newExecutor(1);
+    }
+
+    private static ThreadPoolExecutor newExecutor(final int threadCount) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount,
+                WORKER_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Submits a job.
+     *
+     * @param name the name of the job, for the timing logs.
+     * @param job the job.
+     * @param onFinished called on the commit thread once the job has been committed, or failed
+     *  to. May be null.
+     */
+    void submit(@Nonnull final String name, @Nonnull final Job job,
+            @Nullable final Runnable onFinished) {
+        final long submitTime = SystemClock.uptimeMillis();
+        final long[] prepareTimes = new long[2];
+        final Future<?> prepared = mPrepareExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                prepareTimes[0] = SystemClock.uptimeMillis();
+                try {
+                    job.prepare();
+                } finally {
+                    prepareTimes[1] = SystemClock.uptimeMillis();
+                }
+            }
+        });
+        mCommitExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    waitForPrepareStage(name, prepared);
+                    final long commitStartTime = SystemClock.uptimeMillis();
+                    job.commit();
+                    final long commitEndTime = SystemClock.uptimeMillis();
+                    // Reading prepareTimes is safe as Future#get() happens-after the task.
+                    final String timings = name + " : waited " + (prepareTimes[0] - submitTime)
+                            + "ms, prepared in " + (prepareTimes[1] - prepareTimes[0])
+                            + "ms, waited " + (commitStartTime - prepareTimes[1])
+                            + "ms for commit, committed in " + (commitEndTime - commitStartTime)
+                            + "ms";
+                    Log.i(TAG, timings);
+                    PrivateLog.log("Download pipeline " + timings);
+                } catch (RuntimeException e) {
+                    // As with the tasks submitted to the executor of DictionaryService, an
+                    // exception must not crash the process.
+                    Log.e(TAG, "Can't commit " + name, e);
+                } finally {
+                    if (null != onFinished) {
+                        onFinished.run();
+                    }
+                }
+            }
+        });
+    }
+
+    private static void waitForPrepareStage(final String name, final Future<?> prepared) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                prepared.get();
+                break;
+            } catch (InterruptedException e) {
+                // The commit thread is never interrupted on purpose. Do not leave the job
+                // uncommitted, as its download would then be lost.
+                interrupted = true;
+            } catch (ExecutionException e) {
+                Log.e(TAG, "Can't prepare " + name, e.getCause());
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
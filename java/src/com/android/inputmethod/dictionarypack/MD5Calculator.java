@@ -18,24 +18,27 @@ package com.android.inputmethod.dictionarypack;
 
 import java.io.InputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.security.MessageDigest;
 
+import javax.annotation.Nullable;
+
 public final class MD5Calculator {
+    // Word lists are a few megabytes, so copy them in larger chunks than when only reading.
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     private MD5Calculator() {} // This helper class is not instantiable
 
-    public static String checksum(final InputStream in) throws IOException {
-        // This code from the Android documentation for MessageDigest. Nearly verbatim.
-        MessageDigest digester;
+    @Nullable
+    private static MessageDigest newDigester() {
         try {
-            digester = MessageDigest.getInstance("MD5");
+            return MessageDigest.getInstance("MD5");
         } catch (java.security.NoSuchAlgorithmException e) {
             return null; // Platform does not support MD5 : can't check, so return null
         }
-        final byte[] bytes = new byte[8192];
-        int byteCount;
-        while ((byteCount = in.read(bytes)) > 0) {
-            digester.update(bytes, 0, byteCount);
-        }
+    }
+
+    private static String toHexString(final MessageDigest digester) {
         final byte[] digest = digester.digest();
         final StringBuilder s = new StringBuilder();
         for (int i = 0; i < digest.length; ++i) {
@@ -43,4 +46,43 @@ public final class MD5Calculator {
         }
         return s.toString();
     }
+
+    public static String checksum(final InputStream in) throws IOException {
+        // This code from the Android documentation for MessageDigest. Nearly verbatim.
+        final MessageDigest digester = newDigester();
+        if (null == digester) {
+            return null;
+        }
+        final byte[] bytes = new byte[8192];
+        int byteCount;
+        while ((byteCount = in.read(bytes)) > 0) {
+            digester.update(bytes, 0, byteCount);
+        }
+        return toHexString(digester);
+    }
+
+    /**
+     * Copies a stream and computes the checksum of the data in the same pass, so that the copy
+     * does not have to be read again.
+     *
+     * @param in the stream to copy from.
+     * @param out the stream to copy to.
+     * @return the checksum of the copied data, or null if the platform does not support MD5, in
+     *  which case the data is still copied.
+     * @throws IOException if a read or a write fails.
+     */
+    @Nullable
+    public static String copyAndChecksum(final InputStream in, final OutputStream out)
+            throws IOException {
+        final MessageDigest digester = newDigester();
+        final byte[] bytes = new byte[COPY_BUFFER_SIZE];
+        int byteCount;
+        while ((byteCount = in.read(bytes)) >= 0) {
+            out.write(bytes, 0, byteCount);
+            if (null != digester) {
+                digester.update(bytes, 0, byteCount);
+            }
+        }
+        return (null == digester) ? null : toHexString(digester);
+    }
 }
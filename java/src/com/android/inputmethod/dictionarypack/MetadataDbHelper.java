@@ -663,8 +663,8 @@ public class MetadataDbHelper extends SQLiteOpenHelper {
      * dispatch the update process across all relevant clients when the download ends. This means
      * several clients may share a single download ID if they share a metadata URI.
      * The dispatching is done in
-     * {@link UpdateHandler#downloadFinished(Context, android.content.Intent)}, which
-     * finds out about the list of relevant clients by calling this method.
+     * {@link UpdateHandler#downloadFinished(Context, DownloadManagerWrapper, long, Runnable)},
+     * which finds out about the list of relevant clients by calling this method.
      *
      * @param context a context instance to open the databases
      * @param downloadId the download ID to query about
@@ -992,14 +992,19 @@ public class MetadataDbHelper extends SQLiteOpenHelper {
                 }
                 r.put(STATUS_COLUMN, STATUS_INSTALLED);
                 db.beginTransactionNonExclusive();
-                // Delete all old entries. There should never be any stalled entries, but if
-                // there are, this deletes them.
-                db.delete(METADATA_TABLE_NAME,
-                        WORDLISTID_COLUMN + " = ?",
-                        new String[] { r.getAsString(WORDLISTID_COLUMN) });
-                db.insert(METADATA_TABLE_NAME, null, r);
-                db.setTransactionSuccessful();
-                db.endTransaction();
+                try {
+                    // Delete all old entries. There should never be any stalled entries, but if
+                    // there are, this deletes them.
+                    db.delete(METADATA_TABLE_NAME,
+                            WORDLISTID_COLUMN + " = ?",
+                            new String[] { r.getAsString(WORDLISTID_COLUMN) });
+                    db.insert(METADATA_TABLE_NAME, null, r);
+                    db.setTransactionSuccessful();
+                } finally {
+                    // An action batch runs the InstallAfterDownloadAction that calls this outside
+                    // of its transactions, so this commits before the old files are deleted.
+                    db.endTransaction();
+                }
                 for (String filename : filenames) {
                     try {
                         final File f = new File(filename);
@@ -1056,14 +1061,20 @@ public class MetadataDbHelper extends SQLiteOpenHelper {
      */
     private static void markEntryAs(final SQLiteDatabase db, final String id,
             final int version, final int status, final long downloadId) {
-        final ContentValues values = MetadataDbHelper.getContentValuesByWordListId(db, id, version);
+        // Only the changed columns are written, so the row does not have to be read again: the
+        // callers have just looked it up. The statement only depends on whether there is a
+        // download id, so the connection reuses its compiled form.
+        final ContentValues values = new ContentValues(2);
         values.put(STATUS_COLUMN, status);
         if (NOT_A_DOWNLOAD_ID != downloadId) {
             values.put(MetadataDbHelper.PENDINGID_COLUMN, downloadId);
         }
-        db.update(METADATA_TABLE_NAME, values,
+        if (0 == db.update(METADATA_TABLE_NAME, values,
                 WORDLISTID_COLUMN + " = ? AND " + VERSION_COLUMN + " = ?",
-                new String[] { id, Integer.toString(version) });
+                new String[] { id, Integer.toString(version) })) {
+            Log.e(TAG, "Trying to set the status of a non-existing word list " + id
+                    + " version " + version + " to " + status);
+        }
     }
 
     /**
@@ -36,6 +36,7 @@ import android.provider.Settings;
 import android.text.TextUtils;
 import android.util.Log;
 
+import com.android.inputmethod.annotations.UsedForTesting;
 import com.android.inputmethod.compat.ConnectivityManagerCompatUtils;
 import com.android.inputmethod.compat.NotificationCompatUtils;
 import com.android.inputmethod.latin.R;
@@ -45,14 +46,11 @@ import com.android.inputmethod.latin.utils.ApplicationUtils;
 import com.android.inputmethod.latin.utils.DebugLogUtils;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -82,9 +80,6 @@ public final class UpdateHandler {
     public static final int MAXIMUM_SUPPORTED_FORMAT_VERSION =
             FormatSpec.MAXIMUM_SUPPORTED_STATIC_VERSION;
 
-    // Arbitrary. Probably good if it's a power of 2, and a couple thousand bytes long.
-    private static final int FILE_COPY_BUFFER_SIZE = 8192;
-
     // Table fixed values for metadata / downloads
     final static String METADATA_NAME = "metadata";
     final static int METADATA_TYPE = 0;
@@ -410,52 +405,133 @@ public final class UpdateHandler {
      * After a simple check that this is actually the file we are waiting for, this
      * method basically coordinates the parsing and comparison of metadata, and fires
      * the computation of the list of actions that should be taken then executes them.
+     * The download is handled by the download pipeline, so this may return before it is
+     * completely handled.
      *
      * @param context The context for this action.
      * @param intent The intent from the DownloadManager containing details about the download.
+     * @param onFinished called once the download is completely handled. May be null.
      */
-    /* package */ static void downloadFinished(final Context context, final Intent intent) {
+    /* package */ static void downloadFinished(final Context context, final Intent intent,
+            @Nullable final Runnable onFinished) {
         // Get and check the ID of the file that was downloaded
         final long fileId = intent.getLongExtra(DownloadManager.EXTRA_DOWNLOAD_ID, NOT_AN_ID);
         Log.i(TAG, "downloadFinished() : DownloadId = " + fileId);
-        if (NOT_AN_ID == fileId) return; // Spurious wake-up: ignore
+        downloadFinished(context, new DownloadManagerWrapper(context), fileId, onFinished);
+    }
 
-        final DownloadManagerWrapper manager = new DownloadManagerWrapper(context);
-        final CompletedDownloadInfo downloadInfo = getCompletedDownloadInfo(manager, fileId);
-
-        final ArrayList<DownloadRecord> recordList =
-                getDownloadRecordsForCompletedDownloadInfo(context, downloadInfo);
-        if (null == recordList) return; // It was someone else's download.
-        DebugLogUtils.l("Received result for download ", fileId);
-
-        // TODO: handle gracefully a null pointer here. This is practically impossible because
-        // we come here only when DownloadManager explicitly called us when it ended a
-        // download, so we are pretty sure it's alive. It's theoretically possible that it's
-        // disabled right inbetween the firing of the intent and the control reaching here.
-
-        for (final DownloadRecord record : recordList) {
-            // downloadSuccessful is not final because we may still have exceptions from now on
-            boolean downloadSuccessful = false;
-            try {
-                if (downloadInfo.wasSuccessful()) {
-                    downloadSuccessful = handleDownloadedFile(context, record, manager, fileId);
-                    Log.i(TAG, "downloadFinished() : Success = " + downloadSuccessful);
+    @UsedForTesting
+    /* package */ static void downloadFinished(final Context context,
+            final DownloadManagerWrapper manager, final long fileId,
+            @Nullable final Runnable onFinished) {
+        boolean isSubmitted = false;
+        try {
+            if (NOT_AN_ID == fileId) return; // Spurious wake-up: ignore
+
+            final CompletedDownloadInfo downloadInfo = getCompletedDownloadInfo(manager, fileId);
+
+            final ArrayList<DownloadRecord> recordList =
+                    getDownloadRecordsForCompletedDownloadInfo(context, downloadInfo);
+            if (null == recordList) return; // It was someone else's download.
+            DebugLogUtils.l("Received result for download ", fileId);
+
+            // TODO: handle gracefully a null pointer here. This is practically impossible because
+            // we come here only when DownloadManager explicitly called us when it ended a
+            // download, so we are pretty sure it's alive. It's theoretically possible that it's
+            // disabled right inbetween the firing of the intent and the control reaching here.
+
+            getDownloadPipeline().submit("download " + fileId,
+                    new FinishedDownloadJob(context, manager, downloadInfo, recordList),
+                    onFinished);
+            isSubmitted = true;
+        } finally {
+            if (!isSubmitted && null != onFinished) {
+                onFinished.run();
+            }
+        }
+    }
+
+    private static DownloadPipeline sDownloadPipeline;
+
+    private static synchronized DownloadPipeline getDownloadPipeline() {
+        if (null == sDownloadPipeline) {
+            sDownloadPipeline =
+                    new DownloadPipeline(DownloadPipeline.DEFAULT_MAX_PREPARE_THREADS);
+        }
+        return sDownloadPipeline;
+    }
+
+    /**
+     * The handling of a finished download by the download pipeline.
+     *
+     * The word lists are copied out of the DownloadManager and checked in the prepare stage.
+     * The metadata is only read in the commit stage, as the upgrade it triggers must be computed
+     * against the state of the database at the time it is executed.
+     */
+    private static final class FinishedDownloadJob implements DownloadPipeline.Job {
+        private final Context mContext;
+        private final DownloadManagerWrapper mManager;
+        private final CompletedDownloadInfo mDownloadInfo;
+        private final ArrayList<DownloadRecord> mRecords;
+        // Whether each word list of mRecords was successfully prepared.
+        private final boolean[] mIsWordListPrepared;
+
+        public FinishedDownloadJob(final Context context, final DownloadManagerWrapper manager,
+                final CompletedDownloadInfo downloadInfo,
+                final ArrayList<DownloadRecord> records) {
+            mContext = context;
+            mManager = manager;
+            mDownloadInfo = downloadInfo;
+            mRecords = records;
+            mIsWordListPrepared = new boolean[records.size()];
+        }
+
+        @Override
+        public void prepare() {
+            if (!mDownloadInfo.wasSuccessful()) {
+                return;
+            }
+            for (int i = 0; i < mRecords.size(); ++i) {
+                final DownloadRecord record = mRecords.get(i);
+                if (!record.isMetadata()) {
+                    mIsWordListPrepared[i] = handleDownloadedFile(mContext, record, mManager,
+                            mDownloadInfo.mDownloadId);
                 }
-            } finally {
-                final String resultMessage = downloadSuccessful ? "Success" : "Failure";
-                if (record.isMetadata()) {
-                    Log.i(TAG, "downloadFinished() : Metadata " + resultMessage);
-                    publishUpdateMetadataCompleted(context, downloadSuccessful);
-                } else {
-                    Log.i(TAG, "downloadFinished() : WordList " + resultMessage);
-                    final SQLiteDatabase db = MetadataDbHelper.getDb(context, record.mClientId);
-                    publishUpdateWordListCompleted(context, downloadSuccessful, fileId,
-                            db, record.mAttributes, record.mClientId);
+            }
+        }
+
+        @Override
+        public void commit() {
+            final long fileId = mDownloadInfo.mDownloadId;
+            for (int i = 0; i < mRecords.size(); ++i) {
+                final DownloadRecord record = mRecords.get(i);
+                // downloadSuccessful is not final because we may still have exceptions from now
+                // on
+                boolean downloadSuccessful = false;
+                try {
+                    if (mDownloadInfo.wasSuccessful()) {
+                        downloadSuccessful = record.isMetadata()
+                                ? handleDownloadedFile(mContext, record, mManager, fileId)
+                                : mIsWordListPrepared[i];
+                        Log.i(TAG, "downloadFinished() : Success = " + downloadSuccessful);
+                    }
+                } finally {
+                    final String resultMessage = downloadSuccessful ? "Success" : "Failure";
+                    if (record.isMetadata()) {
+                        Log.i(TAG, "downloadFinished() : Metadata " + resultMessage);
+                        publishUpdateMetadataCompleted(mContext, downloadSuccessful);
+                    } else {
+                        Log.i(TAG, "downloadFinished() : WordList " + resultMessage);
+                        final SQLiteDatabase db =
+                                MetadataDbHelper.getDb(mContext, record.mClientId);
+                        publishUpdateWordListCompleted(mContext, downloadSuccessful, fileId,
+                                db, record.mAttributes, record.mClientId);
+                    }
                 }
             }
+            // Now that we're done using it, we can remove this download from DLManager
+            mManager.remove(fileId);
         }
-        // Now that we're done using it, we can remove this download from DLManager
-        manager.remove(fileId);
     }
 
     /**
@@ -514,7 +590,8 @@ public final class UpdateHandler {
         signalNewDictionaryState(context);
     }
 
-    private static boolean handleDownloadedFile(final Context context,
+    @UsedForTesting
+    /* package */ static boolean handleDownloadedFile(final Context context,
             final DownloadRecord downloadRecord, final DownloadManagerWrapper manager,
             final long fileId) {
         try {
@@ -635,29 +712,16 @@ public final class UpdateHandler {
         downloadRecord.mAttributes.put(MetadataDbHelper.LOCAL_FILENAME_COLUMN, destinationFile);
 
         FileOutputStream outputStream = null;
+        final String md5sum;
         try {
             outputStream = context.openFileOutput(destinationFile, Context.MODE_PRIVATE);
-            copyFile(inputStream, outputStream);
+            md5sum = MD5Calculator.copyAndChecksum(inputStream, outputStream);
         } finally {
             inputStream.close();
             if (outputStream != null) {
                 outputStream.close();
             }
         }
-
-        // TODO: Consolidate this MD5 calculation with file copying above.
-        // We need to reopen the file because the inputstream bytes have been consumed, and there
-        // is nothing in InputStream to reopen or rewind the stream
-        FileInputStream copiedFile = null;
-        final String md5sum;
-        try {
-            copiedFile = context.openFileInput(destinationFile);
-            md5sum = MD5Calculator.checksum(copiedFile);
-        } finally {
-            if (copiedFile != null) {
-                copiedFile.close();
-            }
-        }
         if (TextUtils.isEmpty(md5sum)) {
             return; // We can't compute the checksum anyway, so return and hope for the best
         }
@@ -670,50 +734,6 @@ public final class UpdateHandler {
         }
     }
 
-    /**
-     * Copies in to out using FileChannels.
-     *
-     * This tries to use channels for fast copying. If it doesn't work, fall back to
-     * copyFileFallBack below.
-     *
-     * @param in the stream to copy from.
-     * @param out the stream to copy to.
-     * @throws IOException if both the normal and fallback methods raise exceptions.
-     */
-    private static void copyFile(final InputStream in, final OutputStream out)
-            throws IOException {
-        DebugLogUtils.l("Copying files");
-        if (!(in instanceof FileInputStream) || !(out instanceof FileOutputStream)) {
-            DebugLogUtils.l("Not the right types");
-            copyFileFallback(in, out);
-        } else {
-            try {
-                final FileChannel sourceChannel = ((FileInputStream) in).getChannel();
-                final FileChannel destinationChannel = ((FileOutputStream) out).getChannel();
-                sourceChannel.transferTo(0, Integer.MAX_VALUE, destinationChannel);
-            } catch (IOException e) {
-                // Can't work with channels, or something went wrong. Copy by hand.
-                DebugLogUtils.l("Won't work");
-                copyFileFallback(in, out);
-            }
-        }
-    }
-
-    /**
-     * Copies in to out with read/write methods, not FileChannels.
-     *
-     * @param in the stream to copy from.
-     * @param out the stream to copy to.
-     * @throws IOException if a read or a write fails.
-     */
-    private static void copyFileFallback(final InputStream in, final OutputStream out)
-            throws IOException {
-        DebugLogUtils.l("Falling back to slow copy");
-        final byte[] buffer = new byte[FILE_COPY_BUFFER_SIZE];
-        for (int readBytes = in.read(buffer); readBytes >= 0; readBytes = in.read(buffer))
-            out.write(buffer, 0, readBytes);
-    }
-
     /**
      * Creates and returns a new file to store a dictionary
      * @param context the context to use to open the file.
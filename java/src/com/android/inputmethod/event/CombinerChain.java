@@ -42,6 +42,11 @@ public class CombinerChain {
     private StringBuilder mCombinedText;
     // The feedback on the composing state, as described above
     private SpannableStringBuilder mStateFeedback;
+    // The combined text followed by the state feedback. This is rebuilt in place each time the
+    // state changes so that processing an event does not allocate a new builder.
+    private final SpannableStringBuilder mComposingWordWithCombiningFeedback;
+    // Scratch copy of the previous events handed to the combiners, reused across events.
+    private final ArrayList<Event> mModifiablePreviousEvents;
     private final ArrayList<Combiner> mCombiners;
 
     /**
@@ -60,20 +65,45 @@ public class CombinerChain {
         mCombiners.add(new DeadKeyCombiner());
         mCombinedText = new StringBuilder(initialText);
         mStateFeedback = new SpannableStringBuilder();
+        mComposingWordWithCombiningFeedback = new SpannableStringBuilder(initialText);
+        mModifiablePreviousEvents = new ArrayList<>();
     }
 
     public void reset() {
         mCombinedText.setLength(0);
         mStateFeedback.clear();
-        for (final Combiner c : mCombiners) {
-            c.reset();
+        mModifiablePreviousEvents.clear();
+        // Indexed loops here and below, as the iterator of a for-each loop is an allocation.
+        for (int i = 0; i < mCombiners.size(); ++i) {
+            mCombiners.get(i).reset();
         }
+        updateComposingWordWithCombiningFeedback();
     }
 
     private void updateStateFeedback() {
-        mStateFeedback.clear();
+        // Don't touch the spannable when there is no feedback at all, which is by far the most
+        // common case: even clearing an empty SpannableStringBuilder goes through span handling.
+        boolean hasFeedback = false;
         for (int i = mCombiners.size() - 1; i >= 0; --i) {
-            mStateFeedback.append(mCombiners.get(i).getCombiningStateFeedback());
+            if (!TextUtils.isEmpty(mCombiners.get(i).getCombiningStateFeedback())) {
+                hasFeedback = true;
+                break;
+            }
+        }
+        if (hasFeedback || mStateFeedback.length() > 0) {
+            mStateFeedback.clear();
+            for (int i = mCombiners.size() - 1; i >= 0; --i) {
+                mStateFeedback.append(mCombiners.get(i).getCombiningStateFeedback());
+            }
+        }
+        updateComposingWordWithCombiningFeedback();
+    }
+
+    private void updateComposingWordWithCombiningFeedback() {
+        mComposingWordWithCombiningFeedback.replace(0,
+                mComposingWordWithCombiningFeedback.length(), mCombinedText);
+        if (mStateFeedback.length() > 0) {
+            mComposingWordWithCombiningFeedback.append(mStateFeedback);
         }
     }
 
@@ -87,12 +117,16 @@ public class CombinerChain {
     @Nonnull
     public Event processEvent(final ArrayList<Event> previousEvents,
             @Nonnull final Event newEvent) {
-        final ArrayList<Event> modifiablePreviousEvents = new ArrayList<>(previousEvents);
+        // Don't use addAll(), which makes a temporary array copy of the source list.
+        mModifiablePreviousEvents.clear();
+        for (int i = 0; i < previousEvents.size(); ++i) {
+            mModifiablePreviousEvents.add(previousEvents.get(i));
+        }
         Event event = newEvent;
-        for (final Combiner combiner : mCombiners) {
+        for (int i = 0; i < mCombiners.size(); ++i) {
             // A combiner can never return more than one event; it can return several
             // code points, but they should be encapsulated within one event.
-            event = combiner.processEvent(modifiablePreviousEvents, event);
+            event = mCombiners.get(i).processEvent(mModifiablePreviousEvents, event);
             if (event.isConsumed()) {
                 // If the event is consumed, then we don't pass it to subsequent combiners:
                 // they should not see it at all.
@@ -117,10 +151,7 @@ public class CombinerChain {
                     mCombinedText.delete(length - Character.charCount(lastCodePoint), length);
                 }
             } else {
-                final CharSequence textToCommit = event.getTextToCommit();
-                if (!TextUtils.isEmpty(textToCommit)) {
-                    mCombinedText.append(textToCommit);
-                }
+                event.appendTextToCommit(mCombinedText);
             }
         }
         updateStateFeedback();
@@ -129,9 +160,12 @@ public class CombinerChain {
     /**
      * Get the char sequence that should be displayed as the composing word. It may include
      * styling spans.
+     *
+     * The returned object is owned by this chain and is updated in place as events are processed
+     * and applied. Callers that need to keep the current value must take a copy, for example
+     * with {@link CharSequence#toString()}.
      */
     public CharSequence getComposingWordWithCombiningFeedback() {
-        final SpannableStringBuilder s = new SpannableStringBuilder(mCombinedText);
-        return s.append(mStateFeedback);
+        return mComposingWordWithCombiningFeedback;
     }
 }
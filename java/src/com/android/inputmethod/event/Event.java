@@ -316,4 +316,31 @@ public class Event {
         }
         throw new RuntimeException("Unknown event type: " + mEventType);
     }
+
+    /**
+     * Appends the text this event should commit to the passed builder.
+     *
+     * This is equivalent to appending the result of {@link #getTextToCommit()}, except that
+     * a key press does not go through a temporary single code point string. This is on the
+     * path of every key stroke, so it matters.
+     * @param sb the builder to append the text to.
+     */
+    public void appendTextToCommit(@Nonnull final StringBuilder sb) {
+        if (isConsumed()) {
+            return; // A consumed event should input no text.
+        }
+        if (EVENT_TYPE_INPUT_KEYPRESS == mEventType) {
+            // Same conversion as StringUtils#newSingleCodePointString.
+            if (Character.charCount(mCodePoint) == 1) {
+                sb.append((char) mCodePoint);
+            } else {
+                sb.appendCodePoint(mCodePoint);
+            }
+            return;
+        }
+        final CharSequence textToCommit = getTextToCommit();
+        if (null != textToCommit) {
+            sb.append(textToCommit);
+        }
+    }
 }
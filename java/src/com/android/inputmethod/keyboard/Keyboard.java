@@ -16,8 +16,7 @@
 
 package com.android.inputmethod.keyboard;
 
-import android.util.SparseArray;
-
+import com.android.inputmethod.keyboard.internal.KeyLookupTable;
 import com.android.inputmethod.keyboard.internal.KeyVisualAttributes;
 import com.android.inputmethod.keyboard.internal.KeyboardIconsSet;
 import com.android.inputmethod.keyboard.internal.KeyboardParams;
@@ -91,7 +90,8 @@ public class Keyboard {
     @Nonnull
     public final KeyboardIconsSet mIconsSet;
 
-    private final SparseArray<Key> mKeyCache = new SparseArray<>();
+    @Nonnull
+    private final KeyLookupTable mKeyLookupTable;
 
     @Nonnull
     private final ProximityInfo mProximityInfo;
@@ -119,6 +119,7 @@ public class Keyboard {
         mShiftKeys = Collections.unmodifiableList(params.mShiftKeys);
         mAltCodeKeysWhileTyping = Collections.unmodifiableList(params.mAltCodeKeysWhileTyping);
         mIconsSet = params.mIconsSet;
+        mKeyLookupTable = new KeyLookupTable(mSortedKeys);
 
         mProximityInfo = new ProximityInfo(params.GRID_WIDTH, params.GRID_HEIGHT,
                 mOccupiedWidth, mOccupiedHeight, mMostCommonKeyWidth, mMostCommonKeyHeight,
@@ -147,6 +148,7 @@ public class Keyboard {
         mShiftKeys = keyboard.mShiftKeys;
         mAltCodeKeysWhileTyping = keyboard.mAltCodeKeysWhileTyping;
         mIconsSet = keyboard.mIconsSet;
+        mKeyLookupTable = keyboard.mKeyLookupTable;
 
         mProximityInfo = keyboard.mProximityInfo;
         mProximityCharsCorrectionEnabled = keyboard.mProximityCharsCorrectionEnabled;
@@ -186,40 +188,30 @@ public class Keyboard {
         return mSortedKeys;
     }
 
+    /**
+     * Returns the lookup tables of the keys returned by {@link #getSortedKeys()}. A keyboard
+     * whose keys change has to override both.
+     */
+    @Nonnull
+    protected KeyLookupTable getKeyLookupTable() {
+        return mKeyLookupTable;
+    }
+
     @Nullable
     public Key getKey(final int code) {
-        if (code == Constants.CODE_UNSPECIFIED) {
-            return null;
-        }
-        synchronized (mKeyCache) {
-            final int index = mKeyCache.indexOfKey(code);
-            if (index >= 0) {
-                return mKeyCache.valueAt(index);
-            }
-
-            for (final Key key : getSortedKeys()) {
-                if (key.getCode() == code) {
-                    mKeyCache.put(code, key);
-                    return key;
-                }
-            }
-            mKeyCache.put(code, null);
-            return null;
-        }
+        return getKeyLookupTable().getKey(code);
     }
 
     public boolean hasKey(@Nonnull final Key aKey) {
-        if (mKeyCache.indexOfValue(aKey) >= 0) {
-            return true;
-        }
+        return getKeyIndex(aKey) != KeyLookupTable.NOT_A_KEY_INDEX;
+    }
 
-        for (final Key key : getSortedKeys()) {
-            if (key == aKey) {
-                mKeyCache.put(key.getCode(), key);
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Returns the index of the key in {@link #getSortedKeys()}, or
+     * {@link KeyLookupTable#NOT_A_KEY_INDEX} if the key is not on this keyboard.
+     */
+    public int getKeyIndex(@Nonnull final Key key) {
+        return getKeyLookupTable().getKeyIndex(key);
     }
 
     @Override
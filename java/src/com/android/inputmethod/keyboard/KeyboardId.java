@@ -85,7 +85,8 @@ public final class KeyboardId {
 
     private final int mHashCode;
 
-    public KeyboardId(final int elementId, final KeyboardLayoutSet.Params params) {
+    public KeyboardId(final int elementId, final KeyboardLayoutSet.Params params,
+            final boolean isSplitLayout) {
         mSubtype = params.mSubtype;
         mWidth = params.mKeyboardWidth;
         mHeight = params.mKeyboardHeight;
@@ -97,7 +98,7 @@ public final class KeyboardId {
         mCustomActionLabel = (mEditorInfo.actionLabel != null)
                 ? mEditorInfo.actionLabel.toString() : null;
         mHasShortcutKey = params.mVoiceInputKeyEnabled;
-        mIsSplitLayout = params.mIsSplitLayoutEnabled;
+        mIsSplitLayout = isSplitLayout;
 
         mHashCode = computeHashCode(this);
     }
@@ -75,6 +75,7 @@ public final class KeyboardLayoutSet {
     private final Context mContext;
     @Nonnull
     private final Params mParams;
+    private final int mKeyboardCacheGeneration;
 
     // How many layouts we forcibly keep in cache. This only includes ALPHABET (default) and
     // ALPHABET_AUTOMATIC_SHIFTED layouts - other layouts may stay in memory in the map of
@@ -84,10 +85,23 @@ public final class KeyboardLayoutSet {
     // will stay in the cache. So we forcibly keep some references in an array to prevent
     // them from disappearing from sKeyboardCache.
     private static final Keyboard[] sForcibleKeyboardCache = new Keyboard[FORCIBLE_CACHE_SIZE];
+    // Keyboards may be built on a background thread by {@link #prefetchKeyboard(int)}, so every
+    // access to the caches below is guarded by {@link #sKeyboardCache}. The lock is only held to
+    // look up and to store keyboards, never while one is being built.
     private static final HashMap<KeyboardId, SoftReference<Keyboard>> sKeyboardCache =
             new HashMap<>();
+    // The lock held while building the keyboard for each id, so that a keyboard is only built
+    // once, and that only the threads that need the same keyboard wait for each other.
+    private static final HashMap<KeyboardId, Object> sKeyboardBuildLocks = new HashMap<>();
+    // Bumped each time the caches are cleared so that a prefetch started against a stale theme
+    // or locale doesn't put its keyboard back into the cleared cache.
+    private static int sKeyboardCacheGeneration;
+    // Only used for alphabet keyboards. It is thread-safe, as keyboards may be built concurrently.
     @Nonnull
     private static final UniqueKeysCache sUniqueKeysCache = UniqueKeysCache.newInstance();
+    static {
+        sUniqueKeysCache.setEnabled(true);
+    }
     private final static HashMap<InputMethodSubtype, Integer> sScriptIdsForSubtypes =
             new HashMap<>();
 
@@ -127,9 +141,6 @@ public final class KeyboardLayoutSet {
         // Indicates if the user has enabled the split-layout preference
         // and the required ProductionFlags are enabled.
         boolean mIsSplitLayoutEnabledByUser;
-        // Indicates if split layout is actually enabled, taking into account
-        // whether the user has enabled it, and the keyboard layout supports it.
-        boolean mIsSplitLayoutEnabled;
         // Sparse array of KeyboardLayoutSet element parameters indexed by element's id.
         final SparseArray<ElementParams> mKeyboardLayoutSetElementIdToParamsMap =
                 new SparseArray<>();
@@ -144,8 +155,12 @@ public final class KeyboardLayoutSet {
     }
 
     private static void clearKeyboardCache() {
-        sKeyboardCache.clear();
-        sUniqueKeysCache.clear();
+        synchronized (sKeyboardCache) {
+            sKeyboardCache.clear();
+            sKeyboardBuildLocks.clear();
+            sUniqueKeysCache.clear();
+            ++sKeyboardCacheGeneration;
+        }
     }
 
     public static int getScriptId(final Resources resources,
@@ -162,6 +177,33 @@ public final class KeyboardLayoutSet {
     KeyboardLayoutSet(final Context context, @Nonnull final Params params) {
         mContext = context;
         mParams = params;
+        synchronized (sKeyboardCache) {
+            mKeyboardCacheGeneration = sKeyboardCacheGeneration;
+        }
+    }
+
+    /**
+     * Builds the keyboard for the specified element and puts it into the keyboard cache, so that
+     * a later {@link #getKeyboard(int)} for it doesn't have to parse the layout. This may be
+     * called from a background thread. Nothing is built if the cache has been cleared since this
+     * layout set was created.
+     *
+     * @param baseKeyboardLayoutSetElementId the element to build, as passed to
+     * {@link #getKeyboard(int)}.
+     * @return true if the keyboard is now in the cache, false otherwise.
+     */
+    public boolean prefetchKeyboard(final int baseKeyboardLayoutSetElementId) {
+        if (!isKeyboardCacheGenerationCurrent()) {
+            return false;
+        }
+        getKeyboard(baseKeyboardLayoutSetElementId);
+        return isKeyboardCacheGenerationCurrent();
+    }
+
+    private boolean isKeyboardCacheGenerationCurrent() {
+        synchronized (sKeyboardCache) {
+            return mKeyboardCacheGeneration == sKeyboardCacheGeneration;
+        }
     }
 
     @Nonnull
@@ -197,9 +239,12 @@ public final class KeyboardLayoutSet {
         // specified as an elementKeyboard attribute in the file.
         // The KeyboardId is an internal key for a Keyboard object.
 
-        mParams.mIsSplitLayoutEnabled = mParams.mIsSplitLayoutEnabledByUser
+        // Split layout is actually enabled if the user has enabled it, and the keyboard layout
+        // supports it.
+        final boolean isSplitLayoutEnabled = mParams.mIsSplitLayoutEnabledByUser
                 && elementParams.mSupportsSplitLayout;
-        final KeyboardId id = new KeyboardId(keyboardLayoutSetElementId, mParams);
+        final KeyboardId id = new KeyboardId(keyboardLayoutSetElementId, mParams,
+                isSplitLayoutEnabled);
         try {
             return getKeyboard(elementParams, id);
         } catch (final RuntimeException e) {
@@ -208,20 +253,51 @@ public final class KeyboardLayoutSet {
         }
     }
 
+    @Nullable
+    private static Keyboard getCachedKeyboard(final KeyboardId id) {
+        synchronized (sKeyboardCache) {
+            final SoftReference<Keyboard> ref = sKeyboardCache.get(id);
+            final Keyboard cachedKeyboard = (ref == null) ? null : ref.get();
+            if (DEBUG_CACHE && cachedKeyboard != null) {
+                Log.d(TAG, "keyboard cache size=" + sKeyboardCache.size() + ": HIT  id=" + id);
+            }
+            return cachedKeyboard;
+        }
+    }
+
     @Nonnull
     private Keyboard getKeyboard(final ElementParams elementParams, final KeyboardId id) {
-        final SoftReference<Keyboard> ref = sKeyboardCache.get(id);
-        final Keyboard cachedKeyboard = (ref == null) ? null : ref.get();
+        final Keyboard cachedKeyboard = getCachedKeyboard(id);
         if (cachedKeyboard != null) {
-            if (DEBUG_CACHE) {
-                Log.d(TAG, "keyboard cache size=" + sKeyboardCache.size() + ": HIT  id=" + id);
-            }
             return cachedKeyboard;
         }
+        final Object buildLock;
+        synchronized (sKeyboardCache) {
+            final Object existingBuildLock = sKeyboardBuildLocks.get(id);
+            if (existingBuildLock != null) {
+                buildLock = existingBuildLock;
+            } else {
+                buildLock = new Object();
+                sKeyboardBuildLocks.put(id, buildLock);
+            }
+        }
+        synchronized (buildLock) {
+            // Another thread may have built it while we were waiting.
+            final Keyboard keyboardBuiltMeanwhile = getCachedKeyboard(id);
+            if (keyboardBuiltMeanwhile != null) {
+                return keyboardBuiltMeanwhile;
+            }
+            final Keyboard keyboard = buildKeyboard(elementParams, id);
+            putKeyboardIntoCache(id, keyboard);
+            return keyboard;
+        }
+    }
 
-        final KeyboardBuilder<KeyboardParams> builder =
-                new KeyboardBuilder<>(mContext, new KeyboardParams(sUniqueKeysCache));
-        sUniqueKeysCache.setEnabled(id.isAlphabetKeyboard());
+    @Nonnull
+    private Keyboard buildKeyboard(final ElementParams elementParams, final KeyboardId id) {
+        final KeyboardBuilder<KeyboardParams> builder = new KeyboardBuilder<>(mContext,
+                new KeyboardParams(id.isAlphabetKeyboard() ? sUniqueKeysCache
+                        : UniqueKeysCache.NO_CACHE));
         builder.setAllowRedundantMoreKes(elementParams.mAllowRedundantMoreKeys);
         final int keyboardXmlId = elementParams.mKeyboardXmlId;
         builder.load(keyboardXmlId, id);
@@ -229,25 +305,35 @@ public final class KeyboardLayoutSet {
             builder.disableTouchPositionCorrectionDataForTest();
         }
         builder.setProximityCharsCorrectionEnabled(elementParams.mProximityCharsCorrectionEnabled);
-        final Keyboard keyboard = builder.build();
-        sKeyboardCache.put(id, new SoftReference<>(keyboard));
-        if ((id.mElementId == KeyboardId.ELEMENT_ALPHABET
-                || id.mElementId == KeyboardId.ELEMENT_ALPHABET_AUTOMATIC_SHIFTED)
-                && !mParams.mIsSpellChecker) {
-            // We only forcibly cache the primary, "ALPHABET", layouts.
-            for (int i = sForcibleKeyboardCache.length - 1; i >= 1; --i) {
-                sForcibleKeyboardCache[i] = sForcibleKeyboardCache[i - 1];
+        return builder.build();
+    }
+
+    private void putKeyboardIntoCache(final KeyboardId id, final Keyboard keyboard) {
+        synchronized (sKeyboardCache) {
+            if (mKeyboardCacheGeneration != sKeyboardCacheGeneration) {
+                // The cache was cleared while the keyboard was being built, so it may be built
+                // for a stale theme or locale.
+                return;
+            }
+            final SoftReference<Keyboard> ref = sKeyboardCache.put(id,
+                    new SoftReference<>(keyboard));
+            if ((id.mElementId == KeyboardId.ELEMENT_ALPHABET
+                    || id.mElementId == KeyboardId.ELEMENT_ALPHABET_AUTOMATIC_SHIFTED)
+                    && !mParams.mIsSpellChecker) {
+                // We only forcibly cache the primary, "ALPHABET", layouts.
+                for (int i = sForcibleKeyboardCache.length - 1; i >= 1; --i) {
+                    sForcibleKeyboardCache[i] = sForcibleKeyboardCache[i - 1];
+                }
+                sForcibleKeyboardCache[0] = keyboard;
+                if (DEBUG_CACHE) {
+                    Log.d(TAG, "forcing caching of keyboard with id=" + id);
+                }
             }
-            sForcibleKeyboardCache[0] = keyboard;
             if (DEBUG_CACHE) {
-                Log.d(TAG, "forcing caching of keyboard with id=" + id);
+                Log.d(TAG, "keyboard cache size=" + sKeyboardCache.size() + ": "
+                        + ((ref == null) ? "LOAD" : "GCed") + " id=" + id);
             }
         }
-        if (DEBUG_CACHE) {
-            Log.d(TAG, "keyboard cache size=" + sKeyboardCache.size() + ": "
-                    + ((ref == null) ? "LOAD" : "GCed") + " id=" + id);
-        }
-        return keyboard;
     }
 
     public int getScriptId() {
@@ -18,6 +18,8 @@ package com.android.inputmethod.keyboard;
 
 import android.content.Context;
 import android.content.res.Resources;
+import android.os.Process;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.ContextThemeWrapper;
 import android.view.LayoutInflater;
@@ -41,10 +43,15 @@ import com.android.inputmethod.latin.define.ProductionFlags;
 import com.android.inputmethod.latin.settings.Settings;
 import com.android.inputmethod.latin.settings.SettingsValues;
 import com.android.inputmethod.latin.utils.CapsModeUtils;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
 import com.android.inputmethod.latin.utils.LanguageOnSpacebarUtils;
 import com.android.inputmethod.latin.utils.RecapitalizeStatus;
 import com.android.inputmethod.latin.utils.ResourceUtils;
 import com.android.inputmethod.latin.utils.ScriptUtils;
+import com.android.inputmethod.latin.utils.StatsUtils;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nonnull;
 
@@ -61,13 +68,42 @@ public final class KeyboardSwitcher implements KeyboardState.SwitchActions {
 
     private KeyboardState mState;
 
-    private KeyboardLayoutSet mKeyboardLayoutSet;
+    // Volatile because the background prefetch stops as soon as this is replaced.
+    private volatile KeyboardLayoutSet mKeyboardLayoutSet;
     // TODO: The following {@link KeyboardTextsSet} should be in {@link KeyboardLayoutSet}.
     private final KeyboardTextsSet mKeyboardTextsSet = new KeyboardTextsSet();
 
     private KeyboardTheme mKeyboardTheme;
     private Context mThemeContext;
 
+    // The layouts that we build in the background after loading a keyboard layout set, so that
+    // switching to them doesn't have to parse the layout on the UI thread. When there is no switch
+    // history yet, they are tried in this order.
+    private static final int[] PREFETCH_CANDIDATE_ELEMENT_IDS = {
+        KeyboardId.ELEMENT_SYMBOLS,
+        KeyboardId.ELEMENT_ALPHABET_AUTOMATIC_SHIFTED,
+        KeyboardId.ELEMENT_ALPHABET_MANUAL_SHIFTED,
+        KeyboardId.ELEMENT_SYMBOLS_SHIFTED,
+        KeyboardId.ELEMENT_ALPHABET_SHIFT_LOCKED,
+    };
+    private static final int MAX_PREFETCHED_KEYBOARDS = 3;
+    // Switches taking longer than a frame are visible to the user.
+    private static final long PERCEPTIBLE_SWITCH_LATENCY_MS = 16;
+    private static final int NOT_AN_ELEMENT_ID = -1;
+    private static final int TRANSITION_HISTORY_SIZE = KeyboardId.ELEMENT_NUMBER + 1;
+
+    // mLayoutTransitionCounts[from][to] is how many times we switched from one layout set element
+    // to another, used to prefetch the layouts the user is most likely to switch to next.
+    private final int[][] mLayoutTransitionCounts =
+            new int[TRANSITION_HISTORY_SIZE][TRANSITION_HISTORY_SIZE];
+    private int mLastElementId = NOT_AN_ELEMENT_ID;
+    private Future<?> mPrefetchFuture;
+    private final AtomicInteger mPrefetchedKeyboardCount = new AtomicInteger();
+    private int mSwitchCount;
+    private int mSlowSwitchCount;
+    private long mTotalSwitchLatencyMs;
+    private long mMaxSwitchLatencyMs;
+
     private static final KeyboardSwitcher sInstance = new KeyboardSwitcher();
 
     public static KeyboardSwitcher getInstance() {
@@ -124,13 +160,117 @@ public final class KeyboardSwitcher implements KeyboardState.SwitchActions {
         builder.setLanguageSwitchKeyEnabled(mLatinIME.shouldShowLanguageSwitchKey());
         builder.setSplitLayoutEnabledByUser(ProductionFlags.IS_SPLIT_KEYBOARD_SUPPORTED
                 && settingsValues.mIsSplitKeyboardEnabled);
+        cancelKeyboardPrefetch();
         mKeyboardLayoutSet = builder.build();
         try {
             mState.onLoadKeyboard(currentAutoCapsState, currentRecapitalizeState);
             mKeyboardTextsSet.setLocale(mRichImm.getCurrentSubtypeLocale(), mThemeContext);
         } catch (KeyboardLayoutSetException e) {
             Log.w(TAG, "loading keyboard failed: " + e.mKeyboardId, e.getCause());
+            return;
+        }
+        prefetchLikelyKeyboards();
+    }
+
+    private void cancelKeyboardPrefetch() {
+        if (mPrefetchFuture != null) {
+            mPrefetchFuture.cancel(false /* mayInterruptIfRunning */);
+            mPrefetchFuture = null;
+        }
+    }
+
+    /**
+     * Builds the layouts the user is most likely to switch to from the current one on a
+     * background thread. The layout set is specific to the editor, so the layouts that get built
+     * follow its input type; which ones are built first follows the switch history.
+     */
+    private void prefetchLikelyKeyboards() {
+        final KeyboardLayoutSet keyboardLayoutSet = mKeyboardLayoutSet;
+        final int[] elementIds = getLikelyNextElementIds(mLastElementId);
+        mPrefetchFuture = ExecutorUtils.getBackgroundExecutor(
+                ExecutorUtils.KEYBOARD_PREFETCH).submit(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        // Stay out of the way of the UI thread, which may need the same cores
+                        // to draw the keyboard that was just loaded.
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        for (final int elementId : elementIds) {
+                            if (keyboardLayoutSet != mKeyboardLayoutSet) {
+                                // A new layout set has been loaded in the meantime.
+                                return;
+                            }
+                            try {
+                                if (!keyboardLayoutSet.prefetchKeyboard(elementId)) {
+                                    return;
+                                }
+                            } catch (KeyboardLayoutSetException e) {
+                                Log.w(TAG, "prefetching keyboard failed: " + e.mKeyboardId,
+                                        e.getCause());
+                                return;
+                            }
+                            mPrefetchedKeyboardCount.incrementAndGet();
+                        }
+                    }
+                });
+    }
+
+    private int[] getLikelyNextElementIds(final int fromElementId) {
+        final int[] candidates = new int[PREFETCH_CANDIDATE_ELEMENT_IDS.length];
+        int count = 0;
+        for (final int candidate : PREFETCH_CANDIDATE_ELEMENT_IDS) {
+            if (candidate == fromElementId) {
+                continue;
+            }
+            // Insertion sort by descending switch count. It's stable, so candidates that were
+            // never switched to keep the default order.
+            int index = count;
+            while (index > 0 && getTransitionCount(fromElementId, candidates[index - 1])
+                    < getTransitionCount(fromElementId, candidate)) {
+                candidates[index] = candidates[index - 1];
+                --index;
+            }
+            candidates[index] = candidate;
+            ++count;
         }
+        final int[] elementIds = new int[Math.min(count, MAX_PREFETCHED_KEYBOARDS)];
+        System.arraycopy(candidates, 0, elementIds, 0, elementIds.length);
+        return elementIds;
+    }
+
+    private static boolean isInTransitionHistory(final int elementId) {
+        return elementId >= 0 && elementId < TRANSITION_HISTORY_SIZE;
+    }
+
+    private int getTransitionCount(final int fromElementId, final int toElementId) {
+        if (!isInTransitionHistory(fromElementId) || !isInTransitionHistory(toElementId)) {
+            return 0;
+        }
+        return mLayoutTransitionCounts[fromElementId][toElementId];
+    }
+
+    private void onKeyboardSwitched(final int elementId, final long latencyMs) {
+        if (mLastElementId != elementId && isInTransitionHistory(mLastElementId)
+                && isInTransitionHistory(elementId)) {
+            ++mLayoutTransitionCounts[mLastElementId][elementId];
+        }
+        mLastElementId = elementId;
+        ++mSwitchCount;
+        if (latencyMs > PERCEPTIBLE_SWITCH_LATENCY_MS) {
+            ++mSlowSwitchCount;
+        }
+        mTotalSwitchLatencyMs += latencyMs;
+        mMaxSwitchLatencyMs = Math.max(mMaxSwitchLatencyMs, latencyMs);
+        StatsUtils.onKeyboardSwitch(elementId, latencyMs);
+    }
+
+    public String dumpKeyboardSwitchStats() {
+        return "Keyboard switches : count = " + mSwitchCount
+                + ", slow = " + mSlowSwitchCount
+                + ", average latency = "
+                + (0 == mSwitchCount ? 0 : mTotalSwitchLatencyMs / mSwitchCount)
+                + " ms, max latency = " + mMaxSwitchLatencyMs
+                + " ms, prefetched = " + mPrefetchedKeyboardCount.get();
     }
 
     public void saveKeyboardState() {
@@ -148,6 +288,7 @@ public final class KeyboardSwitcher implements KeyboardState.SwitchActions {
     private void setKeyboard(
             @Nonnull final int keyboardId,
             @Nonnull final KeyboardSwitchState toggleState) {
+        final long startTime = SystemClock.uptimeMillis();
         // Make {@link MainKeyboardView} visible and hide {@link EmojiPalettesView}.
         final SettingsValues currentSettingsValues = Settings.getInstance().getCurrent();
         setMainKeyboardFrame(currentSettingsValues, toggleState);
@@ -177,6 +318,7 @@ public final class KeyboardSwitcher implements KeyboardState.SwitchActions {
                 .hasMultipleEnabledIMEsOrSubtypes(true /* shouldIncludeAuxiliarySubtypes */);
         keyboardView.startDisplayLanguageOnSpacebar(subtypeChanged, languageOnSpacebarFormatType,
                 hasMultipleEnabledIMEsOrSubtypes);
+        onKeyboardSwitched(keyboardId, SystemClock.uptimeMillis() - startTime);
     }
 
     public Keyboard getKeyboard() {
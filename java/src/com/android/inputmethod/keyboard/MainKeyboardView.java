@@ -488,6 +488,14 @@ public final class MainKeyboardView extends KeyboardView implements DrawingProxy
                 getWidth(), mOriginCoords, mDrawingPreviewPlacerView, isHardwareAccelerated());
     }
 
+    public String dumpKeyPreviewStats() {
+        return mKeyPreviewChoreographer.dumpKeyPreviewStats();
+    }
+
+    public String dumpGestureTrailStats() {
+        return mGestureTrailsDrawingPreview.dumpGestureTrailStats();
+    }
+
     private void dismissKeyPreviewWithoutDelay(@Nonnull final Key key) {
         mKeyPreviewChoreographer.dismissKeyPreview(key, false /* withAnimation */);
         invalidateKey(key);
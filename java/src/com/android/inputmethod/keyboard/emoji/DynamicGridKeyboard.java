@@ -22,6 +22,7 @@ import android.util.Log;
 
 import com.android.inputmethod.keyboard.Key;
 import com.android.inputmethod.keyboard.Keyboard;
+import com.android.inputmethod.keyboard.internal.KeyLookupTable;
 import com.android.inputmethod.latin.settings.Settings;
 import com.android.inputmethod.latin.utils.JsonUtils;
 
@@ -50,6 +51,7 @@ final class DynamicGridKeyboard extends Keyboard {
     private final ArrayDeque<Key> mPendingKeys = new ArrayDeque<>();
 
     private List<Key> mCachedGridKeys;
+    private KeyLookupTable mCachedKeyLookupTable;
 
     public DynamicGridKeyboard(final SharedPreferences prefs, final Keyboard templateKeyboard,
             final int maxKeyCount, final int categoryId) {
@@ -105,6 +107,7 @@ final class DynamicGridKeyboard extends Keyboard {
         }
         synchronized (mLock) {
             mCachedGridKeys = null;
+            mCachedKeyLookupTable = null;
             final GridKey key = new GridKey(usedKey);
             while (mGridKeys.remove(key)) {
                 // Remove duplicate keys.
@@ -217,6 +220,17 @@ final class DynamicGridKeyboard extends Keyboard {
         }
     }
 
+    @Override
+    protected KeyLookupTable getKeyLookupTable() {
+        synchronized (mLock) {
+            if (mCachedKeyLookupTable != null) {
+                return mCachedKeyLookupTable;
+            }
+            mCachedKeyLookupTable = new KeyLookupTable(getSortedKeys());
+            return mCachedKeyLookupTable;
+        }
+    }
+
     @Override
     public List<Key> getNearestKeys(final int x, final int y) {
         // TODO: Calculate the nearest key index in mGridKeys from x and y.
@@ -26,6 +26,8 @@ import android.os.SystemClock;
 import com.android.inputmethod.latin.common.Constants;
 import com.android.inputmethod.latin.common.ResizableIntArray;
 
+import java.util.Arrays;
+
 /**
  * This class holds drawing points to represent a gesture trail. The gesture trail may contain
  * multiple non-contiguous gesture strokes and will be animated asynchronously from gesture input.
@@ -52,6 +54,14 @@ final class GestureTrailDrawingPoints {
     private long mCurrentTimeBase;
     private int mTrailStartIndex;
     private int mLastInterpolatedDrawIndex;
+    // The geometry of the rounded line of the segment that ends at each point, which doesn't
+    // change as the trail fades out. See {@link RoundedLine#computeGeometry}.
+    private float[] mSegmentGeometries = new float[DEFAULT_CAPACITY * RoundedLine.GEOMETRY_SIZE];
+    // The segments that end before this index have their geometry in {@link #mSegmentGeometries}.
+    private int mSegmentGeometriesEnd;
+    // The number of points of the trail drawn by the last
+    // {@link #drawGestureTrail(Canvas,Paint,Rect,GestureTrailDrawingParams)}.
+    private int mLastDrawnTrailLength;
 
     // Use this value as imaginary zero because x-coordinates may be zero.
     private static final int DOWN_EVENT_MARKER = -128;
@@ -95,6 +105,10 @@ final class GestureTrailDrawingPoints {
                 ? mLastInterpolatedDrawIndex : trailSize;
         mLastInterpolatedDrawIndex = stroke.interpolateStrokeAndReturnStartIndexOfLastSegment(
                 lastInterpolatedIndex, mEventTimes, mXCoordinates, mYCoordinates, mPointTypes);
+        // The points are appended after the end of the trail, and the interpolation may replace
+        // the points after the start of the last segment.
+        mSegmentGeometriesEnd = Math.min(mSegmentGeometriesEnd,
+                Math.min(trailSize, lastInterpolatedIndex));
         if (strokeId != mCurrentStrokeId) {
             final int elapsedTime = (int)(downTime - mCurrentTimeBase);
             for (int i = mTrailStartIndex; i < trailSize; i++) {
@@ -165,6 +179,7 @@ final class GestureTrailDrawingPoints {
             final Rect outBoundsRect, final GestureTrailDrawingParams params) {
         // Initialize bounds rectangle.
         outBoundsRect.setEmpty();
+        mLastDrawnTrailLength = 0;
         final int trailSize = mEventTimes.getLength();
         if (trailSize == 0) {
             return false;
@@ -184,11 +199,13 @@ final class GestureTrailDrawingPoints {
             }
         }
         mTrailStartIndex = startIndex;
+        mLastDrawnTrailLength = trailSize - startIndex;
 
         if (startIndex < trailSize) {
             paint.setColor(params.mTrailColor);
             paint.setStyle(Paint.Style.FILL);
             final RoundedLine roundedLine = mRoundedLine;
+            final float[] segmentGeometries = ensureSegmentGeometriesCapacity(trailSize);
             int p1x = getXCoordValue(xCoords[startIndex]);
             int p1y = yCoords[startIndex];
             final int lastTime = sinceDown - eventTimes[startIndex];
@@ -198,30 +215,39 @@ final class GestureTrailDrawingPoints {
                 final int p2x = getXCoordValue(xCoords[i]);
                 final int p2y = yCoords[i];
                 final float r2 = getWidth(elapsedTime, params) / 2.0f;
-                // Draw trail line only when the current point isn't a down point.
-                if (!isDownEventXCoord(xCoords[i])) {
+                // Draw trail line only when the current point isn't a down point, nor the same
+                // as the previous point.
+                if (!isDownEventXCoord(xCoords[i]) && (p1x != p2x || p1y != p2y)) {
                     final float body1 = r1 * params.mTrailBodyRatio;
                     final float body2 = r2 * params.mTrailBodyRatio;
-                    final Path path = roundedLine.makePath(p1x, p1y, body1, p2x, p2y, body2);
-                    if (!path.isEmpty()) {
-                        roundedLine.getBounds(mRoundedLineBounds);
-                        if (params.mTrailShadowEnabled) {
-                            final float shadow2 = r2 * params.mTrailShadowRatio;
-                            paint.setShadowLayer(shadow2, 0.0f, 0.0f, params.mTrailColor);
-                            final int shadowInset = -(int)Math.ceil(shadow2);
-                            mRoundedLineBounds.inset(shadowInset, shadowInset);
-                        }
-                        // Take union for the bounds.
-                        outBoundsRect.union(mRoundedLineBounds);
-                        final int alpha = getAlpha(elapsedTime, params);
-                        paint.setAlpha(alpha);
-                        canvas.drawPath(path, paint);
+                    // The difference of the widths of a segment only depends on the difference
+                    // of the event times of its points, so the geometry of the segment is
+                    // computed only once.
+                    final int geometryOffset = i * RoundedLine.GEOMETRY_SIZE;
+                    if (i >= mSegmentGeometriesEnd) {
+                        RoundedLine.computeGeometry(p1x, p1y, body1, p2x, p2y, body2,
+                                segmentGeometries, geometryOffset);
+                    }
+                    final Path path = roundedLine.makePath(p1x, p1y, body1, p2x, p2y, body2,
+                            segmentGeometries, geometryOffset);
+                    roundedLine.getBounds(mRoundedLineBounds);
+                    if (params.mTrailShadowEnabled) {
+                        final float shadow2 = r2 * params.mTrailShadowRatio;
+                        paint.setShadowLayer(shadow2, 0.0f, 0.0f, params.mTrailColor);
+                        final int shadowInset = -(int)Math.ceil(shadow2);
+                        mRoundedLineBounds.inset(shadowInset, shadowInset);
                     }
+                    // Take union for the bounds.
+                    outBoundsRect.union(mRoundedLineBounds);
+                    final int alpha = getAlpha(elapsedTime, params);
+                    paint.setAlpha(alpha);
+                    canvas.drawPath(path, paint);
                 }
                 p1x = p2x;
                 p1y = p2y;
                 r1 = r2;
             }
+            mSegmentGeometriesEnd = trailSize;
             if (DEBUG_SHOW_POINTS) {
                 debugDrawPoints(canvas, startIndex, trailSize, paint);
             }
@@ -237,6 +263,8 @@ final class GestureTrailDrawingPoints {
                 if (DEBUG_SHOW_POINTS) {
                     System.arraycopy(pointTypes, startIndex, pointTypes, 0, newSize);
                 }
+                System.arraycopy(mSegmentGeometries, startIndex * RoundedLine.GEOMETRY_SIZE,
+                        mSegmentGeometries, 0, newSize * RoundedLine.GEOMETRY_SIZE);
             }
             mEventTimes.setLength(newSize);
             mXCoordinates.setLength(newSize);
@@ -248,10 +276,28 @@ final class GestureTrailDrawingPoints {
             // {@link mLastInterpolatedDrawIndex} should also be updated because all array
             // elements have just been shifted for compaction or been zeroed.
             mLastInterpolatedDrawIndex = Math.max(mLastInterpolatedDrawIndex - startIndex, 0);
+            mSegmentGeometriesEnd = Math.max(mSegmentGeometriesEnd - startIndex, 0);
         }
         return newSize > 0;
     }
 
+    private float[] ensureSegmentGeometriesCapacity(final int trailSize) {
+        final int minCapacity = trailSize * RoundedLine.GEOMETRY_SIZE;
+        if (mSegmentGeometries.length < minCapacity) {
+            mSegmentGeometries = Arrays.copyOf(mSegmentGeometries,
+                    Math.max(minCapacity, mSegmentGeometries.length * 2));
+        }
+        return mSegmentGeometries;
+    }
+
+    /**
+     * Returns the number of points of the trail drawn by the last
+     * {@link #drawGestureTrail(Canvas,Paint,Rect,GestureTrailDrawingParams)}.
+     */
+    public int getLastDrawnTrailLength() {
+        return mLastDrawnTrailLength;
+    }
+
     private void debugDrawPoints(final Canvas canvas, final int startIndex, final int endIndex,
             final Paint paint) {
         final int[] xCoords = mXCoordinates.getPrimitiveArray();
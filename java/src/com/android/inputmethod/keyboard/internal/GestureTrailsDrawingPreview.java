@@ -47,6 +47,14 @@ public final class GestureTrailsDrawingPreview extends AbstractDrawingPreview im
 
     private final Handler mDrawingHandler = new Handler();
 
+    // Statistics about the frames of gesture trails drawn, for dumping. The frames are counted
+    // by the number of trail points drawn, in buckets whose upper bounds are below.
+    private static final int[] TRAIL_LENGTH_BUCKETS = { 64, 128, 256, 512, Integer.MAX_VALUE };
+    private final int[] mFrameCounts = new int[TRAIL_LENGTH_BUCKETS.length];
+    private final long[] mTotalFrameTimesNs = new long[TRAIL_LENGTH_BUCKETS.length];
+    private long mMaxFrameTimeNs;
+    private int mMaxTrailLength;
+
     public GestureTrailsDrawingPreview(final TypedArray mainKeyboardViewAttr) {
         mDrawingParams = new GestureTrailDrawingParams(mainKeyboardViewAttr);
         final Paint gesturePaint = new Paint();
@@ -101,6 +109,8 @@ public final class GestureTrailsDrawingPreview extends AbstractDrawingPreview im
         }
         dirtyRect.setEmpty();
         boolean needsUpdatingGestureTrail = false;
+        final long startTime = System.nanoTime();
+        int trailLength = 0;
         // Draw gesture trails to offscreen buffer.
         synchronized (mGestureTrails) {
             // Trails count == fingers count that have ever been active.
@@ -109,13 +119,46 @@ public final class GestureTrailsDrawingPreview extends AbstractDrawingPreview im
                 final GestureTrailDrawingPoints trail = mGestureTrails.valueAt(index);
                 needsUpdatingGestureTrail |= trail.drawGestureTrail(offscreenCanvas, paint,
                         mGestureTrailBoundsRect, mDrawingParams);
+                trailLength += trail.getLastDrawnTrailLength();
                 // {@link #mGestureTrailBoundsRect} has bounding box of the trail.
                 dirtyRect.union(mGestureTrailBoundsRect);
             }
         }
+        if (trailLength > 0) {
+            onFrameDrawn(trailLength, System.nanoTime() - startTime);
+        }
         return needsUpdatingGestureTrail;
     }
 
+    private void onFrameDrawn(final int trailLength, final long frameTimeNs) {
+        int bucket = 0;
+        while (trailLength > TRAIL_LENGTH_BUCKETS[bucket]) {
+            bucket++;
+        }
+        mFrameCounts[bucket]++;
+        mTotalFrameTimesNs[bucket] += frameTimeNs;
+        mMaxFrameTimeNs = Math.max(mMaxFrameTimeNs, frameTimeNs);
+        mMaxTrailLength = Math.max(mMaxTrailLength, trailLength);
+    }
+
+    public String dumpGestureTrailStats() {
+        final StringBuilder sb = new StringBuilder("Gesture trails : average frame time by"
+                + " trail length =");
+        int lowerBound = 1;
+        for (int bucket = 0; bucket < TRAIL_LENGTH_BUCKETS.length; bucket++) {
+            final int upperBound = TRAIL_LENGTH_BUCKETS[bucket];
+            sb.append(' ').append(lowerBound).append(upperBound == Integer.MAX_VALUE ? "+"
+                    : "-" + upperBound);
+            sb.append(": ").append(0 == mFrameCounts[bucket] ? 0
+                    : mTotalFrameTimesNs[bucket] / mFrameCounts[bucket] / 1000);
+            sb.append(" us (").append(mFrameCounts[bucket]).append(" frames),");
+            lowerBound = upperBound + 1;
+        }
+        sb.append(" max frame time = ").append(mMaxFrameTimeNs / 1000)
+                .append(" us, max trail length = ").append(mMaxTrailLength);
+        return sb.toString();
+    }
+
     @Override
     public void run() {
         // Update preview.
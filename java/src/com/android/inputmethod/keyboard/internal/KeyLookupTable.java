@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard.internal;
+
+import com.android.inputmethod.keyboard.Key;
+import com.android.inputmethod.latin.common.Constants;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable tables to look up the keys of a keyboard by code and the index of a key in the
+ * sorted key list. The tables are built once from the sorted keys, so lookups take constant time
+ * and need no lock. These are on the touch and accessibility hover paths.
+ */
+public final class KeyLookupTable {
+    public static final int NOT_A_KEY_INDEX = -1;
+
+    // Codes are stored in an open addressing table with linear probing that is at most half
+    // full. No key is stored for CODE_UNSPECIFIED, so it marks the empty slots.
+    private static final int EMPTY_SLOT_CODE = Constants.CODE_UNSPECIFIED;
+
+    @Nonnull
+    private final int[] mCodes;
+    @Nonnull
+    private final Key[] mKeysForCodes;
+    private final int mSlotMask;
+    // Keys are compared by identity, as Key#equals() considers keys with the same attributes
+    // equal.
+    @Nonnull
+    private final IdentityHashMap<Key, Integer> mKeyIndices;
+
+    public KeyLookupTable(@Nonnull final List<Key> sortedKeys) {
+        final int keyCount = sortedKeys.size();
+        int slotCount = 2;
+        while (slotCount < keyCount * 2) {
+            slotCount <<= 1;
+        }
+        mCodes = new int[slotCount];
+        mKeysForCodes = new Key[slotCount];
+        mSlotMask = slotCount - 1;
+        mKeyIndices = new IdentityHashMap<>(keyCount);
+        for (int i = 0; i < slotCount; ++i) {
+            mCodes[i] = EMPTY_SLOT_CODE;
+        }
+        for (int index = 0; index < keyCount; ++index) {
+            final Key key = sortedKeys.get(index);
+            // The first key wins for both lookups, as with a scan of the sorted keys.
+            if (!mKeyIndices.containsKey(key)) {
+                mKeyIndices.put(key, index);
+            }
+            final int code = key.getCode();
+            if (code == EMPTY_SLOT_CODE) {
+                continue;
+            }
+            final int slot = findSlot(code);
+            if (mCodes[slot] == EMPTY_SLOT_CODE) {
+                mCodes[slot] = code;
+                mKeysForCodes[slot] = key;
+            }
+        }
+    }
+
+    private static int hash(final int code) {
+        // Spreads the consecutive codes of letters and digits over the table.
+        final int h = code * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Returns the slot of the code, or the empty slot where it would be stored.
+    private int findSlot(final int code) {
+        int slot = hash(code) & mSlotMask;
+        while (mCodes[slot] != code && mCodes[slot] != EMPTY_SLOT_CODE) {
+            slot = (slot + 1) & mSlotMask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the first key in the sorted key list that has the code, or null if there is none.
+     */
+    @Nullable
+    public Key getKey(final int code) {
+        if (code == EMPTY_SLOT_CODE) {
+            return null;
+        }
+        return mKeysForCodes[findSlot(code)];
+    }
+
+    /**
+     * Returns the index of the key in the sorted key list, or {@link #NOT_A_KEY_INDEX} if the key
+     * is not in it.
+     */
+    public int getKeyIndex(@Nonnull final Key key) {
+        final Integer index = mKeyIndices.get(key);
+        return (index == null) ? NOT_A_KEY_INDEX : index;
+    }
+}
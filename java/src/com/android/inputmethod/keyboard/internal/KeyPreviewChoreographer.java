@@ -21,6 +21,7 @@ import android.animation.AnimatorListenerAdapter;
 import android.content.Context;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewGroup.MarginLayoutParams;
 
 import com.android.inputmethod.keyboard.Key;
 import com.android.inputmethod.latin.common.CoordinateUtils;
@@ -28,6 +29,7 @@ import com.android.inputmethod.latin.utils.ViewLayoutUtils;
 
 import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.Iterator;
 
 /**
  * This class controls pop up key previews. This class decides:
@@ -36,7 +38,8 @@ import java.util.HashMap;
  * - how key previews should be shown and dismissed.
  */
 public final class KeyPreviewChoreographer {
-    // Free {@link KeyPreviewView} pool that can be used for key preview.
+    // Free {@link KeyPreviewView} pool that can be used for key preview. The views stay in the
+    // pool once created, and keep their visual and their animators to be reused.
     private final ArrayDeque<KeyPreviewView> mFreeKeyPreviewViews = new ArrayDeque<>();
     // Map from {@link Key} to {@link KeyPreviewView} that is currently being displayed as key
     // preview.
@@ -44,6 +47,13 @@ public final class KeyPreviewChoreographer {
 
     private final KeyPreviewDrawParams mParams;
 
+    // Statistics about the key previews, for dumping.
+    private int mKeyPreviewViewCount;
+    private int mShowCount;
+    private int mReusedVisualCount;
+    private long mTotalShowLatencyNs;
+    private long mMaxShowLatencyNs;
+
     public KeyPreviewChoreographer(final KeyPreviewDrawParams params) {
         mParams = params;
     }
@@ -53,17 +63,35 @@ public final class KeyPreviewChoreographer {
         if (keyPreviewView != null) {
             return keyPreviewView;
         }
-        keyPreviewView = mFreeKeyPreviewViews.poll();
+        keyPreviewView = pollFreeKeyPreviewView(key);
         if (keyPreviewView != null) {
+            if (keyPreviewView.getParent() == null) {
+                // The placer view has removed all its children meanwhile.
+                placerView.addView(keyPreviewView);
+            }
             return keyPreviewView;
         }
         final Context context = placerView.getContext();
         keyPreviewView = new KeyPreviewView(context, null /* attrs */);
         keyPreviewView.setBackgroundResource(mParams.mPreviewBackgroundResId);
         placerView.addView(keyPreviewView, ViewLayoutUtils.newLayoutParam(placerView, 0, 0));
+        ++mKeyPreviewViewCount;
         return keyPreviewView;
     }
 
+    private KeyPreviewView pollFreeKeyPreviewView(final Key key) {
+        // Prefer the view that showed the preview of this key last, as its visual is ready.
+        final Iterator<KeyPreviewView> iterator = mFreeKeyPreviewViews.iterator();
+        while (iterator.hasNext()) {
+            final KeyPreviewView keyPreviewView = iterator.next();
+            if (keyPreviewView.getPreviewKey() == key) {
+                iterator.remove();
+                return keyPreviewView;
+            }
+        }
+        return mFreeKeyPreviewViews.poll();
+    }
+
     public boolean isShowingKeyPreview(final Key key) {
         return mShowingKeyPreviewViews.containsKey(key);
     }
@@ -86,10 +114,9 @@ public final class KeyPreviewChoreographer {
         }
         // Dismiss preview without animation.
         mShowingKeyPreviewViews.remove(key);
-        if (tag instanceof Animator) {
-            ((Animator)tag).cancel();
+        if (tag instanceof KeyPreviewAnimators) {
+            ((KeyPreviewAnimators)tag).cancel();
         }
-        keyPreviewView.setTag(null);
         keyPreviewView.setVisibility(View.INVISIBLE);
         mFreeKeyPreviewViews.add(keyPreviewView);
     }
@@ -97,18 +124,46 @@ public final class KeyPreviewChoreographer {
     public void placeAndShowKeyPreview(final Key key, final KeyboardIconsSet iconsSet,
             final KeyDrawParams drawParams, final int keyboardViewWidth, final int[] keyboardOrigin,
             final ViewGroup placerView, final boolean withAnimation) {
+        final long startTime = System.nanoTime();
         final KeyPreviewView keyPreviewView = getKeyPreviewView(key, placerView);
-        placeKeyPreview(
+        final boolean hasVisualChanged = placeKeyPreview(
                 key, keyPreviewView, iconsSet, drawParams, keyboardViewWidth, keyboardOrigin);
         showKeyPreview(key, keyPreviewView, withAnimation);
+        onKeyPreviewShown(hasVisualChanged, System.nanoTime() - startTime);
     }
 
-    private void placeKeyPreview(final Key key, final KeyPreviewView keyPreviewView,
+    private void onKeyPreviewShown(final boolean hasVisualChanged, final long latencyNs) {
+        ++mShowCount;
+        if (!hasVisualChanged) {
+            ++mReusedVisualCount;
+        }
+        mTotalShowLatencyNs += latencyNs;
+        mMaxShowLatencyNs = Math.max(mMaxShowLatencyNs, latencyNs);
+    }
+
+    public String dumpKeyPreviewStats() {
+        return "Key previews : shown = " + mShowCount
+                + ", reused visuals = " + mReusedVisualCount
+                + ", views = " + mKeyPreviewViewCount
+                + ", average latency = "
+                + (0 == mShowCount ? 0 : mTotalShowLatencyNs / mShowCount / 1000)
+                + " us, max latency = " + mMaxShowLatencyNs / 1000 + " us";
+    }
+
+    /**
+     * Places the key preview.
+     *
+     * @return true if the visual of the key preview view had to be changed.
+     */
+    private boolean placeKeyPreview(final Key key, final KeyPreviewView keyPreviewView,
             final KeyboardIconsSet iconsSet, final KeyDrawParams drawParams,
             final int keyboardViewWidth, final int[] originCoords) {
-        keyPreviewView.setPreviewVisual(key, iconsSet, drawParams);
-        keyPreviewView.measure(
-                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        final boolean hasVisualChanged =
+                keyPreviewView.setPreviewVisual(key, iconsSet, drawParams);
+        if (hasVisualChanged) {
+            keyPreviewView.measure(
+                    ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        }
         mParams.setGeometry(keyPreviewView);
         final int previewWidth = keyPreviewView.getMeasuredWidth();
         final int previewHeight = mParams.mPreviewHeight;
@@ -135,61 +190,105 @@ public final class KeyPreviewChoreographer {
         final int previewY = key.getY() - previewHeight + mParams.mPreviewOffset
                 + CoordinateUtils.y(originCoords);
 
+        final ViewGroup.LayoutParams lp = keyPreviewView.getLayoutParams();
+        final boolean canMoveOnly = !hasVisualChanged && lp instanceof MarginLayoutParams
+                && !keyPreviewView.isLayoutRequested()
+                && keyPreviewView.getWidth() == previewWidth
+                && keyPreviewView.getHeight() == previewHeight;
+        final int lastPreviewX = canMoveOnly ? ((MarginLayoutParams)lp).leftMargin : 0;
+        final int lastPreviewY = canMoveOnly ? ((MarginLayoutParams)lp).topMargin : 0;
         ViewLayoutUtils.placeViewAt(
                 keyPreviewView, previewX, previewY, previewWidth, previewHeight);
+        if (canMoveOnly) {
+            // The view already has the right size, so it only has to be moved.
+            keyPreviewView.offsetLeftAndRight(previewX - lastPreviewX);
+            keyPreviewView.offsetTopAndBottom(previewY - lastPreviewY);
+        } else {
+            keyPreviewView.requestLayout();
+        }
         keyPreviewView.setPivotX(previewWidth / 2.0f);
         keyPreviewView.setPivotY(previewHeight);
+        return hasVisualChanged;
     }
 
     void showKeyPreview(final Key key, final KeyPreviewView keyPreviewView,
             final boolean withAnimation) {
+        final Object tag = keyPreviewView.getTag();
+        KeyPreviewAnimators animators =
+                (tag instanceof KeyPreviewAnimators) ? (KeyPreviewAnimators)tag : null;
         if (!withAnimation) {
-            keyPreviewView.setVisibility(View.VISIBLE);
-            mShowingKeyPreviewViews.put(key, keyPreviewView);
+            if (animators != null) {
+                animators.cancel();
+                keyPreviewView.setTag(null);
+            }
+            setKeyPreviewShowing(key, keyPreviewView);
             return;
         }
 
-        // Show preview with animation.
-        final Animator showUpAnimator = createShowUpAnimator(key, keyPreviewView);
-        final Animator dismissAnimator = createDismissAnimator(key, keyPreviewView);
-        final KeyPreviewAnimators animators = new KeyPreviewAnimators(
-                showUpAnimator, dismissAnimator);
-        keyPreviewView.setTag(animators);
-        animators.startShowUp();
-    }
-
-    public Animator createShowUpAnimator(final Key key, final KeyPreviewView keyPreviewView) {
-        final Animator showUpAnimator = mParams.createShowUpAnimator(keyPreviewView);
-        showUpAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(final Animator animator) {
-                showKeyPreview(key, keyPreviewView, false /* withAnimation */);
+        // Show preview with animation. The animators of the view are reused unless the
+        // animation parameters have changed.
+        if (animators == null || animators.mGeneration != mParams.getAnimatorsGeneration()) {
+            if (animators != null) {
+                animators.cancel();
             }
-        });
-        return showUpAnimator;
+            animators = new KeyPreviewAnimators(keyPreviewView);
+            keyPreviewView.setTag(animators);
+        }
+        animators.startShowUp(key);
     }
 
-    private Animator createDismissAnimator(final Key key, final KeyPreviewView keyPreviewView) {
-        final Animator dismissAnimator = mParams.createDismissAnimator(keyPreviewView);
-        dismissAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(final Animator animator) {
-                dismissKeyPreview(key, false /* withAnimation */);
-            }
-        });
-        return dismissAnimator;
+    private void setKeyPreviewShowing(final Key key, final KeyPreviewView keyPreviewView) {
+        keyPreviewView.setVisibility(View.VISIBLE);
+        mShowingKeyPreviewViews.put(key, keyPreviewView);
     }
 
-    private static class KeyPreviewAnimators extends AnimatorListenerAdapter {
+    private final class KeyPreviewAnimators extends AnimatorListenerAdapter {
+        public final int mGeneration;
+        private final KeyPreviewView mKeyPreviewView;
         private final Animator mShowUpAnimator;
         private final Animator mDismissAnimator;
+        // The key whose preview the animators are showing.
+        private Key mKey;
+
+        public KeyPreviewAnimators(final KeyPreviewView keyPreviewView) {
+            mGeneration = mParams.getAnimatorsGeneration();
+            mKeyPreviewView = keyPreviewView;
+            mShowUpAnimator = mParams.createShowUpAnimator(keyPreviewView);
+            mShowUpAnimator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationStart(final Animator animator) {
+                    setKeyPreviewShowing(mKey, mKeyPreviewView);
+                }
+            });
+            mDismissAnimator = mParams.createDismissAnimator(keyPreviewView);
+            mDismissAnimator.addListener(new AnimatorListenerAdapter() {
+                private boolean mIsCancelled;
+
+                @Override
+                public void onAnimationStart(final Animator animator) {
+                    mIsCancelled = false;
+                }
 
-        public KeyPreviewAnimators(final Animator showUpAnimator, final Animator dismissAnimator) {
-            mShowUpAnimator = showUpAnimator;
-            mDismissAnimator = dismissAnimator;
+                @Override
+                public void onAnimationCancel(final Animator animator) {
+                    mIsCancelled = true;
+                }
+
+                @Override
+                public void onAnimationEnd(final Animator animator) {
+                    // The dismissal is cancelled when the preview is shown again or dismissed
+                    // without animation, which take care of the view. Otherwise, unless the view
+                    // has been dismissed without animation meanwhile.
+                    if (!mIsCancelled && mShowingKeyPreviewViews.get(mKey) == mKeyPreviewView) {
+                        dismissKeyPreview(mKey, false /* withAnimation */);
+                    }
+                }
+            });
         }
 
-        public void startShowUp() {
+        public void startShowUp(final Key key) {
+            cancel();
+            mKey = key;
             mShowUpAnimator.start();
         }
 
@@ -201,8 +300,15 @@ public final class KeyPreviewChoreographer {
             mDismissAnimator.start();
         }
 
+        public void cancel() {
+            mShowUpAnimator.removeListener(this);
+            mShowUpAnimator.cancel();
+            mDismissAnimator.cancel();
+        }
+
         @Override
         public void onAnimationEnd(final Animator animator) {
+            animator.removeListener(this);
             mDismissAnimator.start();
         }
     }
@@ -43,6 +43,9 @@ public final class KeyPreviewDrawParams {
     private float mDismissEndYScale;
     private int mLingerTimeout;
     private boolean mShowPopup = true;
+    // Incremented whenever the animators created by this object would change, so that the
+    // animators that are reused can be created again.
+    private int mAnimatorsGeneration;
 
     // The graphical geometry of the key preview.
     // <-width->
@@ -116,7 +119,10 @@ public final class KeyPreviewDrawParams {
 
     public void setPopupEnabled(final boolean enabled, final int lingerTimeout) {
         mShowPopup = enabled;
-        mLingerTimeout = lingerTimeout;
+        if (mLingerTimeout != lingerTimeout) {
+            mLingerTimeout = lingerTimeout;
+            ++mAnimatorsGeneration;
+        }
     }
 
     public boolean isPopupEnabled() {
@@ -137,6 +143,11 @@ public final class KeyPreviewDrawParams {
         mDismissEndXScale = dismissEndXScale;
         mDismissEndYScale = dismissEndYScale;
         mDismissDuration = dismissDuration;
+        ++mAnimatorsGeneration;
+    }
+
+    public int getAnimatorsGeneration() {
+        return mAnimatorsGeneration;
     }
 
     private static final float KEY_PREVIEW_SHOW_UP_END_SCALE = 1.0f;
@@ -18,6 +18,7 @@ package com.android.inputmethod.keyboard.internal;
 
 import android.content.Context;
 import android.graphics.Rect;
+import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
 import android.text.TextPaint;
 import android.text.TextUtils;
@@ -31,6 +32,8 @@ import com.android.inputmethod.latin.R;
 
 import java.util.HashSet;
 
+import javax.annotation.Nullable;
+
 /**
  * The pop up key preview view.
  */
@@ -42,6 +45,20 @@ public class KeyPreviewView extends TextView {
     private final Rect mBackgroundPadding = new Rect();
     private static final HashSet<String> sNoScaleXTextSet = new HashSet<>();
 
+    // The visual this preview was last set to by {@link #setPreviewVisual}.
+    @Nullable
+    private Key mPreviewKey;
+    private boolean mHasPreviewVisual;
+    private int mPreviewIconId;
+    @Nullable
+    private Drawable mPreviewIcon;
+    @Nullable
+    private String mPreviewLabel;
+    private int mPreviewTextSize;
+    @Nullable
+    private Typeface mPreviewTypeface;
+    private int mPreviewTextColor;
+
     public KeyPreviewView(final Context context, final AttributeSet attrs) {
         this(context, attrs, 0);
     }
@@ -51,22 +68,68 @@ public class KeyPreviewView extends TextView {
         setGravity(Gravity.CENTER);
     }
 
-    public void setPreviewVisual(final Key key, final KeyboardIconsSet iconsSet,
+    /**
+     * Sets the visual of this preview to that of the key.
+     *
+     * This view remembers the last visual it was set to, so that showing the preview of the same
+     * key again does not set its text, nor needs to measure it again.
+     *
+     * @return true if the visual changed and this view needs to be measured again.
+     */
+    public boolean setPreviewVisual(final Key key, final KeyboardIconsSet iconsSet,
             final KeyDrawParams drawParams) {
+        mPreviewKey = key;
         // What we show as preview should match what we show on a key top in onDraw().
         final int iconId = key.getIconId();
         if (iconId != KeyboardIconsSet.ICON_UNDEFINED) {
-            setCompoundDrawables(null, null, null, key.getPreviewIcon(iconsSet));
+            final Drawable icon = key.getPreviewIcon(iconsSet);
+            if (mHasPreviewVisual && iconId == mPreviewIconId && icon == mPreviewIcon) {
+                return false;
+            }
+            setCompoundDrawables(null, null, null, icon);
             setText(null);
-            return;
+            setPreviewVisualCache(iconId, icon, null, 0, null, 0);
+            return true;
         }
 
-        setCompoundDrawables(null, null, null, null);
-        setTextColor(drawParams.mPreviewTextColor);
-        setTextSize(TypedValue.COMPLEX_UNIT_PX, key.selectPreviewTextSize(drawParams));
-        setTypeface(key.selectPreviewTypeface(drawParams));
+        final int textColor = drawParams.mPreviewTextColor;
+        final int textSize = key.selectPreviewTextSize(drawParams);
+        final Typeface typeface = key.selectPreviewTypeface(drawParams);
         // TODO Should take care of temporaryShiftLabel here.
-        setTextAndScaleX(key.getPreviewLabel());
+        final String label = key.getPreviewLabel();
+        if (mHasPreviewVisual && KeyboardIconsSet.ICON_UNDEFINED == mPreviewIconId
+                && TextUtils.equals(label, mPreviewLabel)
+                && textSize == mPreviewTextSize && typeface == mPreviewTypeface
+                && textColor == mPreviewTextColor) {
+            return false;
+        }
+        setCompoundDrawables(null, null, null, null);
+        setTextColor(textColor);
+        setTextSize(TypedValue.COMPLEX_UNIT_PX, textSize);
+        setTypeface(typeface);
+        setTextAndScaleX(label);
+        setPreviewVisualCache(iconId, null, label, textSize, typeface, textColor);
+        return true;
+    }
+
+    private void setPreviewVisualCache(final int iconId, final Drawable icon,
+            final String label, final int textSize, final Typeface typeface,
+            final int textColor) {
+        mHasPreviewVisual = true;
+        mPreviewIconId = iconId;
+        mPreviewIcon = icon;
+        mPreviewLabel = label;
+        mPreviewTextSize = textSize;
+        mPreviewTypeface = typeface;
+        mPreviewTextColor = textColor;
+    }
+
+    /**
+     * Returns the key this preview was last set to, if any.
+     */
+    @Nullable
+    public Key getPreviewKey() {
+        return mPreviewKey;
     }
 
     private void setTextAndScaleX(final String text) {
@@ -33,8 +33,10 @@ public final class KeyboardTextsSet {
     private static final String PREFIX_RESOURCE = "!string/";
     public static final String SWITCH_TO_ALPHA_KEY_LABEL = "keylabel_to_alpha";
 
+    // The character both of the prefixes start with.
+    private static final char REFERENCE_MARK = '!';
+
     private static final char BACKSLASH = Constants.CODE_BACKSLASH;
-    private static final int MAX_REFERENCE_INDIRECTION = 10;
 
     private Resources mResources;
     private Locale mResourceLocale;
@@ -76,56 +78,49 @@ public final class KeyboardTextsSet {
         return size;
     }
 
-    // TODO: Resolve text reference when creating {@link KeyboardTextsTable} class.
+    /**
+     * Expands the "!text/" and "!string/" references in a text of a keyboard XML definition.
+     * The texts in {@link KeyboardTextsTable} have their "!text/" references resolved by
+     * tools/make-keyboard-text, so a single pass is enough.
+     */
     public String resolveTextReference(final String rawText) {
         if (TextUtils.isEmpty(rawText)) {
             return null;
         }
-        int level = 0;
-        String text = rawText;
-        StringBuilder sb;
-        do {
-            level++;
-            if (level >= MAX_REFERENCE_INDIRECTION) {
-                throw new RuntimeException("Too many " + PREFIX_TEXT + " or " + PREFIX_RESOURCE +
-                        " reference indirection: " + text);
-            }
-
-            final int prefixLength = PREFIX_TEXT.length();
-            final int size = text.length();
-            if (size < prefixLength) {
-                break;
-            }
+        final String text = expandReferences(rawText);
+        return TextUtils.isEmpty(text) ? null : text;
+    }
 
-            sb = null;
-            for (int pos = 0; pos < size; pos++) {
-                final char c = text.charAt(pos);
-                if (text.startsWith(PREFIX_TEXT, pos)) {
-                    if (sb == null) {
-                        sb = new StringBuilder(text.substring(0, pos));
-                    }
-                    pos = expandReference(text, pos, PREFIX_TEXT, sb);
-                } else if (text.startsWith(PREFIX_RESOURCE, pos)) {
-                    if (sb == null) {
-                        sb = new StringBuilder(text.substring(0, pos));
-                    }
-                    pos = expandReference(text, pos, PREFIX_RESOURCE, sb);
-                } else if (c == BACKSLASH) {
-                    if (sb != null) {
-                        // Append both escape character and escaped character.
-                        sb.append(text.substring(pos, Math.min(pos + 2, size)));
-                    }
-                    pos++;
-                } else if (sb != null) {
-                    sb.append(c);
+    private String expandReferences(final String text) {
+        // Most texts have no reference.
+        if (text.indexOf(REFERENCE_MARK) < 0) {
+            return text;
+        }
+        StringBuilder sb = null;
+        final int size = text.length();
+        for (int pos = 0; pos < size; pos++) {
+            final char c = text.charAt(pos);
+            if (text.startsWith(PREFIX_TEXT, pos)) {
+                if (sb == null) {
+                    sb = new StringBuilder(text.substring(0, pos));
                 }
+                pos = expandReference(text, pos, PREFIX_TEXT, sb);
+            } else if (text.startsWith(PREFIX_RESOURCE, pos)) {
+                if (sb == null) {
+                    sb = new StringBuilder(text.substring(0, pos));
+                }
+                pos = expandReference(text, pos, PREFIX_RESOURCE, sb);
+            } else if (c == BACKSLASH) {
+                if (sb != null) {
+                    // Append both escape character and escaped character.
+                    sb.append(text.substring(pos, Math.min(pos + 2, size)));
+                }
+                pos++;
+            } else if (sb != null) {
+                sb.append(c);
             }
-
-            if (sb != null) {
-                text = sb.toString();
-            }
-        } while (sb != null);
-        return TextUtils.isEmpty(text) ? null : text;
+        }
+        return (sb == null) ? text : sb.toString();
     }
 
     private int expandReference(final String text, final int pos, final String prefix,
@@ -134,7 +129,8 @@ public final class KeyboardTextsSet {
         final int end = searchTextNameEnd(text, pos + prefixLength);
         final String name = text.substring(pos + prefixLength, end);
         if (prefix.equals(PREFIX_TEXT)) {
-            sb.append(getText(name));
+            // The text may still have "!string/" references.
+            sb.append(expandReferences(getText(name)));
         } else { // PREFIX_RESOURCE
             final String resourcePackageName = mResourcePackageName;
             final RunInLocale<String> getTextJob = new RunInLocale<String>() {
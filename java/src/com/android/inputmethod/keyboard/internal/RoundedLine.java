@@ -24,10 +24,21 @@ public final class RoundedLine {
     private final RectF mArc1 = new RectF();
     private final RectF mArc2 = new RectF();
     private final Path mPath = new Path();
+    private final float[] mGeometry = new float[GEOMETRY_SIZE];
 
     private static final double RADIAN_TO_DEGREE = 180.0d / Math.PI;
     private static final double RIGHT_ANGLE = Math.PI / 2.0d;
 
+    // The geometry of a rounded line, see {@link #computeGeometry}.
+    public static final int GEOMETRY_SIZE = 7;
+    private static final int GEOMETRY_COS_A = 0;
+    private static final int GEOMETRY_SIN_A = 1;
+    private static final int GEOMETRY_COS_B = 2;
+    private static final int GEOMETRY_SIN_B = 3;
+    private static final int GEOMETRY_START_ANGLE = 4;
+    private static final int GEOMETRY_SWEEP_ANGLE_1 = 5;
+    private static final int GEOMETRY_SWEEP_ANGLE_2 = 6;
+
     /**
      * Make a rounded line path
      *
@@ -42,13 +53,38 @@ public final class RoundedLine {
      */
     public Path makePath(final float p1x, final float p1y, final float r1,
             final float p2x, final float p2y, final float r2) {
-        mPath.rewind();
+        if (!computeGeometry(p1x, p1y, r1, p2x, p2y, r2, mGeometry, 0)) {
+            mPath.rewind();
+            return mPath; // Return an empty path
+        }
+        return makePath(p1x, p1y, r1, p2x, p2y, r2, mGeometry, 0);
+    }
+
+    /**
+     * Compute the geometry of a rounded line, that is the angles of its trail caps.
+     *
+     * The geometry only depends on the direction of the line, its length and the difference of
+     * its radii, so that it stays valid when both radii change by the same amount.
+     *
+     * @param p1x the x-coordinate of the start point.
+     * @param p1y the y-coordinate of the start point.
+     * @param r1 the radius at the start point
+     * @param p2x the x-coordinate of the end point.
+     * @param p2y the y-coordinate of the end point.
+     * @param r2 the radius at the end point
+     * @param outGeometry the array to store {@link #GEOMETRY_SIZE} values of the geometry to.
+     * @param offset the offset in outGeometry to store the geometry at.
+     * @return false if the start and end points are equal, in which case there is no geometry.
+     */
+    public static boolean computeGeometry(final float p1x, final float p1y, final float r1,
+            final float p2x, final float p2y, final float r2, final float[] outGeometry,
+            final int offset) {
         final double dx = p2x - p1x;
         final double dy = p2y - p1y;
         // Distance of the points.
         final double l = Math.hypot(dx, dy);
         if (Double.compare(0.0d, l) == 0) {
-            return mPath; // Return an empty path
+            return false;
         }
         // Angle of the line p1-p2
         final double a = Math.atan2(dy, dx);
@@ -60,10 +96,42 @@ public final class RoundedLine {
         final double aa = a - (RIGHT_ANGLE + ar);
         // The end angle of trail cap arc at P2.
         final double ab = a + (RIGHT_ANGLE + ar);
-        final float cosa = (float)Math.cos(aa);
-        final float sina = (float)Math.sin(aa);
-        final float cosb = (float)Math.cos(ab);
-        final float sinb = (float)Math.sin(ab);
+        outGeometry[offset + GEOMETRY_COS_A] = (float)Math.cos(aa);
+        outGeometry[offset + GEOMETRY_SIN_A] = (float)Math.sin(aa);
+        outGeometry[offset + GEOMETRY_COS_B] = (float)Math.cos(ab);
+        outGeometry[offset + GEOMETRY_SIN_B] = (float)Math.sin(ab);
+        // Start angle of the trail arcs.
+        outGeometry[offset + GEOMETRY_START_ANGLE] = (float)(aa * RADIAN_TO_DEGREE);
+        final float ar2degree = (float)(ar * 2.0d * RADIAN_TO_DEGREE);
+        // Sweep angle of the trail arc at P1.
+        outGeometry[offset + GEOMETRY_SWEEP_ANGLE_1] = -180.0f + ar2degree;
+        // Sweep angle of the trail arc at P2.
+        outGeometry[offset + GEOMETRY_SWEEP_ANGLE_2] = 180.0f + ar2degree;
+        return true;
+    }
+
+    /**
+     * Make a rounded line path from its geometry
+     *
+     * @param p1x the x-coordinate of the start point.
+     * @param p1y the y-coordinate of the start point.
+     * @param r1 the radius at the start point
+     * @param p2x the x-coordinate of the end point.
+     * @param p2y the y-coordinate of the end point.
+     * @param r2 the radius at the end point
+     * @param geometry the array that holds the geometry computed by {@link #computeGeometry}
+     * for the same points and the same difference of radii.
+     * @param offset the offset of the geometry in geometry.
+     * @return an instance of {@link Path} that holds the result rounded line.
+     */
+    public Path makePath(final float p1x, final float p1y, final float r1,
+            final float p2x, final float p2y, final float r2, final float[] geometry,
+            final int offset) {
+        mPath.rewind();
+        final float cosa = geometry[offset + GEOMETRY_COS_A];
+        final float sina = geometry[offset + GEOMETRY_SIN_A];
+        final float cosb = geometry[offset + GEOMETRY_COS_B];
+        final float sinb = geometry[offset + GEOMETRY_SIN_B];
         // Closing point of arc at P1.
         final float p1ax = p1x + r1 * cosa;
         final float p1ay = p1y + r1 * sina;
@@ -76,13 +144,7 @@ public final class RoundedLine {
         // Closing point of arc at P2.
         final float p2bx = p2x + r2 * cosb;
         final float p2by = p2y + r2 * sinb;
-        // Start angle of the trail arcs.
-        final float angle = (float)(aa * RADIAN_TO_DEGREE);
-        final float ar2degree = (float)(ar * 2.0d * RADIAN_TO_DEGREE);
-        // Sweep angle of the trail arc at P1.
-        final float a1 = -180.0f + ar2degree;
-        // Sweep angle of the trail arc at P2.
-        final float a2 = 180.0f + ar2degree;
+        final float angle = geometry[offset + GEOMETRY_START_ANGLE];
         mArc1.set(p1x, p1y, p1x, p1y);
         mArc1.inset(-r1, -r1);
         mArc2.set(p2x, p2y, p2x, p2y);
@@ -90,10 +152,10 @@ public final class RoundedLine {
 
         // Trail cap at P1.
         mPath.moveTo(p1x, p1y);
-        mPath.arcTo(mArc1, angle, a1);
+        mPath.arcTo(mArc1, angle, geometry[offset + GEOMETRY_SWEEP_ANGLE_1]);
         // Trail cap at P2.
         mPath.moveTo(p2x, p2y);
-        mPath.arcTo(mArc2, angle, a2);
+        mPath.arcTo(mArc2, angle, geometry[offset + GEOMETRY_SWEEP_ANGLE_2]);
         // Two trapezoids connecting P1 and P2.
         mPath.moveTo(p1ax, p1ay);
         mPath.lineTo(p1x, p1y);
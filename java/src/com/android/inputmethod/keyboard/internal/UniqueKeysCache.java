@@ -58,13 +58,14 @@ public abstract class UniqueKeysCache {
             mEnabled = enabled;
         }
 
+        // Keyboards may be built on several threads at once, see KeyboardLayoutSet.
         @Override
-        public void clear() {
+        public synchronized void clear() {
             mCache.clear();
         }
 
         @Override
-        public Key getUniqueKey(final Key key) {
+        public synchronized Key getUniqueKey(final Key key) {
             if (!mEnabled) {
                 return key;
             }
@@ -18,6 +18,11 @@ package com.android.inputmethod.latin;
 
 import android.content.Context;
 import android.media.AudioManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
+import android.os.Process;
+import android.os.SystemClock;
 import android.os.Vibrator;
 import android.view.HapticFeedbackConstants;
 import android.view.View;
@@ -30,10 +35,24 @@ import com.android.inputmethod.latin.settings.SettingsValues;
  *
  * It offers a consistent and simple interface that allows LatinIME to forget about the
  * complexity of settings and the like.
+ *
+ * Playing a sound effect and vibrating are calls to system services that may take a few
+ * milliseconds, so they are made on a dedicated feedback thread. The key press handling only
+ * posts a message, and a feedback that is already late when its turn comes is dropped.
  */
-public final class AudioAndHapticFeedbackManager {
+public final class AudioAndHapticFeedbackManager implements Handler.Callback {
+    private static final String TAG = AudioAndHapticFeedbackManager.class.getSimpleName();
+
+    private static final int MSG_LOAD_SOUND_EFFECTS = 0;
+    private static final int MSG_PLAY_SOUND_EFFECT = 1;
+    private static final int MSG_VIBRATE = 2;
+
+    // Feedback delayed longer than this would no longer match the key press, so it is dropped.
+    private static final long MAX_FEEDBACK_DELAY_MS = 50;
+
     private AudioManager mAudioManager;
     private Vibrator mVibrator;
+    private Handler mFeedbackHandler;
 
     private SettingsValues mSettingsValues;
     private boolean mSoundOn;
@@ -56,6 +75,39 @@ public final class AudioAndHapticFeedbackManager {
     private void initInternal(final Context context) {
         mAudioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
         mVibrator = (Vibrator) context.getSystemService(Context.VIBRATOR_SERVICE);
+        if (mFeedbackHandler == null) {
+            final HandlerThread feedbackThread =
+                    new HandlerThread(TAG, Process.THREAD_PRIORITY_URGENT_AUDIO);
+            feedbackThread.start();
+            mFeedbackHandler = new Handler(feedbackThread.getLooper(), this);
+        }
+        if (mAudioManager != null) {
+            // So that the first key press doesn't wait for the sound effects to be loaded.
+            mFeedbackHandler.sendEmptyMessage(MSG_LOAD_SOUND_EFFECTS);
+        }
+    }
+
+    // Called on the feedback thread.
+    @Override
+    public boolean handleMessage(final Message msg) {
+        if (msg.what != MSG_LOAD_SOUND_EFFECTS
+                && SystemClock.uptimeMillis() - msg.getWhen() > MAX_FEEDBACK_DELAY_MS) {
+            return true;
+        }
+        switch (msg.what) {
+        case MSG_LOAD_SOUND_EFFECTS:
+            mAudioManager.loadSoundEffects();
+            return true;
+        case MSG_PLAY_SOUND_EFFECT:
+            mAudioManager.playSoundEffect(msg.arg1 /* effectType */,
+                    Float.intBitsToFloat(msg.arg2) /* volume */);
+            return true;
+        case MSG_VIBRATE:
+            mVibrator.vibrate(msg.arg1 /* milliseconds */);
+            return true;
+        default:
+            return false;
+        }
     }
 
     public void performHapticAndAudioFeedback(final int code,
@@ -72,7 +124,7 @@ public final class AudioAndHapticFeedbackManager {
         if (mVibrator == null) {
             return;
         }
-        mVibrator.vibrate(milliseconds);
+        mFeedbackHandler.obtainMessage(MSG_VIBRATE, (int)milliseconds, 0).sendToTarget();
     }
 
     private boolean reevaluateIfSoundIsOn() {
@@ -105,7 +157,8 @@ public final class AudioAndHapticFeedbackManager {
             sound = AudioManager.FX_KEYPRESS_STANDARD;
             break;
         }
-        mAudioManager.playSoundEffect(sound, mSettingsValues.mKeypressSoundVolume);
+        mFeedbackHandler.obtainMessage(MSG_PLAY_SOUND_EFFECT, sound,
+                Float.floatToIntBits(mSettingsValues.mKeypressSoundVolume)).sendToTarget();
     }
 
     public void performHapticFeedback(final View viewToPerformHapticFeedbackOn) {
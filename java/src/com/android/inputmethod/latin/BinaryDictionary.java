@@ -45,6 +45,7 @@ import java.util.Locale;
 import java.util.Map;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Implements a static, compacted, binary dictionary of standard words.
@@ -179,6 +180,9 @@ public final class BinaryDictionary extends Dictionary {
     private static native void closeNative(long dict);
     private static native int getFormatVersionNative(long dict);
     private static native int getProbabilityNative(long dict, int[] word);
+    private static native void getProbabilitiesNative(long dict, int[][] prevWordCodePointArrays,
+            boolean[] isBeginningOfSentenceArray, int[] codePoints, int[] wordStartIndices,
+            int wordCount, int[] outProbabilities);
     private static native int getMaxProbabilityOfExactMatchesNative(long dict, int[] word);
     private static native int getNgramProbabilityNative(long dict, int[][] prevWordCodePointArrays,
             boolean[] isBeginningOfSentenceArray, int[] word);
@@ -362,6 +366,70 @@ public final class BinaryDictionary extends Dictionary {
         return getProbabilityNative(mNativeDict, codePoints);
     }
 
+    /**
+     * Gets the frequencies of many words with a single native call. The words are packed into one
+     * code point buffer rather than converted to an array each.
+     *
+     * @param words the words to look up.
+     * @param outFrequencies receives the frequency of each word, or NOT_A_PROBABILITY. It must be
+     * at least as long as words.
+     * @return the number of words that were looked up in the native dictionary, which is the
+     * number of native calls {@link #getFrequency(String)} would have made.
+     */
+    public int getFrequencies(final String[] words, final int[] outFrequencies) {
+        return getProbabilities(null /* ngramContext */, words, outFrequencies);
+    }
+
+    private int getProbabilities(@Nullable final NgramContext ngramContext, final String[] words,
+            final int[] outProbabilities) {
+        int codePointCount = 0;
+        int wordCount = 0;
+        for (final String word : words) {
+            if (!TextUtils.isEmpty(word)) {
+                codePointCount += word.codePointCount(0, word.length());
+                ++wordCount;
+            }
+        }
+        Arrays.fill(outProbabilities, 0, words.length, NOT_A_PROBABILITY);
+        if (0 == wordCount) {
+            return 0;
+        }
+        final int[] codePoints = new int[codePointCount];
+        final int[] wordStartIndices = new int[words.length + 1];
+        int index = 0;
+        for (int i = 0; i < words.length; ++i) {
+            wordStartIndices[i] = index;
+            final String word = words[i];
+            if (TextUtils.isEmpty(word)) {
+                continue;
+            }
+            for (int j = 0; j < word.length(); j = word.offsetByCodePoints(j, 1)) {
+                codePoints[index++] = word.codePointAt(j);
+            }
+        }
+        wordStartIndices[words.length] = index;
+        if (null == ngramContext) {
+            getProbabilitiesNative(mNativeDict, null /* prevWordCodePointArrays */,
+                    null /* isBeginningOfSentenceArray */, codePoints, wordStartIndices,
+                    words.length, outProbabilities);
+        } else {
+            getProbabilitiesNative(mNativeDict, ngramContext.getPrevWordCodePointArrays(),
+                    ngramContext.getIsBeginningOfSentenceArray(), codePoints, wordStartIndices,
+                    words.length, outProbabilities);
+        }
+        return wordCount;
+    }
+
+    @Override
+    public int isValidWords(final String[] words, final boolean[] outIsValid) {
+        final int[] frequencies = new int[words.length];
+        final int lookupCount = getFrequencies(words, frequencies);
+        for (int i = 0; i < words.length; ++i) {
+            outIsValid[i] = frequencies[i] != NOT_A_PROBABILITY;
+        }
+        return Math.max(0, lookupCount - 1);
+    }
+
     @Override
     public int getMaxFrequencyOfExactMatches(final String word) {
         if (TextUtils.isEmpty(word)) {
@@ -377,15 +445,34 @@ public final class BinaryDictionary extends Dictionary {
     }
 
     public int getNgramProbability(final NgramContext ngramContext, final String word) {
-        if (!ngramContext.isValid() || TextUtils.isEmpty(word)) {
+        if (TextUtils.isEmpty(word)) {
             return NOT_A_PROBABILITY;
         }
-        final int[][] prevWordCodePointArrays = new int[ngramContext.getPrevWordCount()][];
-        final boolean[] isBeginningOfSentenceArray = new boolean[ngramContext.getPrevWordCount()];
-        ngramContext.outputToArray(prevWordCodePointArrays, isBeginningOfSentenceArray);
-        final int[] wordCodePoints = StringUtils.toCodePointArray(word);
-        return getNgramProbabilityNative(mNativeDict, prevWordCodePointArrays,
-                isBeginningOfSentenceArray, wordCodePoints);
+        if (!ngramContext.isValid()) {
+            return NOT_A_PROBABILITY;
+        }
+        return getNgramProbabilityNative(mNativeDict, ngramContext.getPrevWordCodePointArrays(),
+                ngramContext.getIsBeginningOfSentenceArray(), StringUtils.toCodePointArray(word));
+    }
+
+    /**
+     * Gets the n-gram probabilities of many words after the same context with a single native
+     * call, the way {@link #getFrequencies(String[], int[])} gets their unigram frequencies.
+     *
+     * @param ngramContext the context shared by all the words.
+     * @param words the words to look up.
+     * @param outProbabilities receives the probability of each word, or NOT_A_PROBABILITY. It
+     * must be at least as long as words.
+     * @return the number of words that were looked up in the native dictionary, which is the
+     * number of native calls {@link #getNgramProbability(NgramContext, String)} would have made.
+     */
+    public int getNgramProbabilities(@Nonnull final NgramContext ngramContext,
+            final String[] words, final int[] outProbabilities) {
+        if (!ngramContext.isValid()) {
+            Arrays.fill(outProbabilities, 0, words.length, NOT_A_PROBABILITY);
+            return 0;
+        }
+        return getProbabilities(ngramContext, words, outProbabilities);
     }
 
     public WordProperty getWordProperty(final String word, final boolean isBeginningOfSentence) {
@@ -482,12 +569,10 @@ public final class BinaryDictionary extends Dictionary {
         if (!ngramContext.isValid() || TextUtils.isEmpty(word)) {
             return false;
         }
-        final int[][] prevWordCodePointArrays = new int[ngramContext.getPrevWordCount()][];
-        final boolean[] isBeginningOfSentenceArray = new boolean[ngramContext.getPrevWordCount()];
-        ngramContext.outputToArray(prevWordCodePointArrays, isBeginningOfSentenceArray);
         final int[] wordCodePoints = StringUtils.toCodePointArray(word);
-        if (!addNgramEntryNative(mNativeDict, prevWordCodePointArrays,
-                isBeginningOfSentenceArray, wordCodePoints, probability, timestamp)) {
+        if (!addNgramEntryNative(mNativeDict, ngramContext.getPrevWordCodePointArrays(),
+                ngramContext.getIsBeginningOfSentenceArray(), wordCodePoints, probability,
+                timestamp)) {
             return false;
         }
         mHasUpdated = true;
@@ -500,12 +585,11 @@ public final class BinaryDictionary extends Dictionary {
         if (TextUtils.isEmpty(word)) {
             return false;
         }
-        final int[][] prevWordCodePointArrays = new int[ngramContext.getPrevWordCount()][];
-        final boolean[] isBeginningOfSentenceArray = new boolean[ngramContext.getPrevWordCount()];
-        ngramContext.outputToArray(prevWordCodePointArrays, isBeginningOfSentenceArray);
         final int[] wordCodePoints = StringUtils.toCodePointArray(word);
-        if (!updateEntriesForWordWithNgramContextNative(mNativeDict, prevWordCodePointArrays,
-                isBeginningOfSentenceArray, wordCodePoints, isValidWord, count, timestamp)) {
+        if (!updateEntriesForWordWithNgramContextNative(mNativeDict,
+                ngramContext.getPrevWordCodePointArrays(),
+                ngramContext.getIsBeginningOfSentenceArray(), wordCodePoints, isValidWord, count,
+                timestamp)) {
             return false;
         }
         mHasUpdated = true;
@@ -555,6 +639,24 @@ public final class BinaryDictionary extends Dictionary {
         return true;
     }
 
+    /**
+     * Returns whether the dictionary has changes that have not been written to the file yet.
+     */
+    boolean hasUpdated() {
+        return mHasUpdated;
+    }
+
+    /**
+     * Writes the dictionary to another file without reopening it, so that the file can be
+     * processed while this dictionary keeps serving lookups. This only reads the dictionary.
+     */
+    boolean flushToFile(final String filePath) {
+        if (!isValidDictionary()) {
+            return false;
+        }
+        return flushNative(mNativeDict, filePath);
+    }
+
     // Run GC and flush to dict file if the dictionary has been updated.
     public boolean flushWithGCIfHasUpdated() {
         if (mHasUpdated) {
@@ -46,10 +46,19 @@ public final class DicTraverseSession {
 
     public final NativeSuggestOptions mNativeSuggestOptions = new NativeSuggestOptions();
 
+    // Indices into the array returned by getNgramCacheStats(). Must match the order in
+    // native/jni/com_android_inputmethod_latin_DicTraverseSession.cpp
+    public static final int NGRAM_CACHE_STATS_HIT_COUNT_INDEX = 0;
+    public static final int NGRAM_CACHE_STATS_MISS_COUNT_INDEX = 1;
+    public static final int NGRAM_CACHE_STATS_CACHED_ENTRY_COUNT_INDEX = 2;
+    private static final int NGRAM_CACHE_STATS_SIZE = 3;
+
     private static native long setDicTraverseSessionNative(String locale, long dictSize);
     private static native void initDicTraverseSessionNative(long nativeDicTraverseSession,
             long dictionary, int[] previousWord, int previousWordLength);
     private static native void releaseDicTraverseSessionNative(long nativeDicTraverseSession);
+    private static native void getNgramCacheStatsNative(long nativeDicTraverseSession,
+            int[] outStats);
 
     private long mNativeDicTraverseSession;
 
@@ -72,6 +81,19 @@ public final class DicTraverseSession {
                 mNativeDicTraverseSession, dictionary, previousWord, previousWordLength);
     }
 
+    /**
+     * Returns the statistics of the n-gram lookup cache that this session keeps across keystrokes
+     * while the previous words do not change. The hit and miss counts are cumulative over the
+     * life of the session. Use the NGRAM_CACHE_STATS_*_INDEX constants to read the array.
+     */
+    public int[] getNgramCacheStats() {
+        final int[] stats = new int[NGRAM_CACHE_STATS_SIZE];
+        if (mNativeDicTraverseSession != 0) {
+            getNgramCacheStatsNative(mNativeDicTraverseSession, stats);
+        }
+        return stats;
+    }
+
     private static long createNativeDicTraverseSession(String locale, long dictSize) {
         return setDicTraverseSessionNative(locale, dictSize);
     }
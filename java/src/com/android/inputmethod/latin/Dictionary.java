@@ -112,6 +112,21 @@ public abstract class Dictionary {
         return isInDictionary(word);
     }
 
+    /**
+     * Checks which of the given words have to be treated as valid words, as
+     * {@link #isValidWord(String)} does for each of them. Dictionaries backed by a native
+     * dictionary look all the words up at once.
+     * @param words the words to search for.
+     * @param outIsValid receives whether each word is valid. It must be at least as long as words.
+     * @return the number of native calls saved by looking the words up together.
+     */
+    public int isValidWords(final String[] words, final boolean[] outIsValid) {
+        for (int i = 0; i < words.length; ++i) {
+            outIsValid[i] = isValidWord(words[i]);
+        }
+        return 0;
+    }
+
     /**
      * Checks if the given word is in the dictionary regardless of it being valid or not.
      */
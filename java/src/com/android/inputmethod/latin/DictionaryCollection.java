@@ -23,6 +23,7 @@ import com.android.inputmethod.latin.common.ComposedData;
 import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Locale;
@@ -89,6 +90,30 @@ public final class DictionaryCollection extends Dictionary {
         return false;
     }
 
+    @Override
+    public int isValidWords(final String[] words, final boolean[] outIsValid) {
+        Arrays.fill(outIsValid, 0, words.length, false);
+        int savedCallCount = 0;
+        for (int i = mDictionaries.size() - 1; i >= 0; --i) {
+            // Only look up the words that no dictionary has found yet.
+            int remainingWordCount = 0;
+            for (int j = 0; j < words.length; ++j) {
+                if (!outIsValid[j]) ++remainingWordCount;
+            }
+            if (0 == remainingWordCount) break;
+            final String[] remainingWords = new String[remainingWordCount];
+            for (int j = 0, k = 0; j < words.length; ++j) {
+                if (!outIsValid[j]) remainingWords[k++] = words[j];
+            }
+            final boolean[] isValid = new boolean[remainingWordCount];
+            savedCallCount += mDictionaries.get(i).isValidWords(remainingWords, isValid);
+            for (int j = 0, k = 0; j < words.length; ++j) {
+                if (!outIsValid[j]) outIsValid[j] = isValid[k++];
+            }
+        }
+        return savedCallCount;
+    }
+
     @Override
     public int getFrequency(final String word) {
         int maxFreq = -1;
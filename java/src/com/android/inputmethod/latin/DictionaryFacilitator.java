@@ -164,6 +164,13 @@ public interface DictionaryFacilitator {
 
     boolean isValidSpellingWord(final String word);
 
+    /**
+     * Checks each of the given words like {@link #isValidSpellingWord(String)}, looking the words
+     * up in each dictionary at once.
+     * @return the number of dictionary lookups that did not need their own native call.
+     */
+    int isValidSpellingWords(final String[] words, final boolean[] outIsValid);
+
     boolean isValidSuggestionWord(final String word);
 
     boolean clearUserHistoryDictionary(final Context context);
@@ -173,4 +180,10 @@ public interface DictionaryFacilitator {
     void dumpDictionaryForDebug(final String dictName);
 
     @Nonnull List<DictionaryStats> getDictionaryStats(final Context context);
+
+    /**
+     * Returns the dictionaries that are updated while typing, such as the user history
+     * dictionary, for running their maintenance.
+     */
+    @Nonnull List<ExpandableBinaryDictionary> getDynamicDictionaries();
 }
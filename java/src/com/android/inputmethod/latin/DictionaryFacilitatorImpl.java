@@ -39,6 +39,7 @@ import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -524,19 +525,15 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
         }
 
         final String lowerCaseWord = originalWord.toLowerCase(getLocale());
-        final boolean lowerCaseValid = isValidSpellingWord(lowerCaseWord);
-        mValidSpellingWordWriteCache.put(lowerCaseWord, lowerCaseValid);
-
         final String capitalWord =
                 StringUtils.capitalizeFirstAndDowncaseRest(originalWord, getLocale());
-        final boolean capitalValid;
-        if (lowerCaseValid) {
-            // The lower case form of the word is valid, so the upper case must be valid.
-            capitalValid = true;
-        } else {
-            capitalValid = isValidSpellingWord(capitalWord);
-        }
-        mValidSpellingWordWriteCache.put(capitalWord, capitalValid);
+        // Both forms are looked up together, with one native call per dictionary.
+        final boolean[] isValid = new boolean[2];
+        isValidSpellingWords(new String[] { lowerCaseWord, capitalWord }, isValid);
+        final boolean lowerCaseValid = isValid[0];
+        mValidSpellingWordWriteCache.put(lowerCaseWord, lowerCaseValid);
+        // If the lower case form of the word is valid, the upper case must be valid.
+        mValidSpellingWordWriteCache.put(capitalWord, lowerCaseValid || isValid[1]);
     }
 
     private void addWordToUserHistory(final DictionaryGroup dictionaryGroup,
@@ -653,6 +650,50 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
         return isValidWord(word, ALL_DICTIONARY_TYPES);
     }
 
+    public int isValidSpellingWords(final String[] words, final boolean[] outIsValid) {
+        Arrays.fill(outIsValid, 0, words.length, false);
+        if (mDictionaryGroup.mLocale == null) {
+            return 0;
+        }
+        // Only the words that are neither cached nor empty go to the dictionaries.
+        final int[] pendingIndices = new int[words.length];
+        int pendingCount = 0;
+        for (int i = 0; i < words.length; ++i) {
+            final String word = words[i];
+            if (TextUtils.isEmpty(word)) continue;
+            if (mValidSpellingWordReadCache != null) {
+                final Boolean cachedValue = mValidSpellingWordReadCache.get(word);
+                if (cachedValue != null) {
+                    outIsValid[i] = cachedValue;
+                    continue;
+                }
+            }
+            pendingIndices[pendingCount++] = i;
+        }
+        int savedCallCount = 0;
+        for (final String dictType : ALL_DICTIONARY_TYPES) {
+            if (0 == pendingCount) break;
+            final Dictionary dictionary = mDictionaryGroup.getDict(dictType);
+            if (null == dictionary) continue;
+            final String[] pendingWords = new String[pendingCount];
+            for (int i = 0; i < pendingCount; ++i) {
+                pendingWords[i] = words[pendingIndices[i]];
+            }
+            final boolean[] isValid = new boolean[pendingCount];
+            savedCallCount += dictionary.isValidWords(pendingWords, isValid);
+            int stillPendingCount = 0;
+            for (int i = 0; i < pendingCount; ++i) {
+                if (isValid[i]) {
+                    outIsValid[pendingIndices[i]] = true;
+                } else {
+                    pendingIndices[stillPendingCount++] = pendingIndices[i];
+                }
+            }
+            pendingCount = stillPendingCount;
+        }
+        return savedCallCount;
+    }
+
     public boolean isValidSuggestionWord(final String word) {
         return isValidWord(word, ALL_DICTIONARY_TYPES);
     }
@@ -729,6 +770,17 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
         return statsOfEnabledSubDicts;
     }
 
+    @Override
+    @Nonnull public List<ExpandableBinaryDictionary> getDynamicDictionaries() {
+        final ArrayList<ExpandableBinaryDictionary> dynamicDictionaries = new ArrayList<>();
+        for (final String dictType : DYNAMIC_DICTIONARY_TYPES) {
+            final ExpandableBinaryDictionary dictionary = mDictionaryGroup.getSubDict(dictType);
+            if (dictionary == null) continue;
+            dynamicDictionaries.add(dictionary);
+        }
+        return dynamicDictionaries;
+    }
+
     @Override
     public String dump(final Context context) {
         return "";
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.android.inputmethod.latin.ExpandableBinaryDictionary.MaintenanceCallback;
+import com.android.inputmethod.latin.ExpandableBinaryDictionary.MaintenanceResult;
+
+import java.util.ArrayList;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Runs the maintenance of the dynamic dictionaries, that is decay, GC and flush, while the
+ * keyboard is hidden and the device is idle or charging. Without this, the maintenance only runs
+ * as a side effect of updating a dictionary, which happens in the middle of typing.
+ *
+ * All the methods must be called on the main thread.
+ */
+public final class DictionaryMaintenanceScheduler implements Handler.Callback {
+    private static final String TAG = DictionaryMaintenanceScheduler.class.getSimpleName();
+    private static final boolean DEBUG = false;
+
+    // How long the keyboard has to stay hidden before the maintenance is considered.
+    private static final long IDLE_DELAY_MS = 30 * 1000;
+    // The minimum interval between two runs, so that showing and hiding the keyboard repeatedly
+    // does not flush the dictionaries every time.
+    private static final long MIN_RUN_INTERVAL_MS = 15 * 60 * 1000;
+    // GC of a large user history dictionary takes a few hundred milliseconds. No maintenance of a
+    // dictionary is started once this budget has been spent.
+    private static final long TIME_BUDGET_MS = 3 * 1000;
+
+    private static final int MSG_CHECK_IDLE = 0;
+    private static final int MSG_ON_DICTIONARY_MAINTAINED = 1;
+
+    private final Context mContext;
+    private final DictionaryFacilitator mDictionaryFacilitator;
+    private final Handler mHandler = new Handler(Looper.getMainLooper(), this);
+
+    private boolean mIsKeyboardHidden;
+    private long mKeyboardHiddenTime;
+    private boolean mIsReceiverRegistered;
+    private long mLastRunStartTime = -MIN_RUN_INTERVAL_MS;
+
+    // The state of the current run. mPendingDictionaries is null when no run is in progress.
+    private ArrayList<ExpandableBinaryDictionary> mPendingDictionaries;
+    private final ArrayList<MaintenanceResult> mResults = new ArrayList<>();
+    private long mDeadline;
+
+    private String mLastReport = "never run";
+
+    private final BroadcastReceiver mIdleReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            checkIdle();
+        }
+    };
+
+    public DictionaryMaintenanceScheduler(final Context context,
+            final DictionaryFacilitator dictionaryFacilitator) {
+        mContext = context;
+        mDictionaryFacilitator = dictionaryFacilitator;
+    }
+
+    public void onKeyboardHidden() {
+        if (mIsKeyboardHidden) {
+            return;
+        }
+        mIsKeyboardHidden = true;
+        mKeyboardHiddenTime = SystemClock.uptimeMillis();
+        // The device may only become idle or start charging after the delay.
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_SCREEN_OFF);
+        filter.addAction(Intent.ACTION_POWER_CONNECTED);
+        mContext.registerReceiver(mIdleReceiver, filter);
+        mIsReceiverRegistered = true;
+        mHandler.sendEmptyMessageDelayed(MSG_CHECK_IDLE, IDLE_DELAY_MS);
+    }
+
+    /**
+     * Stops waiting for the device to become idle. A run in progress finishes the dictionary it
+     * is working on and does not start the remaining ones.
+     */
+    public void onKeyboardShown() {
+        mIsKeyboardHidden = false;
+        mHandler.removeMessages(MSG_CHECK_IDLE);
+        unregisterReceiver();
+    }
+
+    public void onDestroy() {
+        onKeyboardShown();
+        mHandler.removeCallbacksAndMessages(null);
+        mPendingDictionaries = null;
+    }
+
+    @Override
+    public boolean handleMessage(final Message msg) {
+        switch (msg.what) {
+        case MSG_CHECK_IDLE:
+            checkIdle();
+            return true;
+        case MSG_ON_DICTIONARY_MAINTAINED:
+            onDictionaryMaintained((MaintenanceResult)msg.obj);
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private void unregisterReceiver() {
+        if (mIsReceiverRegistered) {
+            mContext.unregisterReceiver(mIdleReceiver);
+            mIsReceiverRegistered = false;
+        }
+    }
+
+    private void checkIdle() {
+        if (!mIsKeyboardHidden || mPendingDictionaries != null) {
+            return;
+        }
+        final long now = SystemClock.uptimeMillis();
+        if (now - mKeyboardHiddenTime < IDLE_DELAY_MS
+                || now - mLastRunStartTime < MIN_RUN_INTERVAL_MS) {
+            return;
+        }
+        if (!isCharging() && isInteractive()) {
+            // Wait for the screen to be turned off or for the charger to be connected.
+            return;
+        }
+        unregisterReceiver();
+        startRun(now);
+    }
+
+    private boolean isCharging() {
+        // ACTION_BATTERY_CHANGED is sticky, so this returns the current state without actually
+        // registering a receiver.
+        final Intent batteryStatus = mContext.registerReceiver(null /* receiver */,
+                new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        return batteryStatus != null
+                && batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+    }
+
+    private boolean isInteractive() {
+        final PowerManager powerManager =
+                (PowerManager)mContext.getSystemService(Context.POWER_SERVICE);
+        return powerManager == null || powerManager.isInteractive();
+    }
+
+    private void startRun(final long now) {
+        mLastRunStartTime = now;
+        mDeadline = now + TIME_BUDGET_MS;
+        mResults.clear();
+        mPendingDictionaries = new ArrayList<>(mDictionaryFacilitator.getDynamicDictionaries());
+        runNext();
+    }
+
+    // Dictionaries are maintained one at a time, so that a run stops as soon as the keyboard is
+    // shown again instead of having the remaining dictionaries queued on the dictionary executor.
+    private void runNext() {
+        if (mPendingDictionaries.isEmpty() || !mIsKeyboardHidden) {
+            finishRun();
+            return;
+        }
+        final ExpandableBinaryDictionary dictionary = mPendingDictionaries.remove(0);
+        dictionary.asyncRunMaintenance(mDeadline, new MaintenanceCallback() {
+            @Override
+            public void onFinished(@Nonnull final MaintenanceResult result) {
+                mHandler.obtainMessage(MSG_ON_DICTIONARY_MAINTAINED, result).sendToTarget();
+            }
+        });
+    }
+
+    private void onDictionaryMaintained(final MaintenanceResult result) {
+        if (mPendingDictionaries == null) {
+            // Destroyed meanwhile.
+            return;
+        }
+        mResults.add(result);
+        runNext();
+    }
+
+    private void finishRun() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("took ").append(SystemClock.uptimeMillis() - mLastRunStartTime)
+                .append("ms");
+        if (!mIsKeyboardHidden) {
+            builder.append(", interrupted by the keyboard");
+        }
+        for (final MaintenanceResult result : mResults) {
+            builder.append("\n    ").append(result);
+        }
+        mLastReport = builder.toString();
+        mPendingDictionaries = null;
+        if (DEBUG) {
+            Log.d(TAG, "Dictionary maintenance " + mLastReport);
+        }
+    }
+
+    public String dump() {
+        return "  Dictionary maintenance: " + mLastReport;
+    }
+}
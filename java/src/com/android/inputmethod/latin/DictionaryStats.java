@@ -26,12 +26,21 @@ import javax.annotation.Nullable;
 public class DictionaryStats {
     public static final int NOT_AN_ENTRY_COUNT = -1;
 
+    // Upper bounds in milliseconds of the buckets of the GC pause histogram. The histogram has one
+    // more bucket for the pauses longer than the last bound.
+    private static final long[] GC_PAUSE_BUCKET_UPPER_BOUNDS_MS = { 4, 16, 64, 256, 1024 };
+    public static final int GC_PAUSE_BUCKET_COUNT = GC_PAUSE_BUCKET_UPPER_BOUNDS_MS.length + 1;
+
     public final Locale mLocale;
     public final String mDictType;
     public final String mDictFileName;
     public final long mDictFileSize;
     public final int mContentVersion;
     public final int mWordCount;
+    // How long lookups and updates were blocked by each GC of a dynamic dictionary, counted per
+    // bucket of GC_PAUSE_BUCKET_UPPER_BOUNDS_MS. This is null for other dictionaries.
+    @Nullable
+    public final int[] mGcPauseHistogram;
 
     public DictionaryStats(
             @Nonnull final Locale locale,
@@ -39,12 +48,24 @@ public class DictionaryStats {
             @Nullable final String dictFileName,
             @Nullable final File dictFile,
             final int contentVersion) {
+        this(locale, dictType, dictFileName, dictFile, contentVersion,
+                null /* gcPauseHistogram */);
+    }
+
+    public DictionaryStats(
+            @Nonnull final Locale locale,
+            @Nonnull final String dictType,
+            @Nullable final String dictFileName,
+            @Nullable final File dictFile,
+            final int contentVersion,
+            @Nullable final int[] gcPauseHistogram) {
         mLocale = locale;
         mDictType = dictType;
         mDictFileSize = (dictFile == null || !dictFile.exists()) ? 0 : dictFile.length();
         mDictFileName = dictFileName;
         mContentVersion = contentVersion;
         mWordCount = -1;
+        mGcPauseHistogram = gcPauseHistogram;
     }
 
     public DictionaryStats(
@@ -57,6 +78,19 @@ public class DictionaryStats {
         mDictFileName = null;
         mContentVersion = 0;
         mWordCount = wordCount;
+        mGcPauseHistogram = null;
+    }
+
+    /**
+     * Returns the index of the GC pause histogram bucket a pause falls into.
+     */
+    public static int getGcPauseBucketIndex(final long pauseMs) {
+        for (int i = 0; i < GC_PAUSE_BUCKET_UPPER_BOUNDS_MS.length; ++i) {
+            if (pauseMs <= GC_PAUSE_BUCKET_UPPER_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return GC_PAUSE_BUCKET_UPPER_BOUNDS_MS.length;
     }
 
     public String getFileSizeString() {
@@ -89,6 +123,15 @@ public class DictionaryStats {
             builder.append(" / ");
             builder.append(getFileSizeString());
         }
+        if (mGcPauseHistogram != null) {
+            builder.append(", GC pauses:");
+            for (int i = 0; i < mGcPauseHistogram.length; ++i) {
+                builder.append(i < GC_PAUSE_BUCKET_UPPER_BOUNDS_MS.length
+                        ? " <=" + GC_PAUSE_BUCKET_UPPER_BOUNDS_MS[i] + "ms:"
+                        : " >" + GC_PAUSE_BUCKET_UPPER_BOUNDS_MS[i - 1] + "ms:");
+                builder.append(mGcPauseHistogram[i]);
+            }
+        }
         return builder.toString();
     }
 
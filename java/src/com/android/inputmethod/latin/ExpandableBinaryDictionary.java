@@ -17,6 +17,7 @@
 package com.android.inputmethod.latin;
 
 import android.content.Context;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.android.inputmethod.annotations.UsedForTesting;
@@ -36,6 +37,7 @@ import com.android.inputmethod.latin.utils.WordInputEventForPersonalization;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -109,6 +111,14 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
     /* A extension for a binary dictionary file. */
     protected static final String DICT_FILE_EXTENSION = ".dict";
 
+    /* The suffix of the directory a dictionary is garbage collected in. */
+    private static final String GC_DIR_SUFFIX = ".gc";
+    /* The suffix the dictionary is moved to while the garbage collected one is moved in. */
+    private static final String GC_BACKUP_SUFFIX = ".old";
+
+    /** How long lookups and updates were blocked by each GC, see {@link DictionaryStats}. */
+    private final int[] mGcPauseHistogram = new int[DictionaryStats.GC_PAUSE_BUCKET_COUNT];
+
     /**
      * Abstract method for loading initial contents of a given dictionary.
      */
@@ -166,6 +176,27 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         asyncExecuteTaskWithLock(mLock.writeLock(), task);
     }
 
+    /**
+     * Executes a task with the write lock after running GC if required. The GC itself does not
+     * hold the write lock, see {@link #runGCIfRequiredWithoutBlocking(boolean)}.
+     */
+    private void asyncExecuteTaskWithWriteLockAfterGC(final boolean mindsBlockByGC,
+            final Runnable task) {
+        final Lock lock = mLock.writeLock();
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
+            @Override
+            public void run() {
+                runGCIfRequiredWithoutBlocking(mindsBlockByGC);
+                lock.lock();
+                try {
+                    task.run();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
     private static void asyncExecuteTaskWithLock(final Lock lock, final Runnable task) {
         ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
             @Override
@@ -259,20 +290,131 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
      * Check whether GC is needed and run GC if required.
      */
     public void runGCIfRequired(final boolean mindsBlockByGC) {
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
             @Override
             public void run() {
-                if (getBinaryDictionary() == null) {
-                    return;
-                }
-                runGCIfRequiredLocked(mindsBlockByGC);
+                runGCIfRequiredWithoutBlocking(mindsBlockByGC);
             }
         });
     }
 
-    protected void runGCIfRequiredLocked(final boolean mindsBlockByGC) {
-        if (mBinaryDictionary.needsToRunGC(mindsBlockByGC)) {
-            mBinaryDictionary.flushWithGC();
+    /**
+     * @return whether GC was run.
+     */
+    protected boolean runGCIfRequiredLocked(final boolean mindsBlockByGC) {
+        if (!mBinaryDictionary.needsToRunGC(mindsBlockByGC)) {
+            return false;
+        }
+        final long startTime = SystemClock.uptimeMillis();
+        final boolean ranGC = mBinaryDictionary.flushWithGC();
+        onGCPause(SystemClock.uptimeMillis() - startTime);
+        return ranGC;
+    }
+
+    /**
+     * Runs GC if required without holding the write lock for the whole GC. GC rewrites the
+     * whole dictionary, which takes hundreds of milliseconds for a large user history
+     * dictionary, and lookups give up after {@link #TIMEOUT_FOR_READ_OPS_IN_MILLISECONDS}.
+     *
+     * The dictionary is written to a separate directory under the read lock, so that lookups
+     * continue meanwhile. That copy is garbage collected with no lock held, and the write lock is
+     * only taken to swap the collected dictionary in. This must run on the dictionary executor,
+     * which serializes all the updates, so the dictionary cannot change in the meantime.
+     *
+     * @return whether GC was run.
+     */
+    private boolean runGCIfRequiredWithoutBlocking(final boolean mindsBlockByGC) {
+        final BinaryDictionary binaryDictionary;
+        final File gcDir =
+                new File(mDictFile.getParentFile(), mDictFile.getName() + GC_DIR_SUFFIX);
+        // The copy keeps the name of the dictionary file, as the files of a dictionary are named
+        // after it.
+        final File gcDictFile = new File(gcDir, mDictFile.getName());
+        final boolean copied;
+        mLock.readLock().lock();
+        try {
+            binaryDictionary = getBinaryDictionary();
+            if (binaryDictionary == null || !binaryDictionary.needsToRunGC(mindsBlockByGC)) {
+                return false;
+            }
+            FileUtils.deleteRecursively(gcDir);
+            copied = gcDir.mkdirs()
+                    && binaryDictionary.flushToFile(gcDictFile.getAbsolutePath());
+        } finally {
+            mLock.readLock().unlock();
+        }
+        if (!copied) {
+            Log.e(TAG, "Cannot copy the dictionary for GC: " + mDictName);
+            FileUtils.deleteRecursively(gcDir);
+            return runGCWithWriteLock(mindsBlockByGC);
+        }
+        final BinaryDictionary gcDictionary = new BinaryDictionary(
+                gcDictFile.getAbsolutePath(), 0 /* offset */, gcDictFile.length(),
+                true /* useFullEditDistance */, mLocale, mDictType, true /* isUpdatable */);
+        final boolean gcSucceeded = gcDictionary.isValidDictionary()
+                && gcDictionary.flushWithGC();
+        gcDictionary.close();
+        if (!gcSucceeded) {
+            Log.e(TAG, "Cannot run GC on the copy of the dictionary: " + mDictName);
+            FileUtils.deleteRecursively(gcDir);
+            return runGCWithWriteLock(mindsBlockByGC);
+        }
+        mLock.writeLock().lock();
+        final long startTime = SystemClock.uptimeMillis();
+        try {
+            if (getBinaryDictionary() != binaryDictionary) {
+                // The dictionary has been closed or replaced.
+                return false;
+            }
+            closeBinaryDictionary();
+            // Keep the current dictionary until the GCed one is in place, so that it can be
+            // put back if the move fails.
+            final File backupFile = new File(mDictFile.getParentFile(),
+                    mDictFile.getName() + GC_BACKUP_SUFFIX);
+            FileUtils.deleteRecursively(backupFile);
+            if (!mDictFile.renameTo(backupFile)) {
+                Log.e(TAG, "Cannot move the dictionary away for GC: " + mDictName);
+                openBinaryDictionaryLocked();
+                return false;
+            }
+            if (!gcDictFile.renameTo(mDictFile)) {
+                Log.e(TAG, "Cannot replace the dictionary with the GCed one: " + mDictName);
+                if (backupFile.renameTo(mDictFile)) {
+                    openBinaryDictionaryLocked();
+                } else {
+                    // The dictionary will be regenerated.
+                    setNeedsToRecreate();
+                }
+                return false;
+            }
+            FileUtils.deleteRecursively(backupFile);
+            openBinaryDictionaryLocked();
+            onGCPause(SystemClock.uptimeMillis() - startTime);
+            return true;
+        } finally {
+            mLock.writeLock().unlock();
+            FileUtils.deleteRecursively(gcDir);
+        }
+    }
+
+    private boolean runGCWithWriteLock(final boolean mindsBlockByGC) {
+        mLock.writeLock().lock();
+        try {
+            if (getBinaryDictionary() == null) {
+                return false;
+            }
+            return runGCIfRequiredLocked(mindsBlockByGC);
+        } finally {
+            mLock.writeLock().unlock();
+        }
+    }
+
+    private void onGCPause(final long pauseMs) {
+        synchronized (mGcPauseHistogram) {
+            mGcPauseHistogram[DictionaryStats.getGcPauseBucketIndex(pauseMs)]++;
+        }
+        if (DEBUG) {
+            Log.d(TAG, "GC of " + mDictName + " blocked the dictionary for " + pauseMs + "ms");
         }
     }
 
@@ -284,11 +426,10 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
                 if (getBinaryDictionary() == null) {
                     return;
                 }
-                runGCIfRequiredLocked(true /* mindsBlockByGC */);
                 updateTask.run();
             }
         };
-        asyncExecuteTaskWithWriteLock(task);
+        asyncExecuteTaskWithWriteLockAfterGC(true /* mindsBlockByGC */, task);
     }
 
     /**
@@ -320,14 +461,13 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
      */
     public void removeUnigramEntryDynamically(final String word) {
         reloadDictionaryIfRequired();
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLockAfterGC(true /* mindsBlockByGC */, new Runnable() {
             @Override
             public void run() {
                 final BinaryDictionary binaryDictionary = getBinaryDictionary();
                 if (binaryDictionary == null) {
                     return;
                 }
-                runGCIfRequiredLocked(true /* mindsBlockByGC */);
                 if (!binaryDictionary.removeUnigramEntry(word)) {
                     if (DEBUG) {
                         Log.i(TAG, "Cannot remove unigram entry: " + word);
@@ -343,13 +483,12 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
     public void addNgramEntry(@Nonnull final NgramContext ngramContext, final String word,
             final int frequency, final int timestamp) {
         reloadDictionaryIfRequired();
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLockAfterGC(true /* mindsBlockByGC */, new Runnable() {
             @Override
             public void run() {
                 if (getBinaryDictionary() == null) {
                     return;
                 }
-                runGCIfRequiredLocked(true /* mindsBlockByGC */);
                 addNgramEntryLocked(ngramContext, word, frequency, timestamp);
             }
         });
@@ -486,6 +625,27 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         return false;
     }
 
+    @Override
+    public int isValidWords(final String[] words, final boolean[] outIsValid) {
+        reloadDictionaryIfRequired();
+        boolean lockAcquired = false;
+        try {
+            lockAcquired = mLock.readLock().tryLock(
+                    TIMEOUT_FOR_READ_OPS_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+            if (lockAcquired && mBinaryDictionary != null) {
+                return mBinaryDictionary.isValidWords(words, outIsValid);
+            }
+        } catch (final InterruptedException e) {
+            Log.e(TAG, "Interrupted tryLock() in isValidWords().", e);
+        } finally {
+            if (lockAcquired) {
+                mLock.readLock().unlock();
+            }
+        }
+        Arrays.fill(outIsValid, 0, words.length, false);
+        return 0;
+    }
+
     protected boolean isInDictionaryLocked(final String word) {
         if (mBinaryDictionary == null) return false;
         return mBinaryDictionary.isInDictionary(word);
@@ -633,22 +793,106 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
      * Flush binary dictionary to dictionary file.
      */
     public void asyncFlushBinaryDictionary() {
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
             @Override
             public void run() {
-                final BinaryDictionary binaryDictionary = getBinaryDictionary();
-                if (binaryDictionary == null) {
+                // GC writes the dictionary file as well.
+                if (runGCIfRequiredWithoutBlocking(false /* mindsBlockByGC */)) {
                     return;
                 }
-                if (binaryDictionary.needsToRunGC(false /* mindsBlockByGC */)) {
-                    binaryDictionary.flushWithGC();
-                } else {
+                mLock.writeLock().lock();
+                try {
+                    final BinaryDictionary binaryDictionary = getBinaryDictionary();
+                    if (binaryDictionary == null) {
+                        return;
+                    }
                     binaryDictionary.flush();
+                } finally {
+                    mLock.writeLock().unlock();
                 }
             }
         });
     }
 
+    /**
+     * What {@link #asyncRunMaintenance(long, MaintenanceCallback)} did to a dictionary.
+     */
+    public static final class MaintenanceResult {
+        public final String mDictName;
+        // Whether decay and GC were run. GC writes the dictionary file as well.
+        public final boolean mRanGC;
+        // Whether pending updates were written to the dictionary file without GC.
+        public final boolean mFlushed;
+        // Whether the time budget ran out before the maintenance could start.
+        public final boolean mSkipped;
+        public final long mElapsedMillis;
+
+        MaintenanceResult(final String dictName, final boolean ranGC, final boolean flushed,
+                final boolean skipped, final long elapsedMillis) {
+            mDictName = dictName;
+            mRanGC = ranGC;
+            mFlushed = flushed;
+            mSkipped = skipped;
+            mElapsedMillis = elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            if (mSkipped) {
+                return mDictName + ": skipped";
+            }
+            return mDictName + ": " + (mRanGC ? "GC" : (mFlushed ? "flush" : "nothing to do"))
+                    + " in " + mElapsedMillis + "ms";
+        }
+    }
+
+    public interface MaintenanceCallback {
+        public void onFinished(@Nonnull final MaintenanceResult result);
+    }
+
+    /**
+     * Runs the maintenance that otherwise only happens as a side effect of updates or on close:
+     * forgetting curve decay and GC when they are due, and a flush of pending updates. Unlike
+     * {@link #runGCIfRequired(boolean)}, this does not mind blocking by GC, so a decay that is
+     * due because of the time since the last one runs too. This is meant to be called while the
+     * keyboard is not in use.
+     *
+     * GC cannot be interrupted, so the deadline only prevents starting a step after it.
+     *
+     * @param deadlineUptimeMillis the {@link SystemClock#uptimeMillis()} after which no more
+     * maintenance is started.
+     * @param callback called on the dictionary executor when the maintenance has finished.
+     */
+    public void asyncRunMaintenance(final long deadlineUptimeMillis,
+            @Nonnull final MaintenanceCallback callback) {
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
+            @Override
+            public void run() {
+                final long startTime = SystemClock.uptimeMillis();
+                if (startTime >= deadlineUptimeMillis) {
+                    callback.onFinished(new MaintenanceResult(mDictName, false /* ranGC */,
+                            false /* flushed */, true /* skipped */, 0 /* elapsedMillis */));
+                    return;
+                }
+                final boolean ranGC = runGCIfRequiredWithoutBlocking(false /* mindsBlockByGC */);
+                boolean flushed = false;
+                if (!ranGC && SystemClock.uptimeMillis() < deadlineUptimeMillis) {
+                    mLock.writeLock().lock();
+                    try {
+                        final BinaryDictionary binaryDictionary = getBinaryDictionary();
+                        if (binaryDictionary != null && binaryDictionary.hasUpdated()) {
+                            flushed = binaryDictionary.flush();
+                        }
+                    } finally {
+                        mLock.writeLock().unlock();
+                    }
+                }
+                callback.onFinished(new MaintenanceResult(mDictName, ranGC, flushed,
+                        false /* skipped */, SystemClock.uptimeMillis() - startTime));
+            }
+        });
+    }
+
     public DictionaryStats getDictionaryStats() {
         reloadDictionaryIfRequired();
         final String dictName = mDictName;
@@ -658,7 +902,12 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         asyncExecuteTaskWithLock(mLock.readLock(), new Runnable() {
             @Override
             public void run() {
-                result.set(new DictionaryStats(mLocale, dictName, dictName, dictFile, 0));
+                final int[] gcPauseHistogram;
+                synchronized (mGcPauseHistogram) {
+                    gcPauseHistogram = mGcPauseHistogram.clone();
+                }
+                result.set(new DictionaryStats(mLocale, dictName, dictName, dictFile, 0,
+                        gcPauseHistogram));
             }
         });
         return result.get(null /* defaultValue */, TIMEOUT_FOR_READ_OPS_IN_MILLISECONDS);
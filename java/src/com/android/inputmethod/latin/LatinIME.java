@@ -148,6 +148,8 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
     private final DictionaryFacilitator mDictionaryFacilitator =
             DictionaryFacilitatorProvider.getDictionaryFacilitator(
                     false /* isNeededForSpellChecking */);
+    private final DictionaryMaintenanceScheduler mDictionaryMaintenanceScheduler =
+            new DictionaryMaintenanceScheduler(this /* context */, mDictionaryFacilitator);
     final InputLogic mInputLogic = new InputLogic(this /* LatinIME */,
             this /* SuggestionStripViewAccessor */, mDictionaryFacilitator);
     // We expect to have only one decoder in almost all cases, hence the default capacity of 1.
@@ -219,8 +221,9 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
         private static final int MSG_DEALLOCATE_MEMORY = 9;
         private static final int MSG_RESUME_SUGGESTIONS_FOR_START_INPUT = 10;
         private static final int MSG_SWITCH_LANGUAGE_AUTOMATICALLY = 11;
+        private static final int MSG_SHOW_SUGGESTED_WORDS_FOR_REQUEST = 12;
         // Update this when adding new messages
-        private static final int MSG_LAST = MSG_SWITCH_LANGUAGE_AUTOMATICALLY;
+        private static final int MSG_LAST = MSG_SHOW_SUGGESTED_WORDS_FOR_REQUEST;
 
         private static final int ARG1_NOT_GESTURE_INPUT = 0;
         private static final int ARG1_DISMISS_GESTURE_FLOATING_PREVIEW_TEXT = 1;
@@ -257,8 +260,11 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
             switch (msg.what) {
             case MSG_UPDATE_SUGGESTION_STRIP:
                 cancelUpdateSuggestionStrip();
-                latinIme.mInputLogic.performUpdateSuggestionStripSync(
-                        latinIme.mSettings.getCurrent(), msg.arg1 /* inputStyle */);
+                latinIme.updateSuggestionStrip(msg.arg1 /* inputStyle */);
+                break;
+            case MSG_SHOW_SUGGESTED_WORDS_FOR_REQUEST:
+                latinIme.mInputLogic.onSuggestedWordsForRequest(
+                        msg.arg1 /* requestSequenceNumber */, (SuggestedWords) msg.obj);
                 break;
             case MSG_UPDATE_SHIFT_STATE:
                 switcher.requestUpdatingShiftState(latinIme.getCurrentAutoCapsState(),
@@ -321,6 +327,8 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
         }
 
         public void postUpdateSuggestionStrip(final int inputStyle) {
+            // A newer update supersedes any request that is being computed.
+            cancelSuggestionRequests();
             sendMessageDelayed(obtainMessage(MSG_UPDATE_SUGGESTION_STRIP, inputStyle,
                     0 /* ignored */), mDelayInMillisecondsToUpdateSuggestions);
         }
@@ -379,6 +387,15 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
 
         public void cancelUpdateSuggestionStrip() {
             removeMessages(MSG_UPDATE_SUGGESTION_STRIP);
+            cancelSuggestionRequests();
+        }
+
+        private void cancelSuggestionRequests() {
+            final LatinIME latinIme = getOwnerInstance();
+            if (latinIme == null) {
+                return;
+            }
+            latinIme.mInputLogic.cancelSuggestionRequests();
         }
 
         public boolean hasPendingUpdateSuggestions() {
@@ -431,6 +448,13 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
                     ARG1_NOT_GESTURE_INPUT, ARG2_UNUSED, suggestedWords).sendToTarget();
         }
 
+        // Called on the non-UI thread when an asynchronous suggestion request completes.
+        public void showSuggestedWordsForRequest(final int requestSequenceNumber,
+                final SuggestedWords suggestedWords) {
+            obtainMessage(MSG_SHOW_SUGGESTED_WORDS_FOR_REQUEST, requestSequenceNumber,
+                    ARG2_UNUSED, suggestedWords).sendToTarget();
+        }
+
         public void showTailBatchInputResult(final SuggestedWords suggestedWords) {
             obtainMessage(MSG_UPDATE_TAIL_BATCH_INPUT_COMPLETED, suggestedWords).sendToTarget();
         }
@@ -743,6 +767,7 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
 
     @Override
     public void onDestroy() {
+        mDictionaryMaintenanceScheduler.onDestroy();
         mDictionaryFacilitator.closeDictionaries();
         mSettings.onDestroy();
         unregisterReceiver(mHideSoftInputReceiver);
@@ -758,6 +783,7 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
         unregisterReceiver(mDictionaryPackInstallReceiver);
         unregisterReceiver(mDictionaryDumpBroadcastReceiver);
         unregisterReceiver(mRingerModeChangeReceiver);
+        mDictionaryMaintenanceScheduler.onDestroy();
         mInputLogic.recycle();
     }
 
@@ -1061,6 +1087,7 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
     @Override
     public void onWindowShown() {
         super.onWindowShown();
+        mDictionaryMaintenanceScheduler.onKeyboardShown();
         setNavigationBarVisibility(isInputViewShown());
     }
 
@@ -1072,6 +1099,7 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
             mainKeyboardView.closing();
         }
         setNavigationBarVisibility(false);
+        mDictionaryMaintenanceScheduler.onKeyboardHidden();
     }
 
     void onFinishInputInternal() {
@@ -1597,6 +1625,15 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
         }
     }
 
+    /**
+     * Update the suggestion strip for the current input, without waiting for the suggestions.
+     * @param inputStyle the input style of the update.
+     */
+    // Called on the UI thread by the UIHandler.
+    protected void updateSuggestionStrip(final int inputStyle) {
+        mInputLogic.performUpdateSuggestionStripAsync(mSettings.getCurrent(), inputStyle);
+    }
+
     // TODO[IL]: Move this out of LatinIME.
     public void getSuggestedWords(final int inputStyle, final int sequenceNumber,
             final OnGetSuggestedWordsCallback callback) {
@@ -1961,6 +1998,16 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
         final SettingsValues settingsValues = mSettings.getCurrent();
         p.println(settingsValues.dump());
         p.println(mDictionaryFacilitator.dump(this /* context */));
+        p.println(mDictionaryMaintenanceScheduler.dump());
+        p.println(mInputLogic.mConnection.dumpInputConnectionStats());
+        p.println(mInputLogic.dumpSuggestionRequestStats());
+        p.println(mInputLogic.dumpGestureRecognitionStats());
+        p.println(mKeyboardSwitcher.dumpKeyboardSwitchStats());
+        final MainKeyboardView mainKeyboardView = mKeyboardSwitcher.getMainKeyboardView();
+        if (mainKeyboardView != null) {
+            p.println(mainKeyboardView.dumpKeyPreviewStats());
+            p.println(mainKeyboardView.dumpGestureTrailStats());
+        }
         // TODO: Dump all settings values
     }
 
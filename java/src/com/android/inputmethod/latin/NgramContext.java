@@ -19,7 +19,7 @@ package com.android.inputmethod.latin;
 import android.text.TextUtils;
 
 import com.android.inputmethod.annotations.UsedForTesting;
-import com.android.inputmethod.latin.common.StringUtils;
+import com.android.inputmethod.latin.common.CodePointWord;
 import com.android.inputmethod.latin.define.DecoderSpecificConstants;
 
 import java.util.ArrayList;
@@ -58,6 +58,8 @@ public class NgramContext {
 
         // This is an empty char sequence when mIsBeginningOfSentence is true.
         public final CharSequence mWord;
+        // The code points of mWord, converted once. This is null when mWord is null.
+        public final CodePointWord mCodePointWord;
         // TODO: Have sentence separator.
         // Whether the current context is beginning of sentence or not. This is true when composing
         // at the beginning of an input field or composing a word after a sentence separator.
@@ -66,11 +68,13 @@ public class NgramContext {
         // Beginning of sentence.
         private WordInfo() {
             mWord = "";
+            mCodePointWord = CodePointWord.EMPTY;
             mIsBeginningOfSentence = true;
         }
 
         public WordInfo(final CharSequence word) {
             mWord = word;
+            mCodePointWord = (word == null) ? null : CodePointWord.intern(word);
             mIsBeginningOfSentence = false;
         }
 
@@ -108,6 +112,11 @@ public class NgramContext {
 
     private final int mMaxPrevWordCount;
 
+    // The previous words as the native dictionary takes them, built once per context so that
+    // dictionary queries don't convert the words again. These arrays must not be modified.
+    private final int[][] mPrevWordCodePointArrays;
+    private final boolean[] mIsBeginningOfSentenceArray;
+
     // Construct from the previous word information.
     public NgramContext(final WordInfo... prevWordsInfo) {
         this(DecoderSpecificConstants.MAX_PREV_WORD_COUNT_FOR_N_GRAM, prevWordsInfo);
@@ -117,6 +126,9 @@ public class NgramContext {
         mPrevWordsInfo = prevWordsInfo;
         mPrevWordsCount = prevWordsInfo.length;
         mMaxPrevWordCount = maxPrevWordCount;
+        mPrevWordCodePointArrays = new int[mPrevWordsCount][];
+        mIsBeginningOfSentenceArray = new boolean[mPrevWordsCount];
+        outputToArray(mPrevWordCodePointArrays, mIsBeginningOfSentenceArray);
     }
 
     /**
@@ -205,20 +217,31 @@ public class NgramContext {
         return mPrevWordsInfo[n - 1].mIsBeginningOfSentence;
     }
 
+    // The code point arrays are shared with the word information and must not be modified.
     public void outputToArray(final int[][] codePointArrays,
             final boolean[] isBeginningOfSentenceArray) {
         for (int i = 0; i < mPrevWordsCount; i++) {
             final WordInfo wordInfo = mPrevWordsInfo[i];
             if (wordInfo == null || !wordInfo.isValid()) {
-                codePointArrays[i] = new int[0];
+                codePointArrays[i] = CodePointWord.EMPTY.getCodePoints();
                 isBeginningOfSentenceArray[i] = false;
                 continue;
             }
-            codePointArrays[i] = StringUtils.toCodePointArray(wordInfo.mWord);
+            codePointArrays[i] = wordInfo.mCodePointWord.getCodePoints();
             isBeginningOfSentenceArray[i] = wordInfo.mIsBeginningOfSentence;
         }
     }
 
+    // Returns the previous words' code points. The arrays are shared and must not be modified.
+    int[][] getPrevWordCodePointArrays() {
+        return mPrevWordCodePointArrays;
+    }
+
+    // The array is shared and must not be modified.
+    boolean[] getIsBeginningOfSentenceArray() {
+        return mIsBeginningOfSentenceArray;
+    }
+
     public int getPrevWordCount() {
         return mPrevWordsCount;
     }
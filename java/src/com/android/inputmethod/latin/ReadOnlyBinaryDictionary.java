@@ -21,6 +21,7 @@ import com.android.inputmethod.latin.common.ComposedData;
 import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -79,6 +80,19 @@ public final class ReadOnlyBinaryDictionary extends Dictionary {
         return false;
     }
 
+    @Override
+    public int isValidWords(final String[] words, final boolean[] outIsValid) {
+        if (mLock.readLock().tryLock()) {
+            try {
+                return mBinaryDictionary.isValidWords(words, outIsValid);
+            } finally {
+                mLock.readLock().unlock();
+            }
+        }
+        Arrays.fill(outIsValid, 0, words.length, false);
+        return 0;
+    }
+
     @Override
     public boolean shouldAutoCommit(final SuggestedWordInfo candidate) {
         if (mLock.readLock().tryLock()) {
@@ -89,6 +89,20 @@ public final class RichInputConnection implements PrivateCommandPerformer {
             "GET_WORD_RANGE_AT_CURSOR",
             "RELOAD_TEXT_CACHE"};
 
+    /**
+     * When the cursor moves back into the cached text, the text before the cursor that is left
+     * in the cache gets shorter. Below this many characters, the cache is fully reloaded instead
+     * of being kept, unless it already starts at the beginning of the text field.
+     */
+    private static final int MIN_CHARS_TO_KEEP_BEFORE_CURSOR_ON_MOVE = 256;
+
+    /**
+     * When the cursor moves inside the cached text, this many characters before the new cursor
+     * position are fetched from the editor and compared with the caches, to detect text changes
+     * that the editor reports as cursor moves.
+     */
+    private static final int CHARS_TO_CHECK_BEFORE_CURSOR_ON_MOVE = 16;
+
     /**
      * The amount of time the keyboard will persist in the {@link #hasSlowInputConnection} state
      * after observing a slow InputConnection event.
@@ -118,6 +132,27 @@ public final class RichInputConnection implements PrivateCommandPerformer {
      * This contains the currently composing text, as LatinIME thinks the TextView is seeing it.
      */
     private final StringBuilder mComposingText = new StringBuilder();
+    /**
+     * This contains the text immediately following the cursor, as far as it is known. It is
+     * filled lazily by {@link #getTextAfterCursor}, kept as is when we commit or delete text
+     * before the cursor, and shifted along with mCommittedTextBeforeComposingText when the
+     * cursor moves inside the known text. It is only valid if mIsTextAfterCursorCached is true.
+     */
+    private final StringBuilder mTextAfterCursor = new StringBuilder();
+    private boolean mIsTextAfterCursorCached = false;
+    /**
+     * Whether mTextAfterCursor goes all the way to the end of the text field, that is, the
+     * editor returned fewer characters than we asked for.
+     */
+    private boolean mIsTextAfterCursorCachedToEnd = false;
+
+    /**
+     * The number of round-trips to the editor and their cumulated and maximum duration, indexed
+     * by OPERATION_* constants.
+     */
+    private final int[] mOperationCounts = new int[OPERATION_NAMES.length];
+    private final long[] mOperationTotalDurationsMs = new long[OPERATION_NAMES.length];
+    private final long[] mOperationMaxDurationsMs = new long[OPERATION_NAMES.length];
 
     /**
      * This variable is a temporary object used in {@link #commitText(CharSequence,int)}
@@ -155,6 +190,13 @@ public final class RichInputConnection implements PrivateCommandPerformer {
 
     public void onStartInput() {
         mLastSlowInputConnectionTime = -SLOW_INPUTCONNECTION_PERSIST_MS;
+        invalidateTextAfterCursorCache();
+    }
+
+    private void invalidateTextAfterCursorCache() {
+        mTextAfterCursor.setLength(0);
+        mIsTextAfterCursorCached = false;
+        mIsTextAfterCursorCachedToEnd = false;
     }
 
     private void checkConsistencyForDebug() {
@@ -245,6 +287,123 @@ public final class RichInputConnection implements PrivateCommandPerformer {
         return true;
     }
 
+    /**
+     * Update the cached text for a selection change reported by the editor.
+     *
+     * Unlike {@link #resetCachesUponCursorMoveAndReturnSuccess}, this keeps the caches when the
+     * change is a plain cursor move inside the text we already have, and only reloads them
+     * otherwise. The composition in progress, if any, is kept.
+     *
+     * @param oldSelStart the old position of the selection start, as received from the system.
+     * @param oldSelEnd the old position of the selection end, as received from the system.
+     * @param newSelStart the new position of the selection start, as received from the system.
+     * @param newSelEnd the new position of the selection end, as received from the system.
+     * @return true if we were able to connect to the editor successfully, false otherwise.
+     */
+    public boolean updateCachesUponCursorMoveAndReturnSuccess(final int oldSelStart,
+            final int oldSelEnd, final int newSelStart, final int newSelEnd) {
+        if (tryToMoveCachesWithCursorAndReturnSuccess(oldSelStart, oldSelEnd, newSelStart,
+                newSelEnd)) {
+            return true;
+        }
+        return resetCachesUponCursorMoveAndReturnSuccess(newSelStart, newSelEnd,
+                false /* shouldFinishComposition */);
+    }
+
+    /**
+     * Update the cached text for a cursor move without reloading it from the editor, if possible.
+     *
+     * The editor reports edits made by anyone else than us, like a paste, an undo or the app
+     * inserting text, the same way as cursor moves. So this is only possible when the selection
+     * was where we expected it, the cursor moves without a selection and stays within the text
+     * we already have in the caches, and the text just before the new cursor position is still
+     * what the caches say. The characters the cursor crossed are then moved from one side of
+     * the cursor to the other. A move of zero characters is not handled here, because it means
+     * the editor reported something other than a plain cursor move.
+     *
+     * @param oldSelStart the old position of the selection start, as received from the system.
+     * @param oldSelEnd the old position of the selection end, as received from the system.
+     * @param newSelStart the new position of the selection start, as received from the system.
+     * @param newSelEnd the new position of the selection end, as received from the system.
+     * @return true if the caches were updated, false if they need to be reloaded.
+     */
+    private boolean tryToMoveCachesWithCursorAndReturnSuccess(final int oldSelStart,
+            final int oldSelEnd, final int newSelStart, final int newSelEnd) {
+        if (INVALID_CURSOR_POSITION == mExpectedSelStart || hasSelection()
+                || oldSelStart != mExpectedSelStart || oldSelEnd != mExpectedSelEnd
+                || newSelStart != newSelEnd || 0 != mComposingText.length()) {
+            return false;
+        }
+        final int moveAmount = newSelStart - mExpectedSelStart;
+        final int beforeLength = mCommittedTextBeforeComposingText.length();
+        final int newBeforeLength = beforeLength + moveAmount;
+        if (moveAmount > 0) {
+            if (!mIsTextAfterCursorCached || moveAmount > mTextAfterCursor.length()) {
+                return false;
+            }
+        } else if (moveAmount < 0) {
+            // The cache must hold the whole text up to the cursor, or still hold enough text
+            // after the move for the common queries.
+            final boolean isCachedFromStartOfText = beforeLength == mExpectedSelStart;
+            if (newBeforeLength < 0 || (!isCachedFromStartOfText
+                    && newBeforeLength < MIN_CHARS_TO_KEEP_BEFORE_CURSOR_ON_MOVE)) {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        if (!isCachedTextBeforeCursorUnchanged(newBeforeLength)) {
+            return false;
+        }
+        if (moveAmount > 0) {
+            mCommittedTextBeforeComposingText.append(mTextAfterCursor, 0, moveAmount);
+            mTextAfterCursor.delete(0, moveAmount);
+        } else {
+            if (mIsTextAfterCursorCached) {
+                mTextAfterCursor.insert(0, mCommittedTextBeforeComposingText, newBeforeLength,
+                        beforeLength);
+            }
+            mCommittedTextBeforeComposingText.setLength(newBeforeLength);
+        }
+        mExpectedSelStart = newSelStart;
+        mExpectedSelEnd = newSelEnd;
+        return true;
+    }
+
+    /**
+     * Check the few characters before the new cursor position against the caches.
+     *
+     * This is a much shorter request to the editor than reloading the caches, and it catches
+     * the edits that the editor reports as cursor moves.
+     *
+     * @param newBeforeLength the length of mCommittedTextBeforeComposingText after the move. The
+     *   characters after this length in the caches are assumed to be in mTextAfterCursor.
+     * @return true if the editor has the same text as the caches before the new cursor position.
+     */
+    private boolean isCachedTextBeforeCursorUnchanged(final int newBeforeLength) {
+        final int checkLength = Math.min(CHARS_TO_CHECK_BEFORE_CURSOR_ON_MOVE, newBeforeLength);
+        final CharSequence actual = getTextBeforeCursorAndDetectLaggyConnection(
+                OPERATION_GET_TEXT_BEFORE_CURSOR,
+                SLOW_INPUT_CONNECTION_ON_PARTIAL_RELOAD_MS,
+                checkLength, 0 /* flags */);
+        if (null == actual || actual.length() < checkLength) {
+            return false;
+        }
+        final int beforeLength = mCommittedTextBeforeComposingText.length();
+        final int actualOffset = actual.length() - checkLength;
+        final int cachedOffset = newBeforeLength - checkLength;
+        for (int i = 0; i < checkLength; ++i) {
+            final int cachedIndex = cachedOffset + i;
+            final char cached = cachedIndex < beforeLength
+                    ? mCommittedTextBeforeComposingText.charAt(cachedIndex)
+                    : mTextAfterCursor.charAt(cachedIndex - beforeLength);
+            if (cached != actual.charAt(actualOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Reload the cached text from the InputConnection.
      *
@@ -252,6 +411,7 @@ public final class RichInputConnection implements PrivateCommandPerformer {
      */
     private boolean reloadTextCache() {
         mCommittedTextBeforeComposingText.setLength(0);
+        invalidateTextAfterCursorCache();
         mIC = mParent.getCurrentInputConnection();
         // Call upon the inputconnection directly since our own method is using the cache, and
         // we want to refresh it.
@@ -442,10 +602,24 @@ public final class RichInputConnection implements PrivateCommandPerformer {
     }
 
     public CharSequence getTextAfterCursor(final int n, final int flags) {
-        return getTextAfterCursorAndDetectLaggyConnection(
+        // Styles are not cached, so requests for them always go to the editor.
+        if (0 == flags && mIsTextAfterCursorCached && !hasSelection()
+                && (mTextAfterCursor.length() >= n || mIsTextAfterCursorCachedToEnd)) {
+            return mTextAfterCursor.substring(0, Math.min(n, mTextAfterCursor.length()));
+        }
+        final CharSequence result = getTextAfterCursorAndDetectLaggyConnection(
                 OPERATION_GET_TEXT_AFTER_CURSOR,
                 SLOW_INPUT_CONNECTION_ON_PARTIAL_RELOAD_MS,
                 n, flags);
+        // Only cache when there is no composing text, as a composing region set around the cursor
+        // may extend after it, and committing would then change the text after the cursor.
+        if (null != result && 0 == flags && !hasSelection() && 0 == mComposingText.length()) {
+            mTextAfterCursor.setLength(0);
+            mTextAfterCursor.append(result);
+            mIsTextAfterCursorCached = true;
+            mIsTextAfterCursorCachedToEnd = result.length() < n;
+        }
+        return result;
     }
 
     private CharSequence getTextAfterCursorAndDetectLaggyConnection(
@@ -462,6 +636,11 @@ public final class RichInputConnection implements PrivateCommandPerformer {
 
     private void detectLaggyConnection(final int operation, final long timeout, final long startTime) {
         final long duration = SystemClock.uptimeMillis() - startTime;
+        ++mOperationCounts[operation];
+        mOperationTotalDurationsMs[operation] += duration;
+        mOperationMaxDurationsMs[operation] =
+                Math.max(mOperationMaxDurationsMs[operation], duration);
+        StatsUtils.onInputConnectionOperation(operation, duration);
         if (duration >= timeout) {
             final String operationName = OPERATION_NAMES[operation];
             Log.w(TAG, "Slow InputConnection: " + operationName + " took " + duration + " ms.");
@@ -501,6 +680,7 @@ public final class RichInputConnection implements PrivateCommandPerformer {
     }
 
     public void performEditorAction(final int actionId) {
+        invalidateTextAfterCursorCache();
         mIC = mParent.getCurrentInputConnection();
         if (isConnected()) {
             mIC.performEditorAction(actionId);
@@ -577,6 +757,9 @@ public final class RichInputConnection implements PrivateCommandPerformer {
             mCommittedTextBeforeComposingText.append(
                     textBeforeCursor.subSequence(0, indexOfStartOfComposingText));
         }
+        // The composing region may extend after the cursor, and we don't keep track of that part
+        // of the composing text in the text after the cursor.
+        invalidateTextAfterCursorCache();
         if (isConnected()) {
             mIC.setComposingRegion(start, end);
         }
@@ -970,6 +1153,21 @@ public final class RichInputConnection implements PrivateCommandPerformer {
         return mIC.performPrivateCommand(action, data);
     }
 
+    /**
+     * Returns a human-readable summary of the round-trips made to the editor, for dumping.
+     */
+    public String dumpInputConnectionStats() {
+        final StringBuilder sb = new StringBuilder("RichInputConnection round-trips :");
+        for (int i = 0; i < OPERATION_NAMES.length; ++i) {
+            final int count = mOperationCounts[i];
+            sb.append("\n  ").append(OPERATION_NAMES[i]).append(" : count = ").append(count)
+                    .append(", average = ")
+                    .append(0 == count ? 0 : mOperationTotalDurationsMs[i] / count)
+                    .append(" ms, max = ").append(mOperationMaxDurationsMs[i]).append(" ms");
+        }
+        return sb.toString();
+    }
+
     public int getExpectedSelectionStart() {
         return mExpectedSelStart;
     }
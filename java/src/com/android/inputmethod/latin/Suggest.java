@@ -33,6 +33,7 @@ import com.android.inputmethod.latin.utils.SuggestionResults;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
 
 import javax.annotation.Nonnull;
@@ -110,29 +111,73 @@ public final class Suggest {
         }
     }
 
-    private static ArrayList<SuggestedWordInfo> getTransformedSuggestedWordInfoList(
-            final WordComposer wordComposer, final SuggestionResults results,
+    // The suggestions for typing once they have been post-processed by
+    // getTypingSuggestions().
+    private static final class TypingSuggestions {
+        // The suggestions in order, without the typed word and without duplicates.
+        public final ArrayList<SuggestedWordInfo> mSuggestions;
+        // The index of the first suggestion equal to the typed word, or -1 if there is none.
+        public int mFirstOccurrenceOfTypedWord = -1;
+        // The dictionary of the first suggestion equal to the typed word.
+        public Dictionary mSourceDictionaryOfTypedWord;
+
+        public TypingSuggestions(final int capacity) {
+            mSuggestions = new ArrayList<>(capacity);
+        }
+    }
+
+    /**
+     * Post-processes the suggestions for typing in a single pass: the suggestions are given the
+     * case and the trailing single quotes of the typed word, then the typed word and the
+     * duplicates are removed. The index of the first occurrence of the typed word and its
+     * dictionary are kept. This is done on every keystroke, so the duplicates are found with a
+     * hash set rather than by comparing every pair of suggestions.
+     */
+    private static TypingSuggestions getTypingSuggestions(final WordComposer wordComposer,
+            final SuggestionResults results, final String typedWord,
             final int trailingSingleQuotesCount, final Locale defaultLocale) {
         final boolean shouldMakeSuggestionsAllUpperCase = wordComposer.isAllUpperCase()
                 && !wordComposer.isResumed();
         final boolean isOnlyFirstCharCapitalized =
                 wordComposer.isOrWillBeOnlyFirstCharCapitalized();
-
-        final ArrayList<SuggestedWordInfo> suggestionsContainer = new ArrayList<>(results);
-        final int suggestionsCount = suggestionsContainer.size();
-        if (isOnlyFirstCharCapitalized || shouldMakeSuggestionsAllUpperCase
-                || 0 != trailingSingleQuotesCount) {
-            for (int i = 0; i < suggestionsCount; ++i) {
-                final SuggestedWordInfo wordInfo = suggestionsContainer.get(i);
+        final boolean shouldTransform = isOnlyFirstCharCapitalized
+                || shouldMakeSuggestionsAllUpperCase || 0 != trailingSingleQuotesCount;
+        final boolean shouldRemoveTypedWord = !TextUtils.isEmpty(typedWord);
+
+        final TypingSuggestions typingSuggestions = new TypingSuggestions(results.size());
+        final HashSet<String> seenWords = new HashSet<>();
+        int index = -1;
+        for (final SuggestedWordInfo wordInfo : results) {
+            ++index;
+            final SuggestedWordInfo transformedWordInfo;
+            if (shouldTransform) {
                 final Locale wordLocale = wordInfo.mSourceDict.mLocale;
-                final SuggestedWordInfo transformedWordInfo = getTransformedSuggestedWordInfo(
-                        wordInfo, null == wordLocale ? defaultLocale : wordLocale,
+                transformedWordInfo = getTransformedSuggestedWordInfo(wordInfo,
+                        null == wordLocale ? defaultLocale : wordLocale,
                         shouldMakeSuggestionsAllUpperCase, isOnlyFirstCharCapitalized,
                         trailingSingleQuotesCount);
-                suggestionsContainer.set(i, transformedWordInfo);
+            } else {
+                transformedWordInfo = wordInfo;
+            }
+            final String word = transformedWordInfo.mWord;
+            if (typedWord.equals(word)) {
+                if (null == typingSuggestions.mSourceDictionaryOfTypedWord) {
+                    typingSuggestions.mSourceDictionaryOfTypedWord =
+                            transformedWordInfo.mSourceDict;
+                }
+                // An empty typed word is left in the suggestions and has no position.
+                if (shouldRemoveTypedWord) {
+                    if (typingSuggestions.mFirstOccurrenceOfTypedWord < 0) {
+                        typingSuggestions.mFirstOccurrenceOfTypedWord = index;
+                    }
+                    continue;
+                }
+            }
+            if (seenWords.add(word)) {
+                typingSuggestions.mSuggestions.add(transformedWordInfo);
             }
         }
-        return suggestionsContainer;
+        return typingSuggestions;
     }
 
     private static SuggestedWordInfo getWhitelistedWordInfoOrNull(
@@ -165,25 +210,15 @@ public final class Suggest {
                 wordComposer.getComposedDataSnapshot(), ngramContext, keyboard,
                 settingsValuesForSuggestion, SESSION_ID_TYPING, inputStyleIfNotPrediction);
         final Locale locale = mDictionaryFacilitator.getLocale();
-        final ArrayList<SuggestedWordInfo> suggestionsContainer =
-                getTransformedSuggestedWordInfoList(wordComposer, suggestionResults,
-                        trailingSingleQuotesCount, locale);
-
-        boolean foundInDictionary = false;
-        Dictionary sourceDictionaryOfRemovedWord = null;
-        for (final SuggestedWordInfo info : suggestionsContainer) {
-            // Search for the best dictionary, defined as the first one with the highest match
-            // quality we can find.
-            if (!foundInDictionary && typedWordString.equals(info.mWord)) {
-                // Use this source if the old match had lower quality than this match
-                sourceDictionaryOfRemovedWord = info.mSourceDict;
-                foundInDictionary = true;
-                break;
-            }
-        }
-
+        final TypingSuggestions typingSuggestions = getTypingSuggestions(wordComposer,
+                suggestionResults, typedWordString, trailingSingleQuotesCount, locale);
+        final ArrayList<SuggestedWordInfo> suggestionsContainer = typingSuggestions.mSuggestions;
+        // The dictionary of the first suggestion equal to the typed word is the one with the
+        // highest match quality, as the suggestions are sorted.
+        final Dictionary sourceDictionaryOfRemovedWord =
+                typingSuggestions.mSourceDictionaryOfTypedWord;
         final int firstOcurrenceOfTypedWordInSuggestions =
-                SuggestedWordInfo.removeDups(typedWordString, suggestionsContainer);
+                typingSuggestions.mFirstOccurrenceOfTypedWord;
 
         final SuggestedWordInfo whitelistedWordInfo =
                 getWhitelistedWordInfoOrNull(suggestionsContainer);
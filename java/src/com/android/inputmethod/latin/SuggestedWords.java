@@ -392,33 +392,26 @@ public class SuggestedWords {
             if (candidates.isEmpty()) {
                 return -1;
             }
+            final boolean shouldRemoveTypedWord = !TextUtils.isEmpty(typedWord);
             int firstOccurrenceOfWord = -1;
-            if (!TextUtils.isEmpty(typedWord)) {
-                firstOccurrenceOfWord = removeSuggestedWordInfoFromList(
-                        typedWord, candidates, -1 /* startIndexExclusive */);
-            }
-            for (int i = 0; i < candidates.size(); ++i) {
-                removeSuggestedWordInfoFromList(
-                        candidates.get(i).mWord, candidates, i /* startIndexExclusive */);
-            }
-            return firstOccurrenceOfWord;
-        }
-
-        private static int removeSuggestedWordInfoFromList(
-                @Nonnull final String word,
-                @Nonnull final ArrayList<SuggestedWordInfo> candidates,
-                final int startIndexExclusive) {
-            int firstOccurrenceOfWord = -1;
-            for (int i = startIndexExclusive + 1; i < candidates.size(); ++i) {
-                final SuggestedWordInfo previous = candidates.get(i);
-                if (word.equals(previous.mWord)) {
+            // Kept candidates are moved down over the removed ones in a single pass.
+            final HashSet<String> seenWords = new HashSet<>();
+            final int size = candidates.size();
+            int keptCount = 0;
+            for (int i = 0; i < size; ++i) {
+                final SuggestedWordInfo candidate = candidates.get(i);
+                if (shouldRemoveTypedWord && typedWord.equals(candidate.mWord)) {
                     if (firstOccurrenceOfWord == -1) {
                         firstOccurrenceOfWord = i;
                     }
-                    candidates.remove(i);
-                    --i;
+                    continue;
+                }
+                if (seenWords.add(candidate.mWord)) {
+                    candidates.set(keptCount, candidate);
+                    ++keptCount;
                 }
             }
+            candidates.subList(keptCount, size).clear();
             return firstOccurrenceOfWord;
         }
     }
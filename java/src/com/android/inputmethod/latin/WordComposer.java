@@ -24,7 +24,6 @@ import com.android.inputmethod.latin.common.ComposedData;
 import com.android.inputmethod.latin.common.Constants;
 import com.android.inputmethod.latin.common.CoordinateUtils;
 import com.android.inputmethod.latin.common.InputPointers;
-import com.android.inputmethod.latin.common.StringUtils;
 import com.android.inputmethod.latin.define.DebugFlags;
 import com.android.inputmethod.latin.define.DecoderSpecificConstants;
 
@@ -53,7 +52,7 @@ public final class WordComposer {
 
     // The list of events that served to compose this string.
     private final ArrayList<Event> mEvents;
-    private final InputPointers mInputPointers = new InputPointers(MAX_WORD_LENGTH);
+    private final InputPointers mInputPointers;
     private SuggestedWordInfo mAutoCorrection;
     private boolean mIsResumed;
     private boolean mIsBatchMode;
@@ -65,8 +64,12 @@ public final class WordComposer {
     // as an ad-hockery here.
     private String mRejectedBatchModeSuggestion;
 
-    // Cache these values for performance
+    // Cache these values for performance. mTypedWordCache is owned by the combiner chain and
+    // is updated in place, so it must be copied before being handed out.
     private CharSequence mTypedWordCache;
+    // An immutable copy of mTypedWordCache, built on first use after each change so that the
+    // typed word is copied once per keystroke however many times it is asked for.
+    private String mTypedWordString;
     private int mCapsCount;
     private int mDigitsCount;
     private int mCapitalizedMode;
@@ -85,6 +88,7 @@ public final class WordComposer {
     public WordComposer() {
         mCombinerChain = new CombinerChain("");
         mEvents = new ArrayList<>();
+        mInputPointers = new InputPointers(MAX_WORD_LENGTH);
         mAutoCorrection = null;
         mIsResumed = false;
         mIsBatchMode = false;
@@ -93,8 +97,50 @@ public final class WordComposer {
         refreshTypedWordCache();
     }
 
+    private WordComposer(@Nonnull final WordComposer source) {
+        final String typedWord = source.getTypedWord();
+        mCombinerChain = new CombinerChain(typedWord);
+        mCombiningSpec = source.mCombiningSpec;
+        mEvents = new ArrayList<>();
+        synchronized (source.mInputPointers) {
+            mInputPointers = source.mInputPointers.getSnapshot();
+        }
+        mAutoCorrection = source.mAutoCorrection;
+        mIsResumed = source.mIsResumed;
+        mIsBatchMode = source.mIsBatchMode;
+        mRejectedBatchModeSuggestion = source.mRejectedBatchModeSuggestion;
+        mCapsCount = source.mCapsCount;
+        mDigitsCount = source.mDigitsCount;
+        mCapitalizedMode = source.mCapitalizedMode;
+        mCursorPositionWithinWord = source.mCursorPositionWithinWord;
+        mIsOnlyFirstCharCapitalized = source.mIsOnlyFirstCharCapitalized;
+        refreshTypedWordCache();
+        mTypedWordString = typedWord;
+    }
+
+    /**
+     * Returns a copy of this composer as it is now, for looking up suggestions on another thread
+     * while this one keeps changing as the user types. The input pointers of the copy share their
+     * arrays with ours until either is written. The copy must not be modified.
+     */
+    @Nonnull
+    public WordComposer getSnapshotForSuggestions() {
+        return new WordComposer(this);
+    }
+
+    /**
+     * Returns the composing word as it is now, for looking up suggestions. This copies nothing:
+     * the input pointers of the snapshot share their arrays with ours until either is written.
+     */
     public ComposedData getComposedDataSnapshot() {
-        return new ComposedData(getInputPointers(), isBatchMode(), mTypedWordCache.toString());
+        final InputPointers inputPointers;
+        // The suggestions for a gesture are looked up on the non-UI handler thread while the
+        // input pointers keep changing on the UI thread. Taking a snapshot marks the arrays as
+        // shared, which the writers read, so every write to mInputPointers holds its lock too.
+        synchronized (mInputPointers) {
+            inputPointers = mInputPointers.getSnapshot();
+        }
+        return new ComposedData(inputPointers, isBatchMode(), getTypedWord());
     }
 
     /**
@@ -129,6 +175,7 @@ public final class WordComposer {
 
     private final void refreshTypedWordCache() {
         mTypedWordCache = mCombinerChain.getComposingWordWithCombiningFeedback();
+        mTypedWordString = null;
         mCodePointSize = Character.codePointCount(mTypedWordCache, 0, mTypedWordCache.length());
     }
 
@@ -194,7 +241,9 @@ public final class WordComposer {
                 // (See {@link #setBatchInputWord}).
                 if (!mIsBatchMode) {
                     // TODO: Set correct pointer id and time
-                    mInputPointers.addPointerAt(newIndex, keyX, keyY, 0, 0);
+                    synchronized (mInputPointers) {
+                        mInputPointers.addPointerAt(newIndex, keyX, keyY, 0, 0);
+                    }
                 }
             }
             if (0 == newIndex) {
@@ -234,21 +283,27 @@ public final class WordComposer {
     public boolean moveCursorByAndReturnIfInsideComposingWord(final int expectedMoveAmount) {
         int actualMoveAmount = 0;
         int cursorPos = mCursorPositionWithinWord;
-        // TODO: Don't make that copy. We can do this directly from mTypedWordCache.
-        final int[] codePoints = StringUtils.toCodePointArray(mTypedWordCache);
+        // Walk the typed word in place rather than converting it to code points.
+        int charIndex = Character.offsetByCodePoints(mTypedWordCache, 0, cursorPos);
         if (expectedMoveAmount >= 0) {
             // Moving the cursor forward for the expected amount or until the end of the word has
             // been reached, whichever comes first.
-            while (actualMoveAmount < expectedMoveAmount && cursorPos < codePoints.length) {
-                actualMoveAmount += Character.charCount(codePoints[cursorPos]);
+            while (actualMoveAmount < expectedMoveAmount && cursorPos < mCodePointSize) {
+                final int charCount =
+                        Character.charCount(Character.codePointAt(mTypedWordCache, charIndex));
+                actualMoveAmount += charCount;
+                charIndex += charCount;
                 ++cursorPos;
             }
         } else {
             // Moving the cursor backward for the expected amount or until the start of the word
             // has been reached, whichever comes first.
             while (actualMoveAmount > expectedMoveAmount && cursorPos > 0) {
+                final int charCount =
+                        Character.charCount(Character.codePointBefore(mTypedWordCache, charIndex));
+                actualMoveAmount -= charCount;
+                charIndex -= charCount;
                 --cursorPos;
-                actualMoveAmount -= Character.charCount(codePoints[cursorPos]);
             }
         }
         // If the actual and expected amounts differ, we crossed the start or the end of the word
@@ -259,11 +314,14 @@ public final class WordComposer {
         mCursorPositionWithinWord = cursorPos;
         mCombinerChain.applyProcessedEvent(mCombinerChain.processEvent(
                 mEvents, Event.createCursorMovedEvent(cursorPos)));
+        mTypedWordString = null;
         return true;
     }
 
     public void setBatchInputPointers(final InputPointers batchPointers) {
-        mInputPointers.set(batchPointers);
+        synchronized (mInputPointers) {
+            mInputPointers.set(batchPointers);
+        }
         mIsBatchMode = true;
     }
 
@@ -305,7 +363,10 @@ public final class WordComposer {
      * @return the word that was typed so far. Never returns null.
      */
     public String getTypedWord() {
-        return mTypedWordCache.toString();
+        if (null == mTypedWordString) {
+            mTypedWordString = mTypedWordCache.toString();
+        }
+        return mTypedWordString;
     }
 
     /**
@@ -421,9 +482,11 @@ public final class WordComposer {
         // or a DECIDED_WORD we may cancel the commit later; otherwise, we should deactivate
         // the last composed word to ensure this does not happen.
         final LastComposedWord lastComposedWord = new LastComposedWord(mEvents,
-                mInputPointers, mTypedWordCache.toString(), committedWord, separatorString,
+                mInputPointers, getTypedWord(), committedWord, separatorString,
                 ngramContext, mCapitalizedMode);
-        mInputPointers.reset();
+        synchronized (mInputPointers) {
+            mInputPointers.reset();
+        }
         if (type != LastComposedWord.COMMIT_TYPE_DECIDED_WORD
                 && type != LastComposedWord.COMMIT_TYPE_MANUAL_PICK) {
             lastComposedWord.deactivate();
@@ -447,7 +510,9 @@ public final class WordComposer {
     public void resumeSuggestionOnLastComposedWord(final LastComposedWord lastComposedWord) {
         mEvents.clear();
         Collections.copy(mEvents, lastComposedWord.mEvents);
-        mInputPointers.set(lastComposedWord.mInputPointers);
+        synchronized (mInputPointers) {
+            mInputPointers.set(lastComposedWord.mInputPointers);
+        }
         mCombinerChain.reset();
         refreshTypedWordCache();
         mCapitalizedMode = lastComposedWord.mCapitalizedMode;
@@ -471,11 +536,14 @@ public final class WordComposer {
 
     @UsedForTesting
     void addInputPointerForTest(int index, int keyX, int keyY) {
-        mInputPointers.addPointerAt(index, keyX, keyY, 0, 0);
+        synchronized (mInputPointers) {
+            mInputPointers.addPointerAt(index, keyX, keyY, 0, 0);
+        }
     }
 
     @UsedForTesting
     void setTypedWordCacheForTests(String typedWordCacheForTests) {
         mTypedWordCache = typedWordCacheForTests;
+        mTypedWordString = null;
     }
 }
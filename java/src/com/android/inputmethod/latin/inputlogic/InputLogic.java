@@ -393,7 +393,15 @@ public final class InputLogic {
             // we'd have the suggestion strip noticeably janky. To avoid that, we don't clear
             // it here, which means we'll keep outdated suggestions for a split second but the
             // visual result is better.
-            resetEntireInputState(newSelStart, newSelEnd, false /* clearSuggestionStrip */);
+            if (mWordComposer.isComposingWord()) {
+                resetEntireInputState(newSelStart, newSelEnd, false /* clearSuggestionStrip */);
+            } else {
+                // There is no composition to finish, so the rich input connection may keep its
+                // caches if this is a plain cursor move.
+                resetComposingState(true /* alsoResetLastComposedWord */);
+                mConnection.updateCachesUponCursorMoveAndReturnSuccess(
+                        oldSelStart, oldSelEnd, newSelStart, newSelEnd);
+            }
             // If the user is in the middle of correcting a word, we should learn it before moving
             // the cursor away.
             if (!TextUtils.isEmpty(mWordBeingCorrectedByCursor)) {
@@ -407,8 +415,8 @@ public final class InputLogic {
             // composition to end. But in all cases where we don't reset the entire input
             // state, we still want to tell the rich input connection about the new cursor
             // position so that it can update its caches.
-            mConnection.resetCachesUponCursorMoveAndReturnSuccess(
-                    newSelStart, newSelEnd, false /* shouldFinishComposition */);
+            mConnection.updateCachesUponCursorMoveAndReturnSuccess(
+                    oldSelStart, oldSelEnd, newSelStart, newSelEnd);
         }
 
         // The cursor has been moved : we now accept to perform recapitalization
@@ -1443,13 +1451,13 @@ public final class InputLogic {
                 ngramContext, timeStampInSeconds, settingsValues.mBlockPotentiallyOffensive);
     }
 
-    public void performUpdateSuggestionStripSync(final SettingsValues settingsValues,
-            final int inputStyle) {
-        long startTimeMillis = 0;
-        if (DebugFlags.DEBUG_ENABLED) {
-            startTimeMillis = System.currentTimeMillis();
-            Log.d(TAG, "performUpdateSuggestionStripSync()");
-        }
+    /**
+     * Check whether suggestions need to be looked up, and set the suggestion strip to what it
+     * should show otherwise.
+     * @param settingsValues the current values of the settings.
+     * @return whether suggestions need to be looked up.
+     */
+    private boolean needsToLookupSuggestionsOrResetStrip(final SettingsValues settingsValues) {
         // Check if we have a suggestion engine attached.
         if (!settingsValues.needsToLookupSuggestions()) {
             if (mWordComposer.isComposingWord()) {
@@ -1458,11 +1466,56 @@ public final class InputLogic {
             }
             // Clear the suggestions strip.
             mSuggestionStripViewAccessor.showSuggestionStrip(SuggestedWords.getEmptyInstance());
-            return;
+            return false;
         }
 
         if (!mWordComposer.isComposingWord() && !settingsValues.mBigramPredictionEnabled) {
             mSuggestionStripViewAccessor.setNeutralSuggestionStrip();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the suggestions to show for the suggestions computed for a typed word.
+     * @param suggestedWords the suggestions that were computed.
+     * @param typedWordString the typed word the suggestions were computed for.
+     * @param previousSuggestedWords the suggestions that were shown before.
+     * @return the suggestions to show in the suggestion strip.
+     */
+    // Called on the non-UI thread.
+    private static SuggestedWords getSuggestedWordsToShow(final SuggestedWords suggestedWords,
+            final String typedWordString, final SuggestedWords previousSuggestedWords) {
+        final SuggestedWordInfo typedWordInfo = new SuggestedWordInfo(
+                typedWordString, "" /* prevWordsContext */,
+                SuggestedWordInfo.MAX_SCORE,
+                SuggestedWordInfo.KIND_TYPED, Dictionary.DICTIONARY_USER_TYPED,
+                SuggestedWordInfo.NOT_AN_INDEX /* indexOfTouchPointOfSecondWord */,
+                SuggestedWordInfo.NOT_A_CONFIDENCE);
+        // Show new suggestions if we have at least one. Otherwise keep the old
+        // suggestions with the new typed word. Exception: if the length of the
+        // typed word is <= 1 (after a deletion typically) we clear old suggestions.
+        if (suggestedWords.size() > 1 || typedWordString.length() <= 1) {
+            return suggestedWords;
+        }
+        return retrieveOlderSuggestions(typedWordInfo, previousSuggestedWords);
+    }
+
+    /**
+     * Update the suggestion strip, waiting for the suggestions to be computed.
+     *
+     * This blocks the UI thread for up to {@link Constants#GET_SUGGESTED_WORDS_TIMEOUT}. Only use
+     * this when the suggestions are needed right away; otherwise, use
+     * {@link #performUpdateSuggestionStripAsync(SettingsValues, int)}.
+     */
+    public void performUpdateSuggestionStripSync(final SettingsValues settingsValues,
+            final int inputStyle) {
+        long startTimeMillis = 0;
+        if (DebugFlags.DEBUG_ENABLED) {
+            startTimeMillis = System.currentTimeMillis();
+            Log.d(TAG, "performUpdateSuggestionStripSync()");
+        }
+        if (!needsToLookupSuggestionsOrResetStrip(settingsValues)) {
             return;
         }
 
@@ -1471,21 +1524,9 @@ public final class InputLogic {
                 new OnGetSuggestedWordsCallback() {
                     @Override
                     public void onGetSuggestedWords(final SuggestedWords suggestedWords) {
-                        final String typedWordString = mWordComposer.getTypedWord();
-                        final SuggestedWordInfo typedWordInfo = new SuggestedWordInfo(
-                                typedWordString, "" /* prevWordsContext */,
-                                SuggestedWordInfo.MAX_SCORE,
-                                SuggestedWordInfo.KIND_TYPED, Dictionary.DICTIONARY_USER_TYPED,
-                                SuggestedWordInfo.NOT_AN_INDEX /* indexOfTouchPointOfSecondWord */,
-                                SuggestedWordInfo.NOT_A_CONFIDENCE);
-                        // Show new suggestions if we have at least one. Otherwise keep the old
-                        // suggestions with the new typed word. Exception: if the length of the
-                        // typed word is <= 1 (after a deletion typically) we clear old suggestions.
-                        if (suggestedWords.size() > 1 || typedWordString.length() <= 1) {
-                            holder.set(suggestedWords);
-                        } else {
-                            holder.set(retrieveOlderSuggestions(typedWordInfo, mSuggestedWords));
-                        }
+                        // The UI thread is waiting, so the composer does not change.
+                        holder.set(getSuggestedWordsToShow(suggestedWords,
+                                mWordComposer.getTypedWord(), mSuggestedWords));
                     }
                 }
         );
@@ -1502,6 +1543,85 @@ public final class InputLogic {
         }
     }
 
+    /**
+     * Update the suggestion strip without waiting for the suggestions to be computed.
+     *
+     * Everything the suggestions are computed from is taken now: the non-UI thread only sees a
+     * snapshot of the composer, the n-gram context and the keyboard, never the composer or the
+     * text caches that keep changing as the user types. The suggestions are posted back to the
+     * UI thread where {@link #onSuggestedWordsForRequest(int, SuggestedWords)} shows them. Any
+     * request that is still in flight becomes stale, and its result will not be shown. Neither
+     * is the result of this request if it comes later than
+     * {@link Constants#GET_SUGGESTED_WORDS_TIMEOUT} from now.
+     */
+    // Called on the UI thread.
+    public void performUpdateSuggestionStripAsync(final SettingsValues settingsValues,
+            final int inputStyle) {
+        final Keyboard keyboard = KeyboardSwitcher.getInstance().getKeyboard();
+        if (null == keyboard || !needsToLookupSuggestionsOrResetStrip(settingsValues)) {
+            mInputLogicHandler.cancelSuggestionRequests();
+            return;
+        }
+        mWordComposer.adviseCapitalizedModeBeforeFetchingSuggestions(getActualCapsMode(
+                settingsValues, KeyboardSwitcher.getInstance().getKeyboardShiftMode()));
+        final WordComposer wordComposer = mWordComposer.getSnapshotForSuggestions();
+        final NgramContext ngramContext = getNgramContextFromNthPreviousWordForSuggestion(
+                settingsValues.mSpacingAndPunctuations,
+                // See getSuggestedWords.
+                wordComposer.isComposingWord() ? 2 : 1);
+        final SettingsValuesForSuggestion settingsValuesForSuggestion =
+                new SettingsValuesForSuggestion(settingsValues.mBlockPotentiallyOffensive);
+        final boolean isCorrectionEnabled = settingsValues.mAutoCorrectionEnabledPerUserSettings;
+        final SuggestedWords previousSuggestedWords = mSuggestedWords;
+        final int requestSequenceNumber = mInputLogicHandler.startSuggestionRequest();
+        final OnGetSuggestedWordsCallback callback = new OnGetSuggestedWordsCallback() {
+            @Override
+            public void onGetSuggestedWords(final SuggestedWords suggestedWords) {
+                mLatinIME.mHandler.showSuggestedWordsForRequest(requestSequenceNumber,
+                        getSuggestedWordsToShow(suggestedWords, wordComposer.getTypedWord(),
+                                previousSuggestedWords));
+            }
+        };
+        mInputLogicHandler.getSuggestedWordsForRequest(requestSequenceNumber, new Runnable() {
+            @Override
+            public void run() {
+                mSuggest.getSuggestedWords(wordComposer, ngramContext, keyboard,
+                        settingsValuesForSuggestion, isCorrectionEnabled, inputStyle,
+                        SuggestedWords.NOT_A_SEQUENCE_NUMBER, callback);
+            }
+        });
+    }
+
+    /**
+     * Show the result of an asynchronous suggestion request, unless it has become stale or
+     * passed its deadline.
+     * @param requestSequenceNumber the sequence number of the request.
+     * @param suggestedWords the suggestions to show.
+     */
+    // Called on the UI thread.
+    public void onSuggestedWordsForRequest(final int requestSequenceNumber,
+            final SuggestedWords suggestedWords) {
+        if (mInputLogicHandler.finishSuggestionRequest(requestSequenceNumber)) {
+            mSuggestionStripViewAccessor.showSuggestionStrip(suggestedWords);
+        }
+    }
+
+    /**
+     * Make the asynchronous suggestion request in flight, if any, stale.
+     */
+    // Called on the UI thread.
+    public void cancelSuggestionRequests() {
+        mInputLogicHandler.cancelSuggestionRequests();
+    }
+
+    public String dumpSuggestionRequestStats() {
+        return mInputLogicHandler.dumpSuggestionRequestStats();
+    }
+
+    public String dumpGestureRecognitionStats() {
+        return mInputLogicHandler.dumpGestureRecognitionStats();
+    }
+
     /**
      * Check if the cursor is touching a word. If so, restart suggestions on this word, else
      * do nothing.
@@ -2093,8 +2213,9 @@ public final class InputLogic {
      */
     private void commitCurrentAutoCorrection(final SettingsValues settingsValues,
             final String separator, final LatinIME.UIHandler handler) {
-        // Complete any pending suggestions query first
-        if (handler.hasPendingUpdateSuggestions()) {
+        // Complete any pending or in-flight suggestions query first
+        if (handler.hasPendingUpdateSuggestions()
+                || mInputLogicHandler.hasSuggestionRequestInFlight()) {
             handler.cancelUpdateSuggestionStrip();
             // To know the input style here, we should retrieve the in-flight "update suggestions"
             // message and read its arg1 member here. However, the Handler class does not let
@@ -19,13 +19,17 @@ package com.android.inputmethod.latin.inputlogic;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Message;
+import android.os.SystemClock;
 
 import com.android.inputmethod.compat.LooperCompatUtils;
 import com.android.inputmethod.latin.LatinIME;
 import com.android.inputmethod.latin.SuggestedWords;
 import com.android.inputmethod.latin.Suggest.OnGetSuggestedWordsCallback;
+import com.android.inputmethod.latin.common.Constants;
 import com.android.inputmethod.latin.common.InputPointers;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * A helper to manage deferred tasks for the input logic.
  */
@@ -38,6 +42,61 @@ class InputLogicHandler implements Handler.Callback {
     private boolean mInBatchInput; // synchronized using {@link #mLock}.
 
     private static final int MSG_GET_SUGGESTED_WORDS = 1;
+    private static final int MSG_GET_SUGGESTED_WORDS_FOR_REQUEST = 2;
+    private static final int MSG_GET_SUGGESTED_WORDS_FOR_BATCH_UPDATE = 3;
+
+    // Weight of the existing average against a new measure in the moving average of the gesture
+    // recognition latency, as in average = (average * weight + measure) / (weight + 1).
+    private static final int RECOGNITION_LATENCY_AVERAGE_WEIGHT = 3;
+
+    // The auto-commit sequence number of the latest batch input update. As updates are
+    // coalesced, the non-UI thread reads this when it gets to recognizing the latest update.
+    // Synchronized using {@link #mLock}.
+    private int mBatchUpdateSequenceNumber;
+    // Recognition pacing, synchronized using {@link #mLock}.
+    private long mLastRecognitionStartTime;
+    private long mAverageRecognitionLatencyMs;
+    // Statistics for the current or last gesture, synchronized using {@link #mLock}.
+    private int mGestureUpdateCount;
+    private int mGestureCoalescedUpdateCount;
+    private int mGestureRecognitionCount;
+    private long mGestureTotalRecognitionLatencyMs;
+    private long mGestureMaxRecognitionLatencyMs;
+
+    // The sequence number of the latest asynchronous suggestion request. Requests with any other
+    // sequence number are stale: they are skipped if they have not started yet, and their result
+    // is dropped otherwise. Written on the UI thread only.
+    private volatile int mLatestSuggestionRequestSequenceNumber = 0;
+    // The sequence number of the latest request that was completed or canceled. The latest
+    // request is in flight as long as this differs from the above. Only accessed on the UI thread.
+    private int mFinishedSuggestionRequestSequenceNumber = 0;
+    // The time the latest request was started, and the time after which its result is no longer
+    // shown, in SystemClock#uptimeMillis() time base. Only accessed on the UI thread.
+    private long mLatestSuggestionRequestStartTime;
+    private long mLatestSuggestionRequestDeadline;
+    // Statistics of the completed requests, only accessed on the UI thread.
+    private int mCompletedSuggestionRequestCount;
+    private long mTotalSuggestionRequestLatencyMs;
+    private long mMaxSuggestionRequestLatencyMs;
+    // Requests that were skipped or whose result was not shown, because they were stale or past
+    // their deadline respectively.
+    private final AtomicInteger mDroppedSuggestionRequestCount = new AtomicInteger();
+    private final AtomicInteger mExpiredSuggestionRequestCount = new AtomicInteger();
+
+    // An asynchronous suggestion request, as sent to the non-UI thread.
+    private static final class SuggestionRequest {
+        public final int mSequenceNumber;
+        // In SystemClock#uptimeMillis() time base.
+        public final long mDeadline;
+        public final Runnable mLookup;
+
+        public SuggestionRequest(final int sequenceNumber, final long deadline,
+                final Runnable lookup) {
+            mSequenceNumber = sequenceNumber;
+            mDeadline = deadline;
+            mLookup = lookup;
+        }
+    }
 
     // A handler that never does anything. This is used for cases where events come before anything
     // is initialized, though probably only the monkey can actually do this.
@@ -59,6 +118,17 @@ class InputLogicHandler implements Handler.Callback {
         @Override
         public void getSuggestedWords(final int sessionId, final int sequenceNumber,
                 final OnGetSuggestedWordsCallback callback) {}
+        @Override
+        public int startSuggestionRequest() { return 0; }
+        @Override
+        public void getSuggestedWordsForRequest(final int requestSequenceNumber,
+                final Runnable lookup) {}
+        @Override
+        public boolean finishSuggestionRequest(final int requestSequenceNumber) { return false; }
+        @Override
+        public void cancelSuggestionRequests() {}
+        @Override
+        public boolean hasSuggestionRequestInFlight() { return false; }
     };
 
     InputLogicHandler() {
@@ -98,14 +168,40 @@ class InputLogicHandler implements Handler.Callback {
                 mLatinIME.getSuggestedWords(msg.arg1 /* inputStyle */,
                         msg.arg2 /* sequenceNumber */, (OnGetSuggestedWordsCallback) msg.obj);
                 break;
+            case MSG_GET_SUGGESTED_WORDS_FOR_BATCH_UPDATE:
+                recognizeLatestBatchUpdate();
+                break;
+            case MSG_GET_SUGGESTED_WORDS_FOR_REQUEST:
+                runSuggestionRequest((SuggestionRequest) msg.obj);
+                break;
         }
         return true;
     }
 
+    // Called on the non-UI thread.
+    private void runSuggestionRequest(final SuggestionRequest request) {
+        if (request.mSequenceNumber != mLatestSuggestionRequestSequenceNumber) {
+            // A newer request was issued while this one was waiting: don't bother.
+            mDroppedSuggestionRequestCount.incrementAndGet();
+            return;
+        }
+        if (SystemClock.uptimeMillis() > request.mDeadline) {
+            // The result would reach the UI thread too late to be shown.
+            mExpiredSuggestionRequestCount.incrementAndGet();
+            return;
+        }
+        request.mLookup.run();
+    }
+
     // Called on the UI thread by InputLogic.
     public void onStartBatchInput() {
         synchronized (mLock) {
             mInBatchInput = true;
+            mGestureUpdateCount = 0;
+            mGestureCoalescedUpdateCount = 0;
+            mGestureRecognitionCount = 0;
+            mGestureTotalRecognitionLatencyMs = 0;
+            mGestureMaxRecognitionLatencyMs = 0;
         }
     }
 
@@ -125,6 +221,9 @@ class InputLogicHandler implements Handler.Callback {
     // handler thread. If this is the end of a batch input, the callback will then proceed to
     // send a message to the UI handler in LatinIME so that showing suggestions can be done on
     // the UI thread.
+    // Updates that are not the tail are coalesced: at most one recognition is queued at any
+    // time, and it always works on the latest pointers. It is also paced so that recognitions
+    // don't start more often than the native code can process them on average.
     private void updateBatchInput(final InputPointers batchPointers,
             final int sequenceNumber, final boolean isTailBatchInput) {
         synchronized (mLock) {
@@ -133,14 +232,74 @@ class InputLogicHandler implements Handler.Callback {
                 return;
             }
             mInputLogic.mWordComposer.setBatchInputPointers(batchPointers);
-            final OnGetSuggestedWordsCallback callback = new OnGetSuggestedWordsCallback() {
-                @Override
-                public void onGetSuggestedWords(final SuggestedWords suggestedWords) {
-                    showGestureSuggestionsWithPreviewVisuals(suggestedWords, isTailBatchInput);
-                }
-            };
-            getSuggestedWords(isTailBatchInput ? SuggestedWords.INPUT_STYLE_TAIL_BATCH
-                    : SuggestedWords.INPUT_STYLE_UPDATE_BATCH, sequenceNumber, callback);
+            if (isTailBatchInput) {
+                // The tail recognition supersedes any queued update.
+                mNonUIThreadHandler.removeMessages(MSG_GET_SUGGESTED_WORDS_FOR_BATCH_UPDATE);
+                final OnGetSuggestedWordsCallback callback = new OnGetSuggestedWordsCallback() {
+                    @Override
+                    public void onGetSuggestedWords(final SuggestedWords suggestedWords) {
+                        showGestureSuggestionsWithPreviewVisuals(suggestedWords,
+                                true /* isTailBatchInput */);
+                    }
+                };
+                getSuggestedWords(SuggestedWords.INPUT_STYLE_TAIL_BATCH, sequenceNumber,
+                        callback);
+                return;
+            }
+            ++mGestureUpdateCount;
+            mBatchUpdateSequenceNumber = sequenceNumber;
+            if (mNonUIThreadHandler.hasMessages(MSG_GET_SUGGESTED_WORDS_FOR_BATCH_UPDATE)) {
+                // The queued recognition will pick up these pointers.
+                ++mGestureCoalescedUpdateCount;
+                return;
+            }
+            final long delay = Math.max(0, mLastRecognitionStartTime
+                    + mAverageRecognitionLatencyMs - SystemClock.uptimeMillis());
+            mNonUIThreadHandler.sendMessageDelayed(
+                    mNonUIThreadHandler.obtainMessage(MSG_GET_SUGGESTED_WORDS_FOR_BATCH_UPDATE),
+                    delay);
+        }
+    }
+
+    // Called on the Non-UI handler thread.
+    private void recognizeLatestBatchUpdate() {
+        final int sequenceNumber;
+        final long startTime = SystemClock.uptimeMillis();
+        synchronized (mLock) {
+            if (!mInBatchInput) {
+                return;
+            }
+            sequenceNumber = mBatchUpdateSequenceNumber;
+            mLastRecognitionStartTime = startTime;
+        }
+        mLatinIME.getSuggestedWords(SuggestedWords.INPUT_STYLE_UPDATE_BATCH, sequenceNumber,
+                new OnGetSuggestedWordsCallback() {
+                    @Override
+                    public void onGetSuggestedWords(final SuggestedWords suggestedWords) {
+                        showGestureSuggestionsWithPreviewVisuals(suggestedWords,
+                                false /* isTailBatchInput */);
+                    }
+                });
+        final long latency = SystemClock.uptimeMillis() - startTime;
+        synchronized (mLock) {
+            mAverageRecognitionLatencyMs = (mAverageRecognitionLatencyMs
+                    * RECOGNITION_LATENCY_AVERAGE_WEIGHT + latency)
+                    / (RECOGNITION_LATENCY_AVERAGE_WEIGHT + 1);
+            ++mGestureRecognitionCount;
+            mGestureTotalRecognitionLatencyMs += latency;
+            mGestureMaxRecognitionLatencyMs = Math.max(mGestureMaxRecognitionLatencyMs, latency);
+        }
+    }
+
+    public String dumpGestureRecognitionStats() {
+        synchronized (mLock) {
+            return "Gesture recognition : updates = " + mGestureUpdateCount
+                    + ", coalesced = " + mGestureCoalescedUpdateCount
+                    + ", recognized = " + mGestureRecognitionCount
+                    + ", average latency = " + (0 == mGestureRecognitionCount ? 0
+                            : mGestureTotalRecognitionLatencyMs / mGestureRecognitionCount)
+                    + " ms, max latency = " + mGestureMaxRecognitionLatencyMs
+                    + " ms, pacing = " + mAverageRecognitionLatencyMs + " ms";
         }
     }
 
@@ -218,4 +377,92 @@ class InputLogicHandler implements Handler.Callback {
         mNonUIThreadHandler.obtainMessage(
                 MSG_GET_SUGGESTED_WORDS, inputStyle, sequenceNumber, callback).sendToTarget();
     }
+
+    /**
+     * Start a new asynchronous suggestion request, making any request in flight stale.
+     *
+     * The request is given a deadline of {@link Constants#GET_SUGGESTED_WORDS_TIMEOUT} from now,
+     * which is how long the UI thread used to wait for suggestions. Its result is not shown after
+     * that, as the UI thread used to give up on it.
+     *
+     * @return the sequence number of the new request.
+     */
+    // Called on the UI thread by InputLogic.
+    public int startSuggestionRequest() {
+        mLatestSuggestionRequestStartTime = SystemClock.uptimeMillis();
+        mLatestSuggestionRequestDeadline =
+                mLatestSuggestionRequestStartTime + Constants.GET_SUGGESTED_WORDS_TIMEOUT;
+        return ++mLatestSuggestionRequestSequenceNumber;
+    }
+
+    /**
+     * Fetch suggestions on the non-UI thread for a request started with
+     * {@link #startSuggestionRequest()}. The lookup is not run if the request has become stale
+     * or passed its deadline before the non-UI thread could get to it.
+     *
+     * @param requestSequenceNumber the sequence number of the request.
+     * @param lookup the lookup to run on the non-UI thread. It must only use data that was taken
+     *   on the UI thread beforehand, and post its result back to the UI thread.
+     */
+    // Called on the UI thread by InputLogic.
+    public void getSuggestedWordsForRequest(final int requestSequenceNumber,
+            final Runnable lookup) {
+        mNonUIThreadHandler.obtainMessage(MSG_GET_SUGGESTED_WORDS_FOR_REQUEST,
+                new SuggestionRequest(requestSequenceNumber, mLatestSuggestionRequestDeadline,
+                        lookup)).sendToTarget();
+    }
+
+    /**
+     * Record that the result of a request reached the UI thread.
+     *
+     * A request whose result comes past its deadline stays in flight: the suggestion strip keeps
+     * what it shows, and committing an auto-correction still looks up the suggestions again.
+     *
+     * @param requestSequenceNumber the sequence number of the request.
+     * @return true if the result should be shown, false if the request is stale or late.
+     */
+    // Called on the UI thread by InputLogic.
+    public boolean finishSuggestionRequest(final int requestSequenceNumber) {
+        if (requestSequenceNumber != mLatestSuggestionRequestSequenceNumber
+                || requestSequenceNumber == mFinishedSuggestionRequestSequenceNumber) {
+            mDroppedSuggestionRequestCount.incrementAndGet();
+            return false;
+        }
+        final long now = SystemClock.uptimeMillis();
+        if (now > mLatestSuggestionRequestDeadline) {
+            mExpiredSuggestionRequestCount.incrementAndGet();
+            return false;
+        }
+        mFinishedSuggestionRequestSequenceNumber = requestSequenceNumber;
+        final long latency = now - mLatestSuggestionRequestStartTime;
+        ++mCompletedSuggestionRequestCount;
+        mTotalSuggestionRequestLatencyMs += latency;
+        mMaxSuggestionRequestLatencyMs = Math.max(mMaxSuggestionRequestLatencyMs, latency);
+        return true;
+    }
+
+    /**
+     * Make the request in flight, if any, stale so that its result is never shown.
+     */
+    // Called on the UI thread.
+    public void cancelSuggestionRequests() {
+        if (hasSuggestionRequestInFlight()) {
+            mFinishedSuggestionRequestSequenceNumber = ++mLatestSuggestionRequestSequenceNumber;
+        }
+    }
+
+    // Called on the UI thread. A request past its deadline is still in flight, since the
+    // suggestion strip does not show its result.
+    public boolean hasSuggestionRequestInFlight() {
+        return mLatestSuggestionRequestSequenceNumber != mFinishedSuggestionRequestSequenceNumber;
+    }
+
+    public String dumpSuggestionRequestStats() {
+        return "Suggestion requests : completed = " + mCompletedSuggestionRequestCount
+                + ", expired = " + mExpiredSuggestionRequestCount.get()
+                + ", dropped = " + mDroppedSuggestionRequestCount.get()
+                + ", average latency = " + (0 == mCompletedSuggestionRequestCount ? 0
+                        : mTotalSuggestionRequestLatencyMs / mCompletedSuggestionRequestCount)
+                + " ms, max latency = " + mMaxSuggestionRequestLatencyMs + " ms";
+    }
 }
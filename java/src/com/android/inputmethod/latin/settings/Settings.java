@@ -22,6 +22,7 @@ import android.content.pm.ApplicationInfo;
 import android.content.res.Configuration;
 import android.content.res.Resources;
 import android.os.Build;
+import android.os.SystemClock;
 import android.preference.PreferenceManager;
 import android.util.Log;
 
@@ -37,7 +38,9 @@ import com.android.inputmethod.latin.utils.RunInLocale;
 import com.android.inputmethod.latin.utils.StatsUtils;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -45,6 +48,7 @@ import javax.annotation.Nonnull;
 
 public final class Settings implements SharedPreferences.OnSharedPreferenceChangeListener {
     private static final String TAG = Settings.class.getSimpleName();
+    private static final boolean DEBUG = false;
     // Settings screens
     public static final String SCREEN_ACCOUNTS = "screen_accounts";
     public static final String SCREEN_THEME = "screen_theme";
@@ -131,6 +135,22 @@ public final class Settings implements SharedPreferences.OnSharedPreferenceChang
     private SettingsValues mSettingsValues;
     private final ReentrantLock mSettingsValuesLock = new ReentrantLock();
 
+    // Reading the values from the resources requires switching the locale of the resources and
+    // parsing the spacing and punctuation rules, while the preferences are already in memory. The
+    // resource values are cached per configuration including the locale, so that changing a
+    // preference or starting an input view only reads the preferences again. Guarded by
+    // mSettingsValuesLock.
+    private static final int MAX_CACHED_RESOURCE_VALUES = 4;
+    private final LinkedHashMap<Configuration, SettingsValues.ResourceValues> mResourceValuesCache =
+            new LinkedHashMap<Configuration, SettingsValues.ResourceValues>(
+                    MAX_CACHED_RESOURCE_VALUES, 0.75f, true /* accessOrder */) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<Configuration, SettingsValues.ResourceValues> eldest) {
+                    return size() > MAX_CACHED_RESOURCE_VALUES;
+                }
+            };
+
     private static final Settings sInstance = new Settings();
 
     public static Settings getInstance() {
@@ -179,19 +199,39 @@ public final class Settings implements SharedPreferences.OnSharedPreferenceChang
         mSettingsValuesLock.lock();
         mContext = context;
         try {
-            final SharedPreferences prefs = mPrefs;
-            final RunInLocale<SettingsValues> job = new RunInLocale<SettingsValues>() {
-                @Override
-                protected SettingsValues job(final Resources res) {
-                    return new SettingsValues(context, prefs, res, inputAttributes);
-                }
-            };
-            mSettingsValues = job.runInLocale(mRes, locale);
+            final long startTime = DEBUG ? SystemClock.uptimeMillis() : 0;
+            mSettingsValues = new SettingsValues(context, mPrefs, mRes,
+                    getResourceValues(locale), inputAttributes);
+            if (DEBUG) {
+                Log.d(TAG, "loadSettings: " + (SystemClock.uptimeMillis() - startTime) + "ms");
+            }
         } finally {
             mSettingsValuesLock.unlock();
         }
     }
 
+    private SettingsValues.ResourceValues getResourceValues(final Locale locale) {
+        final Configuration configuration = new Configuration(mRes.getConfiguration());
+        if (locale != null) {
+            configuration.setLocale(locale);
+        }
+        final SettingsValues.ResourceValues cachedResourceValues =
+                mResourceValuesCache.get(configuration);
+        if (cachedResourceValues != null) {
+            return cachedResourceValues;
+        }
+        final RunInLocale<SettingsValues.ResourceValues> job =
+                new RunInLocale<SettingsValues.ResourceValues>() {
+            @Override
+            protected SettingsValues.ResourceValues job(final Resources res) {
+                return new SettingsValues.ResourceValues(res);
+            }
+        };
+        final SettingsValues.ResourceValues resourceValues = job.runInLocale(mRes, locale);
+        mResourceValuesCache.put(configuration, resourceValues);
+        return resourceValues;
+    }
+
     // TODO: Remove this method and add proxy method to SettingsValues.
     public SettingsValues getCurrent() {
         return mSettingsValues;
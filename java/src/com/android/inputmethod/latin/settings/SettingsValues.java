@@ -40,8 +40,9 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 /**
- * When you call the constructor of this class, you may want to change the current system locale by
- * using {@link com.android.inputmethod.latin.utils.RunInLocale}.
+ * The values of the settings for the current input. The values that only depend on the resources
+ * are read once per locale and configuration into {@link ResourceValues}, which is shared by all
+ * the instances read for them.
  */
 // Non-final for testing via mock library.
 public class SettingsValues {
@@ -118,13 +119,66 @@ public class SettingsValues {
 
     @Nullable public final String mAccount;
 
-    public SettingsValues(final Context context, final SharedPreferences prefs, final Resources res,
+    /**
+     * The settings values that are read from the resources only. They depend on the locale and the
+     * configuration, so the constructor may want to change the current system locale by using
+     * {@link com.android.inputmethod.latin.utils.RunInLocale}.
+     */
+    static final class ResourceValues {
+        public final Locale mLocale;
+        public final SpacingAndPunctuations mSpacingAndPunctuations;
+        public final int mDelayInMillisecondsToUpdateOldSuggestions;
+        public final long mDoubleSpacePeriodTimeout;
+        public final boolean mHasHardwareKeyboard;
+        public final int mDisplayOrientation;
+        public final int mScreenMetrics;
+        public final float mAutoCorrectionThresholdModest;
+        public final float mAutoCorrectionThresholdOff;
+        public final float mPlausibilityThreshold;
+        public final int mKeyPreviewShowUpDuration;
+        public final int mKeyPreviewDismissDuration;
+        public final float mKeyPreviewShowUpStartScale;
+        public final float mKeyPreviewDismissEndScale;
+
+        public ResourceValues(final Resources res) {
+            final Configuration configuration = res.getConfiguration();
+            mLocale = configuration.locale;
+            mSpacingAndPunctuations = new SpacingAndPunctuations(res);
+            mDelayInMillisecondsToUpdateOldSuggestions = res.getInteger(
+                    R.integer.config_delay_in_milliseconds_to_update_old_suggestions);
+            mDoubleSpacePeriodTimeout = res.getInteger(
+                    R.integer.config_double_space_period_timeout);
+            mHasHardwareKeyboard = Settings.readHasHardwareKeyboard(configuration);
+            mDisplayOrientation = configuration.orientation;
+            mScreenMetrics = Settings.readScreenMetrics(res);
+            mAutoCorrectionThresholdModest = readAutoCorrectionThreshold(res,
+                    res.getString(R.string.auto_correction_threshold_mode_index_modest));
+            mAutoCorrectionThresholdOff = readAutoCorrectionThreshold(res,
+                    res.getString(R.string.auto_correction_threshold_mode_index_off));
+            mPlausibilityThreshold = Settings.readPlausibilityThreshold(res);
+            mKeyPreviewShowUpDuration = res.getInteger(
+                    R.integer.config_key_preview_show_up_duration);
+            mKeyPreviewDismissDuration = res.getInteger(
+                    R.integer.config_key_preview_dismiss_duration);
+            mKeyPreviewShowUpStartScale = ResourceUtils.getFloatFromFraction(
+                    res, R.fraction.config_key_preview_show_up_start_scale);
+            mKeyPreviewDismissEndScale = ResourceUtils.getFloatFromFraction(
+                    res, R.fraction.config_key_preview_dismiss_end_scale);
+        }
+    }
+
+    /**
+     * The defaults of the preferences are read from {@code res}. None of them is localized, so
+     * {@code res} does not need to be switched to the locale of {@code resourceValues}.
+     */
+    SettingsValues(final Context context, final SharedPreferences prefs, final Resources res,
+            @Nonnull final ResourceValues resourceValues,
             @Nonnull final InputAttributes inputAttributes) {
-        mLocale = res.getConfiguration().locale;
+        mLocale = resourceValues.mLocale;
         // Get the resources
         mDelayInMillisecondsToUpdateOldSuggestions =
-                res.getInteger(R.integer.config_delay_in_milliseconds_to_update_old_suggestions);
-        mSpacingAndPunctuations = new SpacingAndPunctuations(res);
+                resourceValues.mDelayInMillisecondsToUpdateOldSuggestions;
+        mSpacingAndPunctuations = resourceValues.mSpacingAndPunctuations;
 
         // Store the input attributes
         mInputAttributes = inputAttributes;
@@ -150,15 +204,12 @@ public class SettingsValues {
                 && inputAttributes.mIsGeneralTextInput;
         mBlockPotentiallyOffensive = Settings.readBlockPotentiallyOffensive(prefs, res);
         mAutoCorrectEnabled = Settings.readAutoCorrectEnabled(prefs, res);
-        final String autoCorrectionThresholdRawValue = mAutoCorrectEnabled
-                ? res.getString(R.string.auto_correction_threshold_mode_index_modest)
-                : res.getString(R.string.auto_correction_threshold_mode_index_off);
         mBigramPredictionEnabled = readBigramPredictionEnabled(prefs, res);
-        mDoubleSpacePeriodTimeout = res.getInteger(R.integer.config_double_space_period_timeout);
-        mHasHardwareKeyboard = Settings.readHasHardwareKeyboard(res.getConfiguration());
+        mDoubleSpacePeriodTimeout = resourceValues.mDoubleSpacePeriodTimeout;
+        mHasHardwareKeyboard = resourceValues.mHasHardwareKeyboard;
         mEnableMetricsLogging = prefs.getBoolean(Settings.PREF_ENABLE_METRICS_LOGGING, true);
         mIsSplitKeyboardEnabled = prefs.getBoolean(Settings.PREF_ENABLE_SPLIT_KEYBOARD, false);
-        mScreenMetrics = Settings.readScreenMetrics(res);
+        mScreenMetrics = resourceValues.mScreenMetrics;
 
         mShouldShowLxxSuggestionUi = Settings.SHOULD_SHOW_LXX_SUGGESTION_UI
                 && prefs.getBoolean(DebugSettings.PREF_SHOULD_SHOW_LXX_SUGGESTION_UI, true);
@@ -171,9 +222,10 @@ public class SettingsValues {
                 Settings.PREF_ENABLE_EMOJI_ALT_PHYSICAL_KEY, true);
         mShowAppIcon = Settings.readShowSetupWizardIcon(prefs, context);
         mIsShowAppIconSettingInPreferences = prefs.contains(Settings.PREF_SHOW_SETUP_WIZARD_ICON);
-        mAutoCorrectionThreshold = readAutoCorrectionThreshold(res,
-                autoCorrectionThresholdRawValue);
-        mPlausibilityThreshold = Settings.readPlausibilityThreshold(res);
+        mAutoCorrectionThreshold = mAutoCorrectEnabled
+                ? resourceValues.mAutoCorrectionThresholdModest
+                : resourceValues.mAutoCorrectionThresholdOff;
+        mPlausibilityThreshold = resourceValues.mPlausibilityThreshold;
         mGestureInputEnabled = Settings.readGestureInputEnabled(prefs, res);
         mGestureTrailEnabled = prefs.getBoolean(Settings.PREF_GESTURE_PREVIEW_TRAIL, true);
         mCloudSyncEnabled = prefs.getBoolean(LocalSettingsConstants.PREF_ENABLE_CLOUD_SYNC, false);
@@ -191,14 +243,12 @@ public class SettingsValues {
         mKeyboardHeightScale = Settings.readKeyboardHeight(prefs, DEFAULT_SIZE_SCALE);
         mKeyPreviewShowUpDuration = Settings.readKeyPreviewAnimationDuration(
                 prefs, DebugSettings.PREF_KEY_PREVIEW_SHOW_UP_DURATION,
-                res.getInteger(R.integer.config_key_preview_show_up_duration));
+                resourceValues.mKeyPreviewShowUpDuration);
         mKeyPreviewDismissDuration = Settings.readKeyPreviewAnimationDuration(
                 prefs, DebugSettings.PREF_KEY_PREVIEW_DISMISS_DURATION,
-                res.getInteger(R.integer.config_key_preview_dismiss_duration));
-        final float defaultKeyPreviewShowUpStartScale = ResourceUtils.getFloatFromFraction(
-                res, R.fraction.config_key_preview_show_up_start_scale);
-        final float defaultKeyPreviewDismissEndScale = ResourceUtils.getFloatFromFraction(
-                res, R.fraction.config_key_preview_dismiss_end_scale);
+                resourceValues.mKeyPreviewDismissDuration);
+        final float defaultKeyPreviewShowUpStartScale = resourceValues.mKeyPreviewShowUpStartScale;
+        final float defaultKeyPreviewDismissEndScale = resourceValues.mKeyPreviewDismissEndScale;
         mKeyPreviewShowUpStartXScale = Settings.readKeyPreviewAnimationScale(
                 prefs, DebugSettings.PREF_KEY_PREVIEW_SHOW_UP_START_X_SCALE,
                 defaultKeyPreviewShowUpStartScale);
@@ -211,7 +261,7 @@ public class SettingsValues {
         mKeyPreviewDismissEndYScale = Settings.readKeyPreviewAnimationScale(
                 prefs, DebugSettings.PREF_KEY_PREVIEW_DISMISS_END_Y_SCALE,
                 defaultKeyPreviewDismissEndScale);
-        mDisplayOrientation = res.getConfiguration().orientation;
+        mDisplayOrientation = resourceValues.mDisplayOrientation;
         mAppWorkarounds = new AsyncResultHolder<>("AppWorkarounds");
         final PackageInfo packageInfo = TargetPackageInfoGetterTask.getCachedPackageInfo(
                 mInputAttributes.mTargetApplicationPackageName);
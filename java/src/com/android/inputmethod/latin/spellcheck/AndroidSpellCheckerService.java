@@ -172,6 +172,22 @@ public final class AndroidSpellCheckerService extends SpellCheckerService
         }
     }
 
+    /**
+     * Checks all the given words at once.
+     * @return the number of native dictionary calls saved by batching the lookups.
+     */
+    public int isValidWords(final Locale locale, final String[] words,
+            final boolean[] outIsValid) {
+        mSemaphore.acquireUninterruptibly();
+        try {
+            DictionaryFacilitator dictionaryFacilitatorForLocale =
+                    mDictionaryFacilitatorCache.get(locale);
+            return dictionaryFacilitatorForLocale.isValidSpellingWords(words, outIsValid);
+        } finally {
+            mSemaphore.release();
+        }
+    }
+
     public SuggestionResults getSuggestionResults(final Locale locale,
             final ComposedData composedData, final NgramContext ngramContext,
             @Nonnull final Keyboard keyboard) {
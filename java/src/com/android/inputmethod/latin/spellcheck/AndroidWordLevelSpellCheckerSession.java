@@ -42,6 +42,7 @@ import com.android.inputmethod.latin.utils.StatsUtils;
 import com.android.inputmethod.latin.utils.SuggestionResults;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -190,23 +191,38 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
      *  version of it "text" and the capitalized version of it "Text".
      */
     private boolean isInDictForAnyCapitalization(final String text, final int capitalizeType) {
-        // If the word is in there as is, then it's in the dictionary. If not, we'll test lower
-        // case versions, but only if the word is not already all-lower case or mixed case.
-        if (mService.isValidWord(mLocale, text)) return true;
-        if (StringUtils.CAPITALIZE_NONE == capitalizeType) return false;
-
-        // If we come here, we have a capitalized word (either First- or All-).
-        // Downcase the word and look it up again. If the word is only capitalized, we
-        // tested all possibilities, so if it's still negative we can return false.
-        final String lowerCaseText = text.toLowerCase(mLocale);
-        if (mService.isValidWord(mLocale, lowerCaseText)) return true;
-        if (StringUtils.CAPITALIZE_FIRST == capitalizeType) return false;
-
-        // If the lower case version is not in the dictionary, it's still possible
-        // that we have an all-caps version of a word that needs to be capitalized
+        // If the word is not already all-lower case or mixed case, we also test the lower case
+        // version. If the word is all-caps, it's still possible that it needs to be capitalized
         // according to the dictionary. E.g. "GERMANS" only exists in the dictionary as "Germans".
-        return mService.isValidWord(mLocale,
-                StringUtils.capitalizeFirstAndDowncaseRest(lowerCaseText, mLocale));
+        // All the variants are looked up at once.
+        final String[] variants;
+        if (StringUtils.CAPITALIZE_NONE == capitalizeType) {
+            variants = new String[] { text };
+        } else {
+            final String lowerCaseText = text.toLowerCase(mLocale);
+            if (StringUtils.CAPITALIZE_FIRST == capitalizeType) {
+                variants = new String[] { text, lowerCaseText };
+            } else {
+                variants = new String[] { text, lowerCaseText,
+                        StringUtils.capitalizeFirstAndDowncaseRest(lowerCaseText, mLocale) };
+            }
+        }
+        final boolean[] isValid = isValidWords(variants);
+        for (final boolean valid : isValid) {
+            if (valid) return true;
+        }
+        return false;
+    }
+
+    private boolean[] isValidWords(final String[] words) {
+        final boolean[] isValid = new boolean[words.length];
+        final int savedCallCount = mService.isValidWords(mLocale, words, isValid);
+        StatsUtils.onSpellCheckBatchLookup(words.length, savedCallCount);
+        if (DebugFlags.DEBUG_ENABLED) {
+            Log.d(TAG, "isValidWords() : " + words.length + " words, " + savedCallCount
+                    + " native calls saved");
+        }
+        return isValid;
     }
 
     // Note : this must be reentrant
@@ -239,9 +255,13 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
             if (CHECKABILITY_CHECKABLE != checkability) {
                 if (CHECKABILITY_CONTAINS_PERIOD == checkability) {
                     final String[] splitText = text.split(Constants.REGEXP_PERIOD);
+                    // Look up the split words and the whole text together.
+                    final String[] words = Arrays.copyOf(splitText, splitText.length + 1);
+                    words[splitText.length] = text;
+                    final boolean[] isValid = isValidWords(words);
                     boolean allWordsAreValid = true;
-                    for (final String word : splitText) {
-                        if (!mService.isValidWord(mLocale, word)) {
+                    for (int i = 0; i < splitText.length; ++i) {
+                        if (!isValid[i]) {
                             allWordsAreValid = false;
                             break;
                         }
@@ -252,6 +272,10 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
                                 new String[] {
                                         TextUtils.join(Constants.STRING_SPACE, splitText) });
                     }
+                    return isValid[splitText.length] ?
+                            AndroidSpellCheckerService.getInDictEmptySuggestions() :
+                            AndroidSpellCheckerService.getNotInDictEmptySuggestions(
+                                    true /* reportAsTypo */);
                 }
                 return mService.isValidWord(mLocale, text) ?
                         AndroidSpellCheckerService.getInDictEmptySuggestions() :
@@ -35,9 +35,14 @@ public class ExecutorUtils {
 
     public static final String KEYBOARD = "Keyboard";
     public static final String SPELLING = "Spelling";
+    // Builds keyboard layouts ahead of time. It is separate from KEYBOARD so that prefetching
+    // doesn't get stuck behind dictionary work, nor delay it.
+    public static final String KEYBOARD_PREFETCH = "KeyboardPrefetch";
 
     private static ScheduledExecutorService sKeyboardExecutorService = newExecutorService(KEYBOARD);
     private static ScheduledExecutorService sSpellingExecutorService = newExecutorService(SPELLING);
+    private static ScheduledExecutorService sKeyboardPrefetchExecutorService =
+            newExecutorService(KEYBOARD_PREFETCH);
 
     private static ScheduledExecutorService newExecutorService(final String name) {
         return Executors.newSingleThreadScheduledExecutor(new ExecutorFactory(name));
@@ -89,6 +94,8 @@ public class ExecutorUtils {
                 return sKeyboardExecutorService;
             case SPELLING:
                 return sSpellingExecutorService;
+            case KEYBOARD_PREFETCH:
+                return sKeyboardPrefetchExecutorService;
             default:
                 throw new IllegalArgumentException("Invalid executor: " + name);
         }
@@ -113,6 +120,9 @@ public class ExecutorUtils {
             case SPELLING:
                 sSpellingExecutorService = newExecutorService(SPELLING);
                 break;
+            case KEYBOARD_PREFETCH:
+                sKeyboardPrefetchExecutorService = newExecutorService(KEYBOARD_PREFETCH);
+                break;
             default:
                 throw new IllegalArgumentException("Invalid executor: " + name);
         }
@@ -105,6 +105,15 @@ public final class StatsUtils {
     public static void onInputConnectionLaggy(final int operation, final long duration) {
     }
 
+    public static void onInputConnectionOperation(final int operation, final long duration) {
+    }
+
     public static void onDecoderLaggy(final int operation, final long duration) {
     }
+
+    public static void onKeyboardSwitch(final int elementId, final long duration) {
+    }
+
+    public static void onSpellCheckBatchLookup(final int wordCount, final int savedCallCount) {
+    }
 }
@@ -0,0 +1,64 @@
+#!/bin/bash
+# Copyright 2018, The Android Open Source Project
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+# Builds every wordlist in the dictionaries directory with the makedict command of both
+# dicttoolkit and the Java dicttool, and checks that the outputs are the same. The headers of
+# version 4 dictionaries hold the time they were written, so only their bodies are compared.
+
+# check script arguments
+if [[ $(type -t mmm) != function ]]; then
+if [[ ${BASH_SOURCE[0]} != $0 ]]; then return; else exit 1; fi
+fi
+
+# Host build is never supported in unbundled (NDK/tapas) build
+if [[ -n $TARGET_BUILD_APPS ]]; then
+  echo "Host build is never supported in tapas build."  1>&2
+  echo "Use lunch command instead."  1>&2
+  if [[ ${BASH_SOURCE[0]} != $0 ]]; then return; else exit 1; fi
+fi
+
+pushd $PWD > /dev/null
+cd $(gettop)
+mmm -j16 packages/inputmethods/LatinIME/native/dicttoolkit
+mmm -j16 packages/inputmethods/LatinIME/tools/dicttool
+
+work_dir=$(mktemp -d)
+failures=0
+for wordlist in packages/inputmethods/LatinIME/dictionaries/*.combined.gz; do
+  name=$(basename $wordlist .combined.gz)
+  zcat $wordlist > $work_dir/$name.combined
+  for mode in off on; do
+    java -jar $ANDROID_HOST_OUT/framework/dicttool_aosp.jar makedict \
+        -s $work_dir/$name.combined -d $work_dir/$name.$mode.java.dict -2 -t $mode
+    $ANDROID_HOST_OUT/bin/dicttoolkit makedict -o 2 -t $mode \
+        $work_dir/$name.combined $work_dir/$name.$mode.native.dict
+    if ! cmp $work_dir/$name.$mode.java.dict $work_dir/$name.$mode.native.dict; then
+      echo "Version 2 dictionaries differ: $name (code point table: $mode)" 1>&2
+      failures=$((failures + 1))
+    fi
+  done
+  mkdir $work_dir/$name.java
+  java -jar $ANDROID_HOST_OUT/framework/dicttool_aosp.jar makedict \
+      -s $work_dir/$name.combined -d $work_dir/$name.java -4
+  $ANDROID_HOST_OUT/bin/dicttoolkit makedict -o 4 \
+      $work_dir/$name.combined $work_dir/$name.native
+  if ! cmp $work_dir/$name.java/$name.java.body $work_dir/$name.native/$name.native.body; then
+    echo "Version 4 dictionaries differ: $name" 1>&2
+    failures=$((failures + 1))
+  fi
+done
+rm -rf $work_dir
+echo "$failures difference(s) found."
+popd > /dev/null
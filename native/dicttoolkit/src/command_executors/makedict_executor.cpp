@@ -17,6 +17,12 @@
 #include "command_executors/makedict_executor.h"
 
 #include <cstdio>
+#include <memory>
+
+#include "offdevice_intermediate_dict/combined_format_reader.h"
+#include "offdevice_intermediate_dict/offdevice_intermediate_dict.h"
+#include "offdevice_intermediate_dict/ver2_dict_encoder.h"
+#include "offdevice_intermediate_dict/ver4_dict_encoder.h"
 
 namespace latinime {
 namespace dicttoolkit {
@@ -30,7 +36,43 @@ const char *const MakedictExecutor::COMMAND_NAME = "makedict";
         printUsage();
         return 1;
     }
-    fprintf(stderr, "Command '%s' has not been implemented yet.\n", COMMAND_NAME);
+    const std::string &format = argumentsAndOptions.getOptionValue("o");
+    const std::string &mode = argumentsAndOptions.getOptionValue("t");
+    const std::string &srcDictPath = argumentsAndOptions.getSingleArgument("src_dict");
+    const std::string &destDictPath = argumentsAndOptions.getSingleArgument("dest_dict");
+    Ver2DictEncoder::CodePointTableMode codePointTableMode;
+    if (mode == "off") {
+        codePointTableMode = Ver2DictEncoder::CodePointTableMode::Off;
+    } else if (mode == "on") {
+        codePointTableMode = Ver2DictEncoder::CodePointTableMode::On;
+    } else if (mode == "auto") {
+        codePointTableMode = Ver2DictEncoder::CodePointTableMode::Auto;
+    } else {
+        fprintf(stderr, "Unknown code point table mode: %s\n", mode.c_str());
+        printUsage();
+        return 1;
+    }
+    if (format != "2" && format != "4") {
+        // TODO: Support the combined format output.
+        fprintf(stderr, "Unsupported output format: %s\n", format.c_str());
+        printUsage();
+        return 1;
+    }
+    // TODO: Support binary dictionaries as the source.
+    const std::unique_ptr<OffdeviceIntermediateDict> dict =
+            CombinedFormatReader::readDictionaryFile(srcDictPath);
+    if (!dict) {
+        fprintf(stderr, "Cannot read %s as a combined format dictionary.\n",
+                srcDictPath.c_str());
+        return 1;
+    }
+    const bool succeeded = (format == "2")
+            ? Ver2DictEncoder::writeDictionaryFile(*dict, codePointTableMode, destDictPath)
+            : Ver4DictEncoder::writeDictionaryDirectory(*dict, destDictPath);
+    if (!succeeded) {
+        fprintf(stderr, "Cannot write %s.\n", destDictPath.c_str());
+        return 1;
+    }
     return 0;
 }
 
@@ -38,8 +80,9 @@ const char *const MakedictExecutor::COMMAND_NAME = "makedict";
     printf("*** %s\n", COMMAND_NAME);
     getArgumentsParser().printUsage(COMMAND_NAME,
             "Converts a source dictionary file to one or several outputs.\n"
-            "Source can be a binary dictionary file or a combined format file.\n"
-            "Binary version 2 (Jelly Bean), 4, and combined format outputs are supported.");
+            "Source must be a combined format file; gzipped wordlists have to be\n"
+            "decompressed first. Binary version 2 (Jelly Bean) and 4 outputs are supported.\n"
+            "The outputs are the same as the outputs of makedict in the Java dicttool.");
 }
 
 /* static */const ArgumentsParser MakedictExecutor::getArgumentsParser() {
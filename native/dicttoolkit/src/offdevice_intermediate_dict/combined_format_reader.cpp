@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#include "offdevice_intermediate_dict/combined_format_reader.h"
+
+#include <cctype>
+#include <fstream>
+#include <vector>
+
+#include "dictionary/property/historical_info.h"
+#include "dictionary/property/ngram_context.h"
+#include "dictionary/property/ngram_property.h"
+#include "dictionary/property/unigram_property.h"
+#include "dictionary/property/word_property.h"
+#include "offdevice_intermediate_dict/offdevice_intermediate_dict_header.h"
+#include "offdevice_intermediate_dict/offdevice_intermediate_dict_pt_node.h"
+#include "utils/int_array_view.h"
+#include "utils/java_compat_utils.h"
+#include "utils/utf8_utils.h"
+
+namespace latinime {
+namespace dicttoolkit {
+
+namespace {
+
+const char *const COMMENT_LINE_STARTER = "#";
+const char *const OPTIONS_TAG = "options";
+const char *const WORD_TAG = "word";
+const char *const BIGRAM_TAG = "bigram";
+const char *const PROBABILITY_TAG = "f";
+const char *const HISTORICAL_INFO_TAG = "historicalInfo";
+const char *const NOT_A_WORD_TAG = "not_a_word";
+const char *const POSSIBLY_OFFENSIVE_TAG = "possibly_offensive";
+const char *const TRUE_VALUE = "true";
+const char HEADER_ATTRIBUTE_SEPARATOR = ',';
+const char PARAM_SEPARATOR = ',';
+const char KEY_VALUE_SEPARATOR = '=';
+const char HISTORICAL_INFO_SEPARATOR = ':';
+const size_t HISTORICAL_INFO_ELEMENT_COUNT = 3;
+
+// The probability and the historical info of an entry, as the Java ProbabilityInfo.
+struct ProbabilityInfo {
+    int mProbability;
+    int mTimestamp;
+    int mLevel;
+    int mCount;
+
+    const HistoricalInfo getHistoricalInfo() const {
+        return HistoricalInfo(mTimestamp, mLevel, mCount);
+    }
+};
+
+const ProbabilityInfo ZERO_PROBABILITY_INFO = { 0, NOT_A_TIMESTAMP, 0, 0 };
+
+struct Bigram {
+    std::vector<int> mWord;
+    ProbabilityInfo mProbabilityInfo;
+};
+
+bool readLine(std::istream &stream, std::string *const outLine) {
+    if (!std::getline(stream, *outLine)) {
+        return false;
+    }
+    if (!outLine->empty() && outLine->back() == '\r') {
+        outLine->pop_back();
+    }
+    return true;
+}
+
+bool startsWith(const std::string &str, const std::string &prefix) {
+    return str.compare(0, prefix.size(), prefix) == 0;
+}
+
+// String.trim()
+std::string trim(const std::string &str) {
+    size_t start = 0;
+    size_t end = str.size();
+    while (start < end && static_cast<unsigned char>(str[start]) <= ' ') {
+        ++start;
+    }
+    while (end > start && static_cast<unsigned char>(str[end - 1]) <= ' ') {
+        --end;
+    }
+    return str.substr(start, end - start);
+}
+
+bool isLiteralTrue(const std::string &value) {
+    const std::string trueValue(TRUE_VALUE);
+    if (value.size() != trueValue.size()) {
+        return false;
+    }
+    for (size_t i = 0; i < value.size(); ++i) {
+        if (tolower(static_cast<unsigned char>(value[i])) != trueValue[i]) {
+            return false;
+        }
+    }
+    return true;
+}
+
+bool readHistoricalInfo(const std::string &value, ProbabilityInfo *const outProbabilityInfo) {
+    const std::vector<std::string> elements =
+            JavaCompatUtils::split(value, HISTORICAL_INFO_SEPARATOR, 0 /* limit */);
+    return elements.size() == HISTORICAL_INFO_ELEMENT_COUNT
+            && JavaCompatUtils::parseInt(elements[0], &outProbabilityInfo->mTimestamp)
+            && JavaCompatUtils::parseInt(elements[1], &outProbabilityInfo->mLevel)
+            && JavaCompatUtils::parseInt(elements[2], &outProbabilityInfo->mCount);
+}
+
+// The attributes are kept in the iteration order of the HashMap the Java dicttool reads them
+// into, which is the order they are written to a version 2 header.
+bool readHeader(const std::string &headerLine,
+        OffdeviceIntermediateDictHeader::AttributeList *const outAttributeList) {
+    std::vector<std::vector<int>> keys;
+    std::vector<std::vector<int>> values;
+    for (const std::string &item : JavaCompatUtils::split(headerLine,
+            HEADER_ATTRIBUTE_SEPARATOR, 0 /* limit */)) {
+        const std::vector<std::string> keyValue =
+                JavaCompatUtils::split(item, KEY_VALUE_SEPARATOR, 0 /* limit */);
+        if (keyValue.size() != 2) {
+            AKLOGE("Wrong header format : %s", headerLine.c_str());
+            return false;
+        }
+        const std::vector<int> key = Utf8Utils::getCodePoints(keyValue[0]);
+        size_t index = 0;
+        while (index < keys.size() && keys[index] != key) {
+            ++index;
+        }
+        if (index == keys.size()) {
+            keys.push_back(key);
+            values.push_back(Utf8Utils::getCodePoints(keyValue[1]));
+        } else {
+            values[index] = Utf8Utils::getCodePoints(keyValue[1]);
+        }
+    }
+    std::vector<int> keyHashCodes;
+    for (const auto &key : keys) {
+        keyHashCodes.push_back(JavaCompatUtils::getStringHashCode(CodePointArrayView(key)));
+    }
+    const std::vector<int> optionsKey = Utf8Utils::getCodePoints(OPTIONS_TAG);
+    for (const size_t index : JavaCompatUtils::getHashMapIterationOrder(keyHashCodes)) {
+        if (keys[index] != optionsKey) {
+            outAttributeList->emplace_back(keys[index], values[index]);
+        }
+    }
+    return true;
+}
+
+bool isWordOfRootPtNode(const OffdeviceIntermediateDict &dict, const std::vector<int> &word) {
+    for (const auto &ptNode : dict.getRootPtNodeArray().getPtNodeList()) {
+        if (ptNode->getPtNodeCodePoints().toVector() == word) {
+            return true;
+        }
+    }
+    return false;
+}
+
+// Adds a word the way FusionDictionary.add() does. When the word is already in the dictionary,
+// the higher probability is kept. A word that spans a whole PtNode of the root array merges its
+// flags with the existing ones, while a word that ends deeper in the trie overwrites them.
+bool addWord(OffdeviceIntermediateDict *const dict, const std::vector<int> &word,
+        const ProbabilityInfo &probabilityInfo, const bool isNotAWord,
+        const bool isPossiblyOffensive) {
+    if (word.empty()) {
+        AKLOGE("Cannot add an empty word.");
+        return false;
+    }
+    if (word.size() >= MAX_WORD_LENGTH) {
+        AKLOGI("Ignoring a word that is too long: word.length = %zu", word.size());
+        return true;
+    }
+    const bool mergesFlags = isWordOfRootPtNode(*dict, word);
+    const WordProperty *const wordProperty = dict->getWordProperty(CodePointArrayView(word));
+    if (!wordProperty) {
+        // The PtNode, if any, was not terminal and its flags were false.
+        const UnigramProperty unigramProperty(false /* representsBeginningOfSentence */,
+                mergesFlags ? false : isNotAWord, isPossiblyOffensive,
+                probabilityInfo.mProbability, probabilityInfo.getHistoricalInfo());
+        return dict->addWord(WordProperty(std::vector<int>(word), unigramProperty,
+                std::vector<NgramProperty>()));
+    }
+    const UnigramProperty &oldUnigramProperty = wordProperty->getUnigramProperty();
+    const bool keepsOldProbability =
+            oldUnigramProperty.getProbability() > probabilityInfo.mProbability;
+    const UnigramProperty unigramProperty(false /* representsBeginningOfSentence */,
+            mergesFlags ? oldUnigramProperty.isNotAWord() && isNotAWord : isNotAWord,
+            mergesFlags ? oldUnigramProperty.isPossiblyOffensive() || isPossiblyOffensive
+                    : isPossiblyOffensive,
+            keepsOldProbability ? oldUnigramProperty.getProbability()
+                    : probabilityInfo.mProbability,
+            keepsOldProbability ? oldUnigramProperty.getHistoricalInfo()
+                    : probabilityInfo.getHistoricalInfo());
+    return dict->updateWord(WordProperty(std::vector<int>(word), unigramProperty,
+            wordProperty->getNgramProperties()));
+}
+
+// Adds or updates a bigram the way FusionDictionary.setBigram() does.
+bool setBigram(OffdeviceIntermediateDict *const dict, const std::vector<int> &word0,
+        const Bigram &bigram) {
+    if (!dict->getWordProperty(CodePointArrayView(word0))) {
+        AKLOGE("First word of bigram not found.");
+        return false;
+    }
+    if (!dict->getWordProperty(CodePointArrayView(bigram.mWord))) {
+        if (!addWord(dict, bigram.mWord, ZERO_PROBABILITY_INFO, false /* isNotAWord */,
+                false /* isPossiblyOffensive */)) {
+            return false;
+        }
+        if (!dict->getWordProperty(CodePointArrayView(bigram.mWord))) {
+            AKLOGE("Second word of bigram cannot be added.");
+            return false;
+        }
+    }
+    const WordProperty *const wordProperty = dict->getWordProperty(CodePointArrayView(word0));
+    const NgramContext ngramContext(word0.data(), word0.size(),
+            false /* isBeginningOfSentence */);
+    std::vector<NgramProperty> ngrams;
+    bool hasUpdated = false;
+    for (const NgramProperty &ngram : wordProperty->getNgramProperties()) {
+        if (*ngram.getTargetCodePoints() == bigram.mWord) {
+            ngrams.emplace_back(ngramContext, std::vector<int>(bigram.mWord),
+                    bigram.mProbabilityInfo.mProbability,
+                    bigram.mProbabilityInfo.getHistoricalInfo());
+            hasUpdated = true;
+        } else {
+            ngrams.push_back(ngram);
+        }
+    }
+    if (!hasUpdated) {
+        ngrams.emplace_back(ngramContext, std::vector<int>(bigram.mWord),
+                bigram.mProbabilityInfo.mProbability,
+                bigram.mProbabilityInfo.getHistoricalInfo());
+    }
+    return dict->updateWord(WordProperty(std::vector<int>(word0),
+            wordProperty->getUnigramProperty(), ngrams));
+}
+
+bool flushWord(OffdeviceIntermediateDict *const dict, const std::vector<int> &word,
+        const ProbabilityInfo &probabilityInfo, const bool isNotAWord,
+        const bool isPossiblyOffensive, const std::vector<Bigram> &bigrams) {
+    if (!addWord(dict, word, probabilityInfo, isNotAWord, isPossiblyOffensive)) {
+        return false;
+    }
+    for (const Bigram &bigram : bigrams) {
+        if (!setBigram(dict, word, bigram)) {
+            return false;
+        }
+    }
+    return true;
+}
+
+} // namespace
+
+/* static */ std::unique_ptr<OffdeviceIntermediateDict> CombinedFormatReader::readDictionary(
+        std::istream &stream) {
+    std::string line;
+    bool hasHeader = false;
+    while (readLine(stream, &line)) {
+        if (!startsWith(line, COMMENT_LINE_STARTER)) {
+            hasHeader = true;
+            break;
+        }
+    }
+    if (!hasHeader) {
+        AKLOGE("Header line not found.");
+        return nullptr;
+    }
+    OffdeviceIntermediateDictHeader::AttributeList attributeList;
+    if (!readHeader(line, &attributeList)) {
+        return nullptr;
+    }
+    std::unique_ptr<OffdeviceIntermediateDict> dict(
+            new OffdeviceIntermediateDict(OffdeviceIntermediateDictHeader(attributeList)));
+
+    const std::string wordTagPrefix = std::string(WORD_TAG) + KEY_VALUE_SEPARATOR;
+    const std::string bigramTagPrefix = std::string(BIGRAM_TAG) + KEY_VALUE_SEPARATOR;
+    bool hasWord = false;
+    std::vector<int> word;
+    // As in the Java dicttool, the probability info is carried over to the next word when the
+    // next word doesn't specify it.
+    ProbabilityInfo probabilityInfo = ZERO_PROBABILITY_INFO;
+    bool isNotAWord = false;
+    bool isPossiblyOffensive = false;
+    std::vector<Bigram> bigrams;
+    while (readLine(stream, &line)) {
+        if (startsWith(line, COMMENT_LINE_STARTER)) {
+            continue;
+        }
+        const std::vector<std::string> args =
+                JavaCompatUtils::split(trim(line), PARAM_SEPARATOR, 0 /* limit */);
+        if (args.empty()) {
+            continue;
+        }
+        if (startsWith(args[0], wordTagPrefix)) {
+            if (hasWord && !flushWord(dict.get(), word, probabilityInfo, isNotAWord,
+                    isPossiblyOffensive, bigrams)) {
+                return nullptr;
+            }
+            bigrams.clear();
+            isNotAWord = false;
+            isPossiblyOffensive = false;
+            for (const std::string &arg : args) {
+                const std::vector<std::string> params =
+                        JavaCompatUtils::split(arg, KEY_VALUE_SEPARATOR, 2 /* limit */);
+                if (params.size() != 2) {
+                    AKLOGE("Wrong format : %s", line.c_str());
+                    return nullptr;
+                }
+                bool isValid = true;
+                if (params[0] == WORD_TAG) {
+                    word = Utf8Utils::getCodePoints(params[1]);
+                    hasWord = true;
+                } else if (params[0] == PROBABILITY_TAG) {
+                    isValid = JavaCompatUtils::parseInt(params[1],
+                            &probabilityInfo.mProbability);
+                } else if (params[0] == HISTORICAL_INFO_TAG) {
+                    isValid = readHistoricalInfo(params[1], &probabilityInfo);
+                } else if (params[0] == NOT_A_WORD_TAG) {
+                    isNotAWord = isLiteralTrue(params[1]);
+                } else if (params[0] == POSSIBLY_OFFENSIVE_TAG) {
+                    isPossiblyOffensive = isLiteralTrue(params[1]);
+                }
+                if (!isValid) {
+                    AKLOGE("Wrong format : %s", line.c_str());
+                    return nullptr;
+                }
+            }
+        } else if (startsWith(args[0], bigramTagPrefix)) {
+            Bigram bigram = { std::vector<int>(), ZERO_PROBABILITY_INFO };
+            for (const std::string &arg : args) {
+                const std::vector<std::string> params =
+                        JavaCompatUtils::split(arg, KEY_VALUE_SEPARATOR, 2 /* limit */);
+                if (params.size() != 2) {
+                    AKLOGE("Wrong format : %s", line.c_str());
+                    return nullptr;
+                }
+                bool isValid = true;
+                if (params[0] == BIGRAM_TAG) {
+                    bigram.mWord = Utf8Utils::getCodePoints(params[1]);
+                } else if (params[0] == PROBABILITY_TAG) {
+                    isValid = JavaCompatUtils::parseInt(params[1],
+                            &bigram.mProbabilityInfo.mProbability);
+                } else if (params[0] == HISTORICAL_INFO_TAG) {
+                    isValid = readHistoricalInfo(params[1], &bigram.mProbabilityInfo);
+                }
+                if (!isValid) {
+                    AKLOGE("Wrong format : %s", line.c_str());
+                    return nullptr;
+                }
+            }
+            bigrams.push_back(bigram);
+        }
+        // Other lines, e.g. shortcuts, are not supported by the Java dicttool either.
+    }
+    if (hasWord && !flushWord(dict.get(), word, probabilityInfo, isNotAWord,
+            isPossiblyOffensive, bigrams)) {
+        return nullptr;
+    }
+    return dict;
+}
+
+/* static */ std::unique_ptr<OffdeviceIntermediateDict> CombinedFormatReader::readDictionaryFile(
+        const std::string &filePath) {
+    std::ifstream stream(filePath, std::ios::binary);
+    if (!stream.is_open()) {
+        AKLOGE("Cannot open %s.", filePath.c_str());
+        return nullptr;
+    }
+    return readDictionary(stream);
+}
+
+} // namespace dicttoolkit
+} // namespace latinime
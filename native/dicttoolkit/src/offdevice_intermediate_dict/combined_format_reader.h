@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#ifndef LATINIME_DICT_TOOLKIT_COMBINED_FORMAT_READER_H
+#define LATINIME_DICT_TOOLKIT_COMBINED_FORMAT_READER_H
+
+#include <istream>
+#include <memory>
+#include <string>
+
+#include "dict_toolkit_defines.h"
+#include "offdevice_intermediate_dict/offdevice_intermediate_dict.h"
+
+namespace latinime {
+namespace dicttoolkit {
+
+/**
+ * Reads a dictionary in the combined format, e.g. the wordlists in the dictionaries directory.
+ * The resulting dictionary has the same contents as the FusionDictionary the Java dicttool
+ * builds from the same file, so that both tools write the same binary dictionaries.
+ */
+class CombinedFormatReader final {
+ public:
+    // Returns nullptr when the input cannot be read as a combined format dictionary.
+    static std::unique_ptr<OffdeviceIntermediateDict> readDictionary(std::istream &stream);
+    static std::unique_ptr<OffdeviceIntermediateDict> readDictionaryFile(
+            const std::string &filePath);
+
+ private:
+    DISALLOW_IMPLICIT_CONSTRUCTORS(CombinedFormatReader);
+};
+
+} // namespace dicttoolkit
+} // namespace latinime
+#endif // LATINIME_DICT_TOOLKIT_COMBINED_FORMAT_READER_H
@@ -16,6 +16,8 @@
 
 #include "offdevice_intermediate_dict/offdevice_intermediate_dict.h"
 
+#include <algorithm>
+
 #include "offdevice_intermediate_dict/offdevice_intermediate_dict_pt_node.h"
 
 namespace latinime {
@@ -36,10 +38,10 @@ bool OffdeviceIntermediateDict::addWordInner(const CodePointArrayView codePoints
     for (; ptNodeIt != ptNodeList->end(); ++ptNodeIt) {
         const auto &ptNode = *ptNodeIt;
         const CodePointArrayView ptNodeCodePoints = ptNode->getPtNodeCodePoints();
-        if (codePoints[0] < ptNodeCodePoints[0]) {
+        if (codePoints[0] > ptNodeCodePoints[0]) {
             continue;
         }
-        if (codePoints[0] > ptNodeCodePoints[0]) {
+        if (codePoints[0] < ptNodeCodePoints[0]) {
             break;
         }
         size_t i = 1;
@@ -88,6 +90,40 @@ bool OffdeviceIntermediateDict::addWordInner(const CodePointArrayView codePoints
     return true;
 }
 
+bool OffdeviceIntermediateDict::updateWord(const WordProperty &wordProperty) {
+    const CodePointArrayView codePoints = wordProperty.getCodePoints();
+    OffdeviceIntermediateDictPtNodeArray *ptNodeArray = &mRootPtNodeArray;
+    for (size_t i = 0; i < codePoints.size();) {
+        auto ptNodeList = ptNodeArray->getMutablePtNodeList();
+        auto ptNodeIt = ptNodeList->begin();
+        for (; ptNodeIt != ptNodeList->end(); ++ptNodeIt) {
+            if ((*ptNodeIt)->getPtNodeCodePoints()[0] >= codePoints[i]) {
+                break;
+            }
+        }
+        if (ptNodeIt == ptNodeList->end()) {
+            return false;
+        }
+        const auto &ptNode = *ptNodeIt;
+        const CodePointArrayView ptNodeCodePoints = ptNode->getPtNodeCodePoints();
+        if (codePoints.size() - i < ptNodeCodePoints.size()
+                || !std::equal(ptNodeCodePoints.begin(), ptNodeCodePoints.end(),
+                        codePoints.begin() + i)) {
+            return false;
+        }
+        i += ptNodeCodePoints.size();
+        if (i == codePoints.size()) {
+            if (!ptNode->getWordProperty()) {
+                return false;
+            }
+            *ptNodeIt = std::make_shared<OffdeviceIntermediateDictPtNode>(wordProperty, *ptNode);
+            return true;
+        }
+        ptNodeArray = &ptNode->getChildrenPtNodeArray();
+    }
+    return false;
+}
+
 const WordProperty *OffdeviceIntermediateDict::getWordProperty(
         const CodePointArrayView codePoints) const {
     const OffdeviceIntermediateDictPtNodeArray *ptNodeArray = &mRootPtNodeArray;
@@ -95,11 +131,11 @@ const WordProperty *OffdeviceIntermediateDict::getWordProperty(
         bool foundNext = false;
         for (const auto& ptNode : ptNodeArray->getPtNodeList()) {
             const CodePointArrayView ptNodeCodePoints = ptNode->getPtNodeCodePoints();
-            if (codePoints[i] < ptNodeCodePoints[0]) {
+            if (codePoints[i] > ptNodeCodePoints[0]) {
                 continue;
             }
-            if (codePoints[i] > ptNodeCodePoints[0]
-                     || codePoints.size() < ptNodeCodePoints.size()) {
+            if (codePoints[i] < ptNodeCodePoints[0]
+                     || codePoints.size() - i < ptNodeCodePoints.size()) {
                 return nullptr;
             }
             for (size_t j = 1; j < ptNodeCodePoints.size(); ++j) {
@@ -122,5 +158,22 @@ const WordProperty *OffdeviceIntermediateDict::getWordProperty(
     return nullptr;
 }
 
+std::vector<const WordProperty *> OffdeviceIntermediateDict::getWordProperties() const {
+    std::vector<const WordProperty *> wordProperties;
+    getWordPropertiesInner(mRootPtNodeArray, &wordProperties);
+    return wordProperties;
+}
+
+void OffdeviceIntermediateDict::getWordPropertiesInner(
+        const OffdeviceIntermediateDictPtNodeArray &ptNodeArray,
+        std::vector<const WordProperty *> *const outWordProperties) const {
+    for (const auto &ptNode : ptNodeArray.getPtNodeList()) {
+        if (ptNode->getWordProperty()) {
+            outWordProperties->push_back(ptNode->getWordProperty());
+        }
+        getWordPropertiesInner(ptNode->getChildrenPtNodeArray(), outWordProperties);
+    }
+}
+
 } // namespace dicttoolkit
 } // namespace latinime
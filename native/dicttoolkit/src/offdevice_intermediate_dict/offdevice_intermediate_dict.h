@@ -17,6 +17,8 @@
 #ifndef LATINIME_DICT_TOOLKIT_OFFDEVICE_INTERMEDIATE_DICT_H
 #define LATINIME_DICT_TOOLKIT_OFFDEVICE_INTERMEDIATE_DICT_H
 
+#include <vector>
+
 #include "dict_toolkit_defines.h"
 #include "offdevice_intermediate_dict/offdevice_intermediate_dict_header.h"
 #include "offdevice_intermediate_dict/offdevice_intermediate_dict_pt_node_array.h"
@@ -27,7 +29,8 @@ namespace latinime {
 namespace dicttoolkit {
 
 /**
- * On memory patricia trie to represent a dictionary.
+ * On memory patricia trie to represent a dictionary. PtNodes in each PtNode array are sorted by
+ * their first code point in ascending order.
  */
 class OffdeviceIntermediateDict final {
  public:
@@ -35,9 +38,17 @@ class OffdeviceIntermediateDict final {
             : mHeader(header), mRootPtNodeArray() {}
 
     bool addWord(const WordProperty &wordProperty);
+    // Replaces the word property of a word that is already in the dictionary.
+    bool updateWord(const WordProperty &wordProperty);
     // The returned value will be invalid after modifying the dictionary. e.g. calling addWord().
     const WordProperty *getWordProperty(const CodePointArrayView codePoints) const;
+    // Returns all the words in depth first order, which is the order in which the Java dicttool
+    // iterates over a dictionary. The returned values have the same lifetime as above.
+    std::vector<const WordProperty *> getWordProperties() const;
     const OffdeviceIntermediateDictHeader &getHeader() const { return mHeader; }
+    const OffdeviceIntermediateDictPtNodeArray &getRootPtNodeArray() const {
+        return mRootPtNodeArray;
+    }
 
  private:
     DISALLOW_ASSIGNMENT_OPERATOR(OffdeviceIntermediateDict);
@@ -47,6 +58,8 @@ class OffdeviceIntermediateDict final {
 
     bool addWordInner(const CodePointArrayView codePoints, const WordProperty &wordProperty,
             OffdeviceIntermediateDictPtNodeArray &ptNodeArray);
+    void getWordPropertiesInner(const OffdeviceIntermediateDictPtNodeArray &ptNodeArray,
+            std::vector<const WordProperty *> *const outWordProperties) const;
 };
 
 } // namespace dicttoolkit
@@ -18,6 +18,7 @@
 #define LATINIME_DICT_TOOLKIT_OFFDEVICE_INTERMEDIATE_DICT_HEADER_H
 
 #include <map>
+#include <utility>
 #include <vector>
 
 #include "dict_toolkit_defines.h"
@@ -28,15 +29,31 @@ namespace dicttoolkit {
 class OffdeviceIntermediateDictHeader final {
  public:
     using AttributeMap = std::map<std::vector<int>, std::vector<int>>;
+    // Attributes in the order they are written to a version 2 dictionary header.
+    using AttributeList = std::vector<std::pair<std::vector<int>, std::vector<int>>>;
 
     OffdeviceIntermediateDictHeader(const AttributeMap &attributesMap)
-            : mAttributeMap(attributesMap) {}
+            : mAttributeMap(attributesMap),
+              mAttributeList(attributesMap.begin(), attributesMap.end()) {}
+
+    OffdeviceIntermediateDictHeader(const AttributeList &attributeList)
+            : mAttributeMap(attributeList.begin(), attributeList.end()),
+              mAttributeList(attributeList) {}
+
+    const AttributeMap &getAttributeMap() const {
+        return mAttributeMap;
+    }
+
+    const AttributeList &getAttributeList() const {
+        return mAttributeList;
+    }
 
  private:
     DISALLOW_DEFAULT_CONSTRUCTOR(OffdeviceIntermediateDictHeader);
     DISALLOW_ASSIGNMENT_OPERATOR(OffdeviceIntermediateDictHeader);
 
     const AttributeMap mAttributeMap;
+    const AttributeList mAttributeList;
 };
 
 } // namespace dicttoolkit
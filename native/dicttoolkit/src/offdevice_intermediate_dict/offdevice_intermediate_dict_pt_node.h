@@ -45,7 +45,8 @@ class OffdeviceIntermediateDictPtNode final {
             const OffdeviceIntermediateDictPtNode &ptNode)
             : mPtNodeCodePoints(ptNodeCodePoints.toVector()),
               mChildrenPtNodeArray(ptNode.mChildrenPtNodeArray),
-              mWortProperty(new WordProperty(*ptNode.mWortProperty)) {}
+              mWortProperty(ptNode.mWortProperty
+                      ? new WordProperty(*ptNode.mWortProperty) : nullptr) {}
 
     // Replacing WordProperty.
     OffdeviceIntermediateDictPtNode(const WordProperty &wordProperty,
@@ -66,6 +67,10 @@ class OffdeviceIntermediateDictPtNode final {
         return mChildrenPtNodeArray;
     }
 
+    const OffdeviceIntermediateDictPtNodeArray &getChildrenPtNodeArray() const {
+        return mChildrenPtNodeArray;
+    }
+
  private:
     DISALLOW_COPY_AND_ASSIGN(OffdeviceIntermediateDictPtNode);
 
@@ -0,0 +1,613 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#include "offdevice_intermediate_dict/ver2_dict_encoder.h"
+
+#include <algorithm>
+#include <cmath>
+#include <cstdio>
+#include <cstdlib>
+#include <unordered_map>
+
+#include "dictionary/property/ngram_property.h"
+#include "dictionary/property/word_property.h"
+#include "offdevice_intermediate_dict/offdevice_intermediate_dict_pt_node.h"
+#include "utils/int_array_view.h"
+#include "utils/java_compat_utils.h"
+#include "utils/utf8_utils.h"
+
+namespace latinime {
+namespace dicttoolkit {
+
+const int Ver2DictEncoder::MAGIC_NUMBER = 0x9BC13AFE;
+const int Ver2DictEncoder::FORMAT_VERSION = 202;
+
+namespace {
+
+// Constants of FormatSpec in the Java dicttool.
+const int MAX_PASSES = 24;
+const int NO_CHILDREN_ADDRESS = INT32_MIN;
+const int PTNODE_FLAGS_SIZE = 1;
+const int PTNODE_FREQUENCY_SIZE = 1;
+const int PTNODE_TERMINATOR_SIZE = 1;
+const int PTNODE_MAX_ADDRESS_SIZE = 3;
+const int PTNODE_ATTRIBUTE_FLAGS_SIZE = 1;
+const int PTNODE_ATTRIBUTE_MAX_ADDRESS_SIZE = 3;
+const uint8_t PTNODE_CHARACTERS_TERMINATOR = 0x1F;
+const int MAX_PTNODES_FOR_ONE_BYTE_PTNODE_COUNT = 0x7F;
+const int MAX_PTNODES_IN_A_PT_NODE_ARRAY = 0x7FFF;
+const int LARGE_PTNODE_ARRAY_SIZE_FIELD_SIZE_FLAG = 0x8000;
+const int MINIMAL_ONE_BYTE_CHARACTER_VALUE = 0x20;
+const int MAXIMAL_ONE_BYTE_CHARACTER_VALUE = 0xFF;
+const int MAX_TERMINAL_FREQUENCY = 255;
+const int MAX_BIGRAM_FREQUENCY = 15;
+
+const int FLAG_CHILDREN_ADDRESS_TYPE_ONEBYTE = 0x40;
+const int FLAG_CHILDREN_ADDRESS_TYPE_TWOBYTES = 0x80;
+const int FLAG_CHILDREN_ADDRESS_TYPE_THREEBYTES = 0xC0;
+const int FLAG_HAS_MULTIPLE_CHARS = 0x20;
+const int FLAG_IS_TERMINAL = 0x10;
+const int FLAG_HAS_BIGRAMS = 0x04;
+const int FLAG_IS_NOT_A_WORD = 0x02;
+const int FLAG_IS_POSSIBLY_OFFENSIVE = 0x01;
+const int FLAG_BIGRAM_SHORTCUT_ATTR_HAS_NEXT = 0x80;
+const int FLAG_BIGRAM_ATTR_OFFSET_NEGATIVE = 0x40;
+const int FLAG_BIGRAM_ATTR_ADDRESS_TYPE_ONEBYTE = 0x10;
+const int FLAG_BIGRAM_ATTR_ADDRESS_TYPE_TWOBYTES = 0x20;
+const int FLAG_BIGRAM_ATTR_ADDRESS_TYPE_THREEBYTES = 0x30;
+const int FLAG_BIGRAM_SHORTCUT_ATTR_FREQUENCY = 0x0F;
+
+const char *const CODE_POINT_TABLE_KEY = "codePointTable";
+
+using CodePointToOneByteCodeMap = std::unordered_map<int, int>;
+
+struct CodePointTable {
+    CodePointTable() : mCodePointToOneByteCodeMap(), mCodePoints() {}
+
+    CodePointToOneByteCodeMap mCodePointToOneByteCodeMap;
+    // The code points that have one byte codes, in the order of the codes.
+    std::vector<int> mCodePoints;
+};
+
+// A PtNode and a PtNode array with the cached sizes and addresses used to lay out the trie, as
+// in the Java PtNode and PtNodeArray.
+struct FlatPtNode {
+    const OffdeviceIntermediateDictPtNode *mPtNode;
+    int mChildrenPtNodeArrayIndex;
+    std::vector<int> mBigramTargetPtNodeIndices;
+    int mCachedSize;
+    int mCachedAddressBeforeUpdate;
+    int mCachedAddressAfterUpdate;
+};
+
+struct FlatPtNodeArray {
+    int mFirstPtNodeIndex;
+    int mPtNodeCount;
+    int mCachedSize;
+    int mCachedAddressBeforeUpdate;
+    int mCachedAddressAfterUpdate;
+};
+
+struct FlatTrie {
+    FlatTrie() : mPtNodeArrays(), mPtNodes() {}
+
+    std::vector<FlatPtNodeArray> mPtNodeArrays;
+    std::vector<FlatPtNode> mPtNodes;
+};
+
+int getProbability(const FlatPtNode &ptNode) {
+    const WordProperty *const wordProperty = ptNode.mPtNode->getWordProperty();
+    return wordProperty ? wordProperty->getUnigramProperty().getProbability() : NOT_A_PROBABILITY;
+}
+
+int getCharSize(const int codePoint, const CodePointToOneByteCodeMap *const codePointTable) {
+    if (codePointTable && codePointTable->count(codePoint) > 0) {
+        return 1;
+    }
+    if (codePoint >= MINIMAL_ONE_BYTE_CHARACTER_VALUE
+            && codePoint <= MAXIMAL_ONE_BYTE_CHARACTER_VALUE) {
+        return 1;
+    }
+    return NOT_A_CODE_POINT == codePoint ? 1 : 3;
+}
+
+int getPtNodeCharactersSize(const CodePointArrayView codePoints,
+        const CodePointToOneByteCodeMap *const codePointTable) {
+    int size = 0;
+    for (const int codePoint : codePoints) {
+        size += getCharSize(codePoint, codePointTable);
+    }
+    if (codePoints.size() > 1) {
+        size += PTNODE_TERMINATOR_SIZE;
+    }
+    return size;
+}
+
+int getNodeHeaderSize(const FlatPtNode &ptNode,
+        const CodePointToOneByteCodeMap *const codePointTable) {
+    return PTNODE_FLAGS_SIZE
+            + getPtNodeCharactersSize(ptNode.mPtNode->getPtNodeCodePoints(), codePointTable);
+}
+
+int getPtNodeCountSize(const int ptNodeCount) {
+    return ptNodeCount <= MAX_PTNODES_FOR_ONE_BYTE_PTNODE_COUNT ? 1 : 2;
+}
+
+int getByteSize(const int address) {
+    if (address == NO_CHILDREN_ADDRESS) {
+        return 0;
+    } else if (std::abs(address) <= 0xFF) {
+        return 1;
+    } else if (std::abs(address) <= 0xFFFF) {
+        return 2;
+    }
+    return 3;
+}
+
+// Java's (int) cast of a float.
+int floatToInt(const float value) {
+    if (std::isnan(value)) {
+        return 0;
+    }
+    if (value >= static_cast<float>(INT32_MAX)) {
+        return INT32_MAX;
+    }
+    if (value <= static_cast<float>(INT32_MIN)) {
+        return INT32_MIN;
+    }
+    return static_cast<int>(value);
+}
+
+int getBigramFrequencyDiff(const int unigramFrequency, const int bigramFrequency) {
+    const float stepSize = (MAX_TERMINAL_FREQUENCY - unigramFrequency)
+            / (1.5f + MAX_BIGRAM_FREQUENCY);
+    const float firstStepStart = 1 + unigramFrequency + (stepSize / 2.0f);
+    const int discretizedFrequency = floatToInt((bigramFrequency - firstStepStart) / stepSize);
+    return discretizedFrequency > 0 ? discretizedFrequency : 0;
+}
+
+// Counts the code points the way Ver2DictEncoder.makeCodePointTable() does, which looks at every
+// UTF-16 index of the words. The low surrogate of a surrogate pair is counted as well.
+CodePointTable makeCodePointTable(const OffdeviceIntermediateDict &dict) {
+    std::vector<int> codePoints;
+    std::unordered_map<int, int> occurrenceCounts;
+    for (const WordProperty *const wordProperty : dict.getWordProperties()) {
+        const std::vector<int> codeUnits =
+                JavaCompatUtils::getUtf16CodeUnits(wordProperty->getCodePoints());
+        for (size_t i = 0; i < codeUnits.size(); ++i) {
+            int codePoint = codeUnits[i];
+            if (codePoint >= 0xD800 && codePoint <= 0xDBFF && i + 1 < codeUnits.size()
+                    && codeUnits[i + 1] >= 0xDC00 && codeUnits[i + 1] <= 0xDFFF) {
+                codePoint = 0x10000 + ((codePoint - 0xD800) << 10) + (codeUnits[i + 1] - 0xDC00);
+            }
+            if (occurrenceCounts[codePoint]++ == 0) {
+                codePoints.push_back(codePoint);
+            }
+        }
+    }
+    // Start from the iteration order of the HashMap that holds the counts in Java, since the
+    // sort there is stable.
+    std::vector<int> sortedCodePoints;
+    for (const size_t index : JavaCompatUtils::getHashMapIterationOrder(codePoints)) {
+        sortedCodePoints.push_back(codePoints[index]);
+    }
+    // Descending order by occurrence, then by code point. The Java comparator compares the
+    // boxed counts by reference, so code points that share a count above the Integer cache
+    // (127) are considered equal and keep their order.
+    std::stable_sort(sortedCodePoints.begin(), sortedCodePoints.end(),
+            [&occurrenceCounts](const int left, const int right) {
+                const int leftCount = occurrenceCounts.at(left);
+                const int rightCount = occurrenceCounts.at(right);
+                if (leftCount != rightCount) {
+                    return leftCount > rightCount;
+                }
+                return leftCount <= 127 && left > right;
+            });
+    CodePointTable codePointTable;
+    int oneByteCode = MINIMAL_ONE_BYTE_CHARACTER_VALUE;
+    for (const int codePoint : sortedCodePoints) {
+        if (oneByteCode > MAXIMAL_ONE_BYTE_CHARACTER_VALUE) {
+            break;
+        }
+        codePointTable.mCodePointToOneByteCodeMap[codePoint] = oneByteCode++;
+        codePointTable.mCodePoints.push_back(codePoint);
+    }
+    return codePointTable;
+}
+
+void writeUInt(const int value, const int size, std::vector<uint8_t> *const buffer) {
+    for (int i = size - 1; i >= 0; --i) {
+        buffer->push_back(static_cast<uint8_t>(0xFF & (value >> (8 * i))));
+    }
+}
+
+void writeString(const CodePointArrayView codePoints, std::vector<uint8_t> *const buffer) {
+    for (const int codePoint : codePoints) {
+        writeUInt(codePoint, getCharSize(codePoint, nullptr /* codePointTable */), buffer);
+    }
+    buffer->push_back(PTNODE_CHARACTERS_TERMINATOR);
+}
+
+void writeHeader(const OffdeviceIntermediateDict &dict,
+        const CodePointTable *const codePointTable, const int magicNumber,
+        const int formatVersion, std::vector<uint8_t> *const buffer) {
+    writeUInt(magicNumber, 4, buffer);
+    writeUInt(formatVersion, 2, buffer);
+    // Options flags.
+    writeUInt(0, 2, buffer);
+    const size_t headerSizeFieldPos = buffer->size();
+    writeUInt(0 /* placeholder */, 4, buffer);
+    for (const auto &attribute : dict.getHeader().getAttributeList()) {
+        writeString(CodePointArrayView(attribute.first), buffer);
+        writeString(CodePointArrayView(attribute.second), buffer);
+    }
+    if (codePointTable) {
+        writeString(CodePointArrayView(Utf8Utils::getCodePoints(CODE_POINT_TABLE_KEY)), buffer);
+        writeString(CodePointArrayView(codePointTable->mCodePoints), buffer);
+    }
+    const int headerSize = static_cast<int>(buffer->size());
+    for (int i = 0; i < 4; ++i) {
+        (*buffer)[headerSizeFieldPos + i] = static_cast<uint8_t>(0xFF & (headerSize >> (24 - 8 * i)));
+    }
+}
+
+void flattenPtNodeArray(const OffdeviceIntermediateDictPtNodeArray &ptNodeArray,
+        FlatTrie *const trie,
+        std::unordered_map<const WordProperty *, int> *const outTerminalPtNodeIndices) {
+    const int firstPtNodeIndex = static_cast<int>(trie->mPtNodes.size());
+    const auto &ptNodeList = ptNodeArray.getPtNodeList();
+    trie->mPtNodeArrays.push_back({ firstPtNodeIndex, static_cast<int>(ptNodeList.size()),
+            0 /* cachedSize */, 0 /* cachedAddressBeforeUpdate */,
+            0 /* cachedAddressAfterUpdate */ });
+    for (const auto &ptNode : ptNodeList) {
+        if (ptNode->getWordProperty()) {
+            (*outTerminalPtNodeIndices)[ptNode->getWordProperty()] =
+                    static_cast<int>(trie->mPtNodes.size());
+        }
+        trie->mPtNodes.push_back({ ptNode.get(), NOT_AN_INDEX, std::vector<int>(),
+                0 /* cachedSize */, 0 /* cachedAddressBeforeUpdate */,
+                0 /* cachedAddressAfterUpdate */ });
+    }
+    int ptNodeIndex = firstPtNodeIndex;
+    for (const auto &ptNode : ptNodeList) {
+        const OffdeviceIntermediateDictPtNodeArray &children = ptNode->getChildrenPtNodeArray();
+        if (!children.getPtNodeList().empty()) {
+            trie->mPtNodes[ptNodeIndex].mChildrenPtNodeArrayIndex =
+                    static_cast<int>(trie->mPtNodeArrays.size());
+            flattenPtNodeArray(children, trie, outTerminalPtNodeIndices);
+        }
+        ++ptNodeIndex;
+    }
+}
+
+// Lays the PtNode arrays out in depth first order, as BinaryDictEncoderUtils.flattenTree().
+bool flattenTrie(const OffdeviceIntermediateDict &dict, FlatTrie *const outTrie) {
+    std::unordered_map<const WordProperty *, int> terminalPtNodeIndices;
+    flattenPtNodeArray(dict.getRootPtNodeArray(), outTrie, &terminalPtNodeIndices);
+    for (FlatPtNodeArray &ptNodeArray : outTrie->mPtNodeArrays) {
+        if (ptNodeArray.mPtNodeCount > MAX_PTNODES_IN_A_PT_NODE_ARRAY) {
+            AKLOGE("Can't have more than %d PtNode in a PtNodeArray (found %d)",
+                    MAX_PTNODES_IN_A_PT_NODE_ARRAY, ptNodeArray.mPtNodeCount);
+            return false;
+        }
+    }
+    for (FlatPtNode &ptNode : outTrie->mPtNodes) {
+        const WordProperty *const wordProperty = ptNode.mPtNode->getWordProperty();
+        if (!wordProperty) {
+            continue;
+        }
+        for (const NgramProperty &ngram : wordProperty->getNgramProperties()) {
+            const WordProperty *const targetWordProperty =
+                    dict.getWordProperty(CodePointArrayView(*ngram.getTargetCodePoints()));
+            if (!targetWordProperty) {
+                AKLOGE("Target word of a bigram is not in the dictionary.");
+                return false;
+            }
+            ptNode.mBigramTargetPtNodeIndices.push_back(
+                    terminalPtNodeIndices.at(targetWordProperty));
+        }
+    }
+    return true;
+}
+
+int getOffsetToTargetNodeArrayDuringUpdate(const FlatPtNodeArray &currentNodeArray,
+        const int offsetFromStartOfCurrentNodeArray, const FlatPtNodeArray &targetNodeArray) {
+    const bool isTargetBeforeCurrent = targetNodeArray.mCachedAddressBeforeUpdate
+            < currentNodeArray.mCachedAddressBeforeUpdate;
+    if (isTargetBeforeCurrent) {
+        return targetNodeArray.mCachedAddressAfterUpdate
+                - (currentNodeArray.mCachedAddressAfterUpdate + offsetFromStartOfCurrentNodeArray);
+    }
+    return targetNodeArray.mCachedAddressBeforeUpdate
+            - (currentNodeArray.mCachedAddressBeforeUpdate + offsetFromStartOfCurrentNodeArray);
+}
+
+int getOffsetToTargetPtNodeDuringUpdate(const FlatPtNodeArray &currentNodeArray,
+        const int offsetFromStartOfCurrentNodeArray, const FlatPtNode &targetPtNode) {
+    const int oldOffsetBasePoint =
+            currentNodeArray.mCachedAddressBeforeUpdate + offsetFromStartOfCurrentNodeArray;
+    if (targetPtNode.mCachedAddressBeforeUpdate < oldOffsetBasePoint) {
+        // The target has already been updated in this pass.
+        const int newOffsetBasePoint =
+                currentNodeArray.mCachedAddressAfterUpdate + offsetFromStartOfCurrentNodeArray;
+        return targetPtNode.mCachedAddressAfterUpdate - newOffsetBasePoint;
+    }
+    return targetPtNode.mCachedAddressBeforeUpdate - oldOffsetBasePoint;
+}
+
+// Returns whether any of the cached addresses or sizes of the PtNode array has changed.
+bool computeActualPtNodeArraySize(FlatTrie *const trie, FlatPtNodeArray *const ptNodeArray,
+        const CodePointToOneByteCodeMap *const codePointTable) {
+    bool changed = false;
+    int size = getPtNodeCountSize(ptNodeArray->mPtNodeCount);
+    for (int i = 0; i < ptNodeArray->mPtNodeCount; ++i) {
+        FlatPtNode &ptNode = trie->mPtNodes[ptNodeArray->mFirstPtNodeIndex + i];
+        ptNode.mCachedAddressAfterUpdate = ptNodeArray->mCachedAddressAfterUpdate + size;
+        if (ptNode.mCachedAddressAfterUpdate != ptNode.mCachedAddressBeforeUpdate) {
+            changed = true;
+        }
+        int nodeSize = getNodeHeaderSize(ptNode, codePointTable);
+        if (ptNode.mPtNode->getWordProperty()) {
+            nodeSize += PTNODE_FREQUENCY_SIZE;
+        }
+        if (ptNode.mChildrenPtNodeArrayIndex != NOT_AN_INDEX) {
+            nodeSize += getByteSize(getOffsetToTargetNodeArrayDuringUpdate(*ptNodeArray,
+                    nodeSize + size, trie->mPtNodeArrays[ptNode.mChildrenPtNodeArrayIndex]));
+        }
+        for (const int targetPtNodeIndex : ptNode.mBigramTargetPtNodeIndices) {
+            const int offset = getOffsetToTargetPtNodeDuringUpdate(*ptNodeArray,
+                    nodeSize + size + PTNODE_ATTRIBUTE_FLAGS_SIZE,
+                    trie->mPtNodes[targetPtNodeIndex]);
+            nodeSize += getByteSize(offset) + PTNODE_ATTRIBUTE_FLAGS_SIZE;
+        }
+        ptNode.mCachedSize = nodeSize;
+        size += nodeSize;
+    }
+    if (ptNodeArray->mCachedSize != size) {
+        ptNodeArray->mCachedSize = size;
+        changed = true;
+    }
+    return changed;
+}
+
+// Computes the addresses and the sizes of the PtNodes as BinaryDictEncoderUtils
+// .computeAddresses(): starting from the maximum sizes, the addresses are shrunk until they
+// don't change anymore.
+bool computeAddresses(FlatTrie *const trie,
+        const CodePointToOneByteCodeMap *const codePointTable) {
+    int ptNodeArrayOffset = 0;
+    for (FlatPtNodeArray &ptNodeArray : trie->mPtNodeArrays) {
+        ptNodeArray.mCachedAddressBeforeUpdate = ptNodeArrayOffset;
+        const int ptNodeCountSize = getPtNodeCountSize(ptNodeArray.mPtNodeCount);
+        int size = ptNodeCountSize;
+        for (int i = 0; i < ptNodeArray.mPtNodeCount; ++i) {
+            FlatPtNode &ptNode = trie->mPtNodes[ptNodeArray.mFirstPtNodeIndex + i];
+            int nodeSize = getNodeHeaderSize(ptNode, codePointTable);
+            if (ptNode.mPtNode->getWordProperty()) {
+                nodeSize += PTNODE_FREQUENCY_SIZE;
+            }
+            nodeSize += PTNODE_MAX_ADDRESS_SIZE;
+            nodeSize += (PTNODE_ATTRIBUTE_FLAGS_SIZE + PTNODE_ATTRIBUTE_MAX_ADDRESS_SIZE)
+                    * static_cast<int>(ptNode.mBigramTargetPtNodeIndices.size());
+            ptNode.mCachedSize = nodeSize;
+            ptNode.mCachedAddressBeforeUpdate = ptNodeArrayOffset + size;
+            ptNode.mCachedAddressAfterUpdate = ptNodeArrayOffset + size;
+            size += nodeSize;
+        }
+        ptNodeArray.mCachedSize = size;
+        ptNodeArrayOffset += size;
+    }
+    int passes = 0;
+    bool changesDone = false;
+    do {
+        changesDone = false;
+        int ptNodeArrayStartOffset = 0;
+        for (FlatPtNodeArray &ptNodeArray : trie->mPtNodeArrays) {
+            ptNodeArray.mCachedAddressAfterUpdate = ptNodeArrayStartOffset;
+            const int oldNodeArraySize = ptNodeArray.mCachedSize;
+            const bool changed = computeActualPtNodeArraySize(trie, &ptNodeArray,
+                    codePointTable);
+            if (oldNodeArraySize < ptNodeArray.mCachedSize) {
+                AKLOGE("Increased size ?!");
+                return false;
+            }
+            ptNodeArrayStartOffset += ptNodeArray.mCachedSize;
+            changesDone |= changed;
+        }
+        for (FlatPtNodeArray &ptNodeArray : trie->mPtNodeArrays) {
+            ptNodeArray.mCachedAddressBeforeUpdate = ptNodeArray.mCachedAddressAfterUpdate;
+        }
+        for (FlatPtNode &ptNode : trie->mPtNodes) {
+            ptNode.mCachedAddressBeforeUpdate = ptNode.mCachedAddressAfterUpdate;
+        }
+        ++passes;
+        if (passes > MAX_PASSES) {
+            AKLOGE("Too many passes - probably a bug");
+            return false;
+        }
+    } while (changesDone);
+    return true;
+}
+
+void writeCharacters(const CodePointArrayView codePoints,
+        const CodePointToOneByteCodeMap *const codePointTable,
+        std::vector<uint8_t> *const buffer) {
+    for (const int codePoint : codePoints) {
+        if (codePointTable) {
+            const auto it = codePointTable->find(codePoint);
+            if (it != codePointTable->end()) {
+                buffer->push_back(static_cast<uint8_t>(it->second));
+                continue;
+            }
+        }
+        writeUInt(codePoint, getCharSize(codePoint, codePointTable), buffer);
+    }
+    if (codePoints.size() > 1) {
+        buffer->push_back(PTNODE_CHARACTERS_TERMINATOR);
+    }
+}
+
+int getChildrenAddressFlag(const int childrenPosition) {
+    switch (getByteSize(childrenPosition)) {
+        case 1:
+            return FLAG_CHILDREN_ADDRESS_TYPE_ONEBYTE;
+        case 2:
+            return FLAG_CHILDREN_ADDRESS_TYPE_TWOBYTES;
+        case 3:
+            return FLAG_CHILDREN_ADDRESS_TYPE_THREEBYTES;
+        default:
+            return 0;
+    }
+}
+
+int getBigramAddressFlag(const int offset) {
+    switch (getByteSize(offset)) {
+        case 1:
+            return FLAG_BIGRAM_ATTR_ADDRESS_TYPE_ONEBYTE;
+        case 2:
+            return FLAG_BIGRAM_ATTR_ADDRESS_TYPE_TWOBYTES;
+        default:
+            return FLAG_BIGRAM_ATTR_ADDRESS_TYPE_THREEBYTES;
+    }
+}
+
+void writePtNode(const FlatTrie &trie, const FlatPtNode &ptNode,
+        const CodePointToOneByteCodeMap *const codePointTable,
+        std::vector<uint8_t> *const buffer) {
+    const WordProperty *const wordProperty = ptNode.mPtNode->getWordProperty();
+    const CodePointArrayView codePoints = ptNode.mPtNode->getPtNodeCodePoints();
+    int childrenPosition = NO_CHILDREN_ADDRESS;
+    if (ptNode.mChildrenPtNodeArrayIndex != NOT_AN_INDEX) {
+        const int childrenPositionFieldPos = ptNode.mCachedAddressAfterUpdate
+                + getNodeHeaderSize(ptNode, codePointTable)
+                + (wordProperty ? PTNODE_FREQUENCY_SIZE : 0);
+        childrenPosition = trie.mPtNodeArrays[ptNode.mChildrenPtNodeArrayIndex]
+                .mCachedAddressAfterUpdate - childrenPositionFieldPos;
+    }
+    int flags = getChildrenAddressFlag(childrenPosition);
+    if (codePoints.size() > 1) flags |= FLAG_HAS_MULTIPLE_CHARS;
+    if (wordProperty) {
+        const UnigramProperty &unigramProperty = wordProperty->getUnigramProperty();
+        flags |= FLAG_IS_TERMINAL;
+        if (!ptNode.mBigramTargetPtNodeIndices.empty()) flags |= FLAG_HAS_BIGRAMS;
+        if (unigramProperty.isNotAWord()) flags |= FLAG_IS_NOT_A_WORD;
+        if (unigramProperty.isPossiblyOffensive()) flags |= FLAG_IS_POSSIBLY_OFFENSIVE;
+    }
+    writeUInt(flags, PTNODE_FLAGS_SIZE, buffer);
+    writeCharacters(codePoints, codePointTable, buffer);
+    if (wordProperty) {
+        writeUInt(getProbability(ptNode), PTNODE_FREQUENCY_SIZE, buffer);
+    }
+    writeUInt(childrenPosition, getByteSize(childrenPosition), buffer);
+    for (size_t i = 0; i < ptNode.mBigramTargetPtNodeIndices.size(); ++i) {
+        const FlatPtNode &targetPtNode = trie.mPtNodes[ptNode.mBigramTargetPtNodeIndices[i]];
+        const int offset = targetPtNode.mCachedAddressAfterUpdate
+                - (static_cast<int>(buffer->size()) + PTNODE_ATTRIBUTE_FLAGS_SIZE);
+        const int unigramFrequency = getProbability(targetPtNode);
+        const int bigramFrequency = std::max(unigramFrequency,
+                wordProperty->getNgramProperties()[i].getProbability());
+        int bigramFlags = (i + 1 < ptNode.mBigramTargetPtNodeIndices.size()
+                        ? FLAG_BIGRAM_SHORTCUT_ATTR_HAS_NEXT : 0)
+                + (offset < 0 ? FLAG_BIGRAM_ATTR_OFFSET_NEGATIVE : 0);
+        bigramFlags |= getBigramAddressFlag(offset);
+        bigramFlags += getBigramFrequencyDiff(unigramFrequency, bigramFrequency)
+                & FLAG_BIGRAM_SHORTCUT_ATTR_FREQUENCY;
+        writeUInt(bigramFlags, PTNODE_ATTRIBUTE_FLAGS_SIZE, buffer);
+        writeUInt(std::abs(offset), getByteSize(std::abs(offset)), buffer);
+    }
+}
+
+bool writeTrie(const FlatTrie &trie, const CodePointToOneByteCodeMap *const codePointTable,
+        std::vector<uint8_t> *const buffer) {
+    // Addresses in the trie are relative to its start.
+    std::vector<uint8_t> trieBuffer;
+    for (const FlatPtNodeArray &ptNodeArray : trie.mPtNodeArrays) {
+        const int ptNodeCountSize = getPtNodeCountSize(ptNodeArray.mPtNodeCount);
+        writeUInt(ptNodeCountSize == 2
+                ? (ptNodeArray.mPtNodeCount | LARGE_PTNODE_ARRAY_SIZE_FIELD_SIZE_FLAG)
+                : ptNodeArray.mPtNodeCount, ptNodeCountSize, &trieBuffer);
+        for (int i = 0; i < ptNodeArray.mPtNodeCount; ++i) {
+            const FlatPtNode &ptNode = trie.mPtNodes[ptNodeArray.mFirstPtNodeIndex + i];
+            if (static_cast<int>(trieBuffer.size()) != ptNode.mCachedAddressAfterUpdate) {
+                AKLOGE("Bug: write index is not the same as the cached address of the node : "
+                        "%zu <> %d", trieBuffer.size(), ptNode.mCachedAddressAfterUpdate);
+                return false;
+            }
+            writePtNode(trie, ptNode, codePointTable, &trieBuffer);
+        }
+        if (static_cast<int>(trieBuffer.size())
+                != ptNodeArray.mCachedAddressAfterUpdate + ptNodeArray.mCachedSize) {
+            AKLOGE("Not the same size : written %zu bytes from a node that should have %d bytes",
+                    trieBuffer.size() - ptNodeArray.mCachedAddressAfterUpdate,
+                    ptNodeArray.mCachedSize);
+            return false;
+        }
+    }
+    buffer->insert(buffer->end(), trieBuffer.begin(), trieBuffer.end());
+    return true;
+}
+
+} // namespace
+
+/* static */ bool Ver2DictEncoder::encodeDictionary(const OffdeviceIntermediateDict &dict,
+        const CodePointTableMode codePointTableMode, std::vector<uint8_t> *const outBuffer) {
+    if (codePointTableMode == CodePointTableMode::Auto) {
+        std::vector<uint8_t> bufferWithTable;
+        if (!encodeDictionary(dict, CodePointTableMode::On, &bufferWithTable)
+                || !encodeDictionary(dict, CodePointTableMode::Off, outBuffer)) {
+            return false;
+        }
+        if (bufferWithTable.size() < outBuffer->size()) {
+            outBuffer->swap(bufferWithTable);
+        }
+        return true;
+    }
+    FlatTrie trie;
+    if (!flattenTrie(dict, &trie)) {
+        return false;
+    }
+    const bool usesCodePointTable = codePointTableMode == CodePointTableMode::On;
+    const CodePointTable codePointTable =
+            usesCodePointTable ? makeCodePointTable(dict) : CodePointTable();
+    const CodePointToOneByteCodeMap *const codePointToOneByteCodeMap =
+            usesCodePointTable ? &codePointTable.mCodePointToOneByteCodeMap : nullptr;
+    if (!computeAddresses(&trie, codePointToOneByteCodeMap)) {
+        return false;
+    }
+    outBuffer->clear();
+    writeHeader(dict, usesCodePointTable ? &codePointTable : nullptr, MAGIC_NUMBER,
+            FORMAT_VERSION, outBuffer);
+    return writeTrie(trie, codePointToOneByteCodeMap, outBuffer);
+}
+
+/* static */ bool Ver2DictEncoder::writeDictionaryFile(const OffdeviceIntermediateDict &dict,
+        const CodePointTableMode codePointTableMode, const std::string &filePath) {
+    std::vector<uint8_t> buffer;
+    if (!encodeDictionary(dict, codePointTableMode, &buffer)) {
+        return false;
+    }
+    FILE *const file = fopen(filePath.c_str(), "wb");
+    if (!file) {
+        AKLOGE("Cannot open %s.", filePath.c_str());
+        return false;
+    }
+    const bool succeeded = fwrite(buffer.data(), buffer.size(), 1 /* count */, file) == 1;
+    return fclose(file) == 0 && succeeded;
+}
+
+} // namespace dicttoolkit
+} // namespace latinime
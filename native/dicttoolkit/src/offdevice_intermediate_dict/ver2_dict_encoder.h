@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#ifndef LATINIME_DICT_TOOLKIT_VER2_DICT_ENCODER_H
+#define LATINIME_DICT_TOOLKIT_VER2_DICT_ENCODER_H
+
+#include <cstdint>
+#include <string>
+#include <vector>
+
+#include "dict_toolkit_defines.h"
+#include "offdevice_intermediate_dict/offdevice_intermediate_dict.h"
+
+namespace latinime {
+namespace dicttoolkit {
+
+/**
+ * Writes an OffdeviceIntermediateDict as a version 2 (202) binary dictionary. The output is the
+ * same as the output of Ver2DictEncoder in the Java dicttool.
+ */
+class Ver2DictEncoder final {
+ public:
+    enum class CodePointTableMode : int {
+        Off,
+        On,
+        // Uses the code point table only when it makes the dictionary smaller.
+        Auto
+    };
+
+    static bool encodeDictionary(const OffdeviceIntermediateDict &dict,
+            const CodePointTableMode codePointTableMode, std::vector<uint8_t> *const outBuffer);
+    static bool writeDictionaryFile(const OffdeviceIntermediateDict &dict,
+            const CodePointTableMode codePointTableMode, const std::string &filePath);
+
+ private:
+    DISALLOW_IMPLICIT_CONSTRUCTORS(Ver2DictEncoder);
+
+    static const int MAGIC_NUMBER;
+    static const int FORMAT_VERSION;
+};
+
+} // namespace dicttoolkit
+} // namespace latinime
+#endif // LATINIME_DICT_TOOLKIT_VER2_DICT_ENCODER_H
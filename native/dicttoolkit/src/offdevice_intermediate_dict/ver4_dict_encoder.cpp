@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#include "offdevice_intermediate_dict/ver4_dict_encoder.h"
+
+#include <vector>
+
+#include "dictionary/interface/dictionary_structure_with_buffer_policy.h"
+#include "dictionary/property/historical_info.h"
+#include "dictionary/property/ngram_context.h"
+#include "dictionary/property/ngram_property.h"
+#include "dictionary/property/unigram_property.h"
+#include "dictionary/property/word_property.h"
+#include "dictionary/structure/dictionary_structure_with_buffer_policy_factory.h"
+#include "dictionary/utils/dict_file_writing_utils.h"
+#include "dictionary/utils/format_utils.h"
+#include "utils/int_array_view.h"
+#include "utils/time_keeper.h"
+#include "utils/utf8_utils.h"
+
+namespace latinime {
+namespace dicttoolkit {
+
+namespace {
+
+const char *const LOCALE_KEY = "locale";
+
+DictionaryStructureWithBufferPolicy::StructurePolicyPtr openPolicy(const std::string &dirPath) {
+    return DictionaryStructureWithBufferPolicyFactory::newPolicyForExistingDictFile(
+            dirPath.c_str(), 0 /* bufOffset */, 0 /* size */, true /* isUpdatable */);
+}
+
+// Runs GC when the policy asks for it, as BinaryDictionary.flushWithGC() followed by a reopen.
+bool runGCIfNeeded(const std::string &dirPath,
+        DictionaryStructureWithBufferPolicy::StructurePolicyPtr *const policy) {
+    TimeKeeper::setCurrentTime();
+    if (!(*policy)->needsToRunGC(true /* mindsBlockByGC */)) {
+        return true;
+    }
+    TimeKeeper::setCurrentTime();
+    if (!(*policy)->flushWithGC(dirPath.c_str())) {
+        AKLOGE("Cannot flush dict with GC.");
+        return false;
+    }
+    *policy = openPolicy(dirPath);
+    return *policy != nullptr;
+}
+
+} // namespace
+
+/* static */ bool Ver4DictEncoder::writeDictionaryDirectory(const OffdeviceIntermediateDict &dict,
+        const std::string &dirPath) {
+    const OffdeviceIntermediateDictHeader::AttributeMap &attributeMap =
+            dict.getHeader().getAttributeMap();
+    const auto localeIt = attributeMap.find(Utf8Utils::getCodePoints(LOCALE_KEY));
+    const std::vector<int> locale =
+            localeIt != attributeMap.end() ? localeIt->second : std::vector<int>();
+    if (!DictFileWritingUtils::createEmptyDictFile(dirPath.c_str(), FormatUtils::VERSION_403,
+            locale, &attributeMap)) {
+        AKLOGE("Cannot create dictionary file : %s", dirPath.c_str());
+        return false;
+    }
+    DictionaryStructureWithBufferPolicy::StructurePolicyPtr policy = openPolicy(dirPath);
+    if (!policy) {
+        AKLOGE("Cannot create dictionary file");
+        return false;
+    }
+    const std::vector<const WordProperty *> wordProperties = dict.getWordProperties();
+    for (const WordProperty *const wordProperty : wordProperties) {
+        const UnigramProperty &sourceUnigramProperty = wordProperty->getUnigramProperty();
+        const UnigramProperty unigramProperty(false /* representsBeginningOfSentence */,
+                sourceUnigramProperty.isNotAWord(), sourceUnigramProperty.isPossiblyOffensive(),
+                sourceUnigramProperty.getProbability(),
+                HistoricalInfo(0 /* timestamp */, 0 /* level */, 1 /* count */));
+        TimeKeeper::setCurrentTime();
+        if (!policy->addUnigramEntry(wordProperty->getCodePoints(), &unigramProperty)) {
+            AKLOGE("Cannot add unigram entry.");
+        }
+        if (!runGCIfNeeded(dirPath, &policy)) {
+            return false;
+        }
+    }
+    for (const WordProperty *const wordProperty : wordProperties) {
+        const CodePointArrayView prevWordCodePoints = wordProperty->getCodePoints();
+        const NgramContext ngramContext(prevWordCodePoints.data(),
+                static_cast<int>(prevWordCodePoints.size()),
+                false /* isBeginningOfSentence */);
+        for (const NgramProperty &sourceNgramProperty : wordProperty->getNgramProperties()) {
+            const NgramProperty ngramProperty(ngramContext,
+                    CodePointArrayView(*sourceNgramProperty.getTargetCodePoints()).toVector(),
+                    sourceNgramProperty.getProbability(),
+                    HistoricalInfo(0 /* timestamp */, 0 /* level */, 1 /* count */));
+            TimeKeeper::setCurrentTime();
+            if (!policy->addNgramEntry(&ngramProperty)) {
+                AKLOGE("Cannot add n-gram entry.");
+                return false;
+            }
+            if (!runGCIfNeeded(dirPath, &policy)) {
+                return false;
+            }
+        }
+    }
+    TimeKeeper::setCurrentTime();
+    if (!policy->flushWithGC(dirPath.c_str())) {
+        AKLOGE("Cannot flush dict with GC.");
+        return false;
+    }
+    return true;
+}
+
+} // namespace dicttoolkit
+} // namespace latinime
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#ifndef LATINIME_DICT_TOOLKIT_VER4_DICT_ENCODER_H
+#define LATINIME_DICT_TOOLKIT_VER4_DICT_ENCODER_H
+
+#include <string>
+
+#include "dict_toolkit_defines.h"
+#include "offdevice_intermediate_dict/offdevice_intermediate_dict.h"
+
+namespace latinime {
+namespace dicttoolkit {
+
+/**
+ * Writes an OffdeviceIntermediateDict as a version 4 (403) dictionary directory. The words are
+ * added through the updatable dictionary structure policy in the same order as Ver4DictEncoder
+ * in the Java dicttool, so that both tools write the same dictionary body.
+ */
+class Ver4DictEncoder final {
+ public:
+    static bool writeDictionaryDirectory(const OffdeviceIntermediateDict &dict,
+            const std::string &dirPath);
+
+ private:
+    DISALLOW_IMPLICIT_CONSTRUCTORS(Ver4DictEncoder);
+};
+
+} // namespace dicttoolkit
+} // namespace latinime
+#endif // LATINIME_DICT_TOOLKIT_VER4_DICT_ENCODER_H
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#include "utils/java_compat_utils.h"
+
+#include <algorithm>
+#include <cstdint>
+
+namespace latinime {
+namespace dicttoolkit {
+
+// Constants of java.util.HashMap.
+const size_t JavaCompatUtils::HASH_MAP_DEFAULT_CAPACITY = 16;
+const size_t JavaCompatUtils::HASH_MAP_MIN_TREEIFY_CAPACITY = 64;
+const size_t JavaCompatUtils::HASH_MAP_TREEIFY_THRESHOLD = 8;
+
+/* static */ std::vector<std::string> JavaCompatUtils::split(const std::string &str,
+        const char separator, const int limit) {
+    std::vector<std::string> pieces;
+    size_t start = 0;
+    while (limit <= 0 || pieces.size() + 1 < static_cast<size_t>(limit)) {
+        const size_t separatorPos = str.find(separator, start);
+        if (separatorPos == std::string::npos) {
+            break;
+        }
+        pieces.push_back(str.substr(start, separatorPos - start));
+        start = separatorPos + 1;
+    }
+    if (pieces.empty()) {
+        // No separator has been found.
+        return std::vector<std::string>(1, str);
+    }
+    pieces.push_back(str.substr(start));
+    if (limit == 0) {
+        while (!pieces.empty() && pieces.back().empty()) {
+            pieces.pop_back();
+        }
+    }
+    return pieces;
+}
+
+/* static */ bool JavaCompatUtils::parseInt(const std::string &str, int *const outValue) {
+    if (str.empty()) {
+        return false;
+    }
+    const bool isNegative = str[0] == '-';
+    const size_t firstDigitPos = (str[0] == '-' || str[0] == '+') ? 1 : 0;
+    if (firstDigitPos >= str.size()) {
+        return false;
+    }
+    int64_t value = 0;
+    for (size_t i = firstDigitPos; i < str.size(); ++i) {
+        if (str[i] < '0' || str[i] > '9') {
+            return false;
+        }
+        value = value * 10 + (str[i] - '0');
+        if (value > static_cast<int64_t>(INT32_MAX) + 1) {
+            return false;
+        }
+    }
+    if (isNegative) {
+        value = -value;
+    }
+    if (value > INT32_MAX || value < INT32_MIN) {
+        return false;
+    }
+    *outValue = static_cast<int>(value);
+    return true;
+}
+
+/* static */ int JavaCompatUtils::getStringHashCode(const CodePointArrayView codePoints) {
+    uint32_t hashCode = 0;
+    for (const int codeUnit : getUtf16CodeUnits(codePoints)) {
+        hashCode = 31 * hashCode + static_cast<uint32_t>(codeUnit);
+    }
+    return static_cast<int>(hashCode);
+}
+
+/* static */ std::vector<int> JavaCompatUtils::getUtf16CodeUnits(
+        const CodePointArrayView codePoints) {
+    std::vector<int> codeUnits;
+    codeUnits.reserve(codePoints.size());
+    for (const int codePoint : codePoints) {
+        if (codePoint >= 0x10000) {
+            codeUnits.push_back(0xD800 + ((codePoint - 0x10000) >> 10));
+            codeUnits.push_back(0xDC00 + ((codePoint - 0x10000) & 0x3FF));
+        } else {
+            codeUnits.push_back(codePoint);
+        }
+    }
+    return codeUnits;
+}
+
+/* static */ std::vector<size_t> JavaCompatUtils::getHashMapIterationOrder(
+        const std::vector<int> &keyHashCodes) {
+    // Replay the puts to find the final capacity of the table. Resizing keeps the insertion
+    // order of the keys within each bucket.
+    size_t capacity = HASH_MAP_DEFAULT_CAPACITY;
+    for (size_t i = 0; i < keyHashCodes.size(); ++i) {
+        if (capacity < HASH_MAP_MIN_TREEIFY_CAPACITY) {
+            const size_t bucketIndex = getHashMapBucketIndex(keyHashCodes[i], capacity);
+            size_t binSize = 0;
+            for (size_t j = 0; j <= i; ++j) {
+                if (getHashMapBucketIndex(keyHashCodes[j], capacity) == bucketIndex) {
+                    ++binSize;
+                }
+            }
+            // Small tables are resized instead of converting a long bin into a tree.
+            if (binSize > HASH_MAP_TREEIFY_THRESHOLD) {
+                capacity *= 2;
+            }
+        }
+        if (i + 1 > getHashMapResizeThreshold(capacity)) {
+            capacity *= 2;
+        }
+    }
+    std::vector<size_t> order;
+    order.reserve(keyHashCodes.size());
+    for (size_t i = 0; i < keyHashCodes.size(); ++i) {
+        order.push_back(i);
+    }
+    std::stable_sort(order.begin(), order.end(),
+            [&keyHashCodes, capacity](const size_t left, const size_t right) {
+                return getHashMapBucketIndex(keyHashCodes[left], capacity)
+                        < getHashMapBucketIndex(keyHashCodes[right], capacity);
+            });
+    return order;
+}
+
+/* static */ size_t JavaCompatUtils::getHashMapBucketIndex(const int hashCode,
+        const size_t capacity) {
+    const uint32_t hash = static_cast<uint32_t>(hashCode);
+    return (hash ^ (hash >> 16)) & (capacity - 1);
+}
+
+/* static */ size_t JavaCompatUtils::getHashMapResizeThreshold(const size_t capacity) {
+    // The default load factor is 0.75.
+    return capacity * 3 / 4;
+}
+
+} // namespace dicttoolkit
+} // namespace latinime
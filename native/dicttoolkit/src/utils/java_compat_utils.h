@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#ifndef LATINIME_DICT_TOOLKIT_JAVA_COMPAT_UTILS_H
+#define LATINIME_DICT_TOOLKIT_JAVA_COMPAT_UTILS_H
+
+#include <cstddef>
+#include <string>
+#include <vector>
+
+#include "dict_toolkit_defines.h"
+#include "utils/int_array_view.h"
+
+namespace latinime {
+namespace dicttoolkit {
+
+/**
+ * Reproduces the behavior of the Java standard library in the places where the output of the
+ * native tools has to be the same as the output of the Java dicttool.
+ */
+class JavaCompatUtils {
+ public:
+    // String.split() with a separator that is a single non-special character. As in Java,
+    // trailing empty strings are removed when limit is 0.
+    static std::vector<std::string> split(const std::string &str, const char separator,
+            const int limit);
+    // Integer.parseInt(). Returns false when Java would throw a NumberFormatException.
+    static bool parseInt(const std::string &str, int *const outValue);
+    // String.hashCode() of the UTF-16 representation of the code points.
+    static int getStringHashCode(const CodePointArrayView codePoints);
+    // The UTF-16 representation of the code points, one code unit per element.
+    static std::vector<int> getUtf16CodeUnits(const CodePointArrayView codePoints);
+    // Returns the order in which a java.util.HashMap iterates over its keys, as indices into
+    // keyHashCodes. keyHashCodes holds the hash codes of distinct keys in the order they have
+    // been put into the map. Keys removed after all the puts can simply be skipped by the
+    // caller. Bins that have been converted into trees are not reproduced.
+    static std::vector<size_t> getHashMapIterationOrder(const std::vector<int> &keyHashCodes);
+
+ private:
+    DISALLOW_IMPLICIT_CONSTRUCTORS(JavaCompatUtils);
+
+    static const size_t HASH_MAP_DEFAULT_CAPACITY;
+    static const size_t HASH_MAP_MIN_TREEIFY_CAPACITY;
+    static const size_t HASH_MAP_TREEIFY_THRESHOLD;
+
+    static size_t getHashMapBucketIndex(const int hashCode, const size_t capacity);
+    static size_t getHashMapResizeThreshold(const size_t capacity);
+};
+
+} // namespace dicttoolkit
+} // namespace latinime
+#endif // LATINIME_DICT_TOOLKIT_JAVA_COMPAT_UTILS_H
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#include "offdevice_intermediate_dict/combined_format_reader.h"
+
+#include <gtest/gtest.h>
+
+#include <memory>
+#include <sstream>
+#include <vector>
+
+#include "dictionary/property/word_property.h"
+#include "offdevice_intermediate_dict/offdevice_intermediate_dict.h"
+#include "utils/int_array_view.h"
+#include "utils/utf8_utils.h"
+
+namespace latinime {
+namespace dicttoolkit {
+namespace {
+
+std::unique_ptr<OffdeviceIntermediateDict> readDictionary(const char *const contents) {
+    std::istringstream stream(contents);
+    return CombinedFormatReader::readDictionary(stream);
+}
+
+const WordProperty *getWordProperty(const OffdeviceIntermediateDict &dict,
+        const char *const word) {
+    return dict.getWordProperty(CodePointArrayView(Utf8Utils::getCodePoints(word)));
+}
+
+TEST(CombinedFormatReaderTests, TestReadHeader) {
+    const std::unique_ptr<OffdeviceIntermediateDict> dict = readDictionary(
+            "# comment\n"
+            "dictionary=main:en_us,locale=en_US,description=English,date=1414726260,"
+            "version=54,options=x\n");
+    ASSERT_NE(nullptr, dict);
+    // The order of HashMap.keySet() in Java. "options" is not a header attribute.
+    const OffdeviceIntermediateDictHeader::AttributeList &attributeList =
+            dict->getHeader().getAttributeList();
+    ASSERT_EQ(5u, attributeList.size());
+    EXPECT_EQ(Utf8Utils::getCodePoints("date"), attributeList[0].first);
+    EXPECT_EQ(Utf8Utils::getCodePoints("1414726260"), attributeList[0].second);
+    EXPECT_EQ(Utf8Utils::getCodePoints("dictionary"), attributeList[1].first);
+    EXPECT_EQ(Utf8Utils::getCodePoints("description"), attributeList[2].first);
+    EXPECT_EQ(Utf8Utils::getCodePoints("locale"), attributeList[3].first);
+    EXPECT_EQ(Utf8Utils::getCodePoints("en_US"), attributeList[3].second);
+    EXPECT_EQ(Utf8Utils::getCodePoints("version"), attributeList[4].first);
+
+    EXPECT_EQ(nullptr, readDictionary("locale\n"));
+    EXPECT_EQ(nullptr, readDictionary("# comment only\n"));
+}
+
+TEST(CombinedFormatReaderTests, TestReadWords) {
+    const std::unique_ptr<OffdeviceIntermediateDict> dict = readDictionary(
+            "locale=en\n"
+            " word=abc,f=100,flags=,originalFreq=100\n"
+            " word=ab,f=120,not_a_word=true\n"
+            " word=de\n"
+            " word=ghi,f=10,possibly_offensive=TRUE,historicalInfo=1:2:3\n"
+            " shortcut=abc,f=14\n");
+    ASSERT_NE(nullptr, dict);
+    const WordProperty *const abc = getWordProperty(*dict, "abc");
+    ASSERT_NE(nullptr, abc);
+    EXPECT_EQ(100, abc->getUnigramProperty().getProbability());
+    EXPECT_FALSE(abc->getUnigramProperty().isNotAWord());
+    const WordProperty *const ab = getWordProperty(*dict, "ab");
+    ASSERT_NE(nullptr, ab);
+    EXPECT_EQ(120, ab->getUnigramProperty().getProbability());
+    EXPECT_TRUE(ab->getUnigramProperty().isNotAWord());
+    // The probability is carried over from the previous word as in the Java dicttool.
+    const WordProperty *const de = getWordProperty(*dict, "de");
+    ASSERT_NE(nullptr, de);
+    EXPECT_EQ(120, de->getUnigramProperty().getProbability());
+    EXPECT_FALSE(de->getUnigramProperty().isNotAWord());
+    const WordProperty *const ghi = getWordProperty(*dict, "ghi");
+    ASSERT_NE(nullptr, ghi);
+    EXPECT_TRUE(ghi->getUnigramProperty().isPossiblyOffensive());
+    EXPECT_EQ(1, ghi->getUnigramProperty().getHistoricalInfo().getTimestamp());
+    EXPECT_EQ(4u, dict->getWordProperties().size());
+
+    EXPECT_EQ(nullptr, readDictionary("locale=en\n word=abc,f=x\n"));
+    EXPECT_EQ(nullptr, readDictionary("locale=en\n word=abc,f\n"));
+}
+
+TEST(CombinedFormatReaderTests, TestMergeDuplicatedWords) {
+    const std::unique_ptr<OffdeviceIntermediateDict> dict = readDictionary(
+            "locale=en\n"
+            " word=ab,f=100,not_a_word=true\n"
+            " word=ab,f=50,possibly_offensive=true\n"
+            " word=abc,f=30,not_a_word=true\n"
+            " word=abc,f=20\n");
+    ASSERT_NE(nullptr, dict);
+    // A word of a root PtNode merges the flags.
+    const WordProperty *const ab = getWordProperty(*dict, "ab");
+    ASSERT_NE(nullptr, ab);
+    EXPECT_EQ(100, ab->getUnigramProperty().getProbability());
+    EXPECT_FALSE(ab->getUnigramProperty().isNotAWord());
+    EXPECT_TRUE(ab->getUnigramProperty().isPossiblyOffensive());
+    // A deeper word takes the flags of the last entry.
+    const WordProperty *const abc = getWordProperty(*dict, "abc");
+    ASSERT_NE(nullptr, abc);
+    EXPECT_EQ(30, abc->getUnigramProperty().getProbability());
+    EXPECT_FALSE(abc->getUnigramProperty().isNotAWord());
+}
+
+TEST(CombinedFormatReaderTests, TestReadBigrams) {
+    const std::unique_ptr<OffdeviceIntermediateDict> dict = readDictionary(
+            "locale=en\n"
+            " word=ab,f=100\n"
+            "  bigram=cd,f=120\n"
+            "  bigram=ef,f=110\n"
+            "  bigram=cd,f=130\n"
+            " word=cd,f=90\n");
+    ASSERT_NE(nullptr, dict);
+    const WordProperty *const ab = getWordProperty(*dict, "ab");
+    ASSERT_NE(nullptr, ab);
+    const std::vector<NgramProperty> &ngrams = ab->getNgramProperties();
+    ASSERT_EQ(2u, ngrams.size());
+    EXPECT_EQ(Utf8Utils::getCodePoints("cd"), *ngrams[0].getTargetCodePoints());
+    EXPECT_EQ(130, ngrams[0].getProbability());
+    EXPECT_EQ(Utf8Utils::getCodePoints("ef"), *ngrams[1].getTargetCodePoints());
+    EXPECT_EQ(110, ngrams[1].getProbability());
+    // The targets that are not in the dictionary yet are added with probability 0.
+    const WordProperty *const ef = getWordProperty(*dict, "ef");
+    ASSERT_NE(nullptr, ef);
+    EXPECT_EQ(0, ef->getUnigramProperty().getProbability());
+    const WordProperty *const cd = getWordProperty(*dict, "cd");
+    ASSERT_NE(nullptr, cd);
+    EXPECT_EQ(90, cd->getUnigramProperty().getProbability());
+}
+
+} // namespace
+} // namespace dicttoolkit
+} // namespace latinime
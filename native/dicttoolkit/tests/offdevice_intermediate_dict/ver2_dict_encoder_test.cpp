@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#include "offdevice_intermediate_dict/ver2_dict_encoder.h"
+
+#include <gtest/gtest.h>
+
+#include <cstdint>
+#include <memory>
+#include <sstream>
+#include <vector>
+
+#include "offdevice_intermediate_dict/combined_format_reader.h"
+
+namespace latinime {
+namespace dicttoolkit {
+namespace {
+
+// The expected outputs have been written by the Java dicttool from the same source.
+const char *const TEST_DICT =
+        "locale=en\n"
+        " word=ab,f=100\n"
+        " word=a,f=50\n"
+        "  bigram=ab,f=120\n"
+        " word=b,f=10,not_a_word=true\n";
+
+const std::vector<uint8_t> EXPECTED_DICT_WITHOUT_CODE_POINT_TABLE = {
+    0x9B, 0xC1, 0x3A, 0xFE, 0x00, 0xCA, 0x00, 0x00, 0x00, 0x00, 0x00, 0x16,
+    0x6C, 0x6F, 0x63, 0x61, 0x6C, 0x65, 0x1F, 0x65, 0x6E, 0x1F, 0x02, 0x54,
+    0x61, 0x32, 0x06, 0x11, 0x05, 0x12, 0x62, 0x0A, 0x01, 0x10, 0x62, 0x64
+};
+
+const std::vector<uint8_t> EXPECTED_DICT_WITH_CODE_POINT_TABLE = {
+    0x9B, 0xC1, 0x3A, 0xFE, 0x00, 0xCA, 0x00, 0x00, 0x00, 0x00, 0x00, 0x28,
+    0x6C, 0x6F, 0x63, 0x61, 0x6C, 0x65, 0x1F, 0x65, 0x6E, 0x1F, 0x63, 0x6F,
+    0x64, 0x65, 0x50, 0x6F, 0x69, 0x6E, 0x74, 0x54, 0x61, 0x62, 0x6C, 0x65,
+    0x1F, 0x62, 0x61, 0x1F, 0x02, 0x54, 0x21, 0x32, 0x06, 0x11, 0x05, 0x12,
+    0x20, 0x0A, 0x01, 0x10, 0x20, 0x64
+};
+
+std::unique_ptr<OffdeviceIntermediateDict> readTestDict() {
+    std::istringstream stream(TEST_DICT);
+    return CombinedFormatReader::readDictionary(stream);
+}
+
+TEST(Ver2DictEncoderTests, TestEncodeDictionary) {
+    const std::unique_ptr<OffdeviceIntermediateDict> dict = readTestDict();
+    ASSERT_NE(nullptr, dict);
+    std::vector<uint8_t> buffer;
+    EXPECT_TRUE(Ver2DictEncoder::encodeDictionary(*dict,
+            Ver2DictEncoder::CodePointTableMode::Off, &buffer));
+    EXPECT_EQ(EXPECTED_DICT_WITHOUT_CODE_POINT_TABLE, buffer);
+}
+
+TEST(Ver2DictEncoderTests, TestEncodeDictionaryWithCodePointTable) {
+    const std::unique_ptr<OffdeviceIntermediateDict> dict = readTestDict();
+    ASSERT_NE(nullptr, dict);
+    std::vector<uint8_t> buffer;
+    EXPECT_TRUE(Ver2DictEncoder::encodeDictionary(*dict,
+            Ver2DictEncoder::CodePointTableMode::On, &buffer));
+    EXPECT_EQ(EXPECTED_DICT_WITH_CODE_POINT_TABLE, buffer);
+}
+
+TEST(Ver2DictEncoderTests, TestEncodeDictionaryWithAutoCodePointTable) {
+    const std::unique_ptr<OffdeviceIntermediateDict> dict = readTestDict();
+    ASSERT_NE(nullptr, dict);
+    std::vector<uint8_t> buffer;
+    EXPECT_TRUE(Ver2DictEncoder::encodeDictionary(*dict,
+            Ver2DictEncoder::CodePointTableMode::Auto, &buffer));
+    // The table is larger than what it saves for such a small dictionary.
+    EXPECT_EQ(EXPECTED_DICT_WITHOUT_CODE_POINT_TABLE, buffer);
+}
+
+} // namespace
+} // namespace dicttoolkit
+} // namespace latinime
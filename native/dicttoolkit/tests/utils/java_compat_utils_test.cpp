@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+#include "utils/java_compat_utils.h"
+
+#include <gtest/gtest.h>
+
+#include <string>
+#include <vector>
+
+#include "utils/int_array_view.h"
+
+namespace latinime {
+namespace dicttoolkit {
+namespace {
+
+TEST(JavaCompatUtilsTests, TestSplit) {
+    EXPECT_EQ(std::vector<std::string>({ "a", "b", "", "c" }),
+            JavaCompatUtils::split("a,b,,c,,", ',', 0 /* limit */));
+    EXPECT_EQ(std::vector<std::string>({ "a", "b=c" }),
+            JavaCompatUtils::split("a=b=c", '=', 2 /* limit */));
+    EXPECT_EQ(std::vector<std::string>({ "" }), JavaCompatUtils::split("", ',', 0 /* limit */));
+    EXPECT_TRUE(JavaCompatUtils::split(",", ',', 0 /* limit */).empty());
+}
+
+TEST(JavaCompatUtilsTests, TestParseInt) {
+    int value = 0;
+    EXPECT_TRUE(JavaCompatUtils::parseInt("123", &value));
+    EXPECT_EQ(123, value);
+    EXPECT_TRUE(JavaCompatUtils::parseInt("-2147483648", &value));
+    EXPECT_EQ(-2147483647 - 1, value);
+    EXPECT_TRUE(JavaCompatUtils::parseInt("+7", &value));
+    EXPECT_EQ(7, value);
+    EXPECT_FALSE(JavaCompatUtils::parseInt("2147483648", &value));
+    EXPECT_FALSE(JavaCompatUtils::parseInt("", &value));
+    EXPECT_FALSE(JavaCompatUtils::parseInt("-", &value));
+    EXPECT_FALSE(JavaCompatUtils::parseInt(" 1", &value));
+    EXPECT_FALSE(JavaCompatUtils::parseInt("1a", &value));
+}
+
+TEST(JavaCompatUtilsTests, TestGetStringHashCode) {
+    // "a\U0001F600b".hashCode() and "été".hashCode() in Java.
+    const std::vector<int> surrogatePairWord = { 'a', 0x1F600, 'b' };
+    EXPECT_EQ(57849694,
+            JavaCompatUtils::getStringHashCode(CodePointArrayView(surrogatePairWord)));
+    const std::vector<int> latinWord = { 0xE9, 't', 0xE9 };
+    EXPECT_EQ(227742, JavaCompatUtils::getStringHashCode(CodePointArrayView(latinWord)));
+}
+
+TEST(JavaCompatUtilsTests, TestGetUtf16CodeUnits) {
+    const std::vector<int> codePoints = { 'a', 0x1F600, 'b' };
+    EXPECT_EQ(std::vector<int>({ 'a', 0xD83D, 0xDE00, 'b' }),
+            JavaCompatUtils::getUtf16CodeUnits(CodePointArrayView(codePoints)));
+}
+
+TEST(JavaCompatUtilsTests, TestGetHashMapIterationOrder) {
+    // The expected orders are the orders of HashMap.keySet() for Integer keys put in this order.
+    EXPECT_EQ(std::vector<size_t>({ 2, 3, 0, 1, 4, 5, 6, 7 }),
+            JavaCompatUtils::getHashMapIterationOrder({ 17, 1, 16, 0, 100, 4, 36, 20 }));
+    // The map is resized when the 13th key is put.
+    EXPECT_EQ(std::vector<size_t>({ 13, 2, 12, 1, 11, 0, 10, 9, 8, 7, 6, 5, 4, 3 }),
+            JavaCompatUtils::getHashMapIterationOrder(
+                    { 40, 37, 34, 31, 28, 25, 22, 19, 16, 13, 10, 7, 4, 1 }));
+}
+
+} // namespace
+} // namespace dicttoolkit
+} // namespace latinime
@@ -270,6 +270,40 @@ static jint latinime_BinaryDictionary_getProbability(JNIEnv *env, jclass clazz,
     return dictionary->getProbability(CodePointArrayView(codePoints, codePointCount));
 }
 
+// Looks up many words in a single call. The words are packed into codePoints, word i spanning
+// [wordStartIndices[i], wordStartIndices[i + 1]). Empty or out of range words get
+// NOT_A_PROBABILITY. Unigram probabilities are looked up when prevWordCodePointArrays is null,
+// n-gram probabilities after the given previous words otherwise.
+static void latinime_BinaryDictionary_getProbabilities(JNIEnv *env, jclass clazz, jlong dict,
+        jobjectArray prevWordCodePointArrays, jbooleanArray isBeginningOfSentenceArray,
+        jintArray codePoints, jintArray wordStartIndices, jint wordCount,
+        jintArray outProbabilities) {
+    Dictionary *dictionary = reinterpret_cast<Dictionary *>(dict);
+    if (!dictionary || wordCount <= 0) return;
+    const bool hasNgramContext = prevWordCodePointArrays != nullptr;
+    const NgramContext ngramContext = hasNgramContext
+            ? JniDataUtils::constructNgramContext(env, prevWordCodePointArrays,
+                    isBeginningOfSentenceArray, env->GetArrayLength(prevWordCodePointArrays))
+            : NgramContext();
+    const jsize codePointCount = env->GetArrayLength(codePoints);
+    std::vector<int> codePointBuffer(codePointCount);
+    env->GetIntArrayRegion(codePoints, 0, codePointCount, codePointBuffer.data());
+    std::vector<int> startIndices(wordCount + 1);
+    env->GetIntArrayRegion(wordStartIndices, 0, wordCount + 1, startIndices.data());
+    std::vector<int> probabilities(wordCount, NOT_A_PROBABILITY);
+    for (int i = 0; i < wordCount; ++i) {
+        const int start = startIndices[i];
+        const int end = startIndices[i + 1];
+        if (start < 0 || end > codePointCount || start >= end) {
+            continue;
+        }
+        const CodePointArrayView word(codePointBuffer.data() + start, end - start);
+        probabilities[i] = hasNgramContext ? dictionary->getNgramProbability(&ngramContext, word)
+                : dictionary->getProbability(word);
+    }
+    env->SetIntArrayRegion(outProbabilities, 0, wordCount, probabilities.data());
+}
+
 static jint latinime_BinaryDictionary_getMaxProbabilityOfExactMatches(
         JNIEnv *env, jclass clazz, jlong dict, jintArray word) {
     Dictionary *dictionary = reinterpret_cast<Dictionary *>(dict);
@@ -667,6 +701,11 @@ static const JNINativeMethod sMethods[] = {
         const_cast<char *>("(J[I)I"),
         reinterpret_cast<void *>(latinime_BinaryDictionary_getProbability)
     },
+    {
+        const_cast<char *>("getProbabilitiesNative"),
+        const_cast<char *>("(J[[I[Z[I[II[I)V"),
+        reinterpret_cast<void *>(latinime_BinaryDictionary_getProbabilities)
+    },
     {
         const_cast<char *>("getMaxProbabilityOfExactMatchesNative"),
         const_cast<char *>("(J[I)I"),
@@ -55,6 +55,20 @@ static void latinime_releaseDicTraverseSession(JNIEnv *env, jclass clazz, jlong
     DicTraverseSession::releaseSessionInstance(ts);
 }
 
+static void latinime_getNgramCacheStats(JNIEnv *env, jclass clazz, jlong traverseSession,
+        jintArray outStats) {
+    DicTraverseSession *ts = reinterpret_cast<DicTraverseSession *>(traverseSession);
+    if (!ts || !outStats) {
+        return;
+    }
+    int hitCount = 0;
+    int missCount = 0;
+    const int cachedEntryCount = static_cast<int>(ts->getNgramCacheStats(&hitCount, &missCount));
+    // The order must match the indices in DicTraverseSession.java.
+    const int stats[] = { hitCount, missCount, cachedEntryCount };
+    env->SetIntArrayRegion(outStats, 0 /* start */, NELEMS(stats), stats);
+}
+
 static const JNINativeMethod sMethods[] = {
     {
         const_cast<char *>("setDicTraverseSessionNative"),
@@ -70,6 +84,11 @@ static const JNINativeMethod sMethods[] = {
         const_cast<char *>("releaseDicTraverseSessionNative"),
         const_cast<char *>("(J)V"),
         reinterpret_cast<void *>(latinime_releaseDicTraverseSession)
+    },
+    {
+        const_cast<char *>("getNgramCacheStatsNative"),
+        const_cast<char *>("(J[I)V"),
+        reinterpret_cast<void *>(latinime_getNgramCacheStats)
     }
 };
 
@@ -25,9 +25,13 @@ namespace latinime {
 // could improve bigram lookup speed for multi-word suggestions, but at the cost of more memory
 // usage. Also, there are diminishing returns since the most frequently used bigrams are
 // typically near the beginning of the input and are thus the first ones to be cached. Note
-// that these bigrams are reset for each new composing word.
+// that these bigrams are reset when the previous words or the dictionary change.
 const size_t MultiBigramMap::MAX_CACHED_PREV_WORDS_IN_BIGRAM_MAP = 25;
 
+// Max number of bigrams in all the cached bigram maps. As the maps are kept across keystrokes,
+// this bounds the memory used by a session. No map is added once the count is reached.
+const size_t MultiBigramMap::MAX_CACHED_ENTRY_COUNT = 8192;
+
 // Most common previous word contexts currently have 100 bigrams
 const int MultiBigramMap::BigramMap::DEFAULT_HASH_MAP_SIZE_FOR_EACH_BIGRAM_MAP = 100;
 
@@ -42,10 +46,13 @@ int MultiBigramMap::getBigramProbability(
     }
     const auto mapPosition = mBigramMaps.find(prevWordIds[0]);
     if (mapPosition != mBigramMaps.end()) {
+        ++mHitCount;
         return mapPosition->second.getBigramProbability(structurePolicy, nextWordId,
                 unigramProbability);
     }
-    if (mBigramMaps.size() < MAX_CACHED_PREV_WORDS_IN_BIGRAM_MAP) {
+    ++mMissCount;
+    if (mBigramMaps.size() < MAX_CACHED_PREV_WORDS_IN_BIGRAM_MAP
+            && mCachedEntryCount < MAX_CACHED_ENTRY_COUNT) {
         addBigramsForWord(structurePolicy, prevWordIds);
         return mBigramMaps[prevWordIds[0]].getBigramProbability(structurePolicy,
                 nextWordId, unigramProbability);
@@ -84,7 +91,9 @@ void MultiBigramMap::BigramMap::onVisitEntry(const int ngramProbability, const i
 void MultiBigramMap::addBigramsForWord(
         const DictionaryStructureWithBufferPolicy *const structurePolicy,
         const WordIdArrayView prevWordIds) {
-    mBigramMaps[prevWordIds[0]].init(structurePolicy, prevWordIds);
+    BigramMap &bigramMap = mBigramMaps[prevWordIds[0]];
+    bigramMap.init(structurePolicy, prevWordIds);
+    mCachedEntryCount += bigramMap.size();
 }
 
 int MultiBigramMap::readBigramProbabilityFromBinaryDictionary(
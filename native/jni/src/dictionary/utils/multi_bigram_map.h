@@ -31,10 +31,11 @@ namespace latinime {
 
 // Class for caching bigram maps for multiple previous word contexts. This is useful since the
 // algorithm needs to look up the set of bigrams for every word pair that occurs in every
-// multi-word suggestion.
+// multi-word suggestion. The maps are kept across searches by DicTraverseSession as long as the
+// dictionary and the previous words don't change.
 class MultiBigramMap {
  public:
-    MultiBigramMap() : mBigramMaps() {}
+    MultiBigramMap() : mBigramMaps(), mCachedEntryCount(0), mHitCount(0), mMissCount(0) {}
     ~MultiBigramMap() {}
 
     // Look up the bigram probability for the given word pair from the cached bigram maps.
@@ -42,8 +43,24 @@ class MultiBigramMap {
     int getBigramProbability(const DictionaryStructureWithBufferPolicy *const structurePolicy,
             const WordIdArrayView prevWordIds, const int nextWordId, const int unigramProbability);
 
+    // Drops the cached bigram maps. The hit and miss counts are kept.
     void clear() {
         mBigramMaps.clear();
+        mCachedEntryCount = 0;
+    }
+
+    // Number of lookups answered from a cached bigram map.
+    int getHitCount() const {
+        return mHitCount;
+    }
+
+    // Number of lookups that had to read the dictionary.
+    int getMissCount() const {
+        return mMissCount;
+    }
+
+    size_t getCachedEntryCount() const {
+        return mCachedEntryCount;
     }
 
  private:
@@ -64,6 +81,10 @@ class MultiBigramMap {
                 const int nextWordId, const int unigramProbability) const;
         virtual void onVisitEntry(const int ngramProbability, const int targetWordId);
 
+        size_t size() const {
+            return mBigramMap.size();
+        }
+
      private:
         static const int DEFAULT_HASH_MAP_SIZE_FOR_EACH_BIGRAM_MAP;
         std::unordered_map<int, int> mBigramMap;
@@ -78,7 +99,11 @@ class MultiBigramMap {
             const WordIdArrayView prevWordIds, const int nextWordId, const int unigramProbability);
 
     static const size_t MAX_CACHED_PREV_WORDS_IN_BIGRAM_MAP;
+    static const size_t MAX_CACHED_ENTRY_COUNT;
     std::unordered_map<int, BigramMap> mBigramMaps;
+    size_t mCachedEntryCount;
+    int mHitCount;
+    int mMissCount;
 };
 } // namespace latinime
 #endif // LATINIME_MULTI_BIGRAM_MAP_H
@@ -440,6 +440,35 @@ class DicNode {
                 return rightCodePoint > codePoint;
             }
         }
+        // Break the remaining ties on what the dicNodes are rather than where they are in memory,
+        // so that the same dicNodes are kept whatever order they are pushed in. This is what
+        // makes merging the caches of a parallel expansion give the same result as a serial one.
+        const int totalDepth = getTotalNodeCodePointCount();
+        const int totalDepthDiff = right->getTotalNodeCodePointCount() - totalDepth;
+        if (totalDepthDiff != 0) {
+            return totalDepthDiff > 0;
+        }
+        const int *const outputWord = getOutputWordBuf();
+        const int *const rightOutputWord = right->getOutputWordBuf();
+        for (int i = 0; i < totalDepth; ++i) {
+            if (outputWord[i] != rightOutputWord[i]) {
+                return rightOutputWord[i] > outputWord[i];
+            }
+        }
+        const int totalInputIndex = getTotalInputIndex();
+        const int rightTotalInputIndex = right->getTotalInputIndex();
+        if (totalInputIndex != rightTotalInputIndex) {
+            return rightTotalInputIndex > totalInputIndex;
+        }
+        if (getChildrenPtNodeArrayPos() != right->getChildrenPtNodeArrayPos()) {
+            return right->getChildrenPtNodeArrayPos() > getChildrenPtNodeArrayPos();
+        }
+        if (getContainedErrorTypes() != right->getContainedErrorTypes()) {
+            return right->getContainedErrorTypes() > getContainedErrorTypes();
+        }
+        if (getCompoundDistance() != right->getCompoundDistance()) {
+            return right->getCompoundDistance() > getCompoundDistance();
+        }
         // Compare pointer values here for stable comparison
         return this > right;
     }
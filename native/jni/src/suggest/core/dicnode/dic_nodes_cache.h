@@ -58,6 +58,38 @@ class DicNodesCache {
         mCachedDicNodesForContinuousSuggestion->clear();
     }
 
+    // Prepares this cache to receive the dicNodes expanded from a share of the active dicNodes of
+    // the given cache. The queues are given the same sizes so that merging them back with
+    // mergeExpansionLane() keeps the same best dicNodes as expanding everything into that cache.
+    AK_FORCE_INLINE void resetAsExpansionLaneOf(const DicNodesCache *const dicNodesCache) {
+        mInputIndex = dicNodesCache->mInputIndex;
+        mLastCachedInputIndex = dicNodesCache->mLastCachedInputIndex;
+        mActiveDicNodes->clear();
+        mNextActiveDicNodes->clearAndResize(std::min(
+                dicNodesCache->mNextActiveDicNodes->getMaxSize(), getCacheCapacity()));
+        mTerminalDicNodes->clearAndResize(dicNodesCache->mTerminalDicNodes->getMaxSize());
+        mCachedDicNodesForContinuousSuggestion->clearAndResize(std::min(
+                dicNodesCache->mCachedDicNodesForContinuousSuggestion->getMaxSize(),
+                getCacheCapacity()));
+    }
+
+    // Moves the dicNodes expanded in the given lane into this cache.
+    AK_FORCE_INLINE void mergeExpansionLane(DicNodesCache *const lane) {
+        DicNode dicNode;
+        while (lane->mNextActiveDicNodes->getSize() > 0) {
+            lane->mNextActiveDicNodes->copyPop(&dicNode);
+            mNextActiveDicNodes->copyPush(&dicNode);
+        }
+        while (lane->mTerminalDicNodes->getSize() > 0) {
+            lane->mTerminalDicNodes->copyPop(&dicNode);
+            mTerminalDicNodes->copyPush(&dicNode);
+        }
+        while (lane->mCachedDicNodesForContinuousSuggestion->getSize() > 0) {
+            lane->mCachedDicNodesForContinuousSuggestion->copyPop(&dicNode);
+            mCachedDicNodesForContinuousSuggestion->copyPush(&dicNode);
+        }
+    }
+
     AK_FORCE_INLINE void continueSearch() {
         resetTemporaryCaches();
         restoreActiveDicNodesFromCache();
@@ -109,6 +141,8 @@ class DicNodesCache {
         mActiveDicNodes->copyPop(dest);
     }
 
+    bool usesLargeCapacityCache() const { return mUsesLargeCapacityCache; }
+
     bool hasCachedDicNodesForContinuousSuggestion() const {
         return mCachedDicNodesForContinuousSuggestion
                 && mCachedDicNodesForContinuousSuggestion->getSize() > 0;
@@ -17,6 +17,8 @@
 #ifndef LATINIME_DICTIONARY_H
 #define LATINIME_DICTIONARY_H
 
+#include <atomic>
+#include <cstdint>
 #include <memory>
 
 #include "defines.h"
@@ -116,6 +118,13 @@ class Dictionary {
         return mDictionaryStructureWithBufferPolicy.get();
     }
 
+    // Returns a value that changes whenever the entries or the word ids of this dictionary may
+    // have changed. Values are never shared between dictionaries, so cached lookups can be kept
+    // while the value stays the same.
+    uint32_t getContentVersion() const {
+        return mContentVersion.load();
+    }
+
  private:
     DISALLOW_IMPLICIT_CONSTRUCTORS(Dictionary);
 
@@ -138,13 +147,19 @@ class Dictionary {
     };
 
     static const int HEADER_ATTRIBUTE_BUFFER_SIZE;
+    static std::atomic<uint32_t> sNextContentVersion;
 
     const DictionaryStructureWithBufferPolicy::StructurePolicyPtr
             mDictionaryStructureWithBufferPolicy;
     const SuggestInterfacePtr mGestureSuggest;
     const SuggestInterfacePtr mTypingSuggest;
+    std::atomic<uint32_t> mContentVersion;
 
     void logDictionaryInfo(JNIEnv *const env) const;
+
+    void onContentChanged() {
+        mContentVersion.store(sNextContentVersion++);
+    }
 };
 } // namespace latinime
 #endif // LATINIME_DICTIONARY_H
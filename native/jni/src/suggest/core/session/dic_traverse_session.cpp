@@ -16,6 +16,8 @@
 
 #include "suggest/core/session/dic_traverse_session.h"
 
+#include <algorithm>
+
 #include "defines.h"
 #include "dictionary/interface/dictionary_header_structure_policy.h"
 #include "dictionary/interface/dictionary_structure_with_buffer_policy.h"
@@ -35,8 +37,20 @@ void DicTraverseSession::init(const Dictionary *const dictionary,
     mMultiWordCostMultiplier = getDictionaryStructurePolicy()->getHeaderStructurePolicy()
             ->getMultiWordCostMultiplier();
     mSuggestOptions = suggestOptions;
-    mPrevWordIdCount = ngramContext->getPrevWordIds(getDictionaryStructurePolicy(),
-            &mPrevWordIdArray, true /* tryLowerCaseSearch */).size();
+    WordIdArray<MAX_PREV_WORD_COUNT_FOR_N_GRAM> prevWordIdArray;
+    const WordIdArrayView prevWordIds = ngramContext->getPrevWordIds(
+            getDictionaryStructurePolicy(), &prevWordIdArray, true /* tryLowerCaseSearch */);
+    // The cached n-gram probabilities stay valid between keystrokes as long as the same words
+    // are looked up in the same dictionary.
+    const uint32_t contentVersion = dictionary->getContentVersion();
+    if (contentVersion != mNgramCacheDictionaryContentVersion
+            || !std::equal(prevWordIds.begin(), prevWordIds.end(), getPrevWordIds().begin(),
+                    getPrevWordIds().end())) {
+        clearNgramCache();
+        mNgramCacheDictionaryContentVersion = contentVersion;
+    }
+    prevWordIds.copyToArray(&mPrevWordIdArray, 0 /* offset */);
+    mPrevWordIdCount = prevWordIds.size();
 }
 
 void DicTraverseSession::setupForGetSuggestions(const ProximityInfo *pInfo,
@@ -57,7 +71,39 @@ const DictionaryStructureWithBufferPolicy *DicTraverseSession::getDictionaryStru
 void DicTraverseSession::resetCache(const int thresholdForNextActiveDicNodes, const int maxWords) {
     mDicNodesCache.reset(thresholdForNextActiveDicNodes /* nextActiveSize */,
             maxWords /* terminalSize */);
+}
+
+size_t DicTraverseSession::getNgramCacheStats(int *const outHitCount,
+        int *const outMissCount) const {
+    int hitCount = mMultiBigramMap.getHitCount();
+    int missCount = mMultiBigramMap.getMissCount();
+    size_t cachedEntryCount = mMultiBigramMap.getCachedEntryCount();
+    for (const auto &multiBigramMap : mExpansionLaneMultiBigramMaps) {
+        hitCount += multiBigramMap->getHitCount();
+        missCount += multiBigramMap->getMissCount();
+        cachedEntryCount += multiBigramMap->getCachedEntryCount();
+    }
+    *outHitCount = hitCount;
+    *outMissCount = missCount;
+    return cachedEntryCount;
+}
+
+void DicTraverseSession::clearNgramCache() {
     mMultiBigramMap.clear();
+    for (const auto &multiBigramMap : mExpansionLaneMultiBigramMaps) {
+        multiBigramMap->clear();
+    }
+}
+
+void DicTraverseSession::prepareExpansionLanes(const int laneCount) {
+    while (static_cast<int>(mExpansionLaneCaches.size()) < laneCount - 1) {
+        mExpansionLaneCaches.emplace_back(
+                new DicNodesCache(mDicNodesCache.usesLargeCapacityCache()));
+        mExpansionLaneMultiBigramMaps.emplace_back(new MultiBigramMap());
+    }
+    for (int i = 0; i < laneCount - 1; ++i) {
+        mExpansionLaneCaches[i]->resetAsExpansionLaneOf(&mDicNodesCache);
+    }
 }
 
 void DicTraverseSession::initializeProximityInfoStates(const int *const inputCodePoints,
@@ -17,6 +17,8 @@
 #ifndef LATINIME_DIC_TRAVERSE_SESSION_H
 #define LATINIME_DIC_TRAVERSE_SESSION_H
 
+#include <cstdint>
+#include <memory>
 #include <vector>
 
 #include "defines.h"
@@ -52,8 +54,10 @@ class DicTraverseSession {
 
     AK_FORCE_INLINE DicTraverseSession(JNIEnv *env, jstring localeStr, bool usesLargeCache)
             : mPrevWordIdCount(0), mProximityInfo(nullptr), mDictionary(nullptr),
-              mSuggestOptions(nullptr), mDicNodesCache(usesLargeCache), mMultiBigramMap(),
-              mInputSize(0), mMaxPointerCount(1), mMultiWordCostMultiplier(1.0f) {
+              mSuggestOptions(nullptr), mNgramCacheDictionaryContentVersion(0),
+              mDicNodesCache(usesLargeCache), mMultiBigramMap(),
+              mInputSize(0), mMaxPointerCount(1), mMultiWordCostMultiplier(1.0f),
+              mExpansionLaneCaches(), mExpansionLaneMultiBigramMaps(), mDicNodesToExpand() {
         // NOTE: mProximityInfoStates is an array of instances.
         // No need to initialize it explicitly here.
     }
@@ -72,6 +76,10 @@ class DicTraverseSession {
 
     const DictionaryStructureWithBufferPolicy *getDictionaryStructurePolicy() const;
 
+    // Sums the hit and miss counts of the n-gram lookups over all the bigram maps, and returns the
+    // number of n-gram entries that are currently cached.
+    size_t getNgramCacheStats(int *const outHitCount, int *const outMissCount) const;
+
     //--------------------
     // getters and setters
     //--------------------
@@ -82,6 +90,19 @@ class DicTraverseSession {
     }
     DicNodesCache *getDicTraverseCache() { return &mDicNodesCache; }
     MultiBigramMap *getMultiBigramMap() { return &mMultiBigramMap; }
+
+    // Lanes of a parallel expansion of the active dicNodes. Lane 0 is the cache and the bigram map
+    // of this session. The other lanes are created by prepareExpansionLanes() on first use.
+    void prepareExpansionLanes(const int laneCount);
+    DicNodesCache *getExpansionLaneCache(const int laneIndex) {
+        return laneIndex == 0 ? &mDicNodesCache : mExpansionLaneCaches[laneIndex - 1].get();
+    }
+    MultiBigramMap *getExpansionLaneMultiBigramMap(const int laneIndex) {
+        return laneIndex == 0 ?
+                &mMultiBigramMap : mExpansionLaneMultiBigramMaps[laneIndex - 1].get();
+    }
+    // Buffer for the active dicNodes being split between the lanes.
+    std::vector<DicNode> *getDicNodesToExpand() { return &mDicNodesToExpand; }
     const ProximityInfoState *getProximityInfoState(int id) const {
         return &mProximityInfoStates[id];
     }
@@ -165,15 +186,19 @@ class DicTraverseSession {
     void initializeProximityInfoStates(const int *const inputCodePoints, const int *const inputXs,
             const int *const inputYs, const int *const times, const int *const pointerIds,
             const int inputSize, const float maxSpatialDistance, const int maxPointerCount);
+    void clearNgramCache();
 
     WordIdArray<MAX_PREV_WORD_COUNT_FOR_N_GRAM> mPrevWordIdArray;
     size_t mPrevWordIdCount;
     const ProximityInfo *mProximityInfo;
     const Dictionary *mDictionary;
     const SuggestOptions *mSuggestOptions;
+    // Content version of the dictionary the bigram maps have been filled from.
+    uint32_t mNgramCacheDictionaryContentVersion;
 
     DicNodesCache mDicNodesCache;
-    // Temporary cache for bigram frequencies
+    // Cache for bigram frequencies, kept across searches while the previous words and the
+    // dictionary stay the same.
     MultiBigramMap mMultiBigramMap;
     ProximityInfoState mProximityInfoStates[MAX_POINTER_COUNT_G];
 
@@ -184,6 +209,10 @@ class DicTraverseSession {
     // Configuration per dictionary
     float mMultiWordCostMultiplier;
 
+    // Lanes other than lane 0, see getExpansionLaneCache().
+    std::vector<std::unique_ptr<DicNodesCache>> mExpansionLaneCaches;
+    std::vector<std::unique_ptr<MultiBigramMap>> mExpansionLaneMultiBigramMaps;
+    std::vector<DicNode> mDicNodesToExpand;
 };
 } // namespace latinime
 #endif // LATINIME_DIC_TRAVERSE_SESSION_H
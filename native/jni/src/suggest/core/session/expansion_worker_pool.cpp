@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include "suggest/core/session/expansion_worker_pool.h"
+
+#include <algorithm>
+
+namespace latinime {
+
+// Including the calling thread. One core is left for the UI thread.
+const int ExpansionWorkerPool::MAX_LANE_COUNT = 3;
+
+/* static */ ExpansionWorkerPool *ExpansionWorkerPool::getInstance() {
+    // Never deleted, so that the workers don't have to be joined while the process exits.
+    static ExpansionWorkerPool *const sInstance = new ExpansionWorkerPool(
+            std::min(MAX_LANE_COUNT, static_cast<int>(std::thread::hardware_concurrency()) - 1));
+    return sInstance;
+}
+
+ExpansionWorkerPool::ExpansionWorkerPool(const int laneCount)
+        : mLaneCount(std::max(laneCount, 1)), mRunMutex(), mMutex(), mTaskCondition(),
+          mDoneCondition(), mTask(nullptr), mActiveLaneCount(0), mGeneration(0),
+          mPendingWorkerCount(0), mIsStopping(false), mWorkers() {
+    for (int laneIndex = 1; laneIndex < mLaneCount; ++laneIndex) {
+        mWorkers.emplace_back(&ExpansionWorkerPool::runWorker, this, laneIndex);
+    }
+}
+
+ExpansionWorkerPool::~ExpansionWorkerPool() {
+    {
+        std::lock_guard<std::mutex> lock(mMutex);
+        mIsStopping = true;
+    }
+    mTaskCondition.notify_all();
+    for (std::thread &worker : mWorkers) {
+        worker.join();
+    }
+}
+
+bool ExpansionWorkerPool::tryRun(const int laneCount, const LaneTask &task) {
+    std::unique_lock<std::mutex> runLock(mRunMutex, std::try_to_lock);
+    if (!runLock.owns_lock()) {
+        return false;
+    }
+    const int activeLaneCount = std::min(std::max(laneCount, 1), mLaneCount);
+    if (activeLaneCount > 1) {
+        {
+            std::lock_guard<std::mutex> lock(mMutex);
+            mTask = &task;
+            mActiveLaneCount = activeLaneCount;
+            mPendingWorkerCount = activeLaneCount - 1;
+            ++mGeneration;
+        }
+        mTaskCondition.notify_all();
+    }
+    task(0 /* laneIndex */);
+    if (activeLaneCount > 1) {
+        std::unique_lock<std::mutex> lock(mMutex);
+        mDoneCondition.wait(lock, [this] { return mPendingWorkerCount == 0; });
+        mTask = nullptr;
+    }
+    return true;
+}
+
+void ExpansionWorkerPool::runWorker(const int laneIndex) {
+    int lastGeneration = 0;
+    while (true) {
+        const LaneTask *task = nullptr;
+        {
+            std::unique_lock<std::mutex> lock(mMutex);
+            mTaskCondition.wait(lock, [this, lastGeneration] {
+                return mIsStopping || mGeneration != lastGeneration;
+            });
+            if (mIsStopping) {
+                return;
+            }
+            lastGeneration = mGeneration;
+            if (laneIndex >= mActiveLaneCount) {
+                // This lane is not used by the current run.
+                continue;
+            }
+            task = mTask;
+        }
+        (*task)(laneIndex);
+        bool isLastWorker = false;
+        {
+            std::lock_guard<std::mutex> lock(mMutex);
+            mPendingWorkerCount--;
+            isLastWorker = mPendingWorkerCount == 0;
+        }
+        if (isLastWorker) {
+            mDoneCondition.notify_one();
+        }
+    }
+}
+} // namespace latinime
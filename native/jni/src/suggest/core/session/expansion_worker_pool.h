@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#ifndef LATINIME_EXPANSION_WORKER_POOL_H
+#define LATINIME_EXPANSION_WORKER_POOL_H
+
+#include <condition_variable>
+#include <functional>
+#include <mutex>
+#include <thread>
+#include <vector>
+
+#include "defines.h"
+
+namespace latinime {
+
+/**
+ * Small pool of threads used to expand the active dicNodes of a search in parallel. The work is
+ * split into lanes: lane 0 runs on the calling thread and every other lane has its own worker.
+ */
+class ExpansionWorkerPool {
+ public:
+    typedef std::function<void(const int laneIndex)> LaneTask;
+
+    // Returns the pool shared by all the sessions. It has a single lane when the device doesn't
+    // have enough cores to run a search in parallel.
+    static ExpansionWorkerPool *getInstance();
+
+    explicit ExpansionWorkerPool(const int laneCount);
+    ~ExpansionWorkerPool();
+
+    int getLaneCount() const { return mLaneCount; }
+
+    // Runs task(laneIndex) for every lane in [0, laneCount) and returns once they have all
+    // finished. Returns false without running anything when the pool is being used by another
+    // thread, in which case the caller should do the work by itself.
+    bool tryRun(const int laneCount, const LaneTask &task);
+
+ private:
+    DISALLOW_IMPLICIT_CONSTRUCTORS(ExpansionWorkerPool);
+
+    static const int MAX_LANE_COUNT;
+
+    void runWorker(const int laneIndex);
+
+    const int mLaneCount;
+    // Held for the duration of tryRun().
+    std::mutex mRunMutex;
+    // Guards the fields below.
+    std::mutex mMutex;
+    std::condition_variable mTaskCondition;
+    std::condition_variable mDoneCondition;
+    const LaneTask *mTask;
+    int mActiveLaneCount;
+    int mGeneration;
+    int mPendingWorkerCount;
+    bool mIsStopping;
+    std::vector<std::thread> mWorkers;
+};
+} // namespace latinime
+#endif // LATINIME_EXPANSION_WORKER_POOL_H
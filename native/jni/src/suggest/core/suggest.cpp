@@ -16,11 +16,15 @@
 
 #include "suggest/core/suggest.h"
 
+#include <algorithm>
+#include <vector>
+
 #include "dictionary/interface/dictionary_structure_with_buffer_policy.h"
 #include "dictionary/property/word_attributes.h"
 #include "suggest/core/dicnode/dic_node.h"
 #include "suggest/core/dicnode/dic_node_priority_queue.h"
 #include "suggest/core/dicnode/dic_node_vector.h"
+#include "suggest/core/dicnode/dic_nodes_cache.h"
 #include "suggest/core/dictionary/dictionary.h"
 #include "suggest/core/dictionary/digraph_utils.h"
 #include "suggest/core/layout/proximity_info.h"
@@ -28,6 +32,7 @@
 #include "suggest/core/policy/weighting.h"
 #include "suggest/core/result/suggestions_output_utils.h"
 #include "suggest/core/session/dic_traverse_session.h"
+#include "suggest/core/session/expansion_worker_pool.h"
 #include "suggest/core/suggest_options.h"
 #include "utils/profiler.h"
 
@@ -35,6 +40,11 @@ namespace latinime {
 
 // Initialization of class constants.
 const int Suggest::MIN_CONTINUOUS_SUGGESTION_INPUT_SIZE = 2;
+// Below this, handing the dicNodes to the workers costs more than expanding them.
+const int Suggest::MIN_DIC_NODE_COUNT_PER_EXPANSION_LANE = 24;
+// Off until a speedup is measured on real dictionaries: on synthetic work, parallel steps have
+// not been faster than serial ones.
+const bool Suggest::USES_PARALLEL_EXPANSION = false;
 
 /**
  * Returns a set of suggestions for the given input touch points. The commitPoint argument indicates
@@ -49,6 +59,11 @@ void Suggest::getSuggestions(ProximityInfo *pInfo, void *traverseSession,
         int *inputXs, int *inputYs, int *times, int *pointerIds, int *inputCodePoints,
         int inputSize, const float weightOfLangModelVsSpatialModel,
         SuggestionResults *const outSuggestionResults) const {
+    if (!TRAVERSAL) {
+        // The policy is missing, as the gesture policy is when the gesture library is not there.
+        AKLOGE("Suggest::getSuggestions called without a suggest policy.");
+        return;
+    }
     PROF_INIT;
     PROF_TIMER_START(0);
     const float maxSpatialDistance = TRAVERSAL->getMaxSpatialDistance();
@@ -105,129 +120,197 @@ void Suggest::initializeSearch(DicTraverseSession *traverseSession) const {
  * nodes based on the next touch point(s) (or no touch points for lookahead)
  */
 void Suggest::expandCurrentDicNodes(DicTraverseSession *traverseSession) const {
-    const int inputSize = traverseSession->getInputSize();
-    DicNodeVector childDicNodes(TRAVERSAL->getDefaultExpandDicNodeSize());
-    DicNode correctionDicNode;
-
+    DicNodesCache *const dicNodesCache = traverseSession->getDicTraverseCache();
     // TODO: Find more efficient caching
     const bool shouldDepthLevelCache = TRAVERSAL->shouldDepthLevelCache(traverseSession);
     if (shouldDepthLevelCache) {
-        traverseSession->getDicTraverseCache()->updateLastCachedInputIndex();
+        dicNodesCache->updateLastCachedInputIndex();
     }
     if (DEBUG_CACHE) {
         AKLOGI("expandCurrentDicNodes depth level cache = %d, inputSize = %d",
-                shouldDepthLevelCache, inputSize);
+                shouldDepthLevelCache, traverseSession->getInputSize());
     }
-    while (traverseSession->getDicTraverseCache()->activeSize() > 0) {
+    if (USES_PARALLEL_EXPANSION) {
+        const int laneCount = std::min(ExpansionWorkerPool::getInstance()->getLaneCount(),
+                dicNodesCache->activeSize() / MIN_DIC_NODE_COUNT_PER_EXPANSION_LANE);
+        if (laneCount > 1) {
+            expandCurrentDicNodesInParallel(traverseSession, shouldDepthLevelCache, laneCount);
+            return;
+        }
+    }
+    DicNodeVector childDicNodes(TRAVERSAL->getDefaultExpandDicNodeSize());
+    DicNode correctionDicNode;
+    while (dicNodesCache->activeSize() > 0) {
         DicNode dicNode;
-        traverseSession->getDicTraverseCache()->popActive(&dicNode);
+        dicNodesCache->popActive(&dicNode);
         if (dicNode.isTotalInputSizeExceedingLimit()) {
             return;
         }
-        childDicNodes.clear();
-        const int point0Index = dicNode.getInputIndex(0);
-        const bool canDoLookAheadCorrection =
-                TRAVERSAL->canDoLookAheadCorrection(traverseSession, &dicNode);
-        const bool isLookAheadCorrection = canDoLookAheadCorrection
-                && traverseSession->getDicTraverseCache()->
-                        isLookAheadCorrectionInputIndex(static_cast<int>(point0Index));
-        const bool isCompletion = dicNode.isCompletion(inputSize);
-
-        const bool shouldNodeLevelCache =
-                TRAVERSAL->shouldNodeLevelCache(traverseSession, &dicNode);
-        if (shouldDepthLevelCache || shouldNodeLevelCache) {
-            if (DEBUG_CACHE) {
-                dicNode.dump("PUSH_CACHE");
-            }
-            traverseSession->getDicTraverseCache()->copyPushContinue(&dicNode);
-            dicNode.setCached();
+        expandDicNode(traverseSession, &dicNode, shouldDepthLevelCache, &childDicNodes,
+                &correctionDicNode, dicNodesCache, traverseSession->getMultiBigramMap());
+    }
+}
+
+/**
+ * Expands the active dicNodes on the expansion worker pool. The dicNodes are dealt to the lanes
+ * in the order they are popped, and each lane pushes what it creates into its own cache. The lanes
+ * are then merged back in lane order, which keeps the same best dicNodes as a serial expansion
+ * since the caches are bounded priority queues of the same sizes, and DicNode::compare() doesn't
+ * depend on the order the dicNodes are pushed in.
+ */
+void Suggest::expandCurrentDicNodesInParallel(DicTraverseSession *traverseSession,
+        const bool shouldDepthLevelCache, const int laneCount) const {
+    DicNodesCache *const dicNodesCache = traverseSession->getDicTraverseCache();
+    std::vector<DicNode> *const dicNodes = traverseSession->getDicNodesToExpand();
+    dicNodes->clear();
+    while (dicNodesCache->activeSize() > 0) {
+        dicNodes->emplace_back();
+        dicNodesCache->popActive(&dicNodes->back());
+        if (dicNodes->back().isTotalInputSizeExceedingLimit()) {
+            // The serial expansion stops at this dicNode too.
+            dicNodes->pop_back();
+            break;
+        }
+    }
+    traverseSession->prepareExpansionLanes(laneCount);
+    const int dicNodeCount = static_cast<int>(dicNodes->size());
+    const ExpansionWorkerPool::LaneTask expandLane = [&](const int laneIndex) {
+        DicNodesCache *const laneCache = traverseSession->getExpansionLaneCache(laneIndex);
+        MultiBigramMap *const laneMultiBigramMap =
+                traverseSession->getExpansionLaneMultiBigramMap(laneIndex);
+        DicNodeVector childDicNodes(TRAVERSAL->getDefaultExpandDicNodeSize());
+        DicNode correctionDicNode;
+        for (int i = laneIndex; i < dicNodeCount; i += laneCount) {
+            expandDicNode(traverseSession, &(*dicNodes)[i], shouldDepthLevelCache,
+                    &childDicNodes, &correctionDicNode, laneCache, laneMultiBigramMap);
+        }
+    };
+    if (!ExpansionWorkerPool::getInstance()->tryRun(laneCount, expandLane)) {
+        // Another search is using the workers.
+        DicNodeVector childDicNodes(TRAVERSAL->getDefaultExpandDicNodeSize());
+        DicNode correctionDicNode;
+        for (DicNode &dicNode : *dicNodes) {
+            expandDicNode(traverseSession, &dicNode, shouldDepthLevelCache, &childDicNodes,
+                    &correctionDicNode, dicNodesCache, traverseSession->getMultiBigramMap());
         }
+        return;
+    }
+    for (int laneIndex = 1; laneIndex < laneCount; ++laneIndex) {
+        dicNodesCache->mergeExpansionLane(traverseSession->getExpansionLaneCache(laneIndex));
+    }
+}
 
-        if (dicNode.isInDigraph()) {
-            // Finish digraph handling if the node is in the middle of a digraph expansion.
-            processDicNodeAsDigraph(traverseSession, &dicNode);
-        } else if (isLookAheadCorrection) {
-            // The algorithm maintains a small set of "deferred" nodes that have not consumed the
-            // latest touch point yet. These are needed to apply look-ahead correction operations
-            // that require special handling of the latest touch point. For example, with insertions
-            // (e.g., "thiis" -> "this") the latest touch point should not be consumed at all.
-            processDicNodeAsTransposition(traverseSession, &dicNode);
-            processDicNodeAsInsertion(traverseSession, &dicNode);
-        } else { // !isLookAheadCorrection
-            // Only consider typing error corrections if the normalized compound distance is
-            // below a spatial distance threshold.
-            // NOTE: the threshold may need to be updated if scoring model changes.
-            // TODO: Remove. Do not prune node here.
-            const bool allowsErrorCorrections = TRAVERSAL->allowsErrorCorrections(&dicNode);
-            // Process for handling space substitution (e.g., hevis => he is)
-            if (TRAVERSAL->isSpaceSubstitutionTerminal(traverseSession, &dicNode)) {
-                createNextWordDicNode(traverseSession, &dicNode, true /* spaceSubstitution */);
-            }
+void Suggest::expandDicNode(DicTraverseSession *traverseSession, DicNode *dicNode,
+        const bool shouldDepthLevelCache, DicNodeVector *const childDicNodes,
+        DicNode *const correctionDicNode, DicNodesCache *const dicNodesCache,
+        MultiBigramMap *const multiBigramMap) const {
+    const int inputSize = traverseSession->getInputSize();
+    childDicNodes->clear();
+    const int point0Index = dicNode->getInputIndex(0);
+    const bool canDoLookAheadCorrection =
+            TRAVERSAL->canDoLookAheadCorrection(traverseSession, dicNode);
+    const bool isLookAheadCorrection = canDoLookAheadCorrection
+            && dicNodesCache->isLookAheadCorrectionInputIndex(static_cast<int>(point0Index));
+    const bool isCompletion = dicNode->isCompletion(inputSize);
 
-            DicNodeUtils::getAllChildDicNodes(
-                    &dicNode, traverseSession->getDictionaryStructurePolicy(), &childDicNodes);
+    const bool shouldNodeLevelCache = TRAVERSAL->shouldNodeLevelCache(traverseSession, dicNode);
+    if (shouldDepthLevelCache || shouldNodeLevelCache) {
+        if (DEBUG_CACHE) {
+            dicNode->dump("PUSH_CACHE");
+        }
+        dicNodesCache->copyPushContinue(dicNode);
+        dicNode->setCached();
+    }
 
-            const int childDicNodesSize = childDicNodes.getSizeAndLock();
-            for (int i = 0; i < childDicNodesSize; ++i) {
-                DicNode *const childDicNode = childDicNodes[i];
-                if (isCompletion) {
-                    // Handle forward lookahead when the lexicon letter exceeds the input size.
-                    processDicNodeAsMatch(traverseSession, childDicNode);
-                    continue;
-                }
-                if (DigraphUtils::hasDigraphForCodePoint(
-                        traverseSession->getDictionaryStructurePolicy()
-                                ->getHeaderStructurePolicy(),
-                        childDicNode->getNodeCodePoint())) {
-                    correctionDicNode.initByCopy(childDicNode);
-                    correctionDicNode.advanceDigraphIndex();
-                    processDicNodeAsDigraph(traverseSession, &correctionDicNode);
-                }
-                if (TRAVERSAL->isOmission(traverseSession, &dicNode, childDicNode,
-                        allowsErrorCorrections)) {
-                    // TODO: (Gesture) Change weight between omission and substitution errors
-                    // TODO: (Gesture) Terminal node should not be handled as omission
-                    correctionDicNode.initByCopy(childDicNode);
-                    processDicNodeAsOmission(traverseSession, &correctionDicNode);
-                }
-                const ProximityType proximityType = TRAVERSAL->getProximityType(
-                        traverseSession, &dicNode, childDicNode);
-                switch (proximityType) {
-                    // TODO: Consider the difference of proximityType here
-                    case MATCH_CHAR:
-                    case PROXIMITY_CHAR:
-                        processDicNodeAsMatch(traverseSession, childDicNode);
-                        break;
-                    case ADDITIONAL_PROXIMITY_CHAR:
-                        if (allowsErrorCorrections) {
-                            processDicNodeAsAdditionalProximityChar(traverseSession, &dicNode,
-                                    childDicNode);
-                        }
-                        break;
-                    case SUBSTITUTION_CHAR:
-                        if (allowsErrorCorrections) {
-                            processDicNodeAsSubstitution(traverseSession, &dicNode, childDicNode);
-                        }
-                        break;
-                    case UNRELATED_CHAR:
-                        // Just drop this dicNode and do nothing.
-                        break;
-                    default:
-                        // Just drop this dicNode and do nothing.
-                        break;
-                }
-            }
+    if (dicNode->isInDigraph()) {
+        // Finish digraph handling if the node is in the middle of a digraph expansion.
+        processDicNodeAsDigraph(traverseSession, dicNode, dicNodesCache, multiBigramMap);
+    } else if (isLookAheadCorrection) {
+        // The algorithm maintains a small set of "deferred" nodes that have not consumed the
+        // latest touch point yet. These are needed to apply look-ahead correction operations
+        // that require special handling of the latest touch point. For example, with insertions
+        // (e.g., "thiis" -> "this") the latest touch point should not be consumed at all.
+        processDicNodeAsTransposition(traverseSession, dicNode, dicNodesCache, multiBigramMap);
+        processDicNodeAsInsertion(traverseSession, dicNode, dicNodesCache, multiBigramMap);
+    } else { // !isLookAheadCorrection
+        // Only consider typing error corrections if the normalized compound distance is
+        // below a spatial distance threshold.
+        // NOTE: the threshold may need to be updated if scoring model changes.
+        // TODO: Remove. Do not prune node here.
+        const bool allowsErrorCorrections = TRAVERSAL->allowsErrorCorrections(dicNode);
+        // Process for handling space substitution (e.g., hevis => he is)
+        if (TRAVERSAL->isSpaceSubstitutionTerminal(traverseSession, dicNode)) {
+            createNextWordDicNode(traverseSession, dicNode, true /* spaceSubstitution */,
+                    dicNodesCache, multiBigramMap);
+        }
+
+        DicNodeUtils::getAllChildDicNodes(
+                dicNode, traverseSession->getDictionaryStructurePolicy(), childDicNodes);
 
-            // Push the dicNode for look-ahead correction
-            if (allowsErrorCorrections && canDoLookAheadCorrection) {
-                traverseSession->getDicTraverseCache()->copyPushNextActive(&dicNode);
+        const int childDicNodesSize = childDicNodes->getSizeAndLock();
+        for (int i = 0; i < childDicNodesSize; ++i) {
+            DicNode *const childDicNode = (*childDicNodes)[i];
+            if (isCompletion) {
+                // Handle forward lookahead when the lexicon letter exceeds the input size.
+                processDicNodeAsMatch(traverseSession, childDicNode, dicNodesCache,
+                        multiBigramMap);
+                continue;
             }
+            if (DigraphUtils::hasDigraphForCodePoint(
+                    traverseSession->getDictionaryStructurePolicy()->getHeaderStructurePolicy(),
+                    childDicNode->getNodeCodePoint())) {
+                correctionDicNode->initByCopy(childDicNode);
+                correctionDicNode->advanceDigraphIndex();
+                processDicNodeAsDigraph(traverseSession, correctionDicNode, dicNodesCache,
+                        multiBigramMap);
+            }
+            if (TRAVERSAL->isOmission(traverseSession, dicNode, childDicNode,
+                    allowsErrorCorrections)) {
+                // TODO: (Gesture) Change weight between omission and substitution errors
+                // TODO: (Gesture) Terminal node should not be handled as omission
+                correctionDicNode->initByCopy(childDicNode);
+                processDicNodeAsOmission(traverseSession, correctionDicNode, dicNodesCache,
+                        multiBigramMap);
+            }
+            const ProximityType proximityType = TRAVERSAL->getProximityType(
+                    traverseSession, dicNode, childDicNode);
+            switch (proximityType) {
+                // TODO: Consider the difference of proximityType here
+                case MATCH_CHAR:
+                case PROXIMITY_CHAR:
+                    processDicNodeAsMatch(traverseSession, childDicNode, dicNodesCache,
+                            multiBigramMap);
+                    break;
+                case ADDITIONAL_PROXIMITY_CHAR:
+                    if (allowsErrorCorrections) {
+                        processDicNodeAsAdditionalProximityChar(traverseSession, dicNode,
+                                childDicNode, dicNodesCache, multiBigramMap);
+                    }
+                    break;
+                case SUBSTITUTION_CHAR:
+                    if (allowsErrorCorrections) {
+                        processDicNodeAsSubstitution(traverseSession, dicNode, childDicNode,
+                                dicNodesCache, multiBigramMap);
+                    }
+                    break;
+                case UNRELATED_CHAR:
+                    // Just drop this dicNode and do nothing.
+                    break;
+                default:
+                    // Just drop this dicNode and do nothing.
+                    break;
+            }
+        }
+
+        // Push the dicNode for look-ahead correction
+        if (allowsErrorCorrections && canDoLookAheadCorrection) {
+            dicNodesCache->copyPushNextActive(dicNode);
         }
     }
 }
 
-void Suggest::processTerminalDicNode(
-        DicTraverseSession *traverseSession, DicNode *dicNode) const {
+void Suggest::processTerminalDicNode(DicTraverseSession *traverseSession, DicNode *dicNode,
+        DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const {
     if (dicNode->getCompoundDistance() >= static_cast<float>(MAX_VALUE_FOR_WEIGHTING)) {
         return;
     }
@@ -245,62 +328,67 @@ void Suggest::processTerminalDicNode(
     if (TRAVERSAL->needsToTraverseAllUserInput()
             && dicNode->getInputIndex(0) < traverseSession->getInputSize()) {
         Weighting::addCostAndForwardInputIndex(WEIGHTING, CT_TERMINAL_INSERTION, traverseSession, 0,
-                &terminalDicNode, traverseSession->getMultiBigramMap());
+                &terminalDicNode, multiBigramMap);
     }
     Weighting::addCostAndForwardInputIndex(WEIGHTING, CT_TERMINAL, traverseSession, 0,
-            &terminalDicNode, traverseSession->getMultiBigramMap());
-    traverseSession->getDicTraverseCache()->copyPushTerminal(&terminalDicNode);
+            &terminalDicNode, multiBigramMap);
+    dicNodesCache->copyPushTerminal(&terminalDicNode);
 }
 
 /**
  * Adds the expanded dicNode to the next search priority queue. Also creates an additional next word
  * (by the space omission error correction) search path if input dicNode is on a terminal.
  */
-void Suggest::processExpandedDicNode(
-        DicTraverseSession *traverseSession, DicNode *dicNode) const {
-    processTerminalDicNode(traverseSession, dicNode);
+void Suggest::processExpandedDicNode(DicTraverseSession *traverseSession, DicNode *dicNode,
+        DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const {
+    processTerminalDicNode(traverseSession, dicNode, dicNodesCache, multiBigramMap);
     if (dicNode->getCompoundDistance() < static_cast<float>(MAX_VALUE_FOR_WEIGHTING)) {
         if (TRAVERSAL->isSpaceOmissionTerminal(traverseSession, dicNode)) {
-            createNextWordDicNode(traverseSession, dicNode, false /* spaceSubstitution */);
+            createNextWordDicNode(traverseSession, dicNode, false /* spaceSubstitution */,
+                    dicNodesCache, multiBigramMap);
         }
         const int allowsLookAhead = !(dicNode->hasMultipleWords()
                 && dicNode->isCompletion(traverseSession->getInputSize()));
         if (dicNode->hasChildren() && allowsLookAhead) {
-            traverseSession->getDicTraverseCache()->copyPushNextActive(dicNode);
+            dicNodesCache->copyPushNextActive(dicNode);
         }
     }
 }
 
 void Suggest::processDicNodeAsMatch(DicTraverseSession *traverseSession,
-        DicNode *childDicNode) const {
+        DicNode *childDicNode, DicNodesCache *const dicNodesCache,
+        MultiBigramMap *const multiBigramMap) const {
     weightChildNode(traverseSession, childDicNode);
-    processExpandedDicNode(traverseSession, childDicNode);
+    processExpandedDicNode(traverseSession, childDicNode, dicNodesCache, multiBigramMap);
 }
 
 void Suggest::processDicNodeAsAdditionalProximityChar(DicTraverseSession *traverseSession,
-        DicNode *dicNode, DicNode *childDicNode) const {
+        DicNode *dicNode, DicNode *childDicNode, DicNodesCache *const dicNodesCache,
+        MultiBigramMap *const multiBigramMap) const {
     // Note: Most types of corrections don't need to look up the bigram information since they do
     // not treat the node as a terminal. There is no need to pass the bigram map in these cases.
     Weighting::addCostAndForwardInputIndex(WEIGHTING, CT_ADDITIONAL_PROXIMITY,
             traverseSession, dicNode, childDicNode, 0 /* multiBigramMap */);
-    processExpandedDicNode(traverseSession, childDicNode);
+    processExpandedDicNode(traverseSession, childDicNode, dicNodesCache, multiBigramMap);
 }
 
 void Suggest::processDicNodeAsSubstitution(DicTraverseSession *traverseSession,
-        DicNode *dicNode, DicNode *childDicNode) const {
+        DicNode *dicNode, DicNode *childDicNode, DicNodesCache *const dicNodesCache,
+        MultiBigramMap *const multiBigramMap) const {
     Weighting::addCostAndForwardInputIndex(WEIGHTING, CT_SUBSTITUTION, traverseSession,
             dicNode, childDicNode, 0 /* multiBigramMap */);
-    processExpandedDicNode(traverseSession, childDicNode);
+    processExpandedDicNode(traverseSession, childDicNode, dicNodesCache, multiBigramMap);
 }
 
 // Process the DicNode codepoint as a digraph. This means that composite glyphs like the German
 // u-umlaut is expanded to the transliteration "ue". Note that this happens in parallel with
 // the normal non-digraph traversal, so both "uber" and "ueber" can be corrected to "[u-umlaut]ber".
 void Suggest::processDicNodeAsDigraph(DicTraverseSession *traverseSession,
-        DicNode *childDicNode) const {
+        DicNode *childDicNode, DicNodesCache *const dicNodesCache,
+        MultiBigramMap *const multiBigramMap) const {
     weightChildNode(traverseSession, childDicNode);
     childDicNode->advanceDigraphIndex();
-    processExpandedDicNode(traverseSession, childDicNode);
+    processExpandedDicNode(traverseSession, childDicNode, dicNodesCache, multiBigramMap);
 }
 
 /**
@@ -310,8 +398,8 @@ void Suggest::processDicNodeAsDigraph(DicTraverseSession *traverseSession,
  * the possible *next* letters after the omission to better limit search to plausible omissions.
  * Note that apostrophes are handled as omissions.
  */
-void Suggest::processDicNodeAsOmission(
-        DicTraverseSession *traverseSession, DicNode *dicNode) const {
+void Suggest::processDicNodeAsOmission(DicTraverseSession *traverseSession, DicNode *dicNode,
+        DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const {
     DicNodeVector childDicNodes;
     DicNodeUtils::getAllChildDicNodes(
             dicNode, traverseSession->getDictionaryStructurePolicy(), &childDicNodes);
@@ -326,7 +414,7 @@ void Suggest::processDicNodeAsOmission(
         if (!TRAVERSAL->isPossibleOmissionChildNode(traverseSession, dicNode, childDicNode)) {
             continue;
         }
-        processExpandedDicNode(traverseSession, childDicNode);
+        processExpandedDicNode(traverseSession, childDicNode, dicNodesCache, multiBigramMap);
     }
 }
 
@@ -334,8 +422,8 @@ void Suggest::processDicNodeAsOmission(
  * Handle the dicNode as an insertion error (e.g., thiis => this). Skip the current touch point and
  * consider matches for the next touch point.
  */
-void Suggest::processDicNodeAsInsertion(DicTraverseSession *traverseSession,
-        DicNode *dicNode) const {
+void Suggest::processDicNodeAsInsertion(DicTraverseSession *traverseSession, DicNode *dicNode,
+        DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const {
     const int16_t pointIndex = dicNode->getInputIndex(0);
     DicNodeVector childDicNodes;
     DicNodeUtils::getAllChildDicNodes(dicNode, traverseSession->getDictionaryStructurePolicy(),
@@ -349,7 +437,7 @@ void Suggest::processDicNodeAsInsertion(DicTraverseSession *traverseSession,
         DicNode *const childDicNode = childDicNodes[i];
         Weighting::addCostAndForwardInputIndex(WEIGHTING, CT_INSERTION, traverseSession,
                 dicNode, childDicNode, 0 /* multiBigramMap */);
-        processExpandedDicNode(traverseSession, childDicNode);
+        processExpandedDicNode(traverseSession, childDicNode, dicNodesCache, multiBigramMap);
     }
 }
 
@@ -357,7 +445,8 @@ void Suggest::processDicNodeAsInsertion(DicTraverseSession *traverseSession,
  * Handle the dicNode as a transposition error (e.g., thsi => this). Swap the next two touch points.
  */
 void Suggest::processDicNodeAsTransposition(DicTraverseSession *traverseSession,
-        DicNode *dicNode) const {
+        DicNode *dicNode, DicNodesCache *const dicNodesCache,
+        MultiBigramMap *const multiBigramMap) const {
     const int16_t pointIndex = dicNode->getInputIndex(0);
     DicNodeVector childDicNodes1;
     DicNodeVector childDicNodes2;
@@ -386,7 +475,8 @@ void Suggest::processDicNodeAsTransposition(DicTraverseSession *traverseSession,
                 }
                 Weighting::addCostAndForwardInputIndex(WEIGHTING, CT_TRANSPOSITION,
                         traverseSession, childDicNodes1[i], childDicNode2, 0 /* multiBigramMap */);
-                processExpandedDicNode(traverseSession, childDicNode2);
+                processExpandedDicNode(traverseSession, childDicNode2, dicNodesCache,
+                        multiBigramMap);
             }
         }
     }
@@ -411,11 +501,11 @@ void Suggest::weightChildNode(DicTraverseSession *traverseSession, DicNode *dicN
  * incorporates the unigram / bigram score for the ending word into the new dicNode.
  */
 void Suggest::createNextWordDicNode(DicTraverseSession *traverseSession, DicNode *dicNode,
-        const bool spaceSubstitution) const {
+        const bool spaceSubstitution, DicNodesCache *const dicNodesCache,
+        MultiBigramMap *const multiBigramMap) const {
     const WordAttributes wordAttributes =
             traverseSession->getDictionaryStructurePolicy()->getWordAttributesInContext(
-                    dicNode->getPrevWordIds(), dicNode->getWordId(),
-                    traverseSession->getMultiBigramMap());
+                    dicNode->getPrevWordIds(), dicNode->getWordId(), multiBigramMap);
     if (SuggestionsOutputUtils::shouldBlockWord(traverseSession->getSuggestOptions(),
             dicNode, wordAttributes, false /* isLastWord */)) {
         return;
@@ -432,13 +522,13 @@ void Suggest::createNextWordDicNode(DicTraverseSession *traverseSession, DicNode
     const CorrectionType correctionType = spaceSubstitution ?
             CT_NEW_WORD_SPACE_SUBSTITUTION : CT_NEW_WORD_SPACE_OMISSION;
     Weighting::addCostAndForwardInputIndex(WEIGHTING, correctionType, traverseSession, dicNode,
-            &newDicNode, traverseSession->getMultiBigramMap());
+            &newDicNode, multiBigramMap);
     if (newDicNode.getCompoundDistance() < static_cast<float>(MAX_VALUE_FOR_WEIGHTING)) {
         // newDicNode is worth continuing to traverse.
         // CAVEAT: This pruning is important for speed. Remove this when we can afford not to prune
         // here because here is not the right place to do pruning. Pruning should take place only
         // in DicNodePriorityQueue.
-        traverseSession->getDicTraverseCache()->copyPushNextActive(&newDicNode);
+        dicNodesCache->copyPushNextActive(&newDicNode);
     }
 }
 } // namespace latinime
@@ -33,7 +33,10 @@ namespace latinime {
 //       priority of a suggested word
 
 class DicNode;
+class DicNodesCache;
+class DicNodeVector;
 class DicTraverseSession;
+class MultiBigramMap;
 class ProximityInfo;
 class Scoring;
 class SuggestionResults;
@@ -54,26 +57,45 @@ class Suggest : public SuggestInterface {
 
  private:
     DISALLOW_IMPLICIT_CONSTRUCTORS(Suggest);
+    // The dicNodes created while expanding an active dicNode are pushed to the given cache, and
+    // bigram probabilities are looked up through the given map. Both are the session's own unless
+    // the active dicNodes are being expanded in parallel.
     void createNextWordDicNode(DicTraverseSession *traverseSession, DicNode *dicNode,
-            const bool spaceSubstitution) const;
+            const bool spaceSubstitution, DicNodesCache *const dicNodesCache,
+            MultiBigramMap *const multiBigramMap) const;
     void initializeSearch(DicTraverseSession *traverseSession) const;
     void expandCurrentDicNodes(DicTraverseSession *traverseSession) const;
-    void processTerminalDicNode(DicTraverseSession *traverseSession, DicNode *dicNode) const;
-    void processExpandedDicNode(DicTraverseSession *traverseSession, DicNode *dicNode) const;
+    void expandCurrentDicNodesInParallel(DicTraverseSession *traverseSession,
+            const bool shouldDepthLevelCache, const int laneCount) const;
+    void expandDicNode(DicTraverseSession *traverseSession, DicNode *dicNode,
+            const bool shouldDepthLevelCache, DicNodeVector *const childDicNodes,
+            DicNode *const correctionDicNode, DicNodesCache *const dicNodesCache,
+            MultiBigramMap *const multiBigramMap) const;
+    void processTerminalDicNode(DicTraverseSession *traverseSession, DicNode *dicNode,
+            DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const;
+    void processExpandedDicNode(DicTraverseSession *traverseSession, DicNode *dicNode,
+            DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const;
     void weightChildNode(DicTraverseSession *traverseSession, DicNode *dicNode) const;
-    void processDicNodeAsOmission(DicTraverseSession *traverseSession, DicNode *dicNode) const;
-    void processDicNodeAsDigraph(DicTraverseSession *traverseSession, DicNode *dicNode) const;
-    void processDicNodeAsTransposition(DicTraverseSession *traverseSession,
-            DicNode *dicNode) const;
-    void processDicNodeAsInsertion(DicTraverseSession *traverseSession, DicNode *dicNode) const;
+    void processDicNodeAsOmission(DicTraverseSession *traverseSession, DicNode *dicNode,
+            DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const;
+    void processDicNodeAsDigraph(DicTraverseSession *traverseSession, DicNode *dicNode,
+            DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const;
+    void processDicNodeAsTransposition(DicTraverseSession *traverseSession, DicNode *dicNode,
+            DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const;
+    void processDicNodeAsInsertion(DicTraverseSession *traverseSession, DicNode *dicNode,
+            DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const;
     void processDicNodeAsAdditionalProximityChar(DicTraverseSession *traverseSession,
-            DicNode *dicNode, DicNode *childDicNode) const;
+            DicNode *dicNode, DicNode *childDicNode, DicNodesCache *const dicNodesCache,
+            MultiBigramMap *const multiBigramMap) const;
     void processDicNodeAsSubstitution(DicTraverseSession *traverseSession, DicNode *dicNode,
-            DicNode *childDicNode) const;
-    void processDicNodeAsMatch(DicTraverseSession *traverseSession,
-            DicNode *childDicNode) const;
+            DicNode *childDicNode, DicNodesCache *const dicNodesCache,
+            MultiBigramMap *const multiBigramMap) const;
+    void processDicNodeAsMatch(DicTraverseSession *traverseSession, DicNode *childDicNode,
+            DicNodesCache *const dicNodesCache, MultiBigramMap *const multiBigramMap) const;
 
     static const int MIN_CONTINUOUS_SUGGESTION_INPUT_SIZE;
+    static const int MIN_DIC_NODE_COUNT_PER_EXPANSION_LANE;
+    static const bool USES_PARALLEL_EXPANSION;
 
     const Traversal *const TRAVERSAL;
     const Scoring *const SCORING;
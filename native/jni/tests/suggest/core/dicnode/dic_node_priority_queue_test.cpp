@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include "suggest/core/dicnode/dic_node_priority_queue.h"
+
+#include <gtest/gtest.h>
+
+#include <vector>
+
+#include "suggest/core/dicnode/dic_node.h"
+#include "utils/int_array_view.h"
+
+namespace latinime {
+namespace {
+
+static const int DIC_NODE_COUNT = 16;
+static const int CAPACITY = 5;
+
+// Returns dicNodes that only differ by the position of their children, so that they tie on
+// everything the search looks at.
+std::vector<DicNode> createTiedDicNodes() {
+    DicNode rootDicNode;
+    rootDicNode.initAsRoot(0 /* rootPtNodeArrayPos */, WordIdArrayView());
+    static const int CODE_POINTS[] = { 'a' };
+    std::vector<DicNode> dicNodes(DIC_NODE_COUNT);
+    for (int i = 0; i < DIC_NODE_COUNT; ++i) {
+        dicNodes[i].initAsChild(&rootDicNode, 100 + i /* childrenPtNodeArrayPos */,
+                NOT_A_WORD_ID, CodePointArrayView(CODE_POINTS, 1));
+    }
+    return dicNodes;
+}
+
+std::vector<int> popChildrenPtNodeArrayPositions(DicNodePriorityQueue *const queue) {
+    std::vector<int> positions;
+    DicNode dicNode;
+    while (queue->getSize() > 0) {
+        queue->copyPop(&dicNode);
+        positions.push_back(dicNode.getChildrenPtNodeArrayPos());
+    }
+    return positions;
+}
+
+TEST(DicNodePriorityQueueTest, TestTiesDoNotDependOnPushOrder) {
+    const std::vector<DicNode> dicNodes = createTiedDicNodes();
+    DicNodePriorityQueue queue(CAPACITY);
+    for (int i = 0; i < DIC_NODE_COUNT; ++i) {
+        queue.copyPush(&dicNodes[i]);
+    }
+    const std::vector<int> positions = popChildrenPtNodeArrayPositions(&queue);
+    EXPECT_EQ(CAPACITY, static_cast<int>(positions.size()));
+
+    DicNodePriorityQueue reversedQueue(CAPACITY);
+    for (int i = DIC_NODE_COUNT - 1; i >= 0; --i) {
+        reversedQueue.copyPush(&dicNodes[i]);
+    }
+    EXPECT_EQ(positions, popChildrenPtNodeArrayPositions(&reversedQueue));
+}
+
+TEST(DicNodePriorityQueueTest, TestMergedLanesKeepSameDicNodes) {
+    static const int LANE_COUNT = 3;
+    const std::vector<DicNode> dicNodes = createTiedDicNodes();
+    DicNodePriorityQueue serialQueue(CAPACITY);
+    for (int i = 0; i < DIC_NODE_COUNT; ++i) {
+        serialQueue.copyPush(&dicNodes[i]);
+    }
+
+    // Deals the dicNodes to lanes, and merges the lanes back in lane order, as
+    // Suggest::expandCurrentDicNodesInParallel() does.
+    DicNodePriorityQueue mergedQueue(CAPACITY);
+    for (int laneIndex = 0; laneIndex < LANE_COUNT; ++laneIndex) {
+        DicNodePriorityQueue laneQueue(CAPACITY);
+        for (int i = laneIndex; i < DIC_NODE_COUNT; i += LANE_COUNT) {
+            laneQueue.copyPush(&dicNodes[i]);
+        }
+        DicNode dicNode;
+        while (laneQueue.getSize() > 0) {
+            laneQueue.copyPop(&dicNode);
+            mergedQueue.copyPush(&dicNode);
+        }
+    }
+    EXPECT_EQ(popChildrenPtNodeArrayPositions(&serialQueue),
+            popChildrenPtNodeArrayPositions(&mergedQueue));
+}
+
+}  // namespace
+}  // namespace latinime
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include "suggest/core/session/expansion_worker_pool.h"
+
+#include <gtest/gtest.h>
+
+#include <atomic>
+#include <thread>
+#include <vector>
+
+namespace latinime {
+namespace {
+
+TEST(ExpansionWorkerPoolTest, TestRunsEveryLane) {
+    static const int LANE_COUNT = 4;
+    ExpansionWorkerPool workerPool(LANE_COUNT);
+    EXPECT_EQ(LANE_COUNT, workerPool.getLaneCount());
+
+    std::vector<int> runCounts(LANE_COUNT, 0);
+    const std::thread::id callingThreadId = std::this_thread::get_id();
+    std::thread::id lane0ThreadId;
+    for (int i = 0; i < 100; ++i) {
+        EXPECT_TRUE(workerPool.tryRun(LANE_COUNT, [&](const int laneIndex) {
+            runCounts[laneIndex]++;
+            if (laneIndex == 0) {
+                lane0ThreadId = std::this_thread::get_id();
+            }
+        }));
+        // Every lane has finished when tryRun() returns.
+        for (int laneIndex = 0; laneIndex < LANE_COUNT; ++laneIndex) {
+            EXPECT_EQ(i + 1, runCounts[laneIndex]);
+        }
+    }
+    EXPECT_EQ(callingThreadId, lane0ThreadId);
+}
+
+TEST(ExpansionWorkerPoolTest, TestRunsFewerLanes) {
+    static const int LANE_COUNT = 4;
+    ExpansionWorkerPool workerPool(LANE_COUNT);
+
+    std::vector<int> runCounts(LANE_COUNT, 0);
+    EXPECT_TRUE(workerPool.tryRun(2, [&](const int laneIndex) { runCounts[laneIndex]++; }));
+    EXPECT_EQ(1, runCounts[0]);
+    EXPECT_EQ(1, runCounts[1]);
+    EXPECT_EQ(0, runCounts[2]);
+    EXPECT_EQ(0, runCounts[3]);
+
+    // More lanes than the pool has are capped.
+    EXPECT_TRUE(workerPool.tryRun(LANE_COUNT + 1,
+            [&](const int laneIndex) { runCounts[laneIndex]++; }));
+    EXPECT_EQ(2, runCounts[0]);
+    EXPECT_EQ(2, runCounts[1]);
+    EXPECT_EQ(1, runCounts[2]);
+    EXPECT_EQ(1, runCounts[3]);
+}
+
+TEST(ExpansionWorkerPoolTest, TestSingleLane) {
+    ExpansionWorkerPool workerPool(0);
+    EXPECT_EQ(1, workerPool.getLaneCount());
+
+    int runCount = 0;
+    EXPECT_TRUE(workerPool.tryRun(3, [&](const int laneIndex) {
+        EXPECT_EQ(0, laneIndex);
+        runCount++;
+    }));
+    EXPECT_EQ(1, runCount);
+}
+
+TEST(ExpansionWorkerPoolTest, TestBusy) {
+    ExpansionWorkerPool workerPool(2);
+
+    std::atomic<bool> wasBusy(false);
+    EXPECT_TRUE(workerPool.tryRun(2, [&](const int laneIndex) {
+        if (laneIndex != 0) {
+            return;
+        }
+        // A nested run from another thread is refused instead of waiting.
+        std::thread otherThread([&] {
+            wasBusy = !workerPool.tryRun(2, [](const int) {});
+        });
+        otherThread.join();
+    }));
+    EXPECT_TRUE(wasBusy);
+}
+
+} // namespace
+} // namespace latinime
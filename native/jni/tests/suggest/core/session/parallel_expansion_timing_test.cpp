@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include "suggest/core/session/expansion_worker_pool.h"
+
+#include <gtest/gtest.h>
+
+#include <chrono>
+#include <cstdio>
+#include <memory>
+#include <thread>
+#include <vector>
+
+#include "suggest/core/dicnode/dic_node.h"
+#include "suggest/core/dicnode/dic_nodes_cache.h"
+
+namespace latinime {
+namespace {
+
+// Times one search step expanded serially and on the expansion worker pool, the way
+// Suggest::expandCurrentDicNodes() and Suggest::expandCurrentDicNodesInParallel() do it: every
+// active dicNode is expanded into a few children pushed into a DicNodesCache, and the parallel
+// step merges the lane caches back. Expanding a real dicNode needs a dictionary and a keyboard,
+// so its cost is stood in for by spinning for a given time. The timings are printed, for
+// choosing Suggest::MIN_DIC_NODE_COUNT_PER_EXPANSION_LANE on the host running the test.
+
+typedef std::chrono::steady_clock Clock;
+
+static const int LANE_COUNT = 3;
+// The value of Suggest::MIN_DIC_NODE_COUNT_PER_EXPANSION_LANE.
+static const int MIN_DIC_NODE_COUNT_PER_LANE = 24;
+static const int CHILD_COUNT_PER_DIC_NODE = 4;
+static const int STEP_COUNT = 200;
+
+void spinFor(const std::chrono::nanoseconds duration) {
+    const Clock::time_point end = Clock::now() + duration;
+    while (Clock::now() < end) {}
+}
+
+void expandDicNodes(const int begin, const int end, const int stride,
+        const std::chrono::nanoseconds expansionCost, DicNodesCache *const dicNodesCache) {
+    DicNode childDicNode;
+    for (int i = begin; i < end; i += stride) {
+        spinFor(expansionCost);
+        for (int j = 0; j < CHILD_COUNT_PER_DIC_NODE; ++j) {
+            dicNodesCache->copyPushNextActive(&childDicNode);
+        }
+    }
+}
+
+// Returns the average duration of a step in microseconds.
+double timeSerialSteps(const int dicNodeCount, const std::chrono::nanoseconds expansionCost,
+        DicNodesCache *const dicNodesCache) {
+    const Clock::time_point start = Clock::now();
+    for (int step = 0; step < STEP_COUNT; ++step) {
+        dicNodesCache->reset(dicNodeCount * CHILD_COUNT_PER_DIC_NODE, MAX_RESULTS);
+        expandDicNodes(0, dicNodeCount, 1, expansionCost, dicNodesCache);
+    }
+    return std::chrono::duration<double, std::micro>(Clock::now() - start).count() / STEP_COUNT;
+}
+
+// Returns the average duration of a step in microseconds.
+double timeParallelSteps(const int dicNodeCount, const std::chrono::nanoseconds expansionCost,
+        ExpansionWorkerPool *const workerPool, DicNodesCache *const dicNodesCache,
+        std::vector<std::unique_ptr<DicNodesCache>> *const laneCaches) {
+    const ExpansionWorkerPool::LaneTask expandLane = [&](const int laneIndex) {
+        DicNodesCache *const laneCache =
+                laneIndex == 0 ? dicNodesCache : (*laneCaches)[laneIndex].get();
+        expandDicNodes(laneIndex, dicNodeCount, LANE_COUNT, expansionCost, laneCache);
+    };
+    const Clock::time_point start = Clock::now();
+    for (int step = 0; step < STEP_COUNT; ++step) {
+        dicNodesCache->reset(dicNodeCount * CHILD_COUNT_PER_DIC_NODE, MAX_RESULTS);
+        for (int laneIndex = 1; laneIndex < LANE_COUNT; ++laneIndex) {
+            (*laneCaches)[laneIndex]->resetAsExpansionLaneOf(dicNodesCache);
+        }
+        EXPECT_TRUE(workerPool->tryRun(LANE_COUNT, expandLane));
+        for (int laneIndex = 1; laneIndex < LANE_COUNT; ++laneIndex) {
+            dicNodesCache->mergeExpansionLane((*laneCaches)[laneIndex].get());
+        }
+    }
+    return std::chrono::duration<double, std::micro>(Clock::now() - start).count() / STEP_COUNT;
+}
+
+TEST(ParallelExpansionTimingTest, TestSerialAndParallelSteps) {
+    ExpansionWorkerPool workerPool(LANE_COUNT);
+    ASSERT_EQ(LANE_COUNT, workerPool.getLaneCount());
+    DicNodesCache dicNodesCache(true /* usesLargeCapacityCache */);
+    std::vector<std::unique_ptr<DicNodesCache>> laneCaches;
+    for (int laneIndex = 0; laneIndex < LANE_COUNT; ++laneIndex) {
+        laneCaches.emplace_back(new DicNodesCache(true /* usesLargeCapacityCache */));
+    }
+
+    std::printf("Parallel expansion with %d lanes on %u hardware threads\n", LANE_COUNT,
+            std::thread::hardware_concurrency());
+    std::printf("%10s %12s %12s %12s %8s\n", "dicNodes", "cost (ns)", "serial (us)",
+            "parallel (us)", "speedup");
+    static const int EXPANSION_COSTS_IN_NANOSECONDS[] = { 0, 500, 2000, 8000 };
+    for (const int dicNodeCountPerLane : { MIN_DIC_NODE_COUNT_PER_LANE / 2,
+            MIN_DIC_NODE_COUNT_PER_LANE, MIN_DIC_NODE_COUNT_PER_LANE * 4 }) {
+        const int dicNodeCount = dicNodeCountPerLane * LANE_COUNT;
+        for (const int expansionCostInNanoseconds : EXPANSION_COSTS_IN_NANOSECONDS) {
+            const std::chrono::nanoseconds expansionCost(expansionCostInNanoseconds);
+            const double serialMicros =
+                    timeSerialSteps(dicNodeCount, expansionCost, &dicNodesCache);
+            dicNodesCache.advanceActiveDicNodes();
+            const int serialSize = dicNodesCache.activeSize();
+            const double parallelMicros = timeParallelSteps(dicNodeCount, expansionCost,
+                    &workerPool, &dicNodesCache, &laneCaches);
+            // The merged lanes keep as many dicNodes as the serial expansion.
+            dicNodesCache.advanceActiveDicNodes();
+            EXPECT_EQ(serialSize, dicNodesCache.activeSize());
+            std::printf("%10d %12d %12.1f %12.1f %8.2f\n", dicNodeCount,
+                    expansionCostInNanoseconds, serialMicros, parallelMicros,
+                    serialMicros / parallelMicros);
+        }
+    }
+}
+
+}  // namespace
+}  // namespace latinime
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.dictionarypack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.filters.LargeTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Applies a large synthetic metadata file to a test client, and compares how long the update of
+ * the word lists takes in a single batch and in one batch per word list. The timings are written
+ * to the log. Also checks that actions failing in a batch don't roll back the other ones.
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class ActionBatchTests {
+    private static final String TAG = ActionBatchTests.class.getSimpleName();
+    private static final String CLIENT_ID = "ActionBatchTests";
+    private static final int WORD_LIST_COUNT = 500;
+    private static final int SMALL_WORD_LIST_COUNT = 3;
+
+    private Context getContext() {
+        return InstrumentationRegistry.getTargetContext();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        MetadataDbHelper.deleteClient(getContext(), CLIENT_ID);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        MetadataDbHelper.deleteClient(getContext(), CLIENT_ID);
+    }
+
+    private static byte[] makeMetadata(final int version, final int wordListCount) {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < wordListCount; ++i) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(String.format(Locale.ROOT, "{\"id\":\"main:test%d\",\"locale\":\"xx_%d\","
+                    + "\"description\":\"Test %d\",\"update\":\"%d\",\"filesize\":\"%d\","
+                    + "\"checksum\":\"%032x\",\"url\":\"http://example.com/test%d_%d.dict\","
+                    + "\"version\":\"%d\",\"formatversion\":\"2\"}",
+                    i, i, i, 1000L * version, 1000 + i, i, i, version, version));
+        }
+        return sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long handleMetadata(final int version, final int wordListCount) throws Exception {
+        final long startTime = System.nanoTime();
+        UpdateHandler.handleMetadata(getContext(),
+                new ByteArrayInputStream(makeMetadata(version, wordListCount)), CLIENT_ID);
+        return System.nanoTime() - startTime;
+    }
+
+    private long handleMetadata(final int version) throws Exception {
+        return handleMetadata(version, WORD_LIST_COUNT);
+    }
+
+    private SQLiteDatabase getDb() {
+        return MetadataDbHelper.getDb(getContext(), CLIENT_ID);
+    }
+
+    private boolean hasWordList(final WordListMetadata wordList) {
+        return null != MetadataDbHelper.getContentValuesByWordListId(getDb(), wordList.mId,
+                wordList.mVersion);
+    }
+
+    private static final class RecordingProblemReporter implements ProblemReporter {
+        final ArrayList<Exception> mProblems = new ArrayList<>();
+
+        @Override
+        public void report(final Exception e) {
+            mProblems.add(e);
+        }
+    }
+
+    private void assertAllAvailable(final List<WordListMetadata> wordLists,
+            final int version) {
+        assertEquals(WORD_LIST_COUNT, wordLists.size());
+        for (final WordListMetadata wordList : wordLists) {
+            assertEquals(wordList.mId, version, wordList.mVersion);
+            assertEquals(wordList.mId, MetadataDbHelper.STATUS_AVAILABLE,
+                    MetadataDbHelper.getContentValuesByWordListId(
+                            MetadataDbHelper.getDb(getContext(), CLIENT_ID),
+                            wordList.mId, wordList.mVersion)
+                            .getAsInteger(MetadataDbHelper.STATUS_COLUMN).intValue());
+        }
+    }
+
+    @Test
+    public void testFailingActionDoesNotRollBackBatch() throws Exception {
+        handleMetadata(1, SMALL_WORD_LIST_COUNT);
+        final List<WordListMetadata> wordLists = MetadataHandler.getCurrentMetadata(getContext(),
+                CLIENT_ID);
+        assertEquals(SMALL_WORD_LIST_COUNT, wordLists.size());
+        final RuntimeException failure = new RuntimeException("Test failure");
+
+        final ActionBatch actions = new ActionBatch();
+        actions.add(new ActionBatch.ForgetAction(CLIENT_ID, wordLists.get(0), false));
+        actions.add(new ActionBatch.DatabaseOnlyAction() {
+            @Override
+            public void execute(final Context context) {
+                throw failure;
+            }
+
+            @Override
+            public String getClientId() {
+                return CLIENT_ID;
+            }
+        });
+        actions.add(new ActionBatch.ForgetAction(CLIENT_ID, wordLists.get(1), false));
+        final RecordingProblemReporter reporter = new RecordingProblemReporter();
+        actions.execute(getContext(), reporter);
+
+        assertEquals(1, reporter.mProblems.size());
+        assertSame(failure, reporter.mProblems.get(0));
+        assertFalse(getDb().inTransaction());
+        assertFalse(hasWordList(wordLists.get(0)));
+        assertFalse(hasWordList(wordLists.get(1)));
+        assertTrue(hasWordList(wordLists.get(2)));
+    }
+
+    @Test
+    public void testFailingTransactionOfActionDoesNotRollBackBatch() throws Exception {
+        handleMetadata(1, SMALL_WORD_LIST_COUNT);
+        final List<WordListMetadata> wordLists = MetadataHandler.getCurrentMetadata(getContext(),
+                CLIENT_ID);
+        assertEquals(SMALL_WORD_LIST_COUNT, wordLists.size());
+        final boolean[] isRunOutsideOfBatchTransaction = new boolean[1];
+
+        final ActionBatch actions = new ActionBatch();
+        actions.add(new ActionBatch.ForgetAction(CLIENT_ID, wordLists.get(0), false));
+        // Like InstallAfterDownloadAction, this has a transaction of its own, but this one fails.
+        actions.add(new ActionBatch.Action() {
+            @Override
+            public void execute(final Context context) {
+                final SQLiteDatabase db = getDb();
+                isRunOutsideOfBatchTransaction[0] = !db.inTransaction();
+                db.beginTransactionNonExclusive();
+                try {
+                    new ActionBatch.ForgetAction(CLIENT_ID, wordLists.get(2), false)
+                            .execute(context);
+                    throw new RuntimeException("Test failure");
+                } finally {
+                    db.endTransaction();
+                }
+            }
+
+            @Override
+            public String getClientId() {
+                return CLIENT_ID;
+            }
+        });
+        actions.add(new ActionBatch.ForgetAction(CLIENT_ID, wordLists.get(1), false));
+        final RecordingProblemReporter reporter = new RecordingProblemReporter();
+        actions.execute(getContext(), reporter);
+
+        assertEquals(1, reporter.mProblems.size());
+        assertTrue(isRunOutsideOfBatchTransaction[0]);
+        assertFalse(getDb().inTransaction());
+        assertFalse(hasWordList(wordLists.get(0)));
+        assertFalse(hasWordList(wordLists.get(1)));
+        // Only the failed transaction is rolled back.
+        assertTrue(hasWordList(wordLists.get(2)));
+    }
+
+    @Test
+    public void testLargeMetadataUpdate() throws Exception {
+        final long makeAvailableTime = handleMetadata(1);
+        List<WordListMetadata> wordLists = MetadataHandler.getCurrentMetadata(getContext(),
+                CLIENT_ID);
+        assertAllAvailable(wordLists, 1);
+
+        final long updateDataTime = handleMetadata(1);
+        assertAllAvailable(MetadataHandler.getCurrentMetadata(getContext(), CLIENT_ID), 1);
+
+        // This is how the batch used to commit: every action on its own.
+        final long separateStartTime = System.nanoTime();
+        for (final WordListMetadata wordList : wordLists) {
+            final ActionBatch actions = new ActionBatch();
+            actions.add(new ActionBatch.UpdateDataAction(CLIENT_ID, wordList));
+            actions.execute(getContext(), new LogProblemReporter(TAG));
+        }
+        final long separateUpdateDataTime = System.nanoTime() - separateStartTime;
+
+        // A new version of every word list, which makes the new one available and forgets the
+        // old one.
+        final long upgradeTime = handleMetadata(2);
+        wordLists = MetadataHandler.getCurrentMetadata(getContext(), CLIENT_ID);
+        assertAllAvailable(wordLists, 2);
+
+        Log.i(TAG, String.format(Locale.ROOT, "%d word lists: make available %.1f ms,"
+                + " update %.1f ms (%.1f ms in separate batches), upgrade %.1f ms",
+                WORD_LIST_COUNT, makeAvailableTime / 1e6, updateDataTime / 1e6,
+                separateUpdateDataTime / 1e6, upgradeTime / 1e6));
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.dictionarypack;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.os.ParcelFileDescriptor;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.filters.SmallTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class DownloadPipelineTests {
+    private static final int JOB_COUNT = 3;
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private Context getContext() {
+        return InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    public void testPreparesInParallelAndCommitsInOrder() throws Exception {
+        final DownloadPipeline pipeline = new DownloadPipeline(JOB_COUNT);
+        final CountDownLatch allPreparing = new CountDownLatch(JOB_COUNT);
+        final CountDownLatch allFinished = new CountDownLatch(JOB_COUNT);
+        final List<Integer> preparedJobs = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> committedJobs = Collections.synchronizedList(new ArrayList<Integer>());
+        final boolean[] isPreparedBeforeCommit = new boolean[JOB_COUNT];
+        for (int i = 0; i < JOB_COUNT; ++i) {
+            final int jobIndex = i;
+            pipeline.submit("job " + jobIndex, new DownloadPipeline.Job() {
+                @Override
+                public void prepare() {
+                    allPreparing.countDown();
+                    try {
+                        // This only returns if all the jobs are prepared at the same time.
+                        assertTrue(allPreparing.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                        // The first job finishes to prepare last.
+                        Thread.sleep((JOB_COUNT - jobIndex) * 20);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    preparedJobs.add(jobIndex);
+                }
+
+                @Override
+                public void commit() {
+                    isPreparedBeforeCommit[jobIndex] = preparedJobs.contains(jobIndex);
+                    committedJobs.add(jobIndex);
+                }
+            }, new Runnable() {
+                @Override
+                public void run() {
+                    allFinished.countDown();
+                }
+            });
+        }
+        assertTrue(allFinished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(JOB_COUNT, preparedJobs.size());
+        assertEquals(Integer.valueOf(JOB_COUNT - 1), preparedJobs.get(0));
+        for (int i = 0; i < JOB_COUNT; ++i) {
+            assertEquals(Integer.valueOf(i), committedJobs.get(i));
+            assertTrue("job " + i, isPreparedBeforeCommit[i]);
+        }
+    }
+
+    @Test
+    public void testCommitsAfterFailedPrepare() throws Exception {
+        final DownloadPipeline pipeline = new DownloadPipeline(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final boolean[] isCommitted = new boolean[1];
+        pipeline.submit("failing job", new DownloadPipeline.Job() {
+            @Override
+            public void prepare() {
+                throw new IllegalStateException("Test failure");
+            }
+
+            @Override
+            public void commit() {
+                isCommitted[0] = true;
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                finished.countDown();
+            }
+        });
+        assertTrue(finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(isCommitted[0]);
+    }
+
+    /**
+     * A DownloadManager that has downloaded a single file.
+     */
+    private static final class StubDownloadManagerWrapper extends DownloadManagerWrapper {
+        private final long mDownloadId;
+        private final File mDownloadedFile;
+
+        public StubDownloadManagerWrapper(final long downloadId, final File downloadedFile) {
+            super(null /* downloadManager */);
+            mDownloadId = downloadId;
+            mDownloadedFile = downloadedFile;
+        }
+
+        @Override
+        public ParcelFileDescriptor openDownloadedFile(final long fileId)
+                throws FileNotFoundException {
+            if (fileId != mDownloadId) {
+                throw new FileNotFoundException();
+            }
+            return ParcelFileDescriptor.open(mDownloadedFile, ParcelFileDescriptor.MODE_READ_ONLY);
+        }
+    }
+
+    private static byte[] readFully(final InputStream in) throws IOException {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            for (int readBytes = in.read(buffer); readBytes >= 0; readBytes = in.read(buffer)) {
+                out.write(buffer, 0, readBytes);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private DownloadRecord makeWordListRecord(final String checksum) {
+        final ContentValues values = new ContentValues();
+        values.put(MetadataDbHelper.WORDLISTID_COLUMN, "main:xx");
+        values.put(MetadataDbHelper.LOCALE_COLUMN, "xx");
+        values.put(MetadataDbHelper.DESCRIPTION_COLUMN, "Test word list");
+        values.put(MetadataDbHelper.STATUS_COLUMN, MetadataDbHelper.STATUS_DOWNLOADING);
+        values.put(MetadataDbHelper.CHECKSUM_COLUMN, checksum);
+        return new DownloadRecord("DownloadPipelineTests", values);
+    }
+
+    @Test
+    public void testWordListIsCopiedAndChecked() throws Exception {
+        // Larger than the copy buffer, so that the copy takes several passes.
+        final byte[] data = new byte[200 * 1024 + 17];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (byte)(i * 31);
+        }
+        final File downloadedFile = File.createTempFile("download", ".dict",
+                getContext().getCacheDir());
+        try {
+            final FileOutputStream out = new FileOutputStream(downloadedFile);
+            try {
+                out.write(data);
+            } finally {
+                out.close();
+            }
+            final long downloadId = 42;
+            final DownloadManagerWrapper manager =
+                    new StubDownloadManagerWrapper(downloadId, downloadedFile);
+            final String checksum = MD5Calculator.checksum(new ByteArrayInputStream(data));
+
+            final DownloadRecord record = makeWordListRecord(checksum);
+            assertTrue(UpdateHandler.handleDownloadedFile(getContext(), record, manager,
+                    downloadId));
+            final String copiedFile =
+                    record.mAttributes.getAsString(MetadataDbHelper.LOCAL_FILENAME_COLUMN);
+            try {
+                assertArrayEquals(data, readFully(getContext().openFileInput(copiedFile)));
+            } finally {
+                getContext().deleteFile(copiedFile);
+            }
+
+            final String wrongChecksum =
+                    (checksum.charAt(0) == '0' ? "1" : "0") + checksum.substring(1);
+            final DownloadRecord corruptedRecord = makeWordListRecord(wrongChecksum);
+            assertFalse(UpdateHandler.handleDownloadedFile(getContext(), corruptedRecord,
+                    manager, downloadId));
+            final String corruptedFile = corruptedRecord.mAttributes.getAsString(
+                    MetadataDbHelper.LOCAL_FILENAME_COLUMN);
+            assertFalse(getContext().getFileStreamPath(corruptedFile).exists());
+        } finally {
+            downloadedFile.delete();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.event;
+
+import static org.junit.Assert.assertEquals;
+
+import android.os.Debug;
+import android.view.KeyCharacterMap;
+import android.view.KeyEvent;
+
+import androidx.test.filters.SmallTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import com.android.inputmethod.latin.WordComposer;
+import com.android.inputmethod.latin.common.Constants;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+/**
+ * Unit tests for CombinerChain.
+ */
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class CombinerChainTests {
+    private static final String WORD = "allocation";
+    private static final int WARM_UP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 100;
+
+    private static Event[] createKeypressEvents(final String word) {
+        final Event[] events = new Event[word.length() + 1];
+        for (int i = 0; i < word.length(); ++i) {
+            events[i] = Event.createSoftwareKeypressEvent(word.charAt(i), Event.NOT_A_KEY_CODE,
+                    i /* x */, i /* y */, false /* isKeyRepeat */);
+        }
+        events[word.length()] = Event.createSoftwareKeypressEvent(Event.NOT_A_CODE_POINT,
+                Constants.CODE_DELETE, Constants.NOT_A_COORDINATE, Constants.NOT_A_COORDINATE,
+                false /* isKeyRepeat */);
+        return events;
+    }
+
+    // Types the word, deletes its last letter and resets, the way a word is typed and committed.
+    private static void typeWord(final CombinerChain chain, final ArrayList<Event> previousEvents,
+            final Event[] events) {
+        for (int i = 0; i < events.length; ++i) {
+            final Event event = events[i];
+            chain.applyProcessedEvent(chain.processEvent(previousEvents, event));
+            previousEvents.add(event);
+        }
+        previousEvents.clear();
+        chain.reset();
+    }
+
+    @Test
+    public void testComposingWord() {
+        final CombinerChain chain = new CombinerChain("");
+        final ArrayList<Event> previousEvents = new ArrayList<>();
+        final Event[] events = createKeypressEvents(WORD);
+        for (int i = 0; i < WORD.length(); ++i) {
+            chain.applyProcessedEvent(chain.processEvent(previousEvents, events[i]));
+            previousEvents.add(events[i]);
+        }
+        assertEquals(WORD, chain.getComposingWordWithCombiningFeedback().toString());
+        chain.applyProcessedEvent(chain.processEvent(previousEvents, events[WORD.length()]));
+        assertEquals(WORD.substring(0, WORD.length() - 1),
+                chain.getComposingWordWithCombiningFeedback().toString());
+        chain.reset();
+        assertEquals("", chain.getComposingWordWithCombiningFeedback().toString());
+    }
+
+    @Test
+    public void testDeadKeyFeedback() {
+        final CombinerChain chain = new CombinerChain("");
+        final ArrayList<Event> previousEvents = new ArrayList<>();
+        final Event deadAcute = Event.createDeadEvent(0x00B4 /* ACUTE ACCENT */,
+                Event.NOT_A_KEY_CODE, null /* next */);
+        chain.applyProcessedEvent(chain.processEvent(previousEvents, deadAcute));
+        previousEvents.add(deadAcute);
+        assertEquals("\u00B4", chain.getComposingWordWithCombiningFeedback().toString());
+        final Event e = Event.createSoftwareKeypressEvent('e', Event.NOT_A_KEY_CODE,
+                Constants.NOT_A_COORDINATE, Constants.NOT_A_COORDINATE, false /* isKeyRepeat */);
+        chain.applyProcessedEvent(chain.processEvent(previousEvents, e));
+        assertEquals("\u00E9", chain.getComposingWordWithCombiningFeedback().toString());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testSteadyStateTypingDoesNotAllocate() {
+        final CombinerChain chain = new CombinerChain("");
+        final ArrayList<Event> previousEvents = new ArrayList<>(WORD.length() + 1);
+        final Event[] events = createKeypressEvents(WORD);
+        // Let the internal buffers grow to their steady state size first.
+        for (int i = 0; i < WARM_UP_ROUNDS; ++i) {
+            typeWord(chain, previousEvents, events);
+        }
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < MEASURED_ROUNDS; ++i) {
+                typeWord(chain, previousEvents, events);
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        assertEquals("allocations while typing " + MEASURED_ROUNDS * events.length + " keys",
+                0, Debug.getThreadAllocCount());
+    }
+
+    private static KeyEvent[] createKeyDownEvents(final String word) {
+        final KeyCharacterMap keyCharacterMap =
+                KeyCharacterMap.load(KeyCharacterMap.VIRTUAL_KEYBOARD);
+        final KeyEvent[] letters = keyCharacterMap.getEvents(word.toCharArray());
+        final ArrayList<KeyEvent> keyDownEvents = new ArrayList<>();
+        for (final KeyEvent keyEvent : letters) {
+            if (KeyEvent.ACTION_DOWN == keyEvent.getAction()) {
+                keyDownEvents.add(keyEvent);
+            }
+        }
+        keyDownEvents.add(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DEL));
+        return keyDownEvents.toArray(new KeyEvent[keyDownEvents.size()]);
+    }
+
+    // Decodes the key events of a word the way LatinIME#onKeyDown does, and composes the word.
+    private static void decodeAndComposeWord(final HardwareEventDecoder decoder,
+            final WordComposer wordComposer, final KeyEvent[] keyEvents) {
+        for (int i = 0; i < keyEvents.length; ++i) {
+            final Event event = decoder.decodeHardwareKey(keyEvents[i]);
+            wordComposer.applyProcessedEvent(wordComposer.processEvent(event));
+        }
+        wordComposer.reset();
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testSteadyStateDecodedTypingOnlyAllocatesEvents() {
+        final HardwareEventDecoder decoder =
+                new HardwareKeyboardEventDecoder(KeyCharacterMap.VIRTUAL_KEYBOARD);
+        final WordComposer wordComposer = new WordComposer();
+        final KeyEvent[] keyEvents = createKeyDownEvents(WORD);
+        assertEquals(WORD.length() + 1, keyEvents.length);
+        for (int i = 0; i < WARM_UP_ROUNDS; ++i) {
+            decodeAndComposeWord(decoder, wordComposer, keyEvents);
+        }
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < MEASURED_ROUNDS; ++i) {
+                decodeAndComposeWord(decoder, wordComposer, keyEvents);
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        // The decoder creates one immutable event per key, which the word composer keeps.
+        // Nothing else may be allocated.
+        assertEquals("allocations while decoding " + MEASURED_ROUNDS * keyEvents.length + " keys",
+                MEASURED_ROUNDS * keyEvents.length, Debug.getThreadAllocCount());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard;
+
+import android.test.suitebuilder.annotation.LargeTest;
+import android.text.InputType;
+import android.util.Log;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputMethodSubtype;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Builds every keyboard of every shipped layout from scratch and reports how long that takes.
+ * Building a keyboard parses its XML and resolves the texts its keys refer to, so this is what
+ * the generated KeyboardTextsTable and KeyboardTextsSet affect. Only public APIs that predate
+ * them are used, so that the same test gives the numbers before and after a change to them.
+ * The timings are written to the log.
+ */
+@LargeTest
+public class KeyboardBuildTimingTests extends KeyboardLayoutSetTestsBase {
+    private static final String TAG = KeyboardBuildTimingTests.class.getSimpleName();
+    private static final int[] ELEMENT_IDS = {
+        KeyboardId.ELEMENT_ALPHABET,
+        KeyboardId.ELEMENT_ALPHABET_MANUAL_SHIFTED,
+        KeyboardId.ELEMENT_ALPHABET_AUTOMATIC_SHIFTED,
+        KeyboardId.ELEMENT_ALPHABET_SHIFT_LOCKED,
+        KeyboardId.ELEMENT_ALPHABET_SHIFT_LOCK_SHIFTED,
+        KeyboardId.ELEMENT_SYMBOLS,
+        KeyboardId.ELEMENT_SYMBOLS_SHIFTED,
+        KeyboardId.ELEMENT_PHONE,
+        KeyboardId.ELEMENT_PHONE_SYMBOLS,
+        KeyboardId.ELEMENT_NUMBER,
+    };
+    // The first round loads the resources and warms up the code, and is not reported.
+    private static final int ROUNDS = 4;
+
+    @Override
+    protected int getKeyboardThemeForTests() {
+        return KeyboardTheme.THEME_ID_LXX_LIGHT;
+    }
+
+    public void testBuildAllLayouts() {
+        final EditorInfo editorInfo = new EditorInfo();
+        editorInfo.inputType = InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_VARIATION_NORMAL;
+        final ArrayList<Long> buildTimes = new ArrayList<>();
+        long totalTime = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (final InputMethodSubtype subtype : getAllSubtypesList()) {
+                // Start from an empty cache, so that every keyboard is built again.
+                KeyboardLayoutSet.onKeyboardThemeChanged();
+                final KeyboardLayoutSet layoutSet = createKeyboardLayoutSet(subtype, editorInfo);
+                for (final int elementId : ELEMENT_IDS) {
+                    final long startTime = System.nanoTime();
+                    final Keyboard keyboard = layoutSet.getKeyboard(elementId);
+                    final long buildTime = System.nanoTime() - startTime;
+                    assertNotNull(keyboard);
+                    if (round > 0) {
+                        buildTimes.add(buildTime);
+                        totalTime += buildTime;
+                    }
+                }
+            }
+        }
+        Collections.sort(buildTimes);
+        final int count = buildTimes.size();
+        Log.i(TAG, String.format(Locale.ROOT,
+                "%d keyboard builds: mean %.2f ms, p50 %.2f ms, p90 %.2f ms, max %.2f ms", count,
+                totalTime / 1000000.0 / count, buildTimes.get(count / 2) / 1000000.0,
+                buildTimes.get(count * 9 / 10) / 1000000.0, buildTimes.get(count - 1) / 1000000.0));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard;
+
+import android.test.suitebuilder.annotation.LargeTest;
+import android.text.InputType;
+import android.util.Log;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputMethodSubtype;
+
+import com.android.inputmethod.keyboard.internal.KeyLookupTable;
+import com.android.inputmethod.latin.common.Constants;
+import com.android.inputmethod.latin.utils.SubtypeLocaleUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Checks the key lookup tables of every shipped layout against a scan of the sorted keys, and
+ * reports how long the lookups take with either. The timings are written to the log.
+ */
+@LargeTest
+public class KeyboardKeyLookupTests extends KeyboardLayoutSetTestsBase {
+    private static final String TAG = KeyboardKeyLookupTests.class.getSimpleName();
+    private static final int[] ELEMENT_IDS = {
+        KeyboardId.ELEMENT_ALPHABET,
+        KeyboardId.ELEMENT_ALPHABET_MANUAL_SHIFTED,
+        KeyboardId.ELEMENT_ALPHABET_AUTOMATIC_SHIFTED,
+        KeyboardId.ELEMENT_ALPHABET_SHIFT_LOCKED,
+        KeyboardId.ELEMENT_ALPHABET_SHIFT_LOCK_SHIFTED,
+        KeyboardId.ELEMENT_SYMBOLS,
+        KeyboardId.ELEMENT_SYMBOLS_SHIFTED,
+        KeyboardId.ELEMENT_PHONE,
+        KeyboardId.ELEMENT_PHONE_SYMBOLS,
+        KeyboardId.ELEMENT_NUMBER,
+    };
+    private static final int LOOKUP_ROUNDS = 20;
+
+    private long mScanTime;
+    private long mTableTime;
+    private int mLookupCount;
+
+    @Override
+    protected int getKeyboardThemeForTests() {
+        return KeyboardTheme.THEME_ID_LXX_LIGHT;
+    }
+
+    public void testKeyLookupOfAllLayouts() {
+        final EditorInfo editorInfo = new EditorInfo();
+        editorInfo.inputType = InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_VARIATION_NORMAL;
+        int keyboardCount = 0;
+        for (final InputMethodSubtype subtype : getAllSubtypesList()) {
+            final String tag = SubtypeLocaleUtils.getSubtypeNameForLogging(subtype);
+            final KeyboardLayoutSet layoutSet = createKeyboardLayoutSet(subtype, editorInfo);
+            for (final int elementId : ELEMENT_IDS) {
+                final Keyboard keyboard = layoutSet.getKeyboard(elementId);
+                assertKeyLookup(tag + " " + keyboard.mId, keyboard);
+                measureKeyLookup(keyboard);
+                keyboardCount++;
+            }
+        }
+        Log.i(TAG, String.format(Locale.ROOT,
+                "%d keyboards, %d lookups: scan %.1f ns/lookup, table %.1f ns/lookup",
+                keyboardCount, mLookupCount, (double)mScanTime / mLookupCount,
+                (double)mTableTime / mLookupCount));
+    }
+
+    // This is how Keyboard#getKey() used to look up keys.
+    private static Key scanKey(final List<Key> sortedKeys, final int code) {
+        if (code == Constants.CODE_UNSPECIFIED) {
+            return null;
+        }
+        for (final Key key : sortedKeys) {
+            if (key.getCode() == code) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static int scanKeyIndex(final List<Key> sortedKeys, final Key aKey) {
+        final int size = sortedKeys.size();
+        for (int index = 0; index < size; index++) {
+            if (sortedKeys.get(index) == aKey) {
+                return index;
+            }
+        }
+        return KeyLookupTable.NOT_A_KEY_INDEX;
+    }
+
+    private static void assertKeyLookup(final String tag, final Keyboard keyboard) {
+        final List<Key> sortedKeys = keyboard.getSortedKeys();
+        for (final Key key : sortedKeys) {
+            final int code = key.getCode();
+            assertSame(tag + " code=" + code, scanKey(sortedKeys, code), keyboard.getKey(code));
+            assertEquals(tag + " " + key, scanKeyIndex(sortedKeys, key),
+                    keyboard.getKeyIndex(key));
+            assertTrue(tag + " " + key, keyboard.hasKey(key));
+        }
+        // A key that is equal to a key of the keyboard but not on it.
+        final Key copiedKey = new Key(sortedKeys.get(0));
+        assertFalse(tag, keyboard.hasKey(copiedKey));
+        assertEquals(tag, KeyLookupTable.NOT_A_KEY_INDEX, keyboard.getKeyIndex(copiedKey));
+    }
+
+    private void measureKeyLookup(final Keyboard keyboard) {
+        final List<Key> sortedKeys = keyboard.getSortedKeys();
+        // Accumulate the results so that the lookups cannot be optimized away.
+        int checksum = 0;
+        final long scanStartTime = System.nanoTime();
+        for (int round = 0; round < LOOKUP_ROUNDS; round++) {
+            for (final Key key : sortedKeys) {
+                checksum += (scanKey(sortedKeys, key.getCode()) != null) ? 1 : 0;
+                checksum += scanKeyIndex(sortedKeys, key);
+            }
+        }
+        final long tableStartTime = System.nanoTime();
+        for (int round = 0; round < LOOKUP_ROUNDS; round++) {
+            for (final Key key : sortedKeys) {
+                checksum -= (keyboard.getKey(key.getCode()) != null) ? 1 : 0;
+                checksum -= keyboard.getKeyIndex(key);
+            }
+        }
+        final long endTime = System.nanoTime();
+        assertEquals(keyboard.mId.toString(), 0, checksum);
+        mScanTime += tableStartTime - scanStartTime;
+        mTableTime += endTime - tableStartTime;
+        mLookupCount += LOOKUP_ROUNDS * sortedKeys.size() * 2;
+    }
+}
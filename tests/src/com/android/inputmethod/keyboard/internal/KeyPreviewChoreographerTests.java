@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.provider.Settings;
+import android.widget.FrameLayout;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.filters.MediumTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import com.android.inputmethod.keyboard.Key;
+import com.android.inputmethod.latin.R;
+import com.android.inputmethod.latin.common.CoordinateUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@MediumTest
+@RunWith(AndroidJUnit4.class)
+public class KeyPreviewChoreographerTests {
+    private static final int SHOW_UP_DURATION = 1;
+    // Long enough for the dismissal to still run when the key is pressed again.
+    private static final int DISMISS_DURATION = 10000;
+    // Time for the show up animation to end and the dismiss animation to start.
+    private static final long WAIT_FOR_DISMISSAL_MS = 200;
+    private static final int KEYBOARD_VIEW_WIDTH = 100;
+
+    private Context mContext;
+    private KeyPreviewChoreographer mChoreographer;
+    private FrameLayout mPlacerView;
+    private KeyboardIconsSet mIconsSet;
+    private KeyDrawParams mDrawParams;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = InstrumentationRegistry.getTargetContext();
+        // The dismissal has to be running when the key is pressed again.
+        assumeTrue(Settings.Global.getFloat(mContext.getContentResolver(),
+                Settings.Global.ANIMATOR_DURATION_SCALE, 1.0f) > 0.0f);
+        final TypedArray mainKeyboardViewAttr =
+                mContext.obtainStyledAttributes(null /* set */, R.styleable.MainKeyboardView);
+        final KeyPreviewDrawParams params = new KeyPreviewDrawParams(mainKeyboardViewAttr);
+        mainKeyboardViewAttr.recycle();
+        params.setPopupEnabled(true, DISMISS_DURATION);
+        params.setAnimationParams(true /* hasCustomAnimationParams */,
+                0.5f, 0.5f, SHOW_UP_DURATION, 0.5f, 0.5f, DISMISS_DURATION);
+        mChoreographer = new KeyPreviewChoreographer(params);
+        mIconsSet = new KeyboardIconsSet();
+        mDrawParams = new KeyDrawParams();
+        mDrawParams.mPreviewTextSize = 40;
+        mDrawParams.mLetterSize = 20;
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPlacerView = new FrameLayout(mContext);
+            }
+        });
+    }
+
+    private static void runOnMainSync(final Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+
+    private static Key newKey(final String label, final int x) {
+        return new Key(label, KeyboardIconsSet.ICON_UNDEFINED, label.codePointAt(0),
+                null /* outputText */, null /* hintLabel */, 0 /* labelFlags */,
+                Key.BACKGROUND_TYPE_NORMAL, x, 0 /* y */, 10 /* width */,
+                10 /* height */, 0 /* horizontalGap */, 0 /* verticalGap */);
+    }
+
+    private void showKeyPreview(final Key key, final boolean withAnimation) {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mChoreographer.placeAndShowKeyPreview(key, mIconsSet, mDrawParams,
+                        KEYBOARD_VIEW_WIDTH, CoordinateUtils.newInstance(), mPlacerView,
+                        withAnimation);
+            }
+        });
+    }
+
+    private void dismissKeyPreviewWithAnimation(final Key key) throws InterruptedException {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mChoreographer.dismissKeyPreview(key, true /* withAnimation */);
+            }
+        });
+        Thread.sleep(WAIT_FOR_DISMISSAL_MS);
+    }
+
+    private void assertShowingKeyPreviewsInOwnViews(final Key... keys) {
+        final boolean[] isShowing = new boolean[keys.length];
+        final int[] viewCount = new int[1];
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < keys.length; ++i) {
+                    isShowing[i] = mChoreographer.isShowingKeyPreview(keys[i]);
+                }
+                viewCount[0] = mPlacerView.getChildCount();
+            }
+        });
+        for (int i = 0; i < keys.length; ++i) {
+            assertTrue(keys[i].getLabel(), isShowing[i]);
+        }
+        // A view put back in the free pool while showing would be used by another key, instead
+        // of a new view.
+        assertEquals(keys.length, viewCount[0]);
+    }
+
+    private void doTestShowAgainWhileDismissing(final boolean withAnimation)
+            throws InterruptedException {
+        final Key keyA = newKey("a", 0);
+        final Key keyB = newKey("b", 20);
+        showKeyPreview(keyA, true /* withAnimation */);
+        dismissKeyPreviewWithAnimation(keyA);
+        // The dismissal is still running.
+        assertShowingKeyPreviewsInOwnViews(keyA);
+
+        showKeyPreview(keyA, withAnimation);
+        assertShowingKeyPreviewsInOwnViews(keyA);
+        showKeyPreview(keyB, true /* withAnimation */);
+        assertShowingKeyPreviewsInOwnViews(keyA, keyB);
+    }
+
+    @Test
+    public void testShowAgainWithAnimationWhileDismissing() throws InterruptedException {
+        doTestShowAgainWhileDismissing(true /* withAnimation */);
+    }
+
+    @Test
+    public void testShowAgainWithoutAnimationWhileDismissing() throws InterruptedException {
+        doTestShowAgainWhileDismissing(false /* withAnimation */);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Color;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.filters.SmallTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import com.android.inputmethod.keyboard.Key;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class KeyPreviewViewTests {
+    private KeyPreviewView mKeyPreviewView;
+    private KeyboardIconsSet mIconsSet;
+    private KeyDrawParams mDrawParams;
+
+    @Before
+    public void setUp() throws Exception {
+        mKeyPreviewView = new KeyPreviewView(InstrumentationRegistry.getTargetContext(),
+                null /* attrs */);
+        mIconsSet = new KeyboardIconsSet();
+        mDrawParams = new KeyDrawParams();
+        mDrawParams.mPreviewTextSize = 40;
+        mDrawParams.mLetterSize = 20;
+        mDrawParams.mPreviewTextColor = Color.WHITE;
+    }
+
+    private static Key newKey(final String label) {
+        return new Key(label, KeyboardIconsSet.ICON_UNDEFINED, label.codePointAt(0),
+                null /* outputText */, null /* hintLabel */, 0 /* labelFlags */,
+                Key.BACKGROUND_TYPE_NORMAL, 0 /* x */, 0 /* y */, 10 /* width */,
+                10 /* height */, 0 /* horizontalGap */, 0 /* verticalGap */);
+    }
+
+    @Test
+    public void testSameVisualIsNotSetAgain() {
+        final Key keyA = newKey("a");
+        assertTrue(mKeyPreviewView.setPreviewVisual(keyA, mIconsSet, mDrawParams));
+        assertEquals("a", mKeyPreviewView.getText().toString());
+        assertFalse(mKeyPreviewView.setPreviewVisual(keyA, mIconsSet, mDrawParams));
+        assertSame(keyA, mKeyPreviewView.getPreviewKey());
+
+        // Another key with the same visual, for example on another keyboard.
+        final Key otherKeyA = newKey("a");
+        assertFalse(mKeyPreviewView.setPreviewVisual(otherKeyA, mIconsSet, mDrawParams));
+        assertSame(otherKeyA, mKeyPreviewView.getPreviewKey());
+    }
+
+    @Test
+    public void testChangedVisualIsSet() {
+        final Key keyA = newKey("a");
+        assertTrue(mKeyPreviewView.setPreviewVisual(keyA, mIconsSet, mDrawParams));
+        assertTrue(mKeyPreviewView.setPreviewVisual(newKey("b"), mIconsSet, mDrawParams));
+        assertEquals("b", mKeyPreviewView.getText().toString());
+
+        assertTrue(mKeyPreviewView.setPreviewVisual(keyA, mIconsSet, mDrawParams));
+        mDrawParams.mPreviewTextColor = Color.BLACK;
+        assertTrue(mKeyPreviewView.setPreviewVisual(keyA, mIconsSet, mDrawParams));
+        assertEquals(Color.BLACK, mKeyPreviewView.getCurrentTextColor());
+        mDrawParams.mPreviewTextSize = 50;
+        assertTrue(mKeyPreviewView.setPreviewVisual(keyA, mIconsSet, mDrawParams));
+        assertEquals(50.0f, mKeyPreviewView.getTextSize(), 0.0f);
+    }
+}
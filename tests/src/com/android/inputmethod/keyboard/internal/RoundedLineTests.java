@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.filters.SmallTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class RoundedLineTests {
+    private static final float DELTA = 1.0e-4f;
+
+    @Test
+    public void testGeometryOfSamePoints() {
+        final float[] geometry = new float[RoundedLine.GEOMETRY_SIZE];
+        assertFalse(RoundedLine.computeGeometry(10, 20, 3.0f, 10, 20, 4.0f, geometry, 0));
+    }
+
+    @Test
+    public void testGeometryDependsOnDifferenceOfRadii() {
+        // This is what allows a gesture trail to reuse the geometry of its segments as they
+        // become thinner.
+        final float[] geometry = new float[RoundedLine.GEOMETRY_SIZE * 2];
+        assertTrue(RoundedLine.computeGeometry(10, 20, 3.0f, 40, 60, 4.0f, geometry, 0));
+        assertTrue(RoundedLine.computeGeometry(10, 20, 1.5f, 40, 60, 2.5f, geometry,
+                RoundedLine.GEOMETRY_SIZE));
+        final float[] first = new float[RoundedLine.GEOMETRY_SIZE];
+        final float[] second = new float[RoundedLine.GEOMETRY_SIZE];
+        System.arraycopy(geometry, 0, first, 0, RoundedLine.GEOMETRY_SIZE);
+        System.arraycopy(geometry, RoundedLine.GEOMETRY_SIZE, second, 0,
+                RoundedLine.GEOMETRY_SIZE);
+        assertArrayEquals(first, second, DELTA);
+    }
+
+    @Test
+    public void testGeometryDependsOnDirection() {
+        final float[] geometry = new float[RoundedLine.GEOMETRY_SIZE];
+        final float[] reversed = new float[RoundedLine.GEOMETRY_SIZE];
+        assertTrue(RoundedLine.computeGeometry(10, 20, 3.0f, 40, 60, 3.0f, geometry, 0));
+        assertTrue(RoundedLine.computeGeometry(40, 60, 3.0f, 10, 20, 3.0f, reversed, 0));
+        assertFalse(Math.abs(geometry[0] - reversed[0]) < DELTA);
+    }
+}
@@ -253,6 +253,55 @@ public class BinaryDictionaryTests {
         assertEquals(updatedProbability, binaryDictionary.getFrequency("aaa"));
     }
 
+    @Test
+    public void testGetFrequencies() {
+        final BinaryDictionary binaryDictionary = getEmptyBinaryDictionary(FormatSpec.VERSION403);
+        final int probability = 100;
+        addUnigramWord(binaryDictionary, "aaa", probability);
+        addUnigramWord(binaryDictionary, "abc", probability + 1);
+        addUnigramWord(binaryDictionary, "\uD800\uDC00", probability + 2);
+
+        final String[] words = { "aaa", "", "b", "abc", null, "\uD800\uDC00" };
+        final int[] frequencies = new int[words.length];
+        assertEquals(4, binaryDictionary.getFrequencies(words, frequencies));
+        for (int i = 0; i < words.length; ++i) {
+            assertEquals(binaryDictionary.getFrequency(words[i]), frequencies[i]);
+        }
+
+        final boolean[] isValid = new boolean[words.length];
+        assertEquals(3, binaryDictionary.isValidWords(words, isValid));
+        for (int i = 0; i < words.length; ++i) {
+            assertEquals(binaryDictionary.isValidWord(words[i]), isValid[i]);
+        }
+    }
+
+    @Test
+    public void testGetNgramProbabilities() {
+        final BinaryDictionary binaryDictionary = getEmptyBinaryDictionary(FormatSpec.VERSION403);
+        final int unigramProbability = 100;
+        final int bigramProbability = 150;
+        addUnigramWord(binaryDictionary, "aaa", unigramProbability);
+        addUnigramWord(binaryDictionary, "abb", unigramProbability);
+        addUnigramWord(binaryDictionary, "bcc", unigramProbability);
+        addBigramWords(binaryDictionary, "aaa", "abb", bigramProbability);
+        addBigramWords(binaryDictionary, "aaa", "bcc", bigramProbability + 1);
+
+        final NgramContext ngramContext = new NgramContext(new WordInfo("aaa"));
+        final String[] words = { "abb", "", "bcc", "aaa", null, "xyz" };
+        final int[] probabilities = new int[words.length];
+        assertEquals(4, binaryDictionary.getNgramProbabilities(ngramContext, words,
+                probabilities));
+        for (int i = 0; i < words.length; ++i) {
+            assertEquals(binaryDictionary.getNgramProbability(ngramContext, words[i]),
+                    probabilities[i]);
+        }
+        assertEquals(0, binaryDictionary.getNgramProbabilities(NgramContext.EMPTY_PREV_WORDS_INFO,
+                words, probabilities));
+        for (int i = 0; i < words.length; ++i) {
+            assertEquals(Dictionary.NOT_A_PROBABILITY, probabilities[i]);
+        }
+    }
+
     @Test
     public void testRandomlyAddUnigramWord() {
         final int wordCount = 1000;
@@ -323,6 +323,13 @@ public class InputTestsBase extends ServiceTestCase<LatinIMEForTests> {
     }
 
     protected void gesture(final String stringToGesture) {
+        gestureWithoutWaiting(stringToGesture);
+        sleep(DELAY_TO_WAIT_FOR_GESTURE_MILLIS);
+        runMessages();
+    }
+
+    // Sends the whole gesture to LatinIME, but doesn't wait for the result to be shown.
+    protected void gestureWithoutWaiting(final String stringToGesture) {
         if (StringUtils.codePointCount(stringToGesture) < 2) {
             throw new RuntimeException("Can't gesture strings less than 2 chars long");
         }
@@ -350,8 +357,6 @@ public class InputTestsBase extends ServiceTestCase<LatinIMEForTests> {
             mLatinIME.onUpdateBatchInput(pointers);
         }
         mLatinIME.onEndBatchInput(pointers);
-        sleep(DELAY_TO_WAIT_FOR_GESTURE_MILLIS);
-        runMessages();
     }
 
     protected void waitForDictionariesToBeLoaded() {
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.content.Context;
+import android.os.Debug;
+import android.test.suitebuilder.annotation.LargeTest;
+import android.util.Log;
+
+import androidx.test.InstrumentationRegistry;
+
+import com.android.inputmethod.latin.common.Constants;
+import com.android.inputmethod.latin.tests.R;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Replays the typing traces in res/raw through LatinIME at the pace they were recorded at, and
+ * reports how long each keystroke and gesture took, how long after a keystroke the suggestion
+ * strip was updated, and how much each keystroke allocated on the UI thread. The suggestions
+ * are computed asynchronously as when the user types, so the strip latency includes the update
+ * delay and the time spent on the suggestion thread. The numbers are written to the log; only
+ * the expectations in the traces are checked.
+ */
+@LargeTest
+public class KeystrokeReplayTests extends InputTestsBase {
+    private static final String TAG = KeystrokeReplayTests.class.getSimpleName();
+    // How often the messages are run while the keyboard is idle.
+    private static final int MESSAGE_POLLING_INTERVAL_MILLIS = 5;
+    // How long to wait after the last step for the last suggestions to be shown.
+    private static final int TRACE_END_DELAY_MILLIS = 500;
+    private static final long NO_KEYSTROKE = -1;
+
+    private final ArrayList<Long> mKeystrokeLatencies = new ArrayList<>();
+    private final ArrayList<Long> mSuggestionStripUpdateLatencies = new ArrayList<>();
+    private final ArrayList<Long> mGestureLatencies = new ArrayList<>();
+    private long mAllocationCount;
+    // The start of the last keystroke that the suggestion strip hasn't caught up with yet.
+    private long mPendingKeystrokeTime = NO_KEYSTROKE;
+    private int mSupersededSuggestionStripUpdateCount;
+    private int mKeystrokeIntervalMillis;
+    private long mLastKeystrokeTime = NO_KEYSTROKE;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ((LatinIMEForTests)mLatinIME).setUpdatesSuggestionStripSynchronously(false);
+    }
+
+    public void testReplayTyping() throws IOException {
+        replay("typing", R.raw.keystroke_trace_typing);
+    }
+
+    public void testReplayEditing() throws IOException {
+        replay("editing", R.raw.keystroke_trace_editing);
+    }
+
+    public void testReplayGestures() throws IOException {
+        replay("gestures", R.raw.keystroke_trace_gestures);
+    }
+
+    private void replay(final String name, final int traceResId) throws IOException {
+        final Context testContext = InstrumentationRegistry.getInstrumentation().getContext();
+        final KeystrokeTrace trace = KeystrokeTrace.read(name,
+                testContext.getResources().openRawResource(traceResId));
+        final long traceStartTime = System.nanoTime();
+        for (int i = 0; i < trace.mSteps.size(); ++i) {
+            final KeystrokeTrace.Step step = trace.mSteps.get(i);
+            if (KeystrokeTrace.NO_TIMESTAMP != step.mTimestamp) {
+                runMessagesUntil(traceStartTime + step.mTimestamp * 1000000);
+            }
+            switch (step.mType) {
+            case KeystrokeTrace.STEP_TEXT:
+                for (int j = 0; j < step.mText.length(); j = step.mText.offsetByCodePoints(j, 1)) {
+                    replayKeystroke(step.mText.codePointAt(j), Constants.NOT_A_COORDINATE,
+                            Constants.NOT_A_COORDINATE);
+                }
+                break;
+            case KeystrokeTrace.STEP_KEY:
+                replayKeystroke(step.mValue, step.mX, step.mY);
+                break;
+            case KeystrokeTrace.STEP_GESTURE:
+                supersedePendingKeystroke();
+                final long startTime = System.nanoTime();
+                gestureWithoutWaiting(step.mText);
+                runMessages();
+                mGestureLatencies.add(System.nanoTime() - startTime);
+                break;
+            case KeystrokeTrace.STEP_MOVE:
+                sendUpdateForCursorMoveBy(step.mValue);
+                runMessages();
+                break;
+            case KeystrokeTrace.STEP_WAIT:
+                runMessagesUntil(System.nanoTime() + step.mValue * 1000000L);
+                break;
+            case KeystrokeTrace.STEP_INTERVAL:
+                mKeystrokeIntervalMillis = step.mValue;
+                break;
+            case KeystrokeTrace.STEP_EXPECT:
+                assertEquals(name + " trace, step " + i, step.mText,
+                        mEditText.getText().toString());
+                break;
+            }
+        }
+        runMessagesUntil(System.nanoTime() + TRACE_END_DELAY_MILLIS * 1000000L);
+        Log.i(TAG, "Replayed " + name + " trace: "
+                + getLatencyReport("keystroke", mKeystrokeLatencies)
+                + getLatencyReport("keystroke to suggestion strip",
+                        mSuggestionStripUpdateLatencies)
+                + "\n  suggestion strip updates superseded by a later keystroke = "
+                + mSupersededSuggestionStripUpdateCount
+                + getLatencyReport("gesture", mGestureLatencies)
+                + (mKeystrokeLatencies.isEmpty() ? "" : "\n  allocations per keystroke = "
+                        + mAllocationCount / mKeystrokeLatencies.size())
+                + "\n  " + mLatinIME.mInputLogic.dumpSuggestionRequestStats());
+    }
+
+    // Runs the messages of the UI thread until the given System.nanoTime(), as the keyboard does
+    // while the user is idle, so that the suggestion strip updates happen on time.
+    private void runMessagesUntil(final long endTime) {
+        while (true) {
+            runMessages();
+            recordSuggestionStripUpdate();
+            final long remainingMillis = (endTime - System.nanoTime()) / 1000000;
+            if (remainingMillis <= 0) {
+                return;
+            }
+            sleep((int)Math.min(remainingMillis, MESSAGE_POLLING_INTERVAL_MILLIS));
+        }
+    }
+
+    private void supersedePendingKeystroke() {
+        if (NO_KEYSTROKE != mPendingKeystrokeTime) {
+            ++mSupersededSuggestionStripUpdateCount;
+            mPendingKeystrokeTime = NO_KEYSTROKE;
+        }
+    }
+
+    private void recordSuggestionStripUpdate() {
+        if (NO_KEYSTROKE == mPendingKeystrokeTime) {
+            return;
+        }
+        final long shownTime = ((LatinIMEForTests)mLatinIME).getSuggestionStripShownTime();
+        if (shownTime > mPendingKeystrokeTime) {
+            mSuggestionStripUpdateLatencies.add(shownTime - mPendingKeystrokeTime);
+            mPendingKeystrokeTime = NO_KEYSTROKE;
+        }
+    }
+
+    private void replayKeystroke(final int code, final int x, final int y) {
+        if (NO_KEYSTROKE != mLastKeystrokeTime) {
+            runMessagesUntil(mLastKeystrokeTime + mKeystrokeIntervalMillis * 1000000L);
+        }
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        final long startTime = System.nanoTime();
+        supersedePendingKeystroke();
+        mPendingKeystrokeTime = startTime;
+        mLastKeystrokeTime = startTime;
+        if (Constants.NOT_A_COORDINATE == x) {
+            type(code);
+        } else {
+            mLatinIME.onEvent(LatinIME.createSoftwareKeypressEvent(code, x, y,
+                    false /* isKeyRepeat */));
+        }
+        mKeystrokeLatencies.add(System.nanoTime() - startTime);
+        Debug.stopAllocCounting();
+        mAllocationCount += Debug.getThreadAllocCount();
+        runMessages();
+        recordSuggestionStripUpdate();
+    }
+
+    private static String getLatencyReport(final String name, final ArrayList<Long> latencies) {
+        if (latencies.isEmpty()) {
+            return "";
+        }
+        final ArrayList<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return String.format(Locale.ROOT,
+                "\n  %s (%d): p50 = %.2f ms, p90 = %.2f ms, p99 = %.2f ms, max = %.2f ms", name,
+                sorted.size(), getPercentileMillis(sorted, 50), getPercentileMillis(sorted, 90),
+                getPercentileMillis(sorted, 99), getPercentileMillis(sorted, 100));
+    }
+
+    private static double getPercentileMillis(final ArrayList<Long> sorted, final int percentile) {
+        final int index = Math.max(0, (sorted.size() * percentile + 99) / 100 - 1);
+        return sorted.get(index) / 1000000.0;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import com.android.inputmethod.latin.common.Constants;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * A recorded or synthetic typing session, to be replayed by {@link KeystrokeReplayTests}.
+ *
+ * A trace is a text file with one step per line. Empty lines and lines starting with '#' are
+ * ignored. A step may start with a timestamp, written @&lt;milliseconds&gt; and counted from the
+ * start of the trace: the step is then replayed at that time, the keyboard being idle until
+ * then. Steps without a timestamp are replayed right after the previous one. The steps are:
+ *   text &lt;characters&gt;     types each character at the center of its key
+ *   interval &lt;milliseconds&gt; sets the minimum time between the starts of two keystrokes, for
+ *                           the text and key steps that follow; keystrokes are back to back
+ *                           until it is set
+ *   key &lt;name|code&gt; [x y]  types one key, optionally at the given coordinates; name is one
+ *                           of space, delete or enter
+ *   gesture &lt;word&gt;        gestures the word from key center to key center
+ *   move &lt;offset&gt;         moves the cursor by offset characters
+ *   wait &lt;milliseconds&gt;   leaves the keyboard idle, as a user pausing between keystrokes
+ *   expect &lt;text&gt;         checks the whole text of the editor
+ */
+public final class KeystrokeTrace {
+    public static final int STEP_TEXT = 0;
+    public static final int STEP_KEY = 1;
+    public static final int STEP_GESTURE = 2;
+    public static final int STEP_MOVE = 3;
+    public static final int STEP_WAIT = 4;
+    public static final int STEP_EXPECT = 5;
+    public static final int STEP_INTERVAL = 6;
+
+    public static final long NO_TIMESTAMP = -1;
+
+    public static final class Step {
+        public final int mType;
+        public final String mText;
+        public final int mValue;
+        public final int mX;
+        public final int mY;
+        // When to replay this step in milliseconds from the start of the trace, or NO_TIMESTAMP.
+        public final long mTimestamp;
+
+        Step(final int type, final String text, final int value, final int x, final int y,
+                final long timestamp) {
+            mType = type;
+            mText = text;
+            mValue = value;
+            mX = x;
+            mY = y;
+            mTimestamp = timestamp;
+        }
+    }
+
+    public final String mName;
+    public final ArrayList<Step> mSteps;
+
+    private KeystrokeTrace(final String name, final ArrayList<Step> steps) {
+        mName = name;
+        mSteps = steps;
+    }
+
+    public static KeystrokeTrace read(final String name, final InputStream stream)
+            throws IOException {
+        final ArrayList<Step> steps = new ArrayList<>();
+        try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while (null != (line = reader.readLine())) {
+                ++lineNumber;
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    long timestamp = NO_TIMESTAMP;
+                    if (line.startsWith("@")) {
+                        final int timestampEnd = line.indexOf(' ');
+                        if (timestampEnd < 0) {
+                            throw new IllegalArgumentException("Expected a step after timestamp");
+                        }
+                        timestamp = Long.parseLong(line.substring(1, timestampEnd));
+                        line = line.substring(timestampEnd + 1);
+                    }
+                    final int separator = line.indexOf(' ');
+                    final String command = (separator < 0) ? line : line.substring(0, separator);
+                    final String argument = (separator < 0) ? "" : line.substring(separator + 1);
+                    steps.add(parseStep(command, argument, timestamp));
+                } catch (final IllegalArgumentException e) {
+                    throw new IOException(name + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return new KeystrokeTrace(name, steps);
+    }
+
+    private static Step parseStep(final String command, final String argument,
+            final long timestamp) {
+        switch (command) {
+        case "text":
+            return new Step(STEP_TEXT, argument, 0, Constants.NOT_A_COORDINATE,
+                    Constants.NOT_A_COORDINATE, timestamp);
+        case "key":
+            final String[] fields = argument.split(" ");
+            if (fields.length != 1 && fields.length != 3) {
+                throw new IllegalArgumentException("Expected a key and optional coordinates");
+            }
+            final int code = parseKeyCode(fields[0]);
+            if (fields.length == 1) {
+                return new Step(STEP_KEY, null, code, Constants.NOT_A_COORDINATE,
+                        Constants.NOT_A_COORDINATE, timestamp);
+            }
+            return new Step(STEP_KEY, null, code, Integer.parseInt(fields[1]),
+                    Integer.parseInt(fields[2]), timestamp);
+        case "gesture":
+            return new Step(STEP_GESTURE, argument, 0, Constants.NOT_A_COORDINATE,
+                    Constants.NOT_A_COORDINATE, timestamp);
+        case "move":
+            return new Step(STEP_MOVE, null, Integer.parseInt(argument),
+                    Constants.NOT_A_COORDINATE, Constants.NOT_A_COORDINATE, timestamp);
+        case "wait":
+            return new Step(STEP_WAIT, null, Integer.parseInt(argument),
+                    Constants.NOT_A_COORDINATE, Constants.NOT_A_COORDINATE, timestamp);
+        case "interval":
+            return new Step(STEP_INTERVAL, null, Integer.parseInt(argument),
+                    Constants.NOT_A_COORDINATE, Constants.NOT_A_COORDINATE, timestamp);
+        case "expect":
+            return new Step(STEP_EXPECT, argument, 0, Constants.NOT_A_COORDINATE,
+                    Constants.NOT_A_COORDINATE, timestamp);
+        default:
+            throw new IllegalArgumentException("Unknown step: " + command);
+        }
+    }
+
+    private static int parseKeyCode(final String key) {
+        switch (key) {
+        case "space":
+            return Constants.CODE_SPACE;
+        case "delete":
+            return Constants.CODE_DELETE;
+        case "enter":
+            return Constants.CODE_ENTER;
+        default:
+            return Integer.parseInt(key);
+        }
+    }
+}
@@ -33,4 +33,33 @@ public class LatinIMEForTests extends LatinIME {
     public boolean getDeallocateMemoryWasPerformed() {
         return deallocateMemoryWasPerformed;
     }
+
+    private boolean mUpdatesSuggestionStripSynchronously = true;
+    private long mSuggestionStripShownTime;
+
+    // Most tests check the suggestion strip as soon as the messages have run, so by default wait
+    // for the suggestions instead of having them posted back later.
+    public void setUpdatesSuggestionStripSynchronously(final boolean synchronously) {
+        mUpdatesSuggestionStripSynchronously = synchronously;
+    }
+
+    @Override
+    protected void updateSuggestionStrip(final int inputStyle) {
+        if (mUpdatesSuggestionStripSynchronously) {
+            mInputLogic.performUpdateSuggestionStripSync(mSettings.getCurrent(), inputStyle);
+        } else {
+            super.updateSuggestionStrip(inputStyle);
+        }
+    }
+
+    @Override
+    public void showSuggestionStrip(final SuggestedWords suggestedWords) {
+        super.showSuggestionStrip(suggestedWords);
+        mSuggestionStripShownTime = System.nanoTime();
+    }
+
+    // The System.nanoTime() at which the suggestion strip was last shown, or 0 if never.
+    public long getSuggestionStripShownTime() {
+        return mSuggestionStripShownTime;
+    }
 }
@@ -462,4 +462,59 @@ public class RichInputConnectionAndTextRangeTests {
         ic.resetCachesUponCursorMoveAndReturnSuccess(ims.cursorPos(), ims.cursorPos(), true);
         assertFalse(ic.isCursorTouchingWord(sap, true));
     }
+
+    @Test
+    public void testCachesFollowCursorMoves() {
+        final MockInputMethodService ims = new MockInputMethodService();
+        final RichInputConnection ic = new RichInputConnection(ims);
+
+        ims.setInputConnection(new MockConnection("hello world", 5));
+        ic.resetCachesUponCursorMoveAndReturnSuccess(5, 5, true /* shouldFinishComposition */);
+        assertEquals(" world", ic.getTextAfterCursor(6, 0).toString());
+
+        // From now on, the editor returns garbage for the text after the cursor: the moves below
+        // must be served from the caches.
+        ims.setInputConnection(new MockConnection("hello wo", "XXXXXXXXX", null));
+        ic.updateCachesUponCursorMoveAndReturnSuccess(5, 5, 8, 8);
+        assertEquals("hello wo", ic.getTextBeforeCursor(8, 0).toString());
+        assertEquals("rld", ic.getTextAfterCursor(3, 0).toString());
+        ims.setInputConnection(new MockConnection("he", "XXXXXXXXX", null));
+        ic.updateCachesUponCursorMoveAndReturnSuccess(8, 8, 2, 2);
+        assertEquals("he", ic.getTextBeforeCursor(2, 0).toString());
+        assertEquals("llo world", ic.getTextAfterCursor(9, 0).toString());
+
+        // Finishing the composition always reloads from the editor.
+        ims.setInputConnection(new MockConnection("XXXXXXXXXXXXXXXXXXXXXX", 11));
+        ic.resetCachesUponCursorMoveAndReturnSuccess(11, 11, true /* shouldFinishComposition */);
+        assertEquals("XXXXXXXXXXX", ic.getTextBeforeCursor(11, 0).toString());
+    }
+
+    @Test
+    public void testCachesAreReloadedAfterEditsByTheApp() {
+        final MockInputMethodService ims = new MockInputMethodService();
+        final RichInputConnection ic = new RichInputConnection(ims);
+
+        ims.setInputConnection(new MockConnection("hello world", 5));
+        ic.resetCachesUponCursorMoveAndReturnSuccess(5, 5, true /* shouldFinishComposition */);
+        assertEquals(" world", ic.getTextAfterCursor(6, 0).toString());
+
+        // The app inserts text at the cursor. The editor reports it as a cursor move from the
+        // expected position.
+        ims.setInputConnection(new MockConnection("helloabc world", 8));
+        ic.updateCachesUponCursorMoveAndReturnSuccess(5, 5, 8, 8);
+        assertEquals("helloabc", ic.getTextBeforeCursor(8, 0).toString());
+        assertEquals(" world", ic.getTextAfterCursor(6, 0).toString());
+
+        // The app inserts text before the cursor.
+        ims.setInputConnection(new MockConnection("XXhelloabc world", 10));
+        ic.updateCachesUponCursorMoveAndReturnSuccess(8, 8, 10, 10);
+        assertEquals("XXhelloabc", ic.getTextBeforeCursor(10, 0).toString());
+        assertEquals(" world", ic.getTextAfterCursor(6, 0).toString());
+
+        // The selection was not where we expected it, for example after an undo.
+        ims.setInputConnection(new MockConnection("XXhello world", 5));
+        ic.updateCachesUponCursorMoveAndReturnSuccess(7, 7, 5, 5);
+        assertEquals("XXhel", ic.getTextBeforeCursor(5, 0).toString());
+        assertEquals("lo world", ic.getTextAfterCursor(8, 0).toString());
+    }
 }
@@ -116,6 +116,18 @@ public class SuggestedWordsTests {
         assertEquals(2, infos.size());
     }
 
+    @Test
+    public void testRemoveDupesKeepsFirstOccurrences() {
+        final ArrayList<SuggestedWordInfo> infos =
+                createCorrectionWordInfos("c", "b", "a", "c", "b", "d", "a", "b", "e");
+        assertEquals(1, SuggestedWordInfo.removeDups("b", infos));
+        assertEquals(4, infos.size());
+        assertEquals("c", infos.get(0).mWord);
+        assertEquals("a", infos.get(1).mWord);
+        assertEquals("d", infos.get(2).mWord);
+        assertEquals("e", infos.get(3).mWord);
+    }
+
     @Test
     public void testGetTransformedSuggestedWordInfo() {
         SuggestedWordInfo result = transformWordInfo("word", 0);
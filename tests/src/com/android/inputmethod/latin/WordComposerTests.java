@@ -23,6 +23,8 @@ import static org.junit.Assert.assertTrue;
 import androidx.test.filters.SmallTest;
 import androidx.test.runner.AndroidJUnit4;
 
+import com.android.inputmethod.event.Event;
+import com.android.inputmethod.latin.common.ComposedData;
 import com.android.inputmethod.latin.common.Constants;
 import com.android.inputmethod.latin.common.CoordinateUtils;
 import com.android.inputmethod.latin.common.StringUtils;
@@ -130,4 +132,30 @@ public class WordComposerTests {
         wc.setCursorPositionWithinWord(2);
         assertTrue(wc.moveCursorByAndReturnIfInsideComposingWord(0));
     }
+
+    @Test
+    public void testSnapshotForSuggestionsIsNotAffectedByLaterInput() {
+        final WordComposer wc = new WordComposer();
+        final int[] codePoints = StringUtils.toCodePointArray("Abc");
+        final int[] coordinates = CoordinateUtils.newCoordinateArray(codePoints.length, 10, 20);
+        wc.setComposingWord(codePoints, coordinates);
+        wc.setCapitalizedModeAtStartComposingTime(WordComposer.CAPS_MODE_MANUAL_SHIFTED);
+
+        final WordComposer snapshot = wc.getSnapshotForSuggestions();
+        wc.applyProcessedEvent(wc.processEvent(Event.createSoftwareKeypressEvent('D',
+                Event.NOT_A_KEY_CODE, 30, 40, false /* isKeyRepeat */)));
+        wc.setCapitalizedModeAtStartComposingTime(WordComposer.CAPS_MODE_OFF);
+
+        assertEquals("Abc", snapshot.getTypedWord());
+        assertEquals(3, snapshot.size());
+        assertTrue(snapshot.isComposingWord());
+        assertTrue(snapshot.wasShiftedNoLock());
+        assertTrue(snapshot.isOrWillBeOnlyFirstCharCapitalized());
+        final ComposedData composedData = snapshot.getComposedDataSnapshot();
+        assertEquals("Abc", composedData.mTypedWord);
+        assertEquals(3, composedData.mInputPointers.getPointerSize());
+        assertEquals("AbcD", wc.getTypedWord());
+        assertEquals(4, wc.getInputPointers().getPointerSize());
+        assertEquals(30, wc.getInputPointers().getXCoordinates()[3]);
+    }
 }
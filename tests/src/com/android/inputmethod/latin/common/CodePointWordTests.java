@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.filters.SmallTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class CodePointWordTests {
+    // "a", U+1F600 as a surrogate pair, "b".
+    private static final String SURROGATE_WORD = "a\uD83D\uDE00b";
+
+    @Test
+    public void testFromCharSequence() {
+        final CodePointWord word = CodePointWord.fromCharSequence(SURROGATE_WORD);
+        assertEquals(3, word.length());
+        assertArrayEquals(new int[] { 'a', 0x1F600, 'b' }, word.getCodePoints());
+        assertEquals(SURROGATE_WORD, word.toString());
+        assertSame(CodePointWord.EMPTY, CodePointWord.fromCharSequence(""));
+        assertTrue(CodePointWord.EMPTY.isEmpty());
+    }
+
+    @Test
+    public void testFromCodePoints() {
+        final int[] codePoints = { 'x', 'a', 0x1F600, 'b', 'y' };
+        final CodePointWord word = CodePointWord.fromCodePoints(codePoints, 1, 4);
+        assertEquals(SURROGATE_WORD, word.toString());
+        // The range is copied.
+        codePoints[1] = 'z';
+        assertEquals(SURROGATE_WORD, word.toString());
+        assertSame(CodePointWord.EMPTY, CodePointWord.fromCodePoints(codePoints, 2, 2));
+    }
+
+    @Test
+    public void testEquals() {
+        final CodePointWord word = CodePointWord.fromCharSequence("word");
+        final CodePointWord sameWord =
+                CodePointWord.fromCharSequence(new StringBuilder("wo").append("rd"));
+        assertNotSame(word, sameWord);
+        assertEquals(word, sameWord);
+        assertEquals(word.hashCode(), sameWord.hashCode());
+        assertFalse(word.equals(CodePointWord.fromCharSequence("Word")));
+        assertFalse(word.equals("word"));
+    }
+
+    @Test
+    public void testIntern() {
+        final CodePointWord word = CodePointWord.intern("interned");
+        assertSame(word, CodePointWord.intern(new StringBuilder("interned")));
+        assertEquals(CodePointWord.fromCharSequence("interned"), word);
+        assertSame(CodePointWord.EMPTY, CodePointWord.intern(""));
+    }
+}
@@ -130,6 +130,41 @@ public class InputPointersTests {
         assertSame("times after set", dst.getTimes(), src.getTimes());
     }
 
+    @Test
+    public void testSnapshot() {
+        final InputPointers src = new InputPointers(DEFAULT_CAPACITY);
+        final int limit = 10;
+        for (int i = 0; i < limit; i++) {
+            src.addPointer(i, i * 2, i * 3, i * 4);
+        }
+        final InputPointers snapshot = src.getSnapshot();
+        assertEquals("size of snapshot", limit, snapshot.getPointerSize());
+        assertSame("xCoordinates of snapshot", src.getXCoordinates(),
+                snapshot.getXCoordinates());
+        assertSame("yCoordinates of snapshot", src.getYCoordinates(),
+                snapshot.getYCoordinates());
+        assertSame("pointerIds of snapshot", src.getPointerIds(), snapshot.getPointerIds());
+        assertSame("times of snapshot", src.getTimes(), snapshot.getTimes());
+
+        // Typing another letter appends without copying.
+        final int[] xCoordinates = src.getXCoordinates();
+        src.addPointerAt(limit, -1, -1, -1, -1);
+        assertSame("xCoordinates after append", xCoordinates, src.getXCoordinates());
+        assertEquals("size of snapshot after append", limit, snapshot.getPointerSize());
+
+        // Retyping a letter after a deletion overwrites a pointer the snapshot holds.
+        src.addPointerAt(limit - 1, -2, -2, -2, -2);
+        assertNotSame("xCoordinates after overwrite", xCoordinates, src.getXCoordinates());
+        assertEquals("xCoordinates after overwrite", -2, src.getXCoordinates()[limit - 1]);
+        for (int i = 0; i < limit; i++) {
+            assertEquals("xCoordinates of snapshot at " + i, i, snapshot.getXCoordinates()[i]);
+            assertEquals("yCoordinates of snapshot at " + i, i * 2,
+                    snapshot.getYCoordinates()[i]);
+            assertEquals("pointerIds of snapshot at " + i, i * 3, snapshot.getPointerIds()[i]);
+            assertEquals("times of snapshot at " + i, i * 4, snapshot.getTimes()[i]);
+        }
+    }
+
     @Test
     public void testCopy() {
         final InputPointers src = new InputPointers(DEFAULT_CAPACITY);
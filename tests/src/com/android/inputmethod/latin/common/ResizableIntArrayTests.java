@@ -204,6 +204,120 @@ public class ResizableIntArrayTests {
         assertSame("array after set", dst.getPrimitiveArray(), src.getPrimitiveArray());
     }
 
+    @Test
+    public void testSetAndWrite() {
+        final ResizableIntArray src = new ResizableIntArray(DEFAULT_CAPACITY);
+        for (int i = 0; i < DEFAULT_CAPACITY / 2; i++) {
+            src.add(i);
+        }
+        final ResizableIntArray dst = new ResizableIntArray(DEFAULT_CAPACITY);
+        dst.set(src);
+
+        // Writing a shared element copies the array of the writer only.
+        final int[] array = src.getPrimitiveArray();
+        dst.addAt(0, -1);
+        assertNotSame("array after write to dst", array, dst.getPrimitiveArray());
+        assertSame("array of src after write to dst", array, src.getPrimitiveArray());
+        assertEquals("src value after write to dst", 0, src.get(0));
+        assertEquals("dst value after write to dst", -1, dst.get(0));
+
+        src.addAt(1, -2);
+        assertNotSame("array after write to src", array, src.getPrimitiveArray());
+        assertEquals("src value after write to src", -2, src.get(1));
+        assertEquals("dst value after write to src", 1, dst.get(1));
+    }
+
+    @Test
+    public void testSetAndAppendToBoth() {
+        final ResizableIntArray src = new ResizableIntArray(DEFAULT_CAPACITY);
+        for (int i = 0; i < 3; i++) {
+            src.add(i);
+        }
+        final ResizableIntArray dst = new ResizableIntArray(DEFAULT_CAPACITY);
+        dst.set(src);
+
+        // Both append to the same slot of the shared array.
+        src.add(100);
+        dst.add(200);
+        assertEquals("src value after append to both", 100, src.get(3));
+        assertEquals("dst value after append to both", 200, dst.get(3));
+
+        final ResizableIntArray dst2 = new ResizableIntArray(DEFAULT_CAPACITY);
+        dst2.set(src);
+        dst2.add(300);
+        src.add(400);
+        assertEquals("src value after append to both in reverse order", 400, src.get(4));
+        assertEquals("dst value after append to both in reverse order", 300, dst2.get(4));
+    }
+
+    @Test
+    public void testSnapshotAndAppendToBoth() {
+        final ResizableIntArray live = new ResizableIntArray(DEFAULT_CAPACITY);
+        for (int i = 0; i < 3; i++) {
+            live.add(i);
+        }
+        final ResizableIntArray snapshot = live.getSnapshot();
+        snapshot.add(7);
+        live.add(9);
+        assertEquals("snapshot value after append to both", 7, snapshot.get(3));
+        assertEquals("value after append to both", 9, live.get(3));
+
+        final ResizableIntArray snapshot2 = live.getSnapshot();
+        final int[] array = live.getPrimitiveArray();
+        live.add(10);
+        assertSame("array after append", array, live.getPrimitiveArray());
+        snapshot2.setLength(live.getLength());
+        live.addAt(live.getLength(), 11);
+        snapshot2.add(12);
+        assertEquals("value of snapshot made longer", 10, snapshot2.get(4));
+        assertEquals("value after append to both", 11, live.get(5));
+        assertEquals("snapshot value after append to both", 12, snapshot2.get(5));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final ResizableIntArray src = new ResizableIntArray(DEFAULT_CAPACITY);
+        final int length = DEFAULT_CAPACITY / 2;
+        for (int i = 0; i < length; i++) {
+            src.add(i);
+        }
+        final int[] array = src.getPrimitiveArray();
+        final ResizableIntArray snapshot = src.getSnapshot();
+        assertEquals("length of snapshot", length, snapshot.getLength());
+        assertSame("array of snapshot", array, snapshot.getPrimitiveArray());
+
+        // Appending doesn't touch the shared elements, so nothing is copied.
+        src.add(length);
+        src.append(snapshot, 0, 2);
+        src.fill(-1, length + 3, 2);
+        assertSame("array after append", array, src.getPrimitiveArray());
+        assertEquals("length of snapshot after append", length, snapshot.getLength());
+
+        // Overwriting an element does copy.
+        src.addAt(length - 1, -2);
+        assertNotSame("array after overwrite", array, src.getPrimitiveArray());
+        assertEquals("value after overwrite", -2, src.get(length - 1));
+        for (int i = 0; i < length; i++) {
+            assertEquals("value of snapshot at " + i, i, snapshot.get(i));
+        }
+
+        // So do the other writes to the shared elements.
+        final ResizableIntArray snapshot2 = src.getSnapshot();
+        src.shift(1);
+        assertEquals("value of snapshot after shift", 0, snapshot2.get(0));
+        final ResizableIntArray snapshot3 = src.getSnapshot();
+        src.setLength(1);
+        src.add(-3);
+        assertEquals("value of snapshot after shrink and add", 2, snapshot3.get(1));
+        final ResizableIntArray snapshot4 = src.getSnapshot();
+        src.fill(-4, 0, 1);
+        assertEquals("value of snapshot after fill", 1, snapshot4.get(0));
+        final ResizableIntArray snapshot5 = src.getSnapshot();
+        src.copy(snapshot);
+        assertEquals("value of snapshot after copy", -4, snapshot5.get(0));
+        assertEquals("value after copy", 0, src.get(0));
+    }
+
     @Test
     public void testCopy() {
         final ResizableIntArray src = new ResizableIntArray(DEFAULT_CAPACITY);
@@ -26,6 +26,8 @@ import androidx.test.runner.AndroidJUnit4;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Locale;
 
 @SmallTest
@@ -498,4 +500,12 @@ public class StringUtilsTests {
         assertEquals(1, StringUtils.getTrailingSingleQuotesCount("'word'"));
         assertEquals(0, StringUtils.getTrailingSingleQuotesCount("I'm"));
     }
+
+    @Test
+    public void testRemoveDupes() {
+        final ArrayList<String> strings = new ArrayList<>(Arrays.asList(
+                "b", "a", "b", null, "c", "a", null, "d", "c"));
+        StringUtils.removeDupes(strings);
+        assertEquals(Arrays.asList("b", "a", null, "c", "d"), strings);
+    }
 }
@@ -16,16 +16,24 @@
 
 package com.android.inputmethod.latin.personalization;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import android.content.Context;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.test.InstrumentationRegistry;
 import androidx.test.filters.LargeTest;
 import androidx.test.runner.AndroidJUnit4;
 
+import com.android.inputmethod.latin.DictionaryStats;
 import com.android.inputmethod.latin.ExpandableBinaryDictionary;
+import com.android.inputmethod.latin.ExpandableBinaryDictionary.MaintenanceCallback;
+import com.android.inputmethod.latin.ExpandableBinaryDictionary.MaintenanceResult;
+import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.utils.AsyncResultHolder;
 import com.android.inputmethod.latin.utils.BinaryDictionaryUtils;
 
 import org.junit.After;
@@ -37,6 +45,8 @@ import java.io.File;
 import java.util.Locale;
 import java.util.Random;
 
+import javax.annotation.Nonnull;
+
 /**
  * Unit tests for UserHistoryDictionary
  */
@@ -229,4 +239,78 @@ public class UserHistoryDictionaryTests {
                 numberOfWords, random, true /* checksContents */, mCurrentTime));
         assertDictionaryExists(dict, dictFile);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGCWithoutBlocking() {
+        final Locale dummyLocale = UserHistoryDictionaryTestsHelper.getDummyLocale("gc");
+        final String dictName = UserHistoryDictionary.getUserHistoryDictName(
+                UserHistoryDictionary.NAME, dummyLocale, null /* dictFile */, TEST_ACCOUNT);
+        final File dictFile = ExpandableBinaryDictionary.getDictFile(
+                getContext(), dictName, null /* dictFile */);
+        final UserHistoryDictionary dict = PersonalizationHelper.getUserHistoryDictionary(
+                getContext(), dummyLocale, TEST_ACCOUNT);
+        clearHistory(dict);
+        // Adding this many words makes the dictionary run GC while the words are added.
+        assertTrue(UserHistoryDictionaryTestsHelper.addAndWriteRandomWords(dict,
+                10000 /* numberOfWords */, new Random(123456), true /* checksContents */,
+                mCurrentTime));
+        dict.reloadDictionaryIfRequired();
+        dict.runGCIfRequired(false /* mindsBlockByGC */);
+        assertDictionaryExists(dict, dictFile);
+        // The copy the GC ran on has been moved into place.
+        assertFalse(new File(dictFile.getParentFile(), dictFile.getName() + ".gc").exists());
+        // So has the dictionary it replaced been deleted.
+        assertFalse(new File(dictFile.getParentFile(), dictFile.getName() + ".old").exists());
+        final DictionaryStats stats = dict.getDictionaryStats();
+        assertNotNull(stats);
+        assertNotNull(stats.mGcPauseHistogram);
+    }
+
+    private static MaintenanceResult runMaintenance(final UserHistoryDictionary dict,
+            final long deadlineUptimeMillis) {
+        final AsyncResultHolder<MaintenanceResult> result =
+                new AsyncResultHolder<>("MaintenanceResult");
+        dict.asyncRunMaintenance(deadlineUptimeMillis, new MaintenanceCallback() {
+            @Override
+            public void onFinished(@Nonnull final MaintenanceResult maintenanceResult) {
+                result.set(maintenanceResult);
+            }
+        });
+        return result.get(null /* defaultValue */, WAIT_FOR_WRITING_FILE_IN_MILLISECONDS);
+    }
+
+    @Test
+    public void testRunMaintenance() {
+        final Locale dummyLocale = UserHistoryDictionaryTestsHelper.getDummyLocale("maintenance");
+        final String dictName = UserHistoryDictionary.getUserHistoryDictName(
+                UserHistoryDictionary.NAME, dummyLocale, null /* dictFile */, TEST_ACCOUNT);
+        final File dictFile = ExpandableBinaryDictionary.getDictFile(
+                getContext(), dictName, null /* dictFile */);
+        final UserHistoryDictionary dict = PersonalizationHelper.getUserHistoryDictionary(
+                getContext(), dummyLocale, TEST_ACCOUNT);
+        clearHistory(dict);
+        UserHistoryDictionary.addToDictionary(dict, NgramContext.EMPTY_PREV_WORDS_INFO, "word",
+                true /* isValid */, mCurrentTime);
+        dict.waitAllTasksForTests();
+
+        final MaintenanceResult result = runMaintenance(dict, SystemClock.uptimeMillis() + 60000);
+        assertNotNull(result);
+        assertFalse(result.mSkipped);
+        // The added word has been written one way or the other.
+        assertTrue(result.mRanGC || result.mFlushed);
+        assertDictionaryExists(dict, dictFile);
+
+        // Nothing has changed since, so there is neither GC nor flush to report.
+        final MaintenanceResult idleResult =
+                runMaintenance(dict, SystemClock.uptimeMillis() + 60000);
+        assertNotNull(idleResult);
+        assertFalse(idleResult.mSkipped);
+        assertFalse(idleResult.mRanGC || idleResult.mFlushed);
+
+        final MaintenanceResult lateResult =
+                runMaintenance(dict, SystemClock.uptimeMillis() - 1 /* deadlineUptimeMillis */);
+        assertNotNull(lateResult);
+        assertTrue(lateResult.mSkipped);
+        assertFalse(lateResult.mRanGC || lateResult.mFlushed);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.settings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.view.inputmethod.EditorInfo;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.filters.SmallTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import com.android.inputmethod.latin.InputAttributes;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class SettingsValuesTests {
+    private Settings mSettings;
+    private InputAttributes mInputAttributes;
+
+    private Context getContext() {
+        return InstrumentationRegistry.getTargetContext();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Settings.init(getContext());
+        mSettings = Settings.getInstance();
+        mInputAttributes = new InputAttributes(new EditorInfo(), false /* isFullscreenMode */,
+                getContext().getPackageName());
+    }
+
+    private SettingsValues loadSettings(final Locale locale) {
+        mSettings.loadSettings(getContext(), locale, mInputAttributes);
+        return mSettings.getCurrent();
+    }
+
+    @Test
+    public void testResourceValuesAreSharedForSameLocale() {
+        final SettingsValues first = loadSettings(Locale.US);
+        final SettingsValues second = loadSettings(Locale.US);
+        assertNotSame(first, second);
+        assertSame(first.mSpacingAndPunctuations, second.mSpacingAndPunctuations);
+        assertEquals(first.mAutoCorrectionThreshold, second.mAutoCorrectionThreshold, 0.0f);
+        assertEquals(first.mDoubleSpacePeriodTimeout, second.mDoubleSpacePeriodTimeout);
+    }
+
+    @Test
+    public void testResourceValuesAreReadInLocale() {
+        final SettingsValues english = loadSettings(Locale.US);
+        final SettingsValues french = loadSettings(Locale.FRENCH);
+        assertEquals(Locale.US, english.mLocale);
+        assertEquals(Locale.FRENCH, french.mLocale);
+        assertFalse("Exclamation", english.isUsuallyPrecededBySpace('!'));
+        assertTrue("Exclamation", french.isUsuallyPrecededBySpace('!'));
+        // Reading the resources of another locale does not evict those of the first one.
+        assertSame(english.mSpacingAndPunctuations,
+                loadSettings(Locale.US).mSpacingAndPunctuations);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.benchmark;
+
+/**
+ * A single operation measured by {@link BenchmarkRunner}.
+ */
+public abstract class Benchmark {
+    private final String mName;
+
+    protected Benchmark(final String name) {
+        mName = name;
+    }
+
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * Prepares the inputs of the operation. Called once before warming up, and not measured.
+     */
+    public void setUp() {
+    }
+
+    /**
+     * Runs the operation once.
+     *
+     * @param iteration the index of this run, to be used to cycle through the inputs.
+     * @return a value depending on the result of the operation, so that the JIT can't remove it.
+     */
+    public abstract int run(final int iteration);
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Runs a {@link Benchmark} on the host JVM and reports the time and the memory allocated per
+ * operation.
+ */
+public final class BenchmarkRunner {
+    private static final int WARMUP_ITERATIONS = 200000;
+    private static final int MEASUREMENT_ITERATIONS = 1000000;
+    private static final int MEASUREMENT_ROUNDS = 5;
+    public static final double NOT_AVAILABLE = -1.0;
+
+    // Result sink so that the JIT can't prove the benchmarked operations are dead code.
+    private static volatile int sSink;
+
+    public static final class Result {
+        public final String mName;
+        public final double mNanosPerOp;
+        public final double mBytesPerOp;
+
+        public Result(final String name, final double nanosPerOp, final double bytesPerOp) {
+            mName = name;
+            mNanosPerOp = nanosPerOp;
+            mBytesPerOp = bytesPerOp;
+        }
+    }
+
+    private BenchmarkRunner() {
+        // This utility class is not publicly instantiable.
+    }
+
+    public static Result run(final Benchmark benchmark) {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        final com.sun.management.ThreadMXBean allocationMXBean =
+                (threadMXBean instanceof com.sun.management.ThreadMXBean)
+                        ? (com.sun.management.ThreadMXBean)threadMXBean : null;
+        final long threadId = Thread.currentThread().getId();
+
+        benchmark.setUp();
+        sSink += runIterations(benchmark, WARMUP_ITERATIONS);
+        final double[] nanosPerOp = new double[MEASUREMENT_ROUNDS];
+        final double[] bytesPerOp = new double[MEASUREMENT_ROUNDS];
+        for (int round = 0; round < MEASUREMENT_ROUNDS; ++round) {
+            final long startBytes = (allocationMXBean == null) ? 0
+                    : allocationMXBean.getThreadAllocatedBytes(threadId);
+            final long startNanos = System.nanoTime();
+            sSink += runIterations(benchmark, MEASUREMENT_ITERATIONS);
+            final long elapsedNanos = System.nanoTime() - startNanos;
+            final long allocatedBytes = (allocationMXBean == null) ? 0
+                    : allocationMXBean.getThreadAllocatedBytes(threadId) - startBytes;
+            nanosPerOp[round] = (double)elapsedNanos / MEASUREMENT_ITERATIONS;
+            bytesPerOp[round] = (double)allocatedBytes / MEASUREMENT_ITERATIONS;
+        }
+        return new Result(benchmark.getName(), median(nanosPerOp),
+                (allocationMXBean == null) ? NOT_AVAILABLE : median(bytesPerOp));
+    }
+
+    private static int runIterations(final Benchmark benchmark, final int iterations) {
+        int result = 0;
+        for (int i = 0; i < iterations; ++i) {
+            result += benchmark.run(i);
+        }
+        return result;
+    }
+
+    private static double median(final double[] values) {
+        final double[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
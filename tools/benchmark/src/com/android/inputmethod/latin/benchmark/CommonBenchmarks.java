@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.benchmark;
+
+import com.android.inputmethod.latin.common.CodePointUtils;
+import com.android.inputmethod.latin.common.CodePointWord;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.common.ResizableIntArray;
+import com.android.inputmethod.latin.common.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Host-side benchmarks for the latinime-common utilities used on every keystroke.
+ *
+ * Usage: latinime-common-benchmark [--baseline <file>] [--write-baseline <file>] [names...]
+ *
+ * With --baseline, each result is compared to the baseline and the command exits with a
+ * non-zero status if any benchmark regressed. The baseline used for review is checked in as
+ * tools/benchmark/common-baseline.txt.
+ */
+public final class CommonBenchmarks {
+    // Timings are noisy, so only flag a regression when it is well above the baseline.
+    private static final double TIME_REGRESSION_RATIO = 1.25;
+    // Allocations are deterministic, so any increase is a regression.
+    private static final double ALLOCATION_REGRESSION_BYTES = 0.5;
+
+    private static final int WORD_COUNT = 1024;
+    private static final int WORD_MASK = WORD_COUNT - 1;
+    private static final int PREV_WORD_MASK = 32 - 1;
+    private static final int GESTURE_POINTER_COUNT = 256;
+    private static final long RANDOM_SEED = 1234567890L;
+
+    private static final String[] sWords = new String[WORD_COUNT];
+
+    static {
+        final Random random = new Random(RANDOM_SEED);
+        for (int i = 0; i < WORD_COUNT; ++i) {
+            final String word = CodePointUtils.generateWord(random,
+                    CodePointUtils.LATIN_ALPHABETS_LOWER);
+            switch (i % 3) {
+            case 0:
+                sWords[i] = word;
+                break;
+            case 1:
+                sWords[i] = StringUtils.capitalizeFirstCodePoint(word, Locale.ENGLISH);
+                break;
+            default:
+                sWords[i] = word.toUpperCase(Locale.ENGLISH);
+                break;
+            }
+        }
+    }
+
+    private CommonBenchmarks() {
+        // This class is not publicly instantiable.
+    }
+
+    private static ArrayList<Benchmark> getBenchmarks() {
+        final ArrayList<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.add(new Benchmark("StringUtils.getCapitalizationType") {
+            @Override
+            public int run(final int iteration) {
+                return StringUtils.getCapitalizationType(sWords[iteration & WORD_MASK]);
+            }
+        });
+        benchmarks.add(new Benchmark("StringUtils.toCodePointArray") {
+            @Override
+            public int run(final int iteration) {
+                return StringUtils.toCodePointArray(sWords[iteration & WORD_MASK]).length;
+            }
+        });
+        benchmarks.add(new Benchmark("CodePointWord.intern") {
+            @Override
+            public int run(final int iteration) {
+                // The previous words of an n-gram context are the same few words for all the
+                // keystrokes of a word, so they come out of the intern table.
+                return CodePointWord.intern(sWords[iteration & PREV_WORD_MASK]).length();
+            }
+        });
+        benchmarks.add(new Benchmark("CodePointWord.fromCharSequence") {
+            @Override
+            public int run(final int iteration) {
+                return CodePointWord.fromCharSequence(sWords[iteration & WORD_MASK]).length();
+            }
+        });
+        benchmarks.add(new Benchmark("StringUtils.copyCodePointsAndReturnCodePointCount") {
+            private final int[] mDestination = new int[64];
+
+            @Override
+            public int run(final int iteration) {
+                final String word = sWords[iteration & WORD_MASK];
+                return StringUtils.copyCodePointsAndReturnCodePointCount(mDestination, word,
+                        0 /* startIndex */, word.length(), true /* downCase */);
+            }
+        });
+        benchmarks.add(new Benchmark("InputPointers.append") {
+            private final InputPointers mInputPointers = new InputPointers(GESTURE_POINTER_COUNT);
+            private final ResizableIntArray mTimes = new ResizableIntArray(GESTURE_POINTER_COUNT);
+            private final ResizableIntArray mXCoordinates =
+                    new ResizableIntArray(GESTURE_POINTER_COUNT);
+            private final ResizableIntArray mYCoordinates =
+                    new ResizableIntArray(GESTURE_POINTER_COUNT);
+
+            @Override
+            public void setUp() {
+                for (int i = 0; i < GESTURE_POINTER_COUNT; ++i) {
+                    mTimes.add(i * 16);
+                    mXCoordinates.add(i * 3);
+                    mYCoordinates.add(i * 2);
+                }
+            }
+
+            @Override
+            public int run(final int iteration) {
+                // Appends a gesture fragment of 16 pointers, as the batch input does on each
+                // update, and starts a new gesture once the default capacity is reached.
+                if (mInputPointers.getPointerSize() >= GESTURE_POINTER_COUNT) {
+                    mInputPointers.reset();
+                }
+                mInputPointers.append(0 /* pointerId */, mTimes, mXCoordinates, mYCoordinates,
+                        (iteration * 16) & (GESTURE_POINTER_COUNT - 1), 16 /* length */);
+                return mInputPointers.getPointerSize();
+            }
+        });
+        benchmarks.add(new Benchmark("InputPointers.set") {
+            private final InputPointers mSource = new InputPointers(GESTURE_POINTER_COUNT);
+            private final InputPointers mDestination = new InputPointers(GESTURE_POINTER_COUNT);
+
+            @Override
+            public void setUp() {
+                for (int i = 0; i < GESTURE_POINTER_COUNT; ++i) {
+                    mSource.addPointer(i * 3, i * 2, 0 /* pointerId */, i * 16);
+                }
+            }
+
+            @Override
+            public int run(final int iteration) {
+                mDestination.set(mSource);
+                return mDestination.getPointerSize();
+            }
+        });
+        benchmarks.add(new Benchmark("ResizableIntArray.add") {
+            @Override
+            public int run(final int iteration) {
+                // Grows from a small capacity to the size of a long gesture.
+                final ResizableIntArray array = new ResizableIntArray(8);
+                for (int i = 0; i < GESTURE_POINTER_COUNT; ++i) {
+                    array.add(i);
+                }
+                return array.getLength();
+            }
+        });
+        return benchmarks;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        String baselineFilename = null;
+        String outputBaselineFilename = null;
+        final ArrayList<String> names = new ArrayList<>();
+        for (int i = 0; i < args.length; ++i) {
+            if ("--baseline".equals(args[i]) && i + 1 < args.length) {
+                baselineFilename = args[++i];
+            } else if ("--write-baseline".equals(args[i]) && i + 1 < args.length) {
+                outputBaselineFilename = args[++i];
+            } else if (args[i].startsWith("-")) {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            } else {
+                names.add(args[i]);
+            }
+        }
+        final HashMap<String, BenchmarkRunner.Result> baseline = (null == baselineFilename)
+                ? new HashMap<String, BenchmarkRunner.Result>() : readBaseline(baselineFilename);
+        final ArrayList<BenchmarkRunner.Result> results = new ArrayList<>();
+        boolean hasRegression = false;
+        for (final Benchmark benchmark : getBenchmarks()) {
+            if (!names.isEmpty() && !names.contains(benchmark.getName())) {
+                continue;
+            }
+            final BenchmarkRunner.Result result = BenchmarkRunner.run(benchmark);
+            results.add(result);
+            final BenchmarkRunner.Result base = baseline.get(result.mName);
+            final boolean isRegression = isRegression(result, base);
+            hasRegression |= isRegression;
+            System.out.println(String.format(Locale.ROOT, "%-52s %10.2f ns/op %10.2f B/op%s",
+                    result.mName, result.mNanosPerOp, result.mBytesPerOp,
+                    (null == base) ? "" : String.format(Locale.ROOT,
+                            "  (baseline %.2f ns/op %.2f B/op)%s", base.mNanosPerOp,
+                            base.mBytesPerOp, isRegression ? " REGRESSION" : "")));
+        }
+        if (null != outputBaselineFilename) {
+            writeBaseline(outputBaselineFilename, results);
+        }
+        if (hasRegression) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean isRegression(final BenchmarkRunner.Result result,
+            final BenchmarkRunner.Result base) {
+        if (null == base) {
+            return false;
+        }
+        if (result.mNanosPerOp > base.mNanosPerOp * TIME_REGRESSION_RATIO) {
+            return true;
+        }
+        return result.mBytesPerOp != BenchmarkRunner.NOT_AVAILABLE
+                && base.mBytesPerOp != BenchmarkRunner.NOT_AVAILABLE
+                && result.mBytesPerOp > base.mBytesPerOp + ALLOCATION_REGRESSION_BYTES;
+    }
+
+    // The baseline has one benchmark per line: name, ns/op and bytes/op separated by spaces.
+    // Lines starting with '#' are comments.
+    private static HashMap<String, BenchmarkRunner.Result> readBaseline(final String filename)
+            throws IOException {
+        final HashMap<String, BenchmarkRunner.Result> baseline = new HashMap<>();
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(new File(filename)), StandardCharsets.UTF_8))) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final String[] fields = line.split("\\s+");
+                if (fields.length != 3) {
+                    throw new IOException("Malformed baseline line: " + line);
+                }
+                baseline.put(fields[0], new BenchmarkRunner.Result(fields[0],
+                        Double.parseDouble(fields[1]), Double.parseDouble(fields[2])));
+            }
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(final String filename,
+            final ArrayList<BenchmarkRunner.Result> results) throws IOException {
+        try (final PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(new File(filename)), StandardCharsets.UTF_8))) {
+            writer.println("# name ns/op bytes/op");
+            writer.println("# Generated by latinime-common-benchmark --write-baseline");
+            for (final BenchmarkRunner.Result result : results) {
+                writer.println(String.format(Locale.ROOT, "%s %.2f %.2f", result.mName,
+                        result.mNanosPerOp, result.mBytesPerOp));
+            }
+        }
+    }
+}
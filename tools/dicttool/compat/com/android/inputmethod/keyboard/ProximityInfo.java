@@ -16,8 +16,87 @@
 
 package com.android.inputmethod.keyboard;
 
+import com.android.inputmethod.latin.common.Constants;
+import com.android.inputmethod.latin.utils.JniUtils;
+
+import java.util.Arrays;
+
 public class ProximityInfo {
-    public long getNativeProximityInfo() { return 0l; }
+    // Must be equal to MAX_PROXIMITY_CHARS_SIZE in native/jni/src/defines.h
+    public static final int MAX_PROXIMITY_CHARS_SIZE = 16;
+    /** Number of key widths from current touch point to search for nearest keys. */
+    private static final float SEARCH_DISTANCE = 1.2f;
+
+    private long mNativeProximityInfo;
+
+    static {
+        JniUtils.loadNativeLibrary();
+    }
+
+    public ProximityInfo() {
+        mNativeProximityInfo = 0;
+    }
+
+    /**
+     * Builds the native proximity info of a keyboard made of the specified keys. As on the
+     * device, each cell of the grid lists the keys that are within SEARCH_DISTANCE most common
+     * key widths of its center. Touch position correction is not used.
+     */
+    public ProximityInfo(final int gridWidth, final int gridHeight, final int width,
+            final int height, final int mostCommonKeyWidth, final int mostCommonKeyHeight,
+            final int[] keyXCoordinates, final int[] keyYCoordinates, final int[] keyWidths,
+            final int[] keyHeights, final int[] keyCharCodes) {
+        final int gridSize = gridWidth * gridHeight;
+        final int cellWidth = (width + gridWidth - 1) / gridWidth;
+        final int cellHeight = (height + gridHeight - 1) / gridHeight;
+        final int threshold = (int) (mostCommonKeyWidth * SEARCH_DISTANCE);
+        final int thresholdSquared = threshold * threshold;
+        final int keyCount = keyCharCodes.length;
+        final int[] proximityCharsArray = new int[gridSize * MAX_PROXIMITY_CHARS_SIZE];
+        Arrays.fill(proximityCharsArray, Constants.NOT_A_CODE);
+        for (int i = 0; i < gridSize; ++i) {
+            final int centerX = (i % gridWidth) * cellWidth + cellWidth / 2;
+            final int centerY = (i / gridWidth) * cellHeight + cellHeight / 2;
+            int infoIndex = i * MAX_PROXIMITY_CHARS_SIZE;
+            final int infoEnd = infoIndex + MAX_PROXIMITY_CHARS_SIZE;
+            for (int j = 0; j < keyCount && infoIndex < infoEnd; ++j) {
+                if (squaredDistanceToEdge(keyXCoordinates[j], keyYCoordinates[j], keyWidths[j],
+                        keyHeights[j], centerX, centerY) < thresholdSquared) {
+                    proximityCharsArray[infoIndex] = keyCharCodes[j];
+                    ++infoIndex;
+                }
+            }
+        }
+        mNativeProximityInfo = setProximityInfoNative(width, height, gridWidth, gridHeight,
+                mostCommonKeyWidth, mostCommonKeyHeight, proximityCharsArray, keyCount,
+                keyXCoordinates, keyYCoordinates, keyWidths, keyHeights, keyCharCodes,
+                null /* sweetSpotCenterXs */, null /* sweetSpotCenterYs */,
+                null /* sweetSpotRadii */);
+    }
+
+    // Same as Key#squaredDistanceToEdge.
+    private static int squaredDistanceToEdge(final int left, final int top, final int width,
+            final int height, final int x, final int y) {
+        final int right = left + width;
+        final int bottom = top + height;
+        final int edgeX = x < left ? left : (x > right ? right : x);
+        final int edgeY = y < top ? top : (y > bottom ? bottom : y);
+        final int dx = x - edgeX;
+        final int dy = y - edgeY;
+        return dx * dx + dy * dy;
+    }
+
+    public long getNativeProximityInfo() {
+        return mNativeProximityInfo;
+    }
+
+    public void close() {
+        if (mNativeProximityInfo != 0) {
+            releaseProximityInfoNative(mNativeProximityInfo);
+            mNativeProximityInfo = 0;
+        }
+    }
+
     private static native long setProximityInfoNative(int displayWidth, int displayHeight,
             int gridWidth, int gridHeight, int mostCommonKeyWidth, int mostCommonKeyHeight,
             int[] proximityCharsArray, int keyCount, int[] keyXCoordinates, int[] keyYCoordinates,
@@ -0,0 +1,346 @@
+/**
+ * Copyright (C) 2018 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.android.inputmethod.latin.dicttool;
+
+import com.android.inputmethod.keyboard.ProximityInfo;
+import com.android.inputmethod.latin.BinaryDictionary;
+import com.android.inputmethod.latin.Dictionary;
+import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.NgramContext.WordInfo;
+import com.android.inputmethod.latin.common.ComposedData;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.makedict.WordProperty;
+import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
+import com.android.inputmethod.latin.utils.JniUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Dicttool command measuring the suggestion throughput of a binary dictionary.
+ *
+ * Typing and gesture traces are synthesized for words of the dictionary on a QWERTY layout, and
+ * run through BinaryDictionary#getSuggestions from several threads, each with its own
+ * traverse session.
+ */
+public class Bench extends Dicttool.Command {
+    public static final String COMMAND = "bench";
+
+    private static final int DEFAULT_THREAD_COUNT = 1;
+    private static final int DEFAULT_QUERY_COUNT = 10000;
+    private static final int WARMUP_QUERY_COUNT_PER_THREAD = 100;
+    // Only the most probable words are typed, as users mostly do.
+    private static final int MAX_WORD_COUNT = 5000;
+
+    // Geometry of the synthetic keyboard, close to a phone in portrait.
+    private static final String[] ROWS = { "qwertyuiop", "asdfghjkl", "zxcvbnm" };
+    private static final int KEY_WIDTH = 108;
+    private static final int KEY_HEIGHT = 160;
+    private static final int KEYBOARD_WIDTH = KEY_WIDTH * ROWS[0].length();
+    private static final int KEYBOARD_HEIGHT = KEY_HEIGHT * ROWS.length;
+    // Same as config_keyboard_grid_width and config_keyboard_grid_height.
+    private static final int GRID_WIDTH = 32;
+    private static final int GRID_HEIGHT = 16;
+    // Standard deviation of the taps around the key centers, in key widths.
+    private static final float TAP_DEVIATION = 0.25f;
+    private static final int TAP_INTERVAL_MILLIS = 150;
+    private static final int GESTURE_STEPS_PER_KEY = 5;
+    private static final int GESTURE_STEP_INTERVAL_MILLIS = 20;
+
+    private final int[] mKeyXCoordinates = new int[26];
+    private final int[] mKeyYCoordinates = new int[26];
+    private final int[] mKeyCodes = new int[26];
+
+    public Bench() {
+        int keyIndex = 0;
+        for (int row = 0; row < ROWS.length; ++row) {
+            // Rows are centered, as the second and third rows of a QWERTY layout.
+            final int left = (KEYBOARD_WIDTH - ROWS[row].length() * KEY_WIDTH) / 2;
+            for (int column = 0; column < ROWS[row].length(); ++column) {
+                mKeyXCoordinates[keyIndex] = left + column * KEY_WIDTH;
+                mKeyYCoordinates[keyIndex] = row * KEY_HEIGHT;
+                mKeyCodes[keyIndex] = ROWS[row].charAt(column);
+                ++keyIndex;
+            }
+        }
+    }
+
+    @Override
+    public String getHelp() {
+        return COMMAND + " [-t threadCount] [-n queryCount] [-s seed] [-g] <filename>\n"
+                + "Measures suggestion throughput and latency on a binary dictionary.\n"
+                + "Queries are split between threads, each with its own traverse session.\n"
+                + "If -g is provided, gestures are benchmarked instead of typing, which needs\n"
+                + "the native gesture library.\n"
+                + "Default is " + DEFAULT_THREAD_COUNT + " thread and " + DEFAULT_QUERY_COUNT
+                + " queries; if seed is not specified, the current time is used.";
+    }
+
+    @Override
+    public void run() throws InterruptedException, ExecutionException {
+        int threadCount = DEFAULT_THREAD_COUNT;
+        int queryCount = DEFAULT_QUERY_COUNT;
+        long seed = System.currentTimeMillis();
+        boolean isGesture = false;
+        String filename = null;
+        int i = 0;
+        while (i < mArgs.length) {
+            final String arg = mArgs[i++];
+            if ("-t".equals(arg)) {
+                threadCount = Integer.parseInt(mArgs[i++]);
+            } else if ("-n".equals(arg)) {
+                queryCount = Integer.parseInt(mArgs[i++]);
+            } else if ("-s".equals(arg)) {
+                seed = Long.parseLong(mArgs[i++]);
+            } else if ("-g".equals(arg)) {
+                isGesture = true;
+            } else if (null == filename) {
+                filename = arg;
+            } else {
+                throw new RuntimeException("Too many arguments for command " + COMMAND);
+            }
+        }
+        if (null == filename) {
+            throw new RuntimeException("Not enough arguments for command " + COMMAND);
+        }
+        if (threadCount < 1 || queryCount < threadCount) {
+            throw new RuntimeException("Need at least one thread and one query per thread");
+        }
+        if (isGesture) {
+            JniUtils.loadNativeLibrary();
+            if (!JniUtils.sHaveGestureLib) {
+                throw new RuntimeException("Can't benchmark gestures without the native gesture"
+                        + " library");
+            }
+        }
+
+        final BinaryDictOffdeviceUtils.DecoderChainSpec<File> decodedSpec =
+                BinaryDictOffdeviceUtils.getRawDictionaryOrNull(new File(filename));
+        if (null == decodedSpec) {
+            throw new RuntimeException("Does not seem to be a dictionary file " + filename);
+        }
+        final File rawFile = decodedSpec.mResult;
+        final BinaryDictionary dictionary = new BinaryDictionary(rawFile.getAbsolutePath(),
+                0 /* offset */, rawFile.length(), false /* useFullEditDistance */,
+                Locale.ROOT, Dictionary.TYPE_MAIN, false /* isUpdatable */);
+        if (!dictionary.isValidDictionary()) {
+            throw new RuntimeException("Can't open " + filename + " as a binary dictionary");
+        }
+        final ProximityInfo proximityInfo = new ProximityInfo(GRID_WIDTH, GRID_HEIGHT,
+                KEYBOARD_WIDTH, KEYBOARD_HEIGHT, KEY_WIDTH, KEY_HEIGHT, mKeyXCoordinates,
+                mKeyYCoordinates, newFilledArray(KEY_WIDTH), newFilledArray(KEY_HEIGHT),
+                mKeyCodes);
+        try {
+            final ArrayList<String> words = getTypableWords(dictionary);
+            if (words.isEmpty()) {
+                throw new RuntimeException("No word of " + filename + " can be typed on the "
+                        + "benchmark layout");
+            }
+            System.out.println("Dictionary : " + filename);
+            System.out.println("Words : " + words.size() + " most probable typable words");
+            System.out.println("Input : " + (isGesture ? "gesture" : "typing"));
+            runBenchmark(dictionary, proximityInfo.getNativeProximityInfo(), words, threadCount,
+                    queryCount / threadCount, isGesture, seed);
+        } finally {
+            proximityInfo.close();
+            dictionary.close();
+        }
+    }
+
+    private static int[] newFilledArray(final int value) {
+        final int[] array = new int[26];
+        Arrays.fill(array, value);
+        return array;
+    }
+
+    private static ArrayList<String> getTypableWords(final BinaryDictionary dictionary) {
+        final ArrayList<WordProperty> wordProperties = new ArrayList<>();
+        int token = 0;
+        do {
+            final BinaryDictionary.GetNextWordPropertyResult result =
+                    dictionary.getNextWordProperty(token);
+            final WordProperty wordProperty = result.mWordProperty;
+            if (null != wordProperty && !wordProperty.mIsNotAWord
+                    && wordProperty.mWord.length() > 1
+                    && wordProperty.mWord.matches("[a-zA-Z]+")) {
+                wordProperties.add(wordProperty);
+            }
+            token = result.mNextToken;
+        } while (0 != token);
+        Collections.sort(wordProperties, new Comparator<WordProperty>() {
+            @Override
+            public int compare(final WordProperty lhs, final WordProperty rhs) {
+                return Integer.compare(rhs.mProbabilityInfo.mProbability,
+                        lhs.mProbabilityInfo.mProbability);
+            }
+        });
+        final ArrayList<String> words = new ArrayList<>();
+        for (int i = 0; i < wordProperties.size() && i < MAX_WORD_COUNT; ++i) {
+            words.add(wordProperties.get(i).mWord.toLowerCase(Locale.ROOT));
+        }
+        return words;
+    }
+
+    private void runBenchmark(final BinaryDictionary dictionary, final long proximityInfoHandle,
+            final ArrayList<String> words, final int threadCount, final int queryCountPerThread,
+            final boolean isGesture, final long seed)
+            throws InterruptedException, ExecutionException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final ArrayList<Future<long[]>> futures = new ArrayList<>();
+        final long startTime = System.nanoTime();
+        for (int i = 0; i < threadCount; ++i) {
+            final int sessionId = i;
+            final Random random = new Random(seed + i);
+            futures.add(executor.submit(new Callable<long[]>() {
+                @Override
+                public long[] call() {
+                    return runQueries(dictionary, proximityInfoHandle, words, sessionId,
+                            queryCountPerThread, isGesture, random);
+                }
+            }));
+        }
+        final long[] latencies = new long[threadCount * queryCountPerThread];
+        for (int i = 0; i < threadCount; ++i) {
+            System.arraycopy(futures.get(i).get(), 0, latencies, i * queryCountPerThread,
+                    queryCountPerThread);
+        }
+        final long elapsedTime = System.nanoTime() - startTime;
+        executor.shutdown();
+        Arrays.sort(latencies);
+        System.out.println(String.format(Locale.ROOT, "Threads : %d", threadCount));
+        System.out.println(String.format(Locale.ROOT, "Queries : %d", latencies.length));
+        // Wall time includes the warm-up queries, so this slightly underestimates throughput.
+        System.out.println(String.format(Locale.ROOT, "Throughput : %.1f queries/s",
+                (latencies.length + threadCount * WARMUP_QUERY_COUNT_PER_THREAD)
+                        * 1000000000.0 / elapsedTime));
+        System.out.println(String.format(Locale.ROOT,
+                "Latency : p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+                getPercentileMillis(latencies, 50), getPercentileMillis(latencies, 99),
+                getPercentileMillis(latencies, 100)));
+    }
+
+    private long[] runQueries(final BinaryDictionary dictionary, final long proximityInfoHandle,
+            final ArrayList<String> words, final int sessionId, final int queryCount,
+            final boolean isGesture, final Random random) {
+        final SettingsValuesForSuggestion settingsValuesForSuggestion =
+                new SettingsValuesForSuggestion(true /* blockPotentiallyOffensive */);
+        final float[] weightOfLangModelVsSpatialModel = new float[1];
+        final long[] latencies = new long[queryCount];
+        NgramContext ngramContext = NgramContext.BEGINNING_OF_SENTENCE;
+        for (int i = -WARMUP_QUERY_COUNT_PER_THREAD; i < queryCount; ++i) {
+            final String word = words.get(random.nextInt(words.size()));
+            final ComposedData composedData = isGesture ? newGestureComposedData(word)
+                    : newTypingComposedData(word, random);
+            weightOfLangModelVsSpatialModel[0] =
+                    Dictionary.NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL;
+            final long startTime = System.nanoTime();
+            dictionary.getSuggestions(composedData, ngramContext, proximityInfoHandle,
+                    settingsValuesForSuggestion, sessionId, 1.0f /* weightForLocale */,
+                    weightOfLangModelVsSpatialModel);
+            if (i >= 0) {
+                latencies[i] = System.nanoTime() - startTime;
+            }
+            ngramContext = new NgramContext(new WordInfo(word));
+        }
+        return latencies;
+    }
+
+    private int getKeyIndex(final int code) {
+        for (int i = 0; i < mKeyCodes.length; ++i) {
+            if (mKeyCodes[i] == code) {
+                return i;
+            }
+        }
+        throw new RuntimeException("No key for " + (char)code);
+    }
+
+    private int getNearestKeyCode(final int x, final int y) {
+        int nearestCode = mKeyCodes[0];
+        long nearestDistance = Long.MAX_VALUE;
+        for (int i = 0; i < mKeyCodes.length; ++i) {
+            final long dx = x - (mKeyXCoordinates[i] + KEY_WIDTH / 2);
+            final long dy = y - (mKeyYCoordinates[i] + KEY_HEIGHT / 2);
+            final long distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearestCode = mKeyCodes[i];
+            }
+        }
+        return nearestCode;
+    }
+
+    // Taps each letter around the center of its key, and types whatever key was hit, so the
+    // typed word has realistic typos.
+    private ComposedData newTypingComposedData(final String word, final Random random) {
+        final InputPointers inputPointers = new InputPointers(word.length());
+        final StringBuilder typedWord = new StringBuilder();
+        for (int i = 0; i < word.length(); ++i) {
+            final int keyIndex = getKeyIndex(word.charAt(i));
+            final int x = clamp(mKeyXCoordinates[keyIndex] + KEY_WIDTH / 2
+                    + (int)(random.nextGaussian() * TAP_DEVIATION * KEY_WIDTH), KEYBOARD_WIDTH);
+            final int y = clamp(mKeyYCoordinates[keyIndex] + KEY_HEIGHT / 2
+                    + (int)(random.nextGaussian() * TAP_DEVIATION * KEY_WIDTH), KEYBOARD_HEIGHT);
+            inputPointers.addPointer(x, y, 0 /* pointerId */, i * TAP_INTERVAL_MILLIS);
+            typedWord.appendCodePoint(getNearestKeyCode(x, y));
+        }
+        return new ComposedData(inputPointers, false /* isBatchMode */, typedWord.toString());
+    }
+
+    // Traces a straight line from key center to key center, as InputTestsBase#gesture does.
+    private ComposedData newGestureComposedData(final String word) {
+        final InputPointers inputPointers =
+                new InputPointers(word.length() * GESTURE_STEPS_PER_KEY);
+        int keyIndex = getKeyIndex(word.charAt(0));
+        int oldX = mKeyXCoordinates[keyIndex] + KEY_WIDTH / 2;
+        int oldY = mKeyYCoordinates[keyIndex] + KEY_HEIGHT / 2;
+        int time = 0;
+        inputPointers.addPointer(oldX, oldY, 0 /* pointerId */, time);
+        for (int i = 1; i < word.length(); ++i) {
+            keyIndex = getKeyIndex(word.charAt(i));
+            final int newX = mKeyXCoordinates[keyIndex] + KEY_WIDTH / 2;
+            final int newY = mKeyYCoordinates[keyIndex] + KEY_HEIGHT / 2;
+            for (int j = 1; j <= GESTURE_STEPS_PER_KEY; ++j) {
+                time += GESTURE_STEP_INTERVAL_MILLIS;
+                inputPointers.addPointer(oldX + (newX - oldX) * j / GESTURE_STEPS_PER_KEY,
+                        oldY + (newY - oldY) * j / GESTURE_STEPS_PER_KEY, 0 /* pointerId */,
+                        time);
+            }
+            oldX = newX;
+            oldY = newY;
+        }
+        return new ComposedData(inputPointers, true /* isBatchMode */, "" /* typedWord */);
+    }
+
+    private static int clamp(final int value, final int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+    private static double getPercentileMillis(final long[] sorted, final int percentile) {
+        final int index = Math.max(0, (sorted.length * percentile + 99) / 100 - 1);
+        return sorted[index] / 1000000.0;
+    }
+}
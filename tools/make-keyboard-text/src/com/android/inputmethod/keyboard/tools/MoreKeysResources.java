@@ -40,6 +40,11 @@ public class MoreKeysResources {
     private static final String MARK_LOCALES_AND_TEXTS = "@LOCALES_AND_TEXTS@";
     private static final String EMPTY_STRING_VAR = "EMPTY";
 
+    // These must be equal to the ones in KeyboardTextsSet.
+    private static final String PREFIX_TEXT = "!text/";
+    private static final char BACKSLASH = '\\';
+    private static final int MAX_REFERENCE_INDIRECTION = 10;
+
     private final JarFile mJar;
     // String resources maps sorted by its language. The language is determined from the jar entry
     // name by calling {@link JarUtils#getLocaleFromEntryName(String)}.
@@ -161,6 +166,91 @@ public class MoreKeysResources {
         }
     }
 
+    private StringResource getResource(final StringResourceMap resMap, final String name) {
+        final StringResource res = resMap.get(name);
+        if (res != null) {
+            return res;
+        }
+        final StringResource defaultRes = mDefaultResourceMap.get(name);
+        if (defaultRes == null) {
+            throw new RuntimeException("Unknown text name=" + name + " locale=" + resMap.mLocale);
+        }
+        return defaultRes;
+    }
+
+    private static int searchTextNameEnd(final String text, final int start) {
+        final int size = text.length();
+        for (int pos = start; pos < size; pos++) {
+            final char c = text.charAt(pos);
+            // Label name should be consisted of [a-zA-Z_0-9].
+            if ((c >= 'a' && c <= 'z') || c == '_' || (c >= '0' && c <= '9')) {
+                continue;
+            }
+            return pos;
+        }
+        return size;
+    }
+
+    /**
+     * Resolves the "!text/" references in the text of the name for the locale of the resource
+     * map, the way KeyboardTextsSet used to at runtime, so that the generated tables need no
+     * reference expansion. "!string/" references are left as is, as they refer to Android string
+     * resources that can only be looked up at runtime.
+     */
+    private String resolveText(final StringResourceMap resMap, final String name) {
+        String text = getResource(resMap, name).mValue;
+        for (int level = 1; ; level++) {
+            if (level >= MAX_REFERENCE_INDIRECTION) {
+                throw new RuntimeException("Too many " + PREFIX_TEXT
+                        + " reference indirection: name=" + name + " locale=" + resMap.mLocale);
+            }
+            final String expandedText = expandTextReferences(resMap, text);
+            if (expandedText == null) {
+                break;
+            }
+            text = expandedText;
+        }
+        // The text is inserted in place of a reference at runtime. An escape character at its
+        // end would escape the character following the reference.
+        int trailingBackslashCount = 0;
+        while (trailingBackslashCount < text.length()
+                && text.charAt(text.length() - 1 - trailingBackslashCount) == BACKSLASH) {
+            trailingBackslashCount++;
+        }
+        if (trailingBackslashCount % 2 != 0) {
+            throw new RuntimeException("Text ends with an escape character: name=" + name
+                    + " locale=" + resMap.mLocale);
+        }
+        return text;
+    }
+
+    // Returns null if the text has no "!text/" reference.
+    private String expandTextReferences(final StringResourceMap resMap, final String text) {
+        StringBuilder sb = null;
+        final int size = text.length();
+        for (int pos = 0; pos < size; pos++) {
+            final char c = text.charAt(pos);
+            if (text.startsWith(PREFIX_TEXT, pos)) {
+                if (sb == null) {
+                    sb = new StringBuilder(text.substring(0, pos));
+                }
+                final int end = searchTextNameEnd(text, pos + PREFIX_TEXT.length());
+                final String name = text.substring(pos + PREFIX_TEXT.length(), end);
+                sb.append(getResource(resMap, name).mValue);
+                pos = end - 1;
+            } else if (c == BACKSLASH) {
+                if (sb != null) {
+                    // Append both escape character and escaped character.
+                    sb.append(text.substring(pos, Math.min(pos + 2, size)));
+                }
+                pos++;
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return (sb == null) ? null : sb.toString();
+    }
+
     private void dumpDefaultTexts(final PrintStream out) {
         final int outputArraySize = dumpTextsInternal(out, mDefaultResourceMap);
         mDefaultResourceMap.setOutputArraySize(outputArraySize);
@@ -207,12 +297,16 @@ public class MoreKeysResources {
         for (int index = 0; index < namesCount; index++) {
             final String name = mSortedResourceNames[index];
             final StringResource res = resMap.get(name);
-            if (res != null) {
+            final String text = resolveText(resMap, name);
+            // A text that is not defined for the locale is still needed when it refers to a text
+            // that is.
+            if (res != null || (resMap != mDefaultResourceMap
+                    && !text.equals(resolveText(mDefaultResourceMap, name)))) {
                 // TODO: Check whether the resource value is equal to the default.
-                if (res.mComment != null) {
+                if (res != null && res.mComment != null) {
                     formatter.outCommentLines(addPrefix("        // ", res. mComment));
                 }
-                final String escaped = escapeNonAscii(res.mValue);
+                final String escaped = escapeNonAscii(text);
                 if (escaped.length() == 0) {
                     formatter.outElement(EMPTY_STRING_VAR + ",");
                 } else {